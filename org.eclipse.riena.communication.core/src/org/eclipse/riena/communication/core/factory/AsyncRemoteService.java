@@ -0,0 +1,62 @@
+/*******************************************************************************
+ * Copyright (c) 2007, 2014 compeople AG and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    compeople AG - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.riena.communication.core.factory;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks an interface as the asynchronous variant of a remote service
+ * interface. A remote service proxy for such an interface calls the remote
+ * service given by {@link #value()}, e.g.:
+ *
+ * <pre>
+ * &#064;AsyncRemoteService(ICustomerService.class)
+ * public interface ICustomerServiceAsync {
+ *
+ * 	CompletableFuture&lt;Customer&gt; findCustomer(String id);
+ *
+ * 	CompletableFuture&lt;Void&gt; storeCustomer(Customer customer);
+ * }
+ *
+ * Register.remoteProxy(ICustomerServiceAsync.class).usingUrl(url).andStart(context);
+ * </pre>
+ *
+ * Each method of the asynchronous variant is mapped to the method of the
+ * remote service interface with the same parameter types and the same name
+ * (or the same name without an "Async" suffix). Methods returning a
+ * {@code CompletableFuture} (or a {@code CompletionStage} or {@code Future})
+ * return immediately; the remote service call runs on a bounded executor. The
+ * call hooks, the call interceptors and the message context of the call are
+ * the same as for a synchronous call; the {@code Subject} and the context
+ * class loader of the calling thread are passed to the executing thread. All
+ * other methods are called synchronously.
+ * <p>
+ * The size of the executor can be configured with the system properties
+ * {@code riena.communication.async.threads} (default 8) and
+ * {@code riena.communication.async.queuesize} (default 1000). If the queue is
+ * full the returned future completes exceptionally with a
+ * {@code RemoteFailure}.
+ *
+ * @since 6.2
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface AsyncRemoteService {
+
+	/**
+	 * @return the remote service interface
+	 */
+	Class<?> value();
+
+}
@@ -0,0 +1,64 @@
+/*******************************************************************************
+ * Copyright (c) 2007, 2014 compeople AG and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    compeople AG - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.riena.communication.core.factory;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a method of a remote service interface as idempotent, i.e. its result
+ * only depends on its arguments and the calling principal. The remote service
+ * proxy answers repeated calls of such a method from a client-side cache
+ * instead of calling the remote service, e.g.:
+ *
+ * <pre>
+ * public interface ICountryService {
+ *
+ * 	&#064;CacheableResult(timeToLive = 3600000, maximumSize = 10)
+ * 	List&lt;Country&gt; getCountries(Locale locale);
+ * }
+ * </pre>
+ *
+ * The results are cached per remote service interface, method, URL, calling
+ * principals and arguments. The calling principals are the principals of the
+ * subject of the {@link ICurrentSubjectProvider} service (i.e. of the
+ * {@code ISubjectHolder}) or, if there is none, of the {@code Subject} of the
+ * calling thread's access control context. The arguments are compared by their
+ * serialized form, so they need not implement {@code equals()}. Exceptions are
+ * never cached.
+ * <p>
+ * The cache sits between the call interceptors and the call hooks: the call
+ * interceptors are called for every call, the call hooks only for the calls
+ * that go to the remote service.
+ * <p>
+ * The results are cached in their serialized form, so every caller gets its
+ * own copy, just as from the remote service. Cached results can be discarded
+ * with {@link RemoteCallCache}.
+ *
+ * @since 6.2
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface CacheableResult {
+
+	/**
+	 * @return the time in milliseconds after which a cached result expires
+	 */
+	long timeToLive();
+
+	/**
+	 * @return the maximum number of results cached for the method
+	 */
+	int maximumSize() default 100;
+
+}
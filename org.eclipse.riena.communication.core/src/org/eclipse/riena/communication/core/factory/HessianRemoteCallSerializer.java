@@ -0,0 +1,65 @@
+/*******************************************************************************
+ * Copyright (c) 2007, 2014 compeople AG and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    compeople AG - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.riena.communication.core.factory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import com.caucho.hessian.io.Hessian2Input;
+import com.caucho.hessian.io.Hessian2Output;
+import com.caucho.hessian.io.SerializerFactory;
+
+import org.eclipse.core.runtime.Assert;
+
+/**
+ * An {@code IRemoteCallSerializer} that uses the hessian serialization with
+ * the given {@code SerializerFactory}.
+ *
+ * @since 6.2
+ */
+public class HessianRemoteCallSerializer implements IRemoteCallSerializer {
+
+	private final SerializerFactory serializerFactory;
+
+	/**
+	 * Create the serializer.
+	 *
+	 * @param serializerFactory
+	 *            the factory of the hessian serializers and deserializers
+	 */
+	public HessianRemoteCallSerializer(final SerializerFactory serializerFactory) {
+		Assert.isNotNull(serializerFactory, "serializerFactory must not be null"); //$NON-NLS-1$
+		this.serializerFactory = serializerFactory;
+	}
+
+	public byte[] serialize(final Object[] objects) throws IOException {
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		final Hessian2Output out = new Hessian2Output(bytes);
+		out.setSerializerFactory(serializerFactory);
+		for (final Object object : objects) {
+			out.writeObject(object);
+		}
+		out.close();
+		return bytes.toByteArray();
+	}
+
+	public Object deserialize(final byte[] bytes, final Class<?> type) throws IOException {
+		final Hessian2Input in = new Hessian2Input(new ByteArrayInputStream(bytes));
+		in.setSerializerFactory(serializerFactory);
+		try {
+			return in.readObject(type);
+		} finally {
+			in.close();
+		}
+	}
+
+}
@@ -0,0 +1,31 @@
+/*******************************************************************************
+ * Copyright (c) 2007, 2014 compeople AG and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    compeople AG - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.riena.communication.core.factory;
+
+import javax.security.auth.Subject;
+
+/**
+ * Provides the subject of the current user, e.g. the logged on user of the
+ * client. The results of methods annotated with {@link CacheableResult} are
+ * cached per principals of this subject.
+ * <p>
+ * An implementation is registered as OSGi service by the security bundles.
+ *
+ * @since 6.2
+ */
+public interface ICurrentSubjectProvider {
+
+	/**
+	 * @return the subject of the current user or {@code null} if there is none
+	 */
+	Subject getCurrentSubject();
+
+}
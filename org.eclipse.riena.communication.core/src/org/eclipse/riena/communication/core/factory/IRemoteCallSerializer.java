@@ -0,0 +1,51 @@
+/*******************************************************************************
+ * Copyright (c) 2007, 2014 compeople AG and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    compeople AG - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.riena.communication.core.factory;
+
+import java.io.IOException;
+
+/**
+ * Serializes the arguments and results of remote service calls like the
+ * transport does, i.e. including the types the transport has special
+ * serializers for. The results of methods annotated with
+ * {@link CacheableResult} are cached and copied with it.
+ * <p>
+ * An implementation is registered as OSGi service by the hessian bundle.
+ *
+ * @since 6.2
+ */
+public interface IRemoteCallSerializer {
+
+	/**
+	 * Serialize the given objects one after another.
+	 *
+	 * @param objects
+	 *            the objects
+	 * @return the serialized objects
+	 * @throws IOException
+	 *             if an object can not be serialized
+	 */
+	byte[] serialize(Object[] objects) throws IOException;
+
+	/**
+	 * Deserialize the first object of the given bytes.
+	 *
+	 * @param bytes
+	 *            the serialized objects
+	 * @param type
+	 *            the expected type of the object
+	 * @return the object
+	 * @throws IOException
+	 *             if the object can not be deserialized
+	 */
+	Object deserialize(byte[] bytes, Class<?> type) throws IOException;
+
+}
@@ -0,0 +1,62 @@
+/*******************************************************************************
+ * Copyright (c) 2007, 2014 compeople AG and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    compeople AG - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.riena.communication.core.factory;
+
+import org.eclipse.riena.internal.communication.core.factory.CallResultCaches;
+
+/**
+ * Discards the results of remote service calls that have been cached for
+ * methods annotated with {@link CacheableResult}, e.g. after the remote data
+ * has been changed or after the user has changed.
+ * <p>
+ * Calls that are running while their results are invalidated do not put their
+ * (possibly outdated) results into the cache.
+ *
+ * @since 6.2
+ */
+public final class RemoteCallCache {
+
+	private RemoteCallCache() {
+		// utility
+	}
+
+	/**
+	 * Discard the cached results of all methods of the given remote service
+	 * interface.
+	 *
+	 * @param serviceInterface
+	 *            the remote service interface
+	 */
+	public static void invalidate(final Class<?> serviceInterface) {
+		CallResultCaches.invalidate(serviceInterface, null);
+	}
+
+	/**
+	 * Discard the cached results of all methods with the given name of the
+	 * given remote service interface.
+	 *
+	 * @param serviceInterface
+	 *            the remote service interface
+	 * @param methodName
+	 *            the name of the method
+	 */
+	public static void invalidate(final Class<?> serviceInterface, final String methodName) {
+		CallResultCaches.invalidate(serviceInterface, methodName);
+	}
+
+	/**
+	 * Discard all cached results.
+	 */
+	public static void invalidateAll() {
+		CallResultCaches.invalidateAll();
+	}
+
+}
@@ -39,6 +39,9 @@ import org.eclipse.riena.core.util.Orderer;
 import org.eclipse.riena.core.wire.InjectExtension;
 import org.eclipse.riena.core.wire.InjectService;
 import org.eclipse.riena.internal.communication.core.Activator;
+import org.eclipse.riena.internal.communication.core.factory.AsyncRemoteCallExecutor;
+import org.eclipse.riena.internal.communication.core.factory.AsyncServiceProxy;
+import org.eclipse.riena.internal.communication.core.factory.CachingServiceProxy;
 import org.eclipse.riena.internal.communication.core.factory.CallHooksProxy;
 import org.eclipse.riena.internal.communication.core.factory.ICallInterceptorExtension;
 import org.eclipse.riena.internal.communication.core.factory.IRemoteServiceFactoryExtension;
@@ -60,6 +63,12 @@ import org.eclipse.riena.internal.communication.core.factory.IRemoteServiceFacto
  * This RemoteServiceFactory does nothing if no protocol specific
  * IRemoteServiceFactory is available.
  * <p>
+ * For interfaces annotated with {@link AsyncRemoteService} the proxy calls the
+ * remote service asynchronously.
+ * <p>
+ * The results of methods annotated with {@link CacheableResult} are answered
+ * from a client-side cache as long as they are valid.
+ * <p>
  * <b>NOTE</b><br>
  * The Riena communication bundle content includes generic class loading and
  * object instantiation or delegates this behavior to other Riena communication
@@ -234,16 +243,39 @@ public class RemoteServiceFactory {
 		}
 		LOGGER.log(LogService.LOG_INFO, "found protocol [" + rsd.getProtocol() + "] " + factory); //$NON-NLS-1$ //$NON-NLS-2$
 
+		// an asynchronous variant delegates to a proxy of the remote service interface
+		final Class<?> asyncInterface = rsd.getServiceInterfaceClass();
+		final Class<?> serviceInterface = AsyncServiceProxy.getServiceInterface(asyncInterface);
+		final RemoteServiceDescription serviceRsd = serviceInterface == null ? rsd : new RemoteServiceDescription(
+				serviceInterface, rsd.getURL(), rsd.getProtocol(), rsd.getBundle());
+
 		// ask factory to create a serviceInstance for me, and intercept the
 		// calls with a CallHooksProxy instance
-		final IRemoteServiceReference rsr = factory.createProxy(rsd);
+		final IRemoteServiceReference rsr = factory.createProxy(serviceRsd);
 		final CallHooksProxy callHooksProxy = new CallHooksProxy(rsr.getServiceInstance());
-		callHooksProxy.setRemoteServiceDescription(rsd);
+		callHooksProxy.setRemoteServiceDescription(serviceRsd);
 		callHooksProxy.setMessageContextAccessor(factory.getMessageContextAccessor());
-		final Object serviceProxy = Proxy.newProxyInstance(rsd.getServiceInterfaceClass().getClassLoader(),
-				new Class[] { rsd.getServiceInterfaceClass() }, callHooksProxy);
-		rsr.setServiceInstance(createInterceptorChain(rsd.getServiceInterfaceClass(), serviceProxy));
-		return rsr;
+		final Object serviceProxy = Proxy.newProxyInstance(serviceRsd.getServiceInterfaceClass().getClassLoader(),
+				new Class[] { serviceRsd.getServiceInterfaceClass() }, callHooksProxy);
+		rsr.setServiceInstance(createInterceptorChain(serviceRsd.getServiceInterfaceClass(),
+				createCachingProxy(serviceRsd, serviceProxy)));
+		if (serviceInterface == null) {
+			return rsr;
+		}
+		final RemoteServiceReference asyncRsr = new RemoteServiceReference(rsd);
+		asyncRsr.setServiceInstance(Proxy.newProxyInstance(asyncInterface.getClassLoader(),
+				new Class[] { asyncInterface }, new AsyncServiceProxy(asyncInterface, rsr.getServiceInstance(),
+						AsyncRemoteCallExecutor.get())));
+		return asyncRsr;
+	}
+
+	private Object createCachingProxy(final RemoteServiceDescription rsd, final Object serviceProxy) {
+		final Class<?> serviceInterface = rsd.getServiceInterfaceClass();
+		if (!CachingServiceProxy.hasCacheableResults(serviceInterface)) {
+			return serviceProxy;
+		}
+		return Proxy.newProxyInstance(serviceInterface.getClassLoader(), new Class[] { serviceInterface },
+				new CachingServiceProxy(serviceInterface, rsd.getURL(), serviceProxy));
 	}
 
 	private Object createInterceptorChain(final Class<?> serviceInterface, final Object serviceProxy) {
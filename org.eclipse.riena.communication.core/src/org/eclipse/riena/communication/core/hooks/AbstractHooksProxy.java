@@ -33,7 +33,26 @@ public abstract class AbstractHooksProxy implements InvocationHandler {
 	}
 
 	public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
-		final Subject subject = getSubject();
+		return invokeAs(getSubject(), method, args);
+	}
+
+	/**
+	 * Invoke the method on the proxied instance, as the given subject if it is
+	 * not {@code null}.
+	 * 
+	 * @param subject
+	 *            the subject of this call or {@code null}
+	 * @param method
+	 *            the method
+	 * @param args
+	 *            the arguments
+	 * @return the result of the call
+	 * @throws Throwable
+	 *             {@code InvocationTargetException} if the proxied instance
+	 *             threw an exception
+	 * @since 6.2
+	 */
+	protected Object invokeAs(final Subject subject, final Method method, final Object[] args) throws Throwable {
 		if (subject == null) {
 			return invoke(method, args);
 		} else {
@@ -31,7 +31,7 @@ public class CallContext {
 
 	private final RemoteServiceDescription rsd;
 	private final String methodName;
-	private HashMap<String, String> properties;
+	private HashMap<String, Object> properties;
 	private final ICallMessageContext messageContext;
 	private boolean hasRemoteFailure;
 
@@ -104,20 +104,46 @@ public class CallContext {
 	 *            value for that key
 	 */
 	public void setProperty(final String name, final String value) {
+		setObjectProperty(name, value);
+	}
+
+	/**
+	 * Getter access to key/value property store in setProperty
+	 * 
+	 * @param name
+	 * @return
+	 */
+	public String getProperty(final String name) {
+		final Object value = getObjectProperty(name);
+		return value == null ? null : value.toString();
+	}
+
+	/**
+	 * Like {@link #setProperty(String, String)} but for values of any type,
+	 * e.g. to store numbers without converting them to strings.
+	 * 
+	 * @param name
+	 *            key
+	 * @param value
+	 *            value for that key
+	 * @since 6.2
+	 */
+	public void setObjectProperty(final String name, final Object value) {
 		if (properties == null) {
-			properties = new HashMap<String, String>();
+			properties = new HashMap<String, Object>();
 		}
 		properties.put(name, value);
-		return;
 	}
 
 	/**
-	 * Getter access to key/value property store in setProperty
+	 * Getter access to key/value property store in setObjectProperty or
+	 * setProperty
 	 * 
 	 * @param name
 	 * @return
+	 * @since 6.2
 	 */
-	public String getProperty(final String name) {
+	public Object getObjectProperty(final String name) {
 		if (properties == null) {
 			return null;
 		}
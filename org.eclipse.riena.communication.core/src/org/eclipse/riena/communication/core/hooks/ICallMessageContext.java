@@ -70,8 +70,9 @@ public interface ICallMessageContext {
 
 	/**
 	 * Is called for every n bytes that are read (bytes returned from the
-	 * server). Its up to the implementation to decide what 'n' is. Currently
-	 * its 512 bytes. The required that it also reports the last block of data.
+	 * server). Its up to the implementation to decide what 'n' is and to
+	 * coalesce the events for the progress monitors by byte count and time.
+	 * The required that it also reports the last block of data.
 	 * So usually every call to fireReadEvent will report a fixed amount like
 	 * 512 and only the last event in one call then has the rest number of
 	 * bytes.
@@ -82,8 +83,9 @@ public interface ICallMessageContext {
 
 	/**
 	 * Is called for every n bytes that written (bytes written to the server).
-	 * Its up to the implementation to decide what 'n' is. Currently its 512
-	 * bytes. The required that it also reports the last block of data. So
+	 * Its up to the implementation to decide what 'n' is and to coalesce the
+	 * events for the progress monitors by byte count and time. The required
+	 * that it also reports the last block of data. So
 	 * usually every call to fireWriteEvent will report a fixed amount like 512
 	 * and only the last event in one call then has the rest number of bytes.
 	 * 
@@ -8,24 +8,25 @@
  * Contributors:
  *    compeople AG - initial API and implementation
  *******************************************************************************/
-package org.eclipse.riena.communication.core.zipsupport;
+package org.eclipse.riena.communication.core.metrics;
 
-import java.util.LinkedList;
-
-class BufferEntryManager {
-
-	private static LinkedList<BufferEntry> cachedBuffers = new LinkedList<BufferEntry>();
+/**
+ * Optionally implemented by an {@code ICallMessageContext} that knows the
+ * payload sizes of its call. The call metrics hook records them after the
+ * call.
+ *
+ * @since 6.2
+ */
+public interface IPayloadSizes {
 
-	static synchronized BufferEntry getBuffer() {
-		if (cachedBuffers.size() == 0) {
-			return new BufferEntry();
-		} else {
-			return cachedBuffers.removeLast();
-		}
-	}
+	/**
+	 * @return the size of the request in bytes or -1 if unknown
+	 */
+	long getRequestSize();
 
-	synchronized static void putBuffer(final BufferEntry entry) {
-		cachedBuffers.addLast(entry);
-	}
+	/**
+	 * @return the size of the response in bytes or -1 if unknown
+	 */
+	long getResponseSize();
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,197 @@
+/*******************************************************************************
+ * Copyright (c) 2007, 2014 compeople AG and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    compeople AG - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.riena.communication.core.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The metrics of a single remote service method: the number of calls and
+ * failures, a latency histogram and the payload sizes.
+ * <p>
+ * All counters are lock-free; recording a call neither blocks nor allocates.
+ * The latency histogram has exponential buckets (see
+ * {@link #getLatencyHistogram()}), so percentiles are reported as the upper
+ * bound of their bucket, i.e. with a precision of a factor of two.
+ *
+ * @since 6.2
+ */
+public final class MethodMetrics implements MethodMetricsMXBean {
+
+	/** The number of buckets of the latency histogram */
+	public static final int LATENCY_BUCKETS = 32;
+
+	private final String serviceInterfaceName;
+	private final String methodName;
+	private final LongAdder calls = new LongAdder();
+	private final LongAdder failures = new LongAdder();
+	private final LongAdder latencyNanos = new LongAdder();
+	private final AtomicLong maxLatencyNanos = new AtomicLong();
+	private final LongAdder requestBytes = new LongAdder();
+	private final LongAdder responseBytes = new LongAdder();
+	private final LongAdder[] histogram = new LongAdder[LATENCY_BUCKETS];
+
+	MethodMetrics(final String serviceInterfaceName, final String methodName) {
+		this.serviceInterfaceName = serviceInterfaceName;
+		this.methodName = methodName;
+		for (int i = 0; i < histogram.length; i++) {
+			histogram[i] = new LongAdder();
+		}
+	}
+
+	/**
+	 * Record a call.
+	 *
+	 * @param nanos
+	 *            the latency of the call in nanoseconds
+	 * @param failed
+	 *            {@code true} if the call failed
+	 */
+	public void recordCall(final long nanos, final boolean failed) {
+		calls.increment();
+		if (failed) {
+			failures.increment();
+		}
+		latencyNanos.add(nanos);
+		histogram[getBucket(nanos)].increment();
+		long max = maxLatencyNanos.get();
+		while (nanos > max && !maxLatencyNanos.compareAndSet(max, nanos)) {
+			max = maxLatencyNanos.get();
+		}
+	}
+
+	/**
+	 * Record the payload sizes of a call. Negative (i.e. unknown) sizes are
+	 * ignored.
+	 *
+	 * @param requestSize
+	 *            the size of the request in bytes
+	 * @param responseSize
+	 *            the size of the response in bytes
+	 */
+	public void recordSizes(final long requestSize, final long responseSize) {
+		if (requestSize > 0) {
+			requestBytes.add(requestSize);
+		}
+		if (responseSize > 0) {
+			responseBytes.add(responseSize);
+		}
+	}
+
+	private static int getBucket(final long nanos) {
+		final long micros = TimeUnit.NANOSECONDS.toMicros(nanos);
+		return Math.min(Long.SIZE - Long.numberOfLeadingZeros(micros), LATENCY_BUCKETS - 1);
+	}
+
+	public String getServiceInterfaceName() {
+		return serviceInterfaceName;
+	}
+
+	public String getMethodName() {
+		return methodName;
+	}
+
+	public long getCallCount() {
+		return calls.sum();
+	}
+
+	public long getFailureCount() {
+		return failures.sum();
+	}
+
+	public long getMeanLatencyMicros() {
+		final long count = calls.sum();
+		return count == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(latencyNanos.sum() / count);
+	}
+
+	public long getMaxLatencyMicros() {
+		return TimeUnit.NANOSECONDS.toMicros(maxLatencyNanos.get());
+	}
+
+	public long getMedianLatencyMicros() {
+		return getLatencyPercentileMicros(50);
+	}
+
+	public long getPercentile99LatencyMicros() {
+		return getLatencyPercentileMicros(99);
+	}
+
+	/**
+	 * Get an estimation of a percentile of the latency.
+	 *
+	 * @param percentile
+	 *            the percentile (0-100)
+	 * @return the upper bound of the bucket that contains the percentile in
+	 *         microseconds or 0 if no call has been recorded; for the last
+	 *         bucket the maximum latency
+	 */
+	public long getLatencyPercentileMicros(final double percentile) {
+		final long[] counts = getLatencyHistogram();
+		long total = 0;
+		for (final long count : counts) {
+			total += count;
+		}
+		if (total == 0) {
+			return 0;
+		}
+		final long rank = (long) Math.ceil(total * Math.max(0, Math.min(100, percentile)) / 100);
+		long sum = 0;
+		for (int i = 0; i < counts.length - 1; i++) {
+			sum += counts[i];
+			if (sum >= rank && sum > 0) {
+				return 1L << i;
+			}
+		}
+		return getMaxLatencyMicros();
+	}
+
+	public long[] getLatencyHistogram() {
+		final long[] counts = new long[histogram.length];
+		for (int i = 0; i < histogram.length; i++) {
+			counts[i] = histogram[i].sum();
+		}
+		return counts;
+	}
+
+	public long getRequestBytes() {
+		return requestBytes.sum();
+	}
+
+	public long getResponseBytes() {
+		return responseBytes.sum();
+	}
+
+	/**
+	 * Reset all counters. Calls that are recorded concurrently may be partly
+	 * lost.
+	 */
+	public void reset() {
+		calls.reset();
+		failures.reset();
+		latencyNanos.reset();
+		maxLatencyNanos.set(0);
+		requestBytes.reset();
+		responseBytes.reset();
+		for (final LongAdder bucket : histogram) {
+			bucket.reset();
+		}
+	}
+
+	@Override
+	public String toString() {
+		return serviceInterfaceName + "#" + methodName + " [calls=" + getCallCount() + ", failures=" //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+				+ getFailureCount() + ", meanMicros=" + getMeanLatencyMicros() + ", maxMicros=" //$NON-NLS-1$ //$NON-NLS-2$
+				+ getMaxLatencyMicros() + ", requestBytes=" + getRequestBytes() + ", responseBytes=" //$NON-NLS-1$ //$NON-NLS-2$
+				+ getResponseBytes() + "]"; //$NON-NLS-1$
+	}
+
+}
@@ -0,0 +1,83 @@
+/*******************************************************************************
+ * Copyright (c) 2007, 2014 compeople AG and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    compeople AG - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.riena.communication.core.metrics;
+
+/**
+ * The JMX view of the {@link MethodMetrics} of a single remote service method.
+ *
+ * @since 6.2
+ */
+public interface MethodMetricsMXBean {
+
+	/**
+	 * @return the name of the remote service interface
+	 */
+	String getServiceInterfaceName();
+
+	/**
+	 * @return the name of the method
+	 */
+	String getMethodName();
+
+	/**
+	 * @return the number of calls
+	 */
+	long getCallCount();
+
+	/**
+	 * @return the number of failed calls
+	 */
+	long getFailureCount();
+
+	/**
+	 * @return the mean latency in microseconds
+	 */
+	long getMeanLatencyMicros();
+
+	/**
+	 * @return the maximum latency in microseconds
+	 */
+	long getMaxLatencyMicros();
+
+	/**
+	 * @return the upper bound of the median latency in microseconds
+	 */
+	long getMedianLatencyMicros();
+
+	/**
+	 * @return the upper bound of the 99th percentile of the latency in
+	 *         microseconds
+	 */
+	long getPercentile99LatencyMicros();
+
+	/**
+	 * @return the number of calls per latency bucket; bucket {@code i} counts
+	 *         the calls that took less than 2<sup>i</sup> microseconds (and at
+	 *         least 2<sup>i-1</sup>), the last bucket all slower calls
+	 */
+	long[] getLatencyHistogram();
+
+	/**
+	 * @return the total size of the requests in bytes
+	 */
+	long getRequestBytes();
+
+	/**
+	 * @return the total size of the responses in bytes
+	 */
+	long getResponseBytes();
+
+	/**
+	 * Reset all counters.
+	 */
+	void reset();
+
+}
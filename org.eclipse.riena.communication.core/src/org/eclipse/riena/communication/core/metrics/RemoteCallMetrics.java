@@ -0,0 +1,150 @@
+/*******************************************************************************
+ * Copyright (c) 2007, 2014 compeople AG and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    compeople AG - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.riena.communication.core.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.eclipse.riena.internal.communication.core.metrics.MethodMetricsMBeans;
+
+/**
+ * Holds the {@link MethodMetrics} of the remote service methods, either of the
+ * calls of the client or of the services published by the server.
+ * <p>
+ * The metrics are recorded by a call hook on the client and by a service hook
+ * on the server. Each {@code MethodMetrics} is registered as MXBean with the
+ * platform MBean server with the object name
+ * {@code org.eclipse.riena.communication:type=RemoteCallMetrics,side=<client|service>,service=<interface>,method=<method>}
+ * (unless the system property {@code riena.communication.metrics.jmx} is
+ * {@code false}). Other reporters can read the metrics with
+ * {@link #getAll()}.
+ * <p>
+ * Recording is switched off by default since it counts the bytes of every
+ * request and response; it is switched on with the system property
+ * {@code riena.communication.metrics} set to {@code true}.
+ *
+ * @since 6.2
+ */
+public final class RemoteCallMetrics {
+
+	/**
+	 * System property that switches the recording of the metrics on.
+	 */
+	public static final String RIENA_METRICS_PROPERTY = "riena.communication.metrics"; //$NON-NLS-1$
+
+	/**
+	 * System property that switches the registration of the metrics as
+	 * MXBeans off.
+	 */
+	public static final String RIENA_METRICS_JMX_PROPERTY = "riena.communication.metrics.jmx"; //$NON-NLS-1$
+
+	/**
+	 * Name of the servlet request attribute in which the service hook puts the
+	 * {@code MethodMetrics} of the called service method, so that the
+	 * publisher can record the payload sizes after the response has been
+	 * written.
+	 */
+	public static final String METHOD_METRICS_ATTRIBUTE = "org.eclipse.riena.communication.metrics.MethodMetrics"; //$NON-NLS-1$
+
+	private static final boolean ENABLED = Boolean.getBoolean(RIENA_METRICS_PROPERTY);
+
+	private static final RemoteCallMetrics CALL_METRICS = new RemoteCallMetrics("client"); //$NON-NLS-1$
+	private static final RemoteCallMetrics SERVICE_METRICS = new RemoteCallMetrics("service"); //$NON-NLS-1$
+
+	private final String side;
+	private final ConcurrentMap<String, ConcurrentMap<String, MethodMetrics>> metrics = new ConcurrentHashMap<String, ConcurrentMap<String, MethodMetrics>>();
+
+	private RemoteCallMetrics(final String side) {
+		this.side = side;
+	}
+
+	/**
+	 * @return the metrics of the remote service calls of this client
+	 */
+	public static RemoteCallMetrics getCallMetrics() {
+		return CALL_METRICS;
+	}
+
+	/**
+	 * @return the metrics of the remote services published by this server
+	 */
+	public static RemoteCallMetrics getServiceMetrics() {
+		return SERVICE_METRICS;
+	}
+
+	/**
+	 * @return {@code true} if the recording has been switched on
+	 */
+	public static boolean isEnabled() {
+		return ENABLED;
+	}
+
+	/**
+	 * @return "client" or "service"
+	 */
+	public String getSide() {
+		return side;
+	}
+
+	/**
+	 * Get the metrics of a method; they will be created on demand.
+	 *
+	 * @param serviceInterfaceName
+	 *            the name of the remote service interface
+	 * @param methodName
+	 *            the name of the method
+	 * @return the metrics
+	 */
+	public MethodMetrics get(final String serviceInterfaceName, final String methodName) {
+		ConcurrentMap<String, MethodMetrics> methodMetrics = metrics.get(serviceInterfaceName);
+		if (methodMetrics == null) {
+			methodMetrics = new ConcurrentHashMap<String, MethodMetrics>();
+			final ConcurrentMap<String, MethodMetrics> existing = metrics.putIfAbsent(serviceInterfaceName,
+					methodMetrics);
+			if (existing != null) {
+				methodMetrics = existing;
+			}
+		}
+		MethodMetrics result = methodMetrics.get(methodName);
+		if (result == null) {
+			result = new MethodMetrics(serviceInterfaceName, methodName);
+			final MethodMetrics existing = methodMetrics.putIfAbsent(methodName, result);
+			if (existing != null) {
+				return existing;
+			}
+			MethodMetricsMBeans.register(side, result);
+		}
+		return result;
+	}
+
+	/**
+	 * @return the metrics of all methods that have been called
+	 */
+	public List<MethodMetrics> getAll() {
+		final List<MethodMetrics> result = new ArrayList<MethodMetrics>();
+		for (final ConcurrentMap<String, MethodMetrics> methodMetrics : metrics.values()) {
+			result.addAll(methodMetrics.values());
+		}
+		return result;
+	}
+
+	/**
+	 * Reset the counters of all methods.
+	 */
+	public void reset() {
+		for (final MethodMetrics methodMetrics : getAll()) {
+			methodMetrics.reset();
+		}
+	}
+
+}
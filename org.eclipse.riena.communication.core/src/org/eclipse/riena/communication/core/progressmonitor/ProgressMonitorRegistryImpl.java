@@ -15,16 +15,24 @@ import java.lang.reflect.Proxy;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.eclipse.riena.internal.communication.core.factory.CallHooksProxy;
 
 /**
  * Maintains the progressMonitors that are interested in watched remoteservice
  * traffic
+ * <p>
+ * The {@code IRemoteProgressMonitorList} of a call proxy is created once when
+ * its progress monitors change and then shared by all remote calls, so that
+ * looking up the progress monitors for a call does not copy anything.
  */
 public class ProgressMonitorRegistryImpl implements IRemoteProgressMonitorRegistry {
 
 	private final HashMap<Object, List<IRemoteProgressMonitor>> remoteProgressMonitors = new HashMap<Object, List<IRemoteProgressMonitor>>();
+	private final ConcurrentMap<Object, IRemoteProgressMonitorList> remoteProgressMonitorLists = new ConcurrentHashMap<Object, IRemoteProgressMonitorList>();
 
 	/*
 	 * (non-Javadoc)
@@ -46,12 +54,15 @@ public class ProgressMonitorRegistryImpl implements IRemoteProgressMonitorRegist
 				callProxy = ((CallHooksProxy) invocationHandler).getCallProxy();
 			}
 		}
-		List<IRemoteProgressMonitor> pmList = remoteProgressMonitors.get(callProxy);
-		if (pmList == null) {
-			pmList = new ArrayList<IRemoteProgressMonitor>();
-			remoteProgressMonitors.put(callProxy, pmList);
+		synchronized (remoteProgressMonitors) {
+			List<IRemoteProgressMonitor> pmList = remoteProgressMonitors.get(callProxy);
+			if (pmList == null) {
+				pmList = new ArrayList<IRemoteProgressMonitor>();
+				remoteProgressMonitors.put(callProxy, pmList);
+			}
+			pmList.add(monitor);
+			publish(callProxy, pmList);
 		}
-		pmList.add(monitor);
 		// TODO monitorType is ignored
 	}
 
@@ -63,13 +74,7 @@ public class ProgressMonitorRegistryImpl implements IRemoteProgressMonitorRegist
 	 * #getProgressMonitors(java.lang.Object)
 	 */
 	public IRemoteProgressMonitorList getProgressMonitors(final Object callProxy) {
-		// callProxy.equals(new Object());
-		final List<IRemoteProgressMonitor> pmList = remoteProgressMonitors.get(callProxy);
-		if (pmList == null) {
-			return null;
-			//			return new ProgressMonitorListImpl(new IRemoteProgressMonitor[0]);
-		}
-		return new ProgressMonitorListImpl(pmList.toArray(new IRemoteProgressMonitor[pmList.size()]));
+		return remoteProgressMonitorLists.get(callProxy);
 	}
 
 	/*
@@ -80,7 +85,10 @@ public class ProgressMonitorRegistryImpl implements IRemoteProgressMonitorRegist
 	 * #removeAllProgressMonitors(java.lang.Object)
 	 */
 	public void removeAllProgressMonitors(final Object callProxy) {
-		remoteProgressMonitors.remove(callProxy);
+		synchronized (remoteProgressMonitors) {
+			remoteProgressMonitors.remove(callProxy);
+			remoteProgressMonitorLists.remove(callProxy);
+		}
 	}
 
 	/*
@@ -93,9 +101,17 @@ public class ProgressMonitorRegistryImpl implements IRemoteProgressMonitorRegist
 	 * .IProgressMonitor)
 	 */
 	public void removeProgressMonitor(final IRemoteProgressMonitor monitor) {
-		for (final List<IRemoteProgressMonitor> pmList : remoteProgressMonitors.values()) {
-			// I dont need to know if there is actually one in the list
-			pmList.remove(monitor);
+		synchronized (remoteProgressMonitors) {
+			for (final Map.Entry<Object, List<IRemoteProgressMonitor>> entry : remoteProgressMonitors.entrySet()) {
+				if (entry.getValue().remove(monitor)) {
+					publish(entry.getKey(), entry.getValue());
+				}
+			}
 		}
 	}
+
+	private void publish(final Object callProxy, final List<IRemoteProgressMonitor> pmList) {
+		remoteProgressMonitorLists.put(callProxy,
+				new ProgressMonitorListImpl(pmList.toArray(new IRemoteProgressMonitor[pmList.size()])));
+	}
 }
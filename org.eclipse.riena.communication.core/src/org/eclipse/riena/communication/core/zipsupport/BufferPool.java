@@ -0,0 +1,216 @@
+/*******************************************************************************
+ * Copyright (c) 2007, 2014 compeople AG and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    compeople AG - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.riena.communication.core.zipsupport;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A pool of byte buffers for the stream buffers of the communication.
+ * <p>
+ * Buffers are handed out in size classes (8KB, 32KB, 128KB and 256KB); a
+ * request is served with a buffer of the smallest size class that is large
+ * enough. Requests larger than the largest size class are not pooled.
+ * <p>
+ * Each thread keeps one released buffer of each of the small size classes
+ * (8KB and 32KB) for itself, so that a thread which repeatedly takes and
+ * releases a buffer does not touch any shared state. All other released
+ * buffers go to a shared, lock-free queue per size class. At most
+ * {@code riena.communication.bufferpool.maxretained} (default 16) buffers are
+ * retained per size class in the shared queues; further released buffers are
+ * left to the garbage collector.
+ * <p>
+ * The counters of the default pool are registered as MXBean with the name
+ * {@code org.eclipse.riena.communication:type=BufferPool} if the metrics have
+ * been switched on (see {@code RemoteCallMetrics}).
+ *
+ * @since 6.2
+ */
+public final class BufferPool implements BufferPoolMXBean {
+
+	/**
+	 * System property for the maximum number of buffers that are retained per
+	 * size class (not counting the buffers cached by the threads).
+	 */
+	public static final String RIENA_BUFFERPOOL_MAX_RETAINED_PROPERTY = "riena.communication.bufferpool.maxretained"; //$NON-NLS-1$
+
+	private static final int DEFAULT_MAX_RETAINED = 16;
+	private static final int[] SIZE_CLASSES = { 8 * 1024, 32 * 1024, 128 * 1024, 256 * 1024 };
+	private static final int THREAD_CACHED_SIZE_CLASSES = 2;
+
+	private static final BufferPool DEFAULT = new BufferPool(Integer.getInteger(
+			RIENA_BUFFERPOOL_MAX_RETAINED_PROPERTY, DEFAULT_MAX_RETAINED));
+
+	private final int maxRetained;
+	private final SizeClass[] sizeClasses;
+	// a plain ThreadLocal holding only byte arrays, so that long-lived threads
+	// do not pin the class loader of this bundle
+	private final ThreadLocal<byte[][]> threadCache = new ThreadLocal<byte[][]>();
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder discards = new LongAdder();
+
+	/**
+	 * Create a pool.
+	 *
+	 * @param maxRetained
+	 *            the maximum number of buffers retained per size class in the
+	 *            shared queues
+	 */
+	public BufferPool(final int maxRetained) {
+		this.maxRetained = Math.max(0, maxRetained);
+		sizeClasses = new SizeClass[SIZE_CLASSES.length];
+		for (int i = 0; i < SIZE_CLASSES.length; i++) {
+			sizeClasses[i] = new SizeClass(SIZE_CLASSES[i]);
+		}
+	}
+
+	/**
+	 * @return the pool used by the communication streams
+	 */
+	public static BufferPool getDefault() {
+		return DEFAULT;
+	}
+
+	/**
+	 * Take a buffer out of the pool. The buffer should be given back with
+	 * {@link #release(byte[])} when it is not used any longer.
+	 *
+	 * @param minSize
+	 *            the minimum size of the buffer
+	 * @return a buffer with at least the requested size; its content is
+	 *         undefined
+	 */
+	public byte[] acquire(final int minSize) {
+		final int index = indexOf(minSize);
+		if (index == -1) {
+			misses.increment();
+			return new byte[minSize];
+		}
+		if (index < THREAD_CACHED_SIZE_CLASSES) {
+			final byte[][] cache = threadCache.get();
+			final byte[] buffer = cache != null ? cache[index] : null;
+			if (buffer != null) {
+				cache[index] = null;
+				hits.increment();
+				return buffer;
+			}
+		}
+		final SizeClass sizeClass = sizeClasses[index];
+		final byte[] buffer = sizeClass.buffers.poll();
+		if (buffer != null) {
+			sizeClass.retained.decrementAndGet();
+			hits.increment();
+			return buffer;
+		}
+		misses.increment();
+		return new byte[sizeClass.size];
+	}
+
+	/**
+	 * Give a buffer back to the pool. The buffer must not be used afterwards.
+	 * Buffers that have not been taken from a pool are accepted if their size
+	 * matches a size class.
+	 *
+	 * @param buffer
+	 *            the buffer; {@code null} is ignored
+	 */
+	public void release(final byte[] buffer) {
+		if (buffer == null) {
+			return;
+		}
+		final int index = indexOf(buffer.length);
+		if (index == -1 || sizeClasses[index].size != buffer.length) {
+			discards.increment();
+			return;
+		}
+		if (index < THREAD_CACHED_SIZE_CLASSES) {
+			byte[][] cache = threadCache.get();
+			if (cache == null) {
+				cache = new byte[THREAD_CACHED_SIZE_CLASSES][];
+				threadCache.set(cache);
+			}
+			if (cache[index] == null) {
+				cache[index] = buffer;
+				return;
+			}
+		}
+		final SizeClass sizeClass = sizeClasses[index];
+		if (sizeClass.retained.incrementAndGet() > maxRetained) {
+			sizeClass.retained.decrementAndGet();
+			discards.increment();
+			return;
+		}
+		sizeClass.buffers.offer(buffer);
+	}
+
+	/**
+	 * @return the number of requests served with a pooled buffer
+	 */
+	public long getHits() {
+		return hits.sum();
+	}
+
+	/**
+	 * @return the number of requests that had to allocate a new buffer
+	 */
+	public long getMisses() {
+		return misses.sum();
+	}
+
+	/**
+	 * @return the number of released buffers that have not been retained
+	 */
+	public long getDiscards() {
+		return discards.sum();
+	}
+
+	/**
+	 * @return the number of buffers currently retained in the shared queues
+	 *         (not counting the buffers cached by the threads)
+	 */
+	public int getRetained() {
+		int retained = 0;
+		for (final SizeClass sizeClass : sizeClasses) {
+			retained += sizeClass.retained.get();
+		}
+		return retained;
+	}
+
+	@Override
+	public String toString() {
+		return "BufferPool [maxRetained=" + maxRetained + ", retained=" + getRetained() + ", hits=" + getHits() //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+				+ ", misses=" + getMisses() + ", discards=" + getDiscards() + "]"; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+	}
+
+	private static int indexOf(final int size) {
+		for (int i = 0; i < SIZE_CLASSES.length; i++) {
+			if (size <= SIZE_CLASSES[i]) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	private static final class SizeClass {
+
+		private final int size;
+		private final Queue<byte[]> buffers = new ConcurrentLinkedQueue<byte[]>();
+		private final AtomicInteger retained = new AtomicInteger();
+
+		private SizeClass(final int size) {
+			this.size = size;
+		}
+	}
+
+}
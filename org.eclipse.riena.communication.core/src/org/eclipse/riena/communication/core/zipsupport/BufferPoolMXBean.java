@@ -10,13 +10,32 @@
  *******************************************************************************/
 package org.eclipse.riena.communication.core.zipsupport;
 
-class BufferEntry {
+/**
+ * The JMX view of the counters of a {@link BufferPool}.
+ *
+ * @since 6.2
+ */
+public interface BufferPoolMXBean {
+
+	/**
+	 * @return the number of requests served with a pooled buffer
+	 */
+	long getHits();
+
+	/**
+	 * @return the number of requests that had to allocate a new buffer
+	 */
+	long getMisses();
+
+	/**
+	 * @return the number of released buffers that have not been retained
+	 */
+	long getDiscards();
 
-	int BUFFERSIZE = 8192;
-	byte[] buffer;
+	/**
+	 * @return the number of buffers currently retained in the shared queues
+	 *         (not counting the buffers cached by the threads)
+	 */
+	int getRetained();
 
-	BufferEntry() {
-		super();
-		buffer = new byte[BUFFERSIZE];
-	}
-}
\ No newline at end of file
+}
@@ -0,0 +1,179 @@
+/*******************************************************************************
+ * Copyright (c) 2007, 2014 compeople AG and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    compeople AG - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.riena.communication.core.zipsupport;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.Deflater;
+
+/**
+ * Decides whether and how the data of a remote service call is compressed.
+ * <p>
+ * The policy consists of a default {@link Setting} and optional overrides for
+ * single services (identified by the name of the service interface) or single
+ * methods of a service. The override of a method takes precedence over the
+ * override of its service which takes precedence over the default.
+ * <p>
+ * Instances are immutable; {@link #withOverride(String, String, Setting)}
+ * answers a new policy.
+ *
+ * @since 6.2
+ */
+public final class CompressionPolicy {
+
+	/**
+	 * The policy that compresses all data with the default level, i.e. the
+	 * behavior without any configuration.
+	 */
+	public static final CompressionPolicy DEFAULT = new CompressionPolicy(new Setting(true, 0,
+			Deflater.DEFAULT_COMPRESSION));
+
+	private static final String METHOD_SEPARATOR = "#"; //$NON-NLS-1$
+
+	private final Setting defaultSetting;
+	private final Map<String, Setting> overrides;
+
+	/**
+	 * Create a policy without overrides.
+	 *
+	 * @param defaultSetting
+	 *            the setting for all services and methods
+	 */
+	public CompressionPolicy(final Setting defaultSetting) {
+		this(defaultSetting, Collections.<String, Setting> emptyMap());
+	}
+
+	private CompressionPolicy(final Setting defaultSetting, final Map<String, Setting> overrides) {
+		this.defaultSetting = defaultSetting;
+		this.overrides = overrides;
+	}
+
+	/**
+	 * Answer a new policy with an additional override.
+	 *
+	 * @param serviceInterfaceName
+	 *            the name of the service interface
+	 * @param methodName
+	 *            the name of the method or {@code null} for all methods of the
+	 *            service
+	 * @param setting
+	 *            the setting for the service or method
+	 * @return the new policy
+	 */
+	public CompressionPolicy withOverride(final String serviceInterfaceName, final String methodName,
+			final Setting setting) {
+		final Map<String, Setting> newOverrides = new HashMap<String, Setting>(overrides);
+		newOverrides.put(getKey(serviceInterfaceName, methodName), setting);
+		return new CompressionPolicy(defaultSetting, newOverrides);
+	}
+
+	/**
+	 * Get the setting for a call.
+	 *
+	 * @param serviceInterfaceName
+	 *            the name of the service interface; may be {@code null} if
+	 *            unknown
+	 * @param methodName
+	 *            the name of the called method; may be {@code null} if unknown
+	 * @return the setting, never {@code null}
+	 */
+	public Setting getSetting(final String serviceInterfaceName, final String methodName) {
+		if (serviceInterfaceName == null || overrides.isEmpty()) {
+			return defaultSetting;
+		}
+		if (methodName != null) {
+			final Setting methodSetting = overrides.get(getKey(serviceInterfaceName, methodName));
+			if (methodSetting != null) {
+				return methodSetting;
+			}
+		}
+		final Setting serviceSetting = overrides.get(getKey(serviceInterfaceName, null));
+		return serviceSetting != null ? serviceSetting : defaultSetting;
+	}
+
+	private static String getKey(final String serviceInterfaceName, final String methodName) {
+		return methodName == null ? serviceInterfaceName : serviceInterfaceName + METHOD_SEPARATOR + methodName;
+	}
+
+	@Override
+	public String toString() {
+		return "CompressionPolicy [default=" + defaultSetting + ", overrides=" + overrides + "]"; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+	}
+
+	/**
+	 * The compression setting of a service or a method.
+	 */
+	public static final class Setting {
+
+		private final boolean enabled;
+		private final int minSize;
+		private final int level;
+
+		/**
+		 * Create a setting.
+		 *
+		 * @param enabled
+		 *            {@code false} if the data shall never be compressed
+		 * @param minSize
+		 *            the minimum size in bytes of the data that gets compressed;
+		 *            less data is sent uncompressed
+		 * @param level
+		 *            the deflate level (0-9) or
+		 *            {@code Deflater.DEFAULT_COMPRESSION}
+		 */
+		public Setting(final boolean enabled, final int minSize, final int level) {
+			if (level != Deflater.DEFAULT_COMPRESSION
+					&& (level < Deflater.NO_COMPRESSION || level > Deflater.BEST_COMPRESSION)) {
+				throw new IllegalArgumentException("Invalid deflate level: " + level); //$NON-NLS-1$
+			}
+			this.enabled = enabled;
+			this.minSize = Math.max(0, minSize);
+			this.level = level;
+		}
+
+		/**
+		 * @return {@code false} if the data shall never be compressed
+		 */
+		public boolean isEnabled() {
+			return enabled;
+		}
+
+		/**
+		 * @return the minimum size in bytes of the data that gets compressed
+		 */
+		public int getMinSize() {
+			return minSize;
+		}
+
+		/**
+		 * @return the deflate level
+		 */
+		public int getLevel() {
+			return level;
+		}
+
+		/**
+		 * @param size
+		 *            the size of the data in bytes
+		 * @return {@code true} if data of the given size shall be compressed
+		 */
+		public boolean isCompressing(final int size) {
+			return enabled && size >= minSize;
+		}
+
+		@Override
+		public String toString() {
+			return "Setting [enabled=" + enabled + ", minSize=" + minSize + ", level=" + level + "]"; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+		}
+	}
+
+}
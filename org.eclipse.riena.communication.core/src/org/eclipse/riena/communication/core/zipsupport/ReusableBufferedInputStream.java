@@ -15,16 +15,37 @@ import java.io.IOException;
 import java.io.InputStream;
 
 /**
+ * A {@code BufferedInputStream} that takes its buffer from the
+ * {@code BufferPool} and gives it back on {@code close()}.
+ * 
  * @since 3.0
  */
 public class ReusableBufferedInputStream extends BufferedInputStream {
 
-	private BufferEntry entry = null;
+	/**
+	 * The default buffer size.
+	 * 
+	 * @since 6.2
+	 */
+	public static final int DEFAULT_BUFFER_SIZE = 32 * 1024;
+
+	private byte[] pooledBuffer;
 
 	public ReusableBufferedInputStream(final InputStream in) {
+		this(in, DEFAULT_BUFFER_SIZE);
+	}
+
+	/**
+	 * @param in
+	 *            the underlying input stream
+	 * @param size
+	 *            the minimum buffer size
+	 * @since 6.2
+	 */
+	public ReusableBufferedInputStream(final InputStream in, final int size) {
 		super(in, 1);
-		entry = BufferEntryManager.getBuffer();
-		this.buf = entry.buffer;
+		pooledBuffer = BufferPool.getDefault().acquire(size);
+		this.buf = pooledBuffer;
 	}
 
 	/*
@@ -34,10 +55,13 @@ public class ReusableBufferedInputStream extends BufferedInputStream {
 	 */
 	@Override
 	public void close() throws IOException {
-		this.buf = null; // take buffer away before stream is closed
-		super.close();
-		BufferEntryManager.putBuffer(entry); // return buffer to manager
-		entry = null;
+		final byte[] buffer = pooledBuffer;
+		pooledBuffer = null;
+		try {
+			super.close();
+		} finally {
+			BufferPool.getDefault().release(buffer); // return buffer to the pool
+		}
 	}
 
 }
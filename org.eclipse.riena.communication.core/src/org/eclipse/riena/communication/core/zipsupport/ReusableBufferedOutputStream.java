@@ -14,22 +14,97 @@ import java.io.BufferedOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 
-class ReusableBufferedOutputStream extends BufferedOutputStream {
+/**
+ * A {@code BufferedOutputStream} that takes its buffer from the
+ * {@code BufferPool} and gives it back on {@code close()} or
+ * {@code releaseBuffer()}.
+ * 
+ * @since 6.2
+ */
+public class ReusableBufferedOutputStream extends BufferedOutputStream {
 
-	private BufferEntry entry = null;
+	/**
+	 * The default buffer size.
+	 */
+	public static final int DEFAULT_BUFFER_SIZE = 32 * 1024;
+
+	private byte[] pooledBuffer;
+	private boolean closed;
 
 	public ReusableBufferedOutputStream(final OutputStream out) {
+		this(out, DEFAULT_BUFFER_SIZE);
+	}
+
+	/**
+	 * @param out
+	 *            the underlying output stream
+	 * @param size
+	 *            the minimum buffer size
+	 */
+	public ReusableBufferedOutputStream(final OutputStream out, final int size) {
 		super(out, 1);
-		entry = BufferEntryManager.getBuffer();
-		this.buf = entry.buffer;
+		pooledBuffer = BufferPool.getDefault().acquire(size);
+		this.buf = pooledBuffer;
+	}
+
+	@Override
+	public synchronized void write(final int b) throws IOException {
+		ensureBuffer();
+		super.write(b);
+	}
+
+	@Override
+	public synchronized void write(final byte[] b, final int off, final int len) throws IOException {
+		ensureBuffer();
+		super.write(b, off, len);
+	}
+
+	/**
+	 * Flushes the buffered data and gives the buffer back to the pool without
+	 * closing the underlying stream, e.g. if the underlying stream belongs to
+	 * a connection that may be reused. Nothing can be written afterwards.
+	 * 
+	 * @throws IOException
+	 */
+	public synchronized void releaseBuffer() throws IOException {
+		if (pooledBuffer == null) {
+			return;
+		}
+		try {
+			flush();
+		} finally {
+			giveBackBuffer();
+		}
 	}
 
 	@Override
 	public void close() throws IOException {
-		super.close();
+		if (closed) {
+			return;
+		}
+		closed = true;
+		try {
+			super.close();
+		} finally {
+			giveBackBuffer();
+		}
+	}
+
+	private void ensureBuffer() throws IOException {
+		if (pooledBuffer == null) {
+			throw new IOException("Stream closed"); //$NON-NLS-1$
+		}
+	}
+
+	private synchronized void giveBackBuffer() {
+		final byte[] buffer = pooledBuffer;
+		if (buffer == null) {
+			return;
+		}
+		pooledBuffer = null;
 		this.buf = null;
-		BufferEntryManager.putBuffer(entry);
-		entry = null;
+		this.count = 0;
+		BufferPool.getDefault().release(buffer);
 	}
 
-}
\ No newline at end of file
+}
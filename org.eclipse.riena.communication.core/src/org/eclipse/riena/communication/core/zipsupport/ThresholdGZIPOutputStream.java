@@ -0,0 +1,155 @@
+/*******************************************************************************
+ * Copyright (c) 2007, 2014 compeople AG and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    compeople AG - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.riena.communication.core.zipsupport;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * An {@code OutputStream} that gzips the written data according to a
+ * {@link CompressionPolicy.Setting}.
+ * <p>
+ * The first {@code minSize} bytes are held back. If more data is written, the
+ * stream starts to gzip with the configured level; if the stream is finished
+ * before, the held back data is written uncompressed. Since the receiver
+ * recognizes gzipped data by its magic number, it can read both.
+ *
+ * @since 6.2
+ */
+public class ThresholdGZIPOutputStream extends FilterOutputStream {
+
+	private static final int DEFLATE_BUFFER_SIZE = 8 * 1024;
+
+	private final CompressionPolicy.Setting setting;
+	private byte[] pending;
+	private int count;
+	private GZIPOutputStream gzip;
+	private boolean finished;
+
+	/**
+	 * @param out
+	 *            the underlying output stream
+	 * @param setting
+	 *            the compression setting
+	 * @throws IOException
+	 */
+	public ThresholdGZIPOutputStream(final OutputStream out, final CompressionPolicy.Setting setting)
+			throws IOException {
+		super(out);
+		this.setting = setting;
+		if (setting.isCompressing(0)) {
+			gzip = new LevelGZIPOutputStream(out, setting.getLevel());
+		} else if (setting.isEnabled()) {
+			pending = BufferPool.getDefault().acquire(setting.getMinSize());
+		}
+	}
+
+	/**
+	 * @return {@code true} if the data is (being) compressed; {@code false} if
+	 *         it is not or not yet known
+	 */
+	public boolean isCompressed() {
+		return gzip != null;
+	}
+
+	@Override
+	public void write(final int b) throws IOException {
+		write(new byte[] { (byte) b }, 0, 1);
+	}
+
+	@Override
+	public void write(final byte[] b, final int off, final int len) throws IOException {
+		if (finished) {
+			throw new IOException("write beyond end of stream"); //$NON-NLS-1$
+		}
+		if (gzip != null) {
+			gzip.write(b, off, len);
+			return;
+		}
+		if (pending == null) {
+			out.write(b, off, len);
+			return;
+		}
+		if (!setting.isCompressing(count + len)) {
+			System.arraycopy(b, off, pending, count, len);
+			count += len;
+			return;
+		}
+		gzip = new LevelGZIPOutputStream(out, setting.getLevel());
+		gzip.write(pending, 0, count);
+		releasePending();
+		gzip.write(b, off, len);
+	}
+
+	/**
+	 * Flushes the underlying stream. Data that is held back because it is not
+	 * yet known whether it will be compressed is not flushed.
+	 */
+	@Override
+	public void flush() throws IOException {
+		if (gzip != null) {
+			gzip.flush();
+		} else {
+			out.flush();
+		}
+	}
+
+	/**
+	 * Finishes writing the data to the underlying stream without closing it.
+	 *
+	 * @throws IOException
+	 */
+	public void finish() throws IOException {
+		if (finished) {
+			return;
+		}
+		finished = true;
+		if (gzip != null) {
+			gzip.finish();
+		} else if (pending != null) {
+			try {
+				out.write(pending, 0, count);
+			} finally {
+				releasePending();
+			}
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		try {
+			finish();
+		} finally {
+			out.close();
+		}
+	}
+
+	private void releasePending() {
+		final byte[] buffer = pending;
+		pending = null;
+		count = 0;
+		BufferPool.getDefault().release(buffer);
+	}
+
+	/**
+	 * A {@code GZIPOutputStream} with a configurable deflate level.
+	 */
+	private static final class LevelGZIPOutputStream extends GZIPOutputStream {
+
+		private LevelGZIPOutputStream(final OutputStream out, final int level) throws IOException {
+			super(out, DEFLATE_BUFFER_SIZE);
+			def.setLevel(level);
+		}
+	}
+
+}
@@ -17,12 +17,16 @@ import org.osgi.framework.ServiceRegistration;
 
 import org.eclipse.riena.communication.core.IRemoteServiceRegistry;
 import org.eclipse.riena.communication.core.hooks.ICallHook;
+import org.eclipse.riena.communication.core.metrics.RemoteCallMetrics;
 import org.eclipse.riena.communication.core.progressmonitor.IRemoteProgressMonitorRegistry;
 import org.eclipse.riena.communication.core.progressmonitor.ProgressMonitorRegistryImpl;
 import org.eclipse.riena.core.RienaActivator;
 import org.eclipse.riena.core.RienaConstants;
 import org.eclipse.riena.core.wire.Wire;
+import org.eclipse.riena.internal.communication.core.factory.AsyncRemoteCallExecutor;
 import org.eclipse.riena.internal.communication.core.factory.OrderedCallHooksExecuter;
+import org.eclipse.riena.internal.communication.core.metrics.CallMetricsHook;
+import org.eclipse.riena.internal.communication.core.metrics.MethodMetricsMBeans;
 import org.eclipse.riena.internal.communication.core.proxyselector.ProxySelectorConfiguration;
 import org.eclipse.riena.internal.communication.core.registry.RemoteServiceRegistry;
 import org.eclipse.riena.internal.communication.core.ssl.SSLConfiguration;
@@ -49,6 +53,7 @@ public class Activator extends RienaActivator {
 	public void start(final BundleContext context) throws Exception {
 		super.start(context);
 		Activator.plugin = this;
+		AsyncRemoteCallExecutor.start();
 		serviceRegistry = new RemoteServiceRegistry();
 		serviceRegistry.start();
 
@@ -64,6 +69,9 @@ public class Activator extends RienaActivator {
 		// Ordered call hooks configuration 
 		configureOrderedCallHooks();
 
+		// Call metrics
+		configureCallMetrics();
+
 		context.registerService(IRemoteProgressMonitorRegistry.class.getName(), new ProgressMonitorRegistryImpl(), null);
 	}
 
@@ -73,6 +81,14 @@ public class Activator extends RienaActivator {
 		getContext().registerService(ICallHook.class.getName(), hook, null);
 	}
 
+	private void configureCallMetrics() {
+		if (!RemoteCallMetrics.isEnabled()) {
+			return;
+		}
+		MethodMetricsMBeans.registerAll();
+		getContext().registerService(ICallHook.class.getName(), new CallMetricsHook(), null);
+	}
+
 	private void configureSSL() {
 		sslConfiguration = new SSLConfiguration();
 		Wire.instance(sslConfiguration).andStart(getContext());
@@ -94,6 +110,10 @@ public class Activator extends RienaActivator {
 
 		proxySelectorConfiguration.uninstall();
 
+		AsyncRemoteCallExecutor.shutdown();
+
+		MethodMetricsMBeans.unregisterAll();
+
 		Activator.plugin = null;
 		super.stop(context);
 	}
@@ -0,0 +1,122 @@
+/*******************************************************************************
+ * Copyright (c) 2007, 2014 compeople AG and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    compeople AG - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.riena.internal.communication.core.factory;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Holds the bounded executor for the asynchronous remote service calls.
+ * <p>
+ * The proxies get an {@code Executor} that looks up the current executor for
+ * each call, so that proxies which outlive a stop and start of the bundle use
+ * the executor created after the start.
+ */
+public final class AsyncRemoteCallExecutor {
+
+	/**
+	 * System property for the maximum number of threads executing asynchronous
+	 * remote service calls.
+	 */
+	public static final String RIENA_ASYNC_THREADS_PROPERTY = "riena.communication.async.threads"; //$NON-NLS-1$
+
+	/**
+	 * System property for the maximum number of waiting asynchronous remote
+	 * service calls.
+	 */
+	public static final String RIENA_ASYNC_QUEUE_SIZE_PROPERTY = "riena.communication.async.queuesize"; //$NON-NLS-1$
+
+	private static final int DEFAULT_THREADS = 8;
+	private static final int DEFAULT_QUEUE_SIZE = 1000;
+	private static final long KEEP_ALIVE_SECONDS = 60;
+
+	private static ExecutorService executor;
+	private static boolean shutDown;
+
+	private static final Executor CURRENT = new Executor() {
+		public void execute(final Runnable command) {
+			getExecutorService().execute(command);
+		}
+	};
+
+	private AsyncRemoteCallExecutor() {
+		// utility
+	}
+
+	/**
+	 * Allow the (re-)creation of the executor after a {@link #shutdown()},
+	 * e.g. when the bundle is started again.
+	 */
+	public static synchronized void start() {
+		shutDown = false;
+		if (executor != null && executor.isShutdown()) {
+			executor = null;
+		}
+	}
+
+	/**
+	 * @return the executor that delegates each call to the current executor,
+	 *         which will be created on demand. After {@link #shutdown()} it
+	 *         rejects all calls until {@link #start()} is called.
+	 */
+	public static Executor get() {
+		return CURRENT;
+	}
+
+	private static synchronized ExecutorService getExecutorService() {
+		if (shutDown) {
+			throw new RejectedExecutionException("The asynchronous remote calls have been shut down."); //$NON-NLS-1$
+		}
+		if (executor == null) {
+			final int threads = getPositive(RIENA_ASYNC_THREADS_PROPERTY, DEFAULT_THREADS);
+			final ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, KEEP_ALIVE_SECONDS,
+					TimeUnit.SECONDS, new ArrayBlockingQueue<Runnable>(getPositive(RIENA_ASYNC_QUEUE_SIZE_PROPERTY,
+							DEFAULT_QUEUE_SIZE)), new AsyncRemoteCallThreadFactory());
+			pool.allowCoreThreadTimeOut(true);
+			executor = pool;
+		}
+		return executor;
+	}
+
+	/**
+	 * Shut down the executor. Already submitted calls will still be executed,
+	 * new calls will be rejected.
+	 */
+	public static synchronized void shutdown() {
+		shutDown = true;
+		if (executor != null) {
+			executor.shutdown();
+		}
+	}
+
+	private static int getPositive(final String property, final int defaultValue) {
+		final Integer value = Integer.getInteger(property);
+		return value != null && value > 0 ? value : defaultValue;
+	}
+
+	private static final class AsyncRemoteCallThreadFactory implements ThreadFactory {
+
+		private final AtomicInteger count = new AtomicInteger();
+
+		public Thread newThread(final Runnable runnable) {
+			final Thread thread = new Thread(runnable, "Riena-AsyncRemoteCall-" + count.incrementAndGet()); //$NON-NLS-1$
+			thread.setDaemon(true);
+			return thread;
+		}
+	}
+
+}
@@ -0,0 +1,197 @@
+/*******************************************************************************
+ * Copyright (c) 2007, 2014 compeople AG and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    compeople AG - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.riena.internal.communication.core.factory;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.security.AccessController;
+import java.security.PrivilegedActionException;
+import java.security.PrivilegedExceptionAction;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import javax.security.auth.Subject;
+
+import org.eclipse.riena.communication.core.RemoteFailure;
+import org.eclipse.riena.communication.core.factory.AsyncRemoteService;
+
+/**
+ * The {@code InvocationHandler} of the proxies for interfaces annotated with
+ * {@code AsyncRemoteService}. It delegates to the (synchronous) remote service
+ * proxy; the calls of methods returning a {@code CompletableFuture} are
+ * executed by an {@code Executor}.
+ */
+public class AsyncServiceProxy implements InvocationHandler {
+
+	private static final String ASYNC_SUFFIX = "Async"; //$NON-NLS-1$
+
+	private final Object serviceProxy;
+	private final Executor executor;
+	private final Map<Method, Method> syncMethods = new HashMap<Method, Method>();
+	private final Map<Method, Boolean> asyncMethods = new HashMap<Method, Boolean>();
+
+	/**
+	 * Create the handler.
+	 *
+	 * @param asyncInterface
+	 *            the interface annotated with {@code AsyncRemoteService}
+	 * @param serviceProxy
+	 *            the proxy of the remote service interface
+	 * @param executor
+	 *            the executor of the asynchronous calls
+	 * @throws RemoteFailure
+	 *             if the interface is not annotated or if a method of the
+	 *             asynchronous interface has no counterpart in the remote
+	 *             service interface
+	 */
+	public AsyncServiceProxy(final Class<?> asyncInterface, final Object serviceProxy, final Executor executor) {
+		this.serviceProxy = serviceProxy;
+		this.executor = executor;
+		final Class<?> serviceInterface = getServiceInterface(asyncInterface);
+		if (serviceInterface == null) {
+			throw new RemoteFailure(asyncInterface.getName() + " is not annotated with " //$NON-NLS-1$
+					+ AsyncRemoteService.class.getSimpleName());
+		}
+		for (final Method method : asyncInterface.getMethods()) {
+			final boolean async = isAsync(method);
+			final Method syncMethod = findSyncMethod(serviceInterface, method, async);
+			if (syncMethod == null) {
+				throw new RemoteFailure("Method " + method + " of " + asyncInterface.getName() //$NON-NLS-1$ //$NON-NLS-2$
+						+ " has no counterpart in " + serviceInterface.getName()); //$NON-NLS-1$
+			}
+			syncMethods.put(method, syncMethod);
+			asyncMethods.put(method, async);
+		}
+	}
+
+	/**
+	 * Get the remote service interface of an asynchronous variant.
+	 *
+	 * @param asyncInterface
+	 *            the interface
+	 * @return the remote service interface or {@code null} if the given
+	 *         interface is not annotated with {@code AsyncRemoteService}
+	 */
+	public static Class<?> getServiceInterface(final Class<?> asyncInterface) {
+		final AsyncRemoteService annotation = asyncInterface.getAnnotation(AsyncRemoteService.class);
+		return annotation == null ? null : annotation.value();
+	}
+
+	public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+		final Method syncMethod = syncMethods.get(method);
+		if (syncMethod == null) {
+			return invokeObjectMethod(proxy, method, args);
+		}
+		if (!asyncMethods.get(method)) {
+			try {
+				return syncMethod.invoke(serviceProxy, args);
+			} catch (final InvocationTargetException e) {
+				throw e.getTargetException();
+			}
+		}
+		return invokeAsync(syncMethod, args);
+	}
+
+	private CompletableFuture<Object> invokeAsync(final Method syncMethod, final Object[] args) {
+		final CompletableFuture<Object> future = new CompletableFuture<Object>();
+		final Subject subject = Subject.getSubject(AccessController.getContext());
+		final ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+		try {
+			executor.execute(new Runnable() {
+				public void run() {
+					if (future.isDone()) {
+						// cancelled before it has been started
+						return;
+					}
+					final Thread thread = Thread.currentThread();
+					final ClassLoader oldContextClassLoader = thread.getContextClassLoader();
+					thread.setContextClassLoader(contextClassLoader);
+					try {
+						future.complete(call(subject, syncMethod, args));
+					} catch (final Throwable t) {
+						future.completeExceptionally(t);
+					} finally {
+						thread.setContextClassLoader(oldContextClassLoader);
+					}
+				}
+			});
+		} catch (final RejectedExecutionException e) {
+			future.completeExceptionally(new RemoteFailure("Too many pending asynchronous calls, rejected call of " //$NON-NLS-1$
+					+ syncMethod, e));
+		}
+		return future;
+	}
+
+	private Object call(final Subject subject, final Method syncMethod, final Object[] args) throws Throwable {
+		try {
+			if (subject == null) {
+				return syncMethod.invoke(serviceProxy, args);
+			}
+			return Subject.doAs(subject, new PrivilegedExceptionAction<Object>() {
+				public Object run() throws Exception {
+					return syncMethod.invoke(serviceProxy, args);
+				}
+			});
+		} catch (final PrivilegedActionException e) {
+			final Throwable cause = e.getCause();
+			throw cause instanceof InvocationTargetException ? ((InvocationTargetException) cause)
+					.getTargetException() : cause;
+		} catch (final InvocationTargetException e) {
+			throw e.getTargetException();
+		}
+	}
+
+	private Object invokeObjectMethod(final Object proxy, final Method method, final Object[] args) {
+		if ("equals".equals(method.getName()) && args != null && args.length == 1) { //$NON-NLS-1$
+			return proxy == args[0];
+		}
+		if ("hashCode".equals(method.getName())) { //$NON-NLS-1$
+			return System.identityHashCode(proxy);
+		}
+		if ("toString".equals(method.getName())) { //$NON-NLS-1$
+			return "AsyncServiceProxy[" + serviceProxy + "]"; //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		throw new UnsupportedOperationException("Can not handle method " + method); //$NON-NLS-1$
+	}
+
+	private static boolean isAsync(final Method method) {
+		final Class<?> returnType = method.getReturnType();
+		return returnType != Object.class && returnType.isAssignableFrom(CompletableFuture.class);
+	}
+
+	private static Method findSyncMethod(final Class<?> serviceInterface, final Method method, final boolean async) {
+		Method syncMethod = findMethod(serviceInterface, method.getName(), method.getParameterTypes());
+		if (syncMethod == null && method.getName().endsWith(ASYNC_SUFFIX)) {
+			syncMethod = findMethod(serviceInterface,
+					method.getName().substring(0, method.getName().length() - ASYNC_SUFFIX.length()),
+					method.getParameterTypes());
+		}
+		if (syncMethod == null || async) {
+			return syncMethod;
+		}
+		return method.getReturnType().isAssignableFrom(syncMethod.getReturnType()) ? syncMethod : null;
+	}
+
+	private static Method findMethod(final Class<?> serviceInterface, final String name, final Class<?>[] parameterTypes) {
+		for (final Method method : serviceInterface.getMethods()) {
+			if (method.getName().equals(name) && Arrays.equals(method.getParameterTypes(), parameterTypes)) {
+				return method;
+			}
+		}
+		return null;
+	}
+
+}
@@ -0,0 +1,276 @@
+/*******************************************************************************
+ * Copyright (c) 2007, 2014 compeople AG and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    compeople AG - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.riena.internal.communication.core.factory;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.security.AccessController;
+import java.security.Principal;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import javax.security.auth.Subject;
+
+import com.caucho.hessian.io.SerializerFactory;
+
+import org.osgi.service.log.LogService;
+
+import org.eclipse.equinox.log.Logger;
+
+import org.eclipse.riena.communication.core.RemoteFailure;
+import org.eclipse.riena.communication.core.factory.CacheableResult;
+import org.eclipse.riena.communication.core.factory.HessianRemoteCallSerializer;
+import org.eclipse.riena.communication.core.factory.ICurrentSubjectProvider;
+import org.eclipse.riena.communication.core.factory.IRemoteCallSerializer;
+import org.eclipse.riena.core.Log4r;
+import org.eclipse.riena.core.wire.InjectService;
+import org.eclipse.riena.core.wire.Wire;
+import org.eclipse.riena.internal.communication.core.Activator;
+import org.eclipse.riena.internal.communication.core.factory.CallResultCaches.ResultCache;
+
+/**
+ * The {@code InvocationHandler} that answers the calls of methods annotated
+ * with {@code CacheableResult} from the {@code CallResultCaches} and delegates
+ * all other calls (and cache misses) to the remote service proxy.
+ * <p>
+ * The results are cached in their serialized form and deserialized for each
+ * hit, so that a caller modifying its result does not affect other callers.
+ * Arguments and results are serialized with the {@code IRemoteCallSerializer}
+ * service, i.e. like the transport does. Without such a service a plain hessian
+ * serialization is used.
+ */
+public class CachingServiceProxy implements InvocationHandler {
+
+	private static final IRemoteCallSerializer DEFAULT_SERIALIZER;
+	private static final Logger LOGGER = Log4r.getLogger(Activator.getDefault(), CachingServiceProxy.class);
+
+	static {
+		final SerializerFactory serializerFactory = new SerializerFactory();
+		serializerFactory.setAllowNonSerializable(true);
+		DEFAULT_SERIALIZER = new HessianRemoteCallSerializer(serializerFactory);
+	}
+
+	private final Class<?> serviceInterface;
+	private final String url;
+	private final Object serviceProxy;
+	private final Map<Method, CacheableResult> cacheables = new HashMap<Method, CacheableResult>();
+	private volatile ICurrentSubjectProvider subjectProvider;
+	private volatile IRemoteCallSerializer serializer;
+
+	/**
+	 * Create the handler.
+	 *
+	 * @param serviceInterface
+	 *            the remote service interface
+	 * @param url
+	 *            the URL of the remote service
+	 * @param serviceProxy
+	 *            the proxy of the remote service
+	 * @throws RemoteFailure
+	 *             if an annotated method has an invalid time to live
+	 */
+	public CachingServiceProxy(final Class<?> serviceInterface, final String url, final Object serviceProxy) {
+		this.serviceInterface = serviceInterface;
+		this.url = url;
+		this.serviceProxy = serviceProxy;
+		for (final Method method : serviceInterface.getMethods()) {
+			final CacheableResult cacheable = method.getAnnotation(CacheableResult.class);
+			if (cacheable == null) {
+				continue;
+			}
+			if (cacheable.timeToLive() <= 0 || method.getReturnType() == void.class) {
+				throw new RemoteFailure("Method " + method + " of " + serviceInterface.getName() //$NON-NLS-1$ //$NON-NLS-2$
+						+ " can not be annotated with " + CacheableResult.class.getSimpleName()); //$NON-NLS-1$
+			}
+			cacheables.put(method, cacheable);
+		}
+		Wire.instance(this).andStart(Activator.getDefault().getContext());
+	}
+
+	@InjectService(useRanking = true)
+	public void bind(final ICurrentSubjectProvider subjectProvider) {
+		this.subjectProvider = subjectProvider;
+	}
+
+	public void unbind(final ICurrentSubjectProvider subjectProvider) {
+		if (this.subjectProvider == subjectProvider) {
+			this.subjectProvider = null;
+		}
+	}
+
+	@InjectService(useRanking = true)
+	public void bind(final IRemoteCallSerializer serializer) {
+		this.serializer = serializer;
+	}
+
+	public void unbind(final IRemoteCallSerializer serializer) {
+		if (this.serializer == serializer) {
+			this.serializer = null;
+		}
+	}
+
+	/**
+	 * @param serviceInterface
+	 *            the remote service interface
+	 * @return {@code true} if at least one method of the interface is annotated
+	 *         with {@code CacheableResult}
+	 */
+	public static boolean hasCacheableResults(final Class<?> serviceInterface) {
+		for (final Method method : serviceInterface.getMethods()) {
+			if (method.isAnnotationPresent(CacheableResult.class)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+		if (method.getDeclaringClass() == Object.class) {
+			return invokeObjectMethod(proxy, method, args);
+		}
+		final CacheableResult cacheable = cacheables.get(method);
+		if (cacheable == null) {
+			return invokeService(method, args);
+		}
+		final CallKey key = createKey(method, args);
+		if (key == null) {
+			return invokeService(method, args);
+		}
+		final ResultCache cache = CallResultCaches.get(serviceInterface, method, cacheable);
+		final byte[] cached = cache.get(key);
+		if (cached != null) {
+			try {
+				return deserialize(cached, method.getReturnType());
+			} catch (final Exception e) {
+				LOGGER.log(LogService.LOG_WARNING, "Could not deserialize the cached result of " + method //$NON-NLS-1$
+						+ ", calling the remote service.", e); //$NON-NLS-1$
+				return invokeService(method, args);
+			}
+		}
+		final long generation = cache.getGeneration();
+		final Object result = invokeService(method, args);
+		try {
+			cache.put(key, serialize(new Object[] { result }), generation);
+		} catch (final Exception e) {
+			LOGGER.log(LogService.LOG_WARNING, "Could not serialize the result of " + method //$NON-NLS-1$
+					+ ", it will not be cached.", e); //$NON-NLS-1$
+		}
+		return result;
+	}
+
+	private Object invokeService(final Method method, final Object[] args) throws Throwable {
+		try {
+			return method.invoke(serviceProxy, args);
+		} catch (final InvocationTargetException e) {
+			throw e.getTargetException();
+		}
+	}
+
+	private CallKey createKey(final Method method, final Object[] args) {
+		final Subject subject = getCurrentSubject();
+		final Set<Principal> principals = subject == null ? Collections.<Principal> emptySet()
+				: new HashSet<Principal>(subject.getPrincipals());
+		try {
+			return new CallKey(url, principals, serialize(args));
+		} catch (final Exception e) {
+			LOGGER.log(LogService.LOG_WARNING, "Could not serialize the arguments of " + method //$NON-NLS-1$
+					+ ", calling the remote service without caching.", e); //$NON-NLS-1$
+			return null;
+		}
+	}
+
+	private Subject getCurrentSubject() {
+		final ICurrentSubjectProvider provider = subjectProvider;
+		final Subject subject = provider != null ? provider.getCurrentSubject() : null;
+		return subject != null ? subject : Subject.getSubject(AccessController.getContext());
+	}
+
+	private IRemoteCallSerializer getSerializer() {
+		final IRemoteCallSerializer current = serializer;
+		return current != null ? current : DEFAULT_SERIALIZER;
+	}
+
+	private byte[] serialize(final Object[] args) throws IOException {
+		if (args == null) {
+			return new byte[0];
+		}
+		return getSerializer().serialize(args);
+	}
+
+	private Object deserialize(final byte[] bytes, final Class<?> type) throws IOException {
+		final Thread thread = Thread.currentThread();
+		final ClassLoader original = thread.getContextClassLoader();
+		// hessian loads the classes of the result with the context class loader
+		thread.setContextClassLoader(serviceInterface.getClassLoader());
+		try {
+			return getSerializer().deserialize(bytes, type);
+		} finally {
+			thread.setContextClassLoader(original);
+		}
+	}
+
+	private Object invokeObjectMethod(final Object proxy, final Method method, final Object[] args) {
+		if ("equals".equals(method.getName()) && args != null && args.length == 1) { //$NON-NLS-1$
+			return proxy == args[0];
+		}
+		if ("hashCode".equals(method.getName())) { //$NON-NLS-1$
+			return System.identityHashCode(proxy);
+		}
+		if ("toString".equals(method.getName())) { //$NON-NLS-1$
+			return "CachingServiceProxy[" + serviceProxy + "]"; //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		throw new UnsupportedOperationException("Can not handle method " + method); //$NON-NLS-1$
+	}
+
+	/**
+	 * The key of a cached result.
+	 */
+	private static final class CallKey {
+
+		private final String url;
+		private final Set<Principal> principals;
+		private final byte[] arguments;
+		private final int hash;
+
+		private CallKey(final String url, final Set<Principal> principals, final byte[] arguments) {
+			this.url = url;
+			this.principals = principals;
+			this.arguments = arguments;
+			this.hash = 31 * (31 * (url == null ? 0 : url.hashCode()) + principals.hashCode())
+					+ Arrays.hashCode(arguments);
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(final Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof CallKey)) {
+				return false;
+			}
+			final CallKey other = (CallKey) obj;
+			return hash == other.hash && (url == null ? other.url == null : url.equals(other.url))
+					&& principals.equals(other.principals) && Arrays.equals(arguments, other.arguments);
+		}
+	}
+
+}
@@ -12,7 +12,7 @@ package org.eclipse.riena.internal.communication.core.factory;
 
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
-import java.util.HashSet;
+import java.util.Arrays;
 
 import javax.security.auth.Subject;
 
@@ -33,9 +33,17 @@ import org.eclipse.riena.core.wire.InjectService;
 import org.eclipse.riena.core.wire.Wire;
 import org.eclipse.riena.internal.communication.core.Activator;
 
+/**
+ * Calls the {@code ICallHook}s around each call of a remote service proxy.
+ * <p>
+ * The hooks are kept in immutable arrays that are replaced on bind/unbind, so
+ * concurrent calls iterate them without locking. The {@code beforeCall()}
+ * methods are called in the order the hooks have been bound and the
+ * {@code afterCall()} methods in the reverse order.
+ */
 public class CallHooksProxy extends AbstractHooksProxy {
 
-	private final HashSet<ICallHook> callHooks = new HashSet<ICallHook>();
+	private volatile CallHooks callHooks = new CallHooks(new ICallHook[0]);
 	private RemoteServiceDescription rsd;
 	private ICallMessageContextAccessor mca;
 	private final static Logger LOGGER = Log4r.getLogger(Activator.getDefault(), CallHooksProxy.class);
@@ -53,11 +61,10 @@ public class CallHooksProxy extends AbstractHooksProxy {
 		}
 
 		final CallContext context = new CallContext(rsd, method.getName(), mc);
-		if (callHooks.size() > 0) {
-			// call before service hook
-			for (final ICallHook callHook : callHooks) {
-				callHook.beforeCall(context);
-			}
+		final CallHooks hooks = callHooks;
+		// call before service hook
+		for (final ICallHook callHook : hooks.before) {
+			callHook.beforeCall(context);
 		}
 
 		final ClassLoader oldClassLoader = Thread.currentThread().getContextClassLoader();
@@ -97,21 +104,33 @@ public class CallHooksProxy extends AbstractHooksProxy {
 			Thread.currentThread().setContextClassLoader(oldClassLoader);
 			context.getMessageContext().fireEndCall();
 			// call hooks after the call
-			if (callHooks.size() > 0) {
-				for (final ICallHook callHook : callHooks) {
-					callHook.afterCall(context);
-				}
+			for (final ICallHook callHook : hooks.after) {
+				callHook.afterCall(context);
 			}
 		}
 	}
 
 	@InjectService
-	public void bind(final ICallHook serviceHook) {
-		callHooks.add(serviceHook);
+	public synchronized void bind(final ICallHook serviceHook) {
+		final ICallHook[] before = callHooks.before;
+		if (Arrays.asList(before).contains(serviceHook)) {
+			return;
+		}
+		final ICallHook[] hooks = Arrays.copyOf(before, before.length + 1);
+		hooks[before.length] = serviceHook;
+		callHooks = new CallHooks(hooks);
 	}
 
-	public void unbind(final ICallHook serviceHook) {
-		callHooks.remove(serviceHook);
+	public synchronized void unbind(final ICallHook serviceHook) {
+		final ICallHook[] before = callHooks.before;
+		final int index = Arrays.asList(before).indexOf(serviceHook);
+		if (index == -1) {
+			return;
+		}
+		final ICallHook[] hooks = new ICallHook[before.length - 1];
+		System.arraycopy(before, 0, hooks, 0, index);
+		System.arraycopy(before, index + 1, hooks, index, hooks.length - index);
+		callHooks = new CallHooks(hooks);
 	}
 
 	public Object getCallProxy() {
@@ -130,4 +149,22 @@ public class CallHooksProxy extends AbstractHooksProxy {
 	public Subject getSubject() {
 		return null;
 	}
+
+	/**
+	 * An immutable snapshot of the bound hooks in the order of the
+	 * {@code beforeCall()} and of the {@code afterCall()} calls.
+	 */
+	private static final class CallHooks {
+
+		private final ICallHook[] before;
+		private final ICallHook[] after;
+
+		private CallHooks(final ICallHook[] before) {
+			this.before = before;
+			this.after = new ICallHook[before.length];
+			for (int i = 0; i < before.length; i++) {
+				after[i] = before[before.length - 1 - i];
+			}
+		}
+	}
 }
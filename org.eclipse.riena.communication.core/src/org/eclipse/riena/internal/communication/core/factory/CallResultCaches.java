@@ -0,0 +1,177 @@
+/*******************************************************************************
+ * Copyright (c) 2007, 2014 compeople AG and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    compeople AG - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.riena.internal.communication.core.factory;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.riena.communication.core.factory.CacheableResult;
+import org.eclipse.riena.core.cache.TinyLFUCache;
+
+/**
+ * Holds the caches of the results of the remote service methods annotated with
+ * {@code CacheableResult}; there is one cache per remote service interface and
+ * method, shared by all proxies of the interface.
+ * <p>
+ * The caches are attached to the remote service interfaces with a
+ * {@code ClassValue} and only weakly referenced otherwise, so they do not keep
+ * the class loaders of the interfaces alive.
+ */
+public final class CallResultCaches {
+
+	private static final ClassValue<ConcurrentMap<Method, ResultCache>> CACHES = new ClassValue<ConcurrentMap<Method, ResultCache>>() {
+		@Override
+		protected ConcurrentMap<Method, ResultCache> computeValue(final Class<?> serviceInterface) {
+			return new ConcurrentHashMap<Method, ResultCache>();
+		}
+	};
+	private static final Set<ResultCache> ALL_CACHES = Collections.newSetFromMap(new WeakHashMap<ResultCache, Boolean>());
+
+	private CallResultCaches() {
+		// utility
+	}
+
+	/**
+	 * Get the cache for a method; it will be created on demand.
+	 *
+	 * @param serviceInterface
+	 *            the remote service interface
+	 * @param method
+	 *            the method
+	 * @param cacheable
+	 *            the annotation of the method
+	 * @return the cache
+	 */
+	public static ResultCache get(final Class<?> serviceInterface, final Method method,
+			final CacheableResult cacheable) {
+		final ConcurrentMap<Method, ResultCache> methodCaches = CACHES.get(serviceInterface);
+		ResultCache cache = methodCaches.get(method);
+		if (cache == null) {
+			cache = new ResultCache(serviceInterface.getName() + "#" + method.getName(), cacheable); //$NON-NLS-1$
+			final ResultCache existing = methodCaches.putIfAbsent(method, cache);
+			if (existing != null) {
+				cache = existing;
+			} else {
+				synchronized (ALL_CACHES) {
+					ALL_CACHES.add(cache);
+				}
+			}
+		}
+		return cache;
+	}
+
+	/**
+	 * Discard the cached results of a remote service interface.
+	 *
+	 * @param serviceInterface
+	 *            the remote service interface
+	 * @param methodName
+	 *            the name of the methods or {@code null} for all methods
+	 */
+	public static void invalidate(final Class<?> serviceInterface, final String methodName) {
+		for (final Entry<Method, ResultCache> entry : CACHES.get(serviceInterface).entrySet()) {
+			if (methodName == null || methodName.equals(entry.getKey().getName())) {
+				entry.getValue().invalidate();
+			}
+		}
+	}
+
+	/**
+	 * Discard all cached results.
+	 */
+	public static void invalidateAll() {
+		final List<ResultCache> caches;
+		synchronized (ALL_CACHES) {
+			caches = new ArrayList<ResultCache>(ALL_CACHES);
+		}
+		for (final ResultCache cache : caches) {
+			cache.invalidate();
+		}
+	}
+
+	/**
+	 * The cache of a single method. Each invalidation starts a new generation;
+	 * results of calls that have been started in an older generation are not
+	 * cached.
+	 */
+	public static final class ResultCache {
+
+		private final TinyLFUCache<Object, byte[]> cache;
+		private final long timeToLive;
+		private final AtomicLong generation = new AtomicLong();
+
+		private ResultCache(final String name, final CacheableResult cacheable) {
+			cache = new TinyLFUCache<Object, byte[]>(cacheable.maximumSize());
+			cache.setName(name);
+			timeToLive = cacheable.timeToLive();
+		}
+
+		/**
+		 * @return the current generation; must be retrieved before the call
+		 *         whose result will be put into the cache
+		 */
+		public long getGeneration() {
+			return generation.get();
+		}
+
+		/**
+		 * @param key
+		 *            the key of the call
+		 * @return the serialized cached result or {@code null}
+		 */
+		public byte[] get(final Object key) {
+			return cache.get(key);
+		}
+
+		/**
+		 * Cache a result unless the cache has been invalidated since the given
+		 * generation.
+		 *
+		 * @param key
+		 *            the key of the call
+		 * @param result
+		 *            the serialized result
+		 * @param callGeneration
+		 *            the generation before the call
+		 */
+		public void put(final Object key, final byte[] result, final long callGeneration) {
+			if (generation.get() != callGeneration) {
+				return;
+			}
+			cache.put(key, result, timeToLive);
+			if (generation.get() != callGeneration) {
+				// invalidated concurrently, possibly before our put
+				cache.remove(key);
+			}
+		}
+
+		/**
+		 * @return the number of cached results
+		 */
+		public int size() {
+			return cache.size();
+		}
+
+		private void invalidate() {
+			generation.incrementAndGet();
+			cache.clear();
+		}
+	}
+
+}
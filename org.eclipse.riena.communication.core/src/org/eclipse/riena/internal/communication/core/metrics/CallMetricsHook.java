@@ -0,0 +1,48 @@
+/*******************************************************************************
+ * Copyright (c) 2007, 2014 compeople AG and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    compeople AG - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.riena.internal.communication.core.metrics;
+
+import org.eclipse.riena.communication.core.hooks.CallContext;
+import org.eclipse.riena.communication.core.hooks.ICallHook;
+import org.eclipse.riena.communication.core.metrics.IPayloadSizes;
+import org.eclipse.riena.communication.core.metrics.MethodMetrics;
+import org.eclipse.riena.communication.core.metrics.RemoteCallMetrics;
+
+/**
+ * Records the latency, the failures ({@code RemoteFailure}s) and - if the
+ * message context knows them - the payload sizes of the remote service calls
+ * in the {@link RemoteCallMetrics#getCallMetrics()}.
+ */
+public class CallMetricsHook implements ICallHook {
+
+	private static final String START_NANOS = "riena.metrics.start"; //$NON-NLS-1$
+
+	public void beforeCall(final CallContext context) {
+		context.setObjectProperty(START_NANOS, System.nanoTime());
+	}
+
+	public void afterCall(final CallContext context) {
+		final Object start = context.getObjectProperty(START_NANOS);
+		if (!(start instanceof Long)) {
+			// bound during the call
+			return;
+		}
+		final long nanos = System.nanoTime() - (Long) start;
+		final MethodMetrics methodMetrics = RemoteCallMetrics.getCallMetrics().get(context.getInterfaceName(),
+				context.getMethodName());
+		methodMetrics.recordCall(nanos, context.hasRemoteFailure());
+		if (context.getMessageContext() instanceof IPayloadSizes) {
+			final IPayloadSizes sizes = (IPayloadSizes) context.getMessageContext();
+			methodMetrics.recordSizes(sizes.getRequestSize(), sizes.getResponseSize());
+		}
+	}
+
+}
@@ -0,0 +1,145 @@
+/*******************************************************************************
+ * Copyright (c) 2007, 2014 compeople AG and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    compeople AG - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.riena.internal.communication.core.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.osgi.service.log.LogService;
+
+import org.eclipse.equinox.log.Logger;
+
+import org.eclipse.riena.communication.core.metrics.MethodMetrics;
+import org.eclipse.riena.communication.core.metrics.RemoteCallMetrics;
+import org.eclipse.riena.communication.core.zipsupport.BufferPool;
+import org.eclipse.riena.core.Log4r;
+import org.eclipse.riena.internal.communication.core.Activator;
+
+/**
+ * Registers the {@code MethodMetrics} and the counters of the default
+ * {@code BufferPool} as MXBeans with the platform MBean server.
+ */
+public final class MethodMetricsMBeans {
+
+	private static final String DOMAIN = "org.eclipse.riena.communication"; //$NON-NLS-1$
+	private static final boolean JMX_ENABLED = !Boolean.FALSE.toString().equals(
+			System.getProperty(RemoteCallMetrics.RIENA_METRICS_JMX_PROPERTY));
+	private static final Map<ObjectName, Object> REGISTERED = new ConcurrentHashMap<ObjectName, Object>();
+	private static final Logger LOGGER = Log4r.getLogger(Activator.getDefault(), MethodMetricsMBeans.class);
+
+	private MethodMetricsMBeans() {
+		// utility
+	}
+
+	/**
+	 * Register the metrics of a method. An MXBean with the same name (e.g. of
+	 * a previous incarnation of this bundle) is replaced.
+	 *
+	 * @param side
+	 *            "client" or "service"
+	 * @param metrics
+	 *            the metrics
+	 */
+	public static void register(final String side, final MethodMetrics metrics) {
+		if (!JMX_ENABLED) {
+			return;
+		}
+		try {
+			register(getObjectName(side, metrics), metrics);
+		} catch (final JMException e) {
+			LOGGER.log(LogService.LOG_WARNING, "Could not register the metrics of " + metrics.getServiceInterfaceName() //$NON-NLS-1$
+					+ "#" + metrics.getMethodName() + " as MXBean.", e); //$NON-NLS-1$ //$NON-NLS-2$
+		} catch (final SecurityException e) {
+			LOGGER.log(LogService.LOG_WARNING, "Could not register the metrics of " + metrics.getServiceInterfaceName() //$NON-NLS-1$
+					+ "#" + metrics.getMethodName() + " as MXBean.", e); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+	}
+
+	/**
+	 * Register the counters of the default {@code BufferPool} and the metrics
+	 * that have been recorded before, i.e. while this bundle was stopped.
+	 */
+	public static void registerAll() {
+		registerBufferPool();
+		final RemoteCallMetrics[] sides = { RemoteCallMetrics.getCallMetrics(), RemoteCallMetrics.getServiceMetrics() };
+		for (final RemoteCallMetrics remoteCallMetrics : sides) {
+			for (final MethodMetrics metrics : remoteCallMetrics.getAll()) {
+				if (!REGISTERED.containsValue(metrics)) {
+					register(remoteCallMetrics.getSide(), metrics);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Unregister all MXBeans registered by this class.
+	 */
+	public static void unregisterAll() {
+		final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		for (final ObjectName name : REGISTERED.keySet()) {
+			REGISTERED.remove(name);
+			try {
+				server.unregisterMBean(name);
+			} catch (final JMException e) {
+				LOGGER.log(LogService.LOG_DEBUG, "Could not unregister MXBean " + name, e); //$NON-NLS-1$
+			}
+		}
+	}
+
+	private static void registerBufferPool() {
+		if (!JMX_ENABLED) {
+			return;
+		}
+		try {
+			register(new ObjectName(DOMAIN + ":type=BufferPool"), BufferPool.getDefault()); //$NON-NLS-1$
+		} catch (final JMException e) {
+			LOGGER.log(LogService.LOG_WARNING, "Could not register the buffer pool as MXBean.", e); //$NON-NLS-1$
+		} catch (final SecurityException e) {
+			LOGGER.log(LogService.LOG_WARNING, "Could not register the buffer pool as MXBean.", e); //$NON-NLS-1$
+		}
+	}
+
+	private static void register(final ObjectName name, final Object mxBean) throws JMException {
+		final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		try {
+			server.registerMBean(mxBean, name);
+		} catch (final InstanceAlreadyExistsException e) {
+			server.unregisterMBean(name);
+			server.registerMBean(mxBean, name);
+		}
+		REGISTERED.put(name, mxBean);
+	}
+
+	private static ObjectName getObjectName(final String side, final MethodMetrics metrics) throws JMException {
+		return new ObjectName(DOMAIN + ":type=RemoteCallMetrics,side=" + side + ",service=" //$NON-NLS-1$ //$NON-NLS-2$
+				+ quoteIfNecessary(metrics.getServiceInterfaceName()) + ",method=" //$NON-NLS-1$
+				+ quoteIfNecessary(metrics.getMethodName()));
+	}
+
+	private static String quoteIfNecessary(final String value) {
+		if (value == null) {
+			return "null"; //$NON-NLS-1$
+		}
+		for (int i = 0; i < value.length(); i++) {
+			if (",=:\"*?\n".indexOf(value.charAt(i)) != -1) { //$NON-NLS-1$
+				return ObjectName.quote(value);
+			}
+		}
+		return value;
+	}
+
+}
@@ -0,0 +1,54 @@
+/*******************************************************************************
+ * Copyright (c) 2007, 2014 compeople AG and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    compeople AG - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.riena.internal.communication.core.zipsupport;
+
+import org.eclipse.riena.communication.core.zipsupport.CompressionPolicy;
+
+/**
+ * Creates the {@code CompressionPolicy} from its configuration.
+ */
+public final class CompressionPolicies {
+
+	private CompressionPolicies() {
+		// utility
+	}
+
+	/**
+	 * Create the policy of the given configuration.
+	 *
+	 * @param extension
+	 *            the configuration or {@code null}
+	 * @return the policy; {@code CompressionPolicy.DEFAULT} if there is no
+	 *         configuration
+	 */
+	public static CompressionPolicy create(final ICompressionPolicyExtension extension) {
+		if (extension == null) {
+			return CompressionPolicy.DEFAULT;
+		}
+		final CompressionPolicy.Setting defaultSetting = new CompressionPolicy.Setting(extension.isEnabled(),
+				extension.getMinSize(), extension.getLevel());
+		CompressionPolicy policy = new CompressionPolicy(defaultSetting);
+		final ICompressionOverrideExtension[] overrides = extension.getOverrides();
+		if (overrides == null) {
+			return policy;
+		}
+		for (final ICompressionOverrideExtension override : overrides) {
+			final int minSize = override.getMinSize() == ICompressionOverrideExtension.INHERIT ? defaultSetting
+					.getMinSize() : override.getMinSize();
+			final int level = override.getLevel() == ICompressionOverrideExtension.INHERIT ? defaultSetting
+					.getLevel() : override.getLevel();
+			policy = policy.withOverride(override.getService(), override.getMethod(),
+					new CompressionPolicy.Setting(override.isEnabled(), minSize, level));
+		}
+		return policy;
+	}
+
+}
@@ -0,0 +1,62 @@
+/*******************************************************************************
+ * Copyright (c) 2007, 2014 compeople AG and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    compeople AG - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.riena.internal.communication.core.zipsupport;
+
+import org.eclipse.riena.core.injector.extension.DefaultValue;
+import org.eclipse.riena.core.injector.extension.ExtensionInterface;
+
+/**
+ * {@code ExtensionInterface} for the compression setting of a single service
+ * or method. Values that are not specified are taken from the enclosing
+ * policy.
+ */
+@ExtensionInterface
+public interface ICompressionOverrideExtension {
+
+	/**
+	 * Value of {@link #getMinSize()} and {@link #getLevel()} if the value of
+	 * the policy shall be used.
+	 */
+	int INHERIT = Integer.MIN_VALUE;
+
+	/**
+	 * @return the name of the service interface
+	 */
+	String getService();
+
+	/**
+	 * @return the name of the method or {@code null} for all methods of the
+	 *         service
+	 */
+	String getMethod();
+
+	/**
+	 * @return {@code false} if the data of the service or method shall never
+	 *         be compressed
+	 */
+	@DefaultValue("true")
+	boolean isEnabled();
+
+	/**
+	 * @return the minimum size in bytes of the data that gets compressed or
+	 *         {@link #INHERIT}
+	 */
+	@DefaultValue("-2147483648")
+	int getMinSize();
+
+	/**
+	 * @return the deflate level (0-9), -1 for the default level or
+	 *         {@link #INHERIT}
+	 */
+	@DefaultValue("-2147483648")
+	int getLevel();
+
+}
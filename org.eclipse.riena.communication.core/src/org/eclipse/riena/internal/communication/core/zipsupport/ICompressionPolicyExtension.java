@@ -0,0 +1,48 @@
+/*******************************************************************************
+ * Copyright (c) 2007, 2014 compeople AG and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    compeople AG - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.riena.internal.communication.core.zipsupport;
+
+import org.eclipse.riena.core.injector.extension.DefaultValue;
+import org.eclipse.riena.core.injector.extension.ExtensionInterface;
+import org.eclipse.riena.core.injector.extension.MapName;
+
+/**
+ * {@code ExtensionInterface} for the compression policy of the remote service
+ * calls.
+ */
+@ExtensionInterface(id = "compression")
+public interface ICompressionPolicyExtension {
+
+	/**
+	 * @return {@code false} if no data shall be compressed at all
+	 */
+	@DefaultValue("true")
+	boolean isEnabled();
+
+	/**
+	 * @return the minimum size in bytes of the data that gets compressed
+	 */
+	@DefaultValue("0")
+	int getMinSize();
+
+	/**
+	 * @return the deflate level (0-9) or -1 for the default level
+	 */
+	@DefaultValue("-1")
+	int getLevel();
+
+	/**
+	 * @return the overrides for single services or methods
+	 */
+	@MapName("override")
+	ICompressionOverrideExtension[] getOverrides();
+
+}
@@ -10,24 +10,55 @@
  *******************************************************************************/
 package org.eclipse.riena.internal.communication.factory.hessian;
 
+import java.util.Hashtable;
+
 import org.osgi.framework.BundleContext;
+import org.osgi.framework.ServiceRegistration;
+
+import com.caucho.hessian.io.SerializerFactory;
 
+import org.eclipse.riena.communication.core.factory.HessianRemoteCallSerializer;
+import org.eclipse.riena.communication.core.factory.IRemoteCallSerializer;
+import org.eclipse.riena.communication.core.publisher.IServicePublisher;
 import org.eclipse.riena.core.RienaActivator;
+import org.eclipse.riena.core.RienaConstants;
+import org.eclipse.riena.internal.communication.factory.hessian.serializer.RienaSerializerFactory;
 
 public class Activator extends RienaActivator {
 
 	// The shared instance
 	private static Activator plugin;
 
+	private LocalRemoteServicePublisher localPublisher;
+	private ServiceRegistration localPublisherReg;
+	private ServiceRegistration remoteCallSerializerReg;
+
 	@Override
 	public void start(final BundleContext context) throws Exception {
 		super.start(context);
 		Activator.plugin = this;
 		RienaHessianWatchDog.install();
+
+		localPublisher = new LocalRemoteServicePublisher();
+		final Hashtable<String, Object> properties = RienaConstants.newDefaultServiceProperties();
+		properties.put(IServicePublisher.PROP_PROTOCOL, localPublisher.getProtocol());
+		localPublisherReg = context.registerService(IServicePublisher.class.getName(), localPublisher, properties);
+
+		// cached results of remote calls are copied with the same serializers as the transport uses
+		final SerializerFactory serializerFactory = new SerializerFactory();
+		serializerFactory.setAllowNonSerializable(true);
+		serializerFactory.addFactory(new RienaSerializerFactory());
+		remoteCallSerializerReg = context.registerService(IRemoteCallSerializer.class.getName(),
+				new HessianRemoteCallSerializer(serializerFactory), RienaConstants.newDefaultServiceProperties());
 	}
 
 	@Override
 	public void stop(final BundleContext context) throws Exception {
+		remoteCallSerializerReg.unregister();
+		remoteCallSerializerReg = null;
+		localPublisherReg.unregister();
+		localPublisherReg = null;
+		localPublisher = null;
 		Activator.plugin = null;
 		RienaHessianWatchDog.uninstall();
 		super.stop(context);
@@ -42,4 +73,13 @@ public class Activator extends RienaActivator {
 		return plugin;
 	}
 
+	/**
+	 * 
+	 * @return the publisher for the protocol "local" or null if the bundle is
+	 *         stopped
+	 */
+	public LocalRemoteServicePublisher getLocalPublisher() {
+		return localPublisher;
+	}
+
 }
@@ -0,0 +1,47 @@
+/*******************************************************************************
+ * Copyright (c) 2007, 2014 compeople AG and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    compeople AG - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.riena.internal.communication.factory.hessian;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+
+/**
+ * Provides the {@code HttpURLConnection}s used by the
+ * {@code RienaHessianProxyFactory} for the remote service calls.
+ * <p>
+ * The connections are opened and prepared by
+ * {@code HessianProxyFactory.openConnection()} with
+ * {@code URL.openConnection()}, so the default {@code ProxySelector} and the
+ * default {@code SSLSocketFactory} and {@code HostnameVerifier} which are set
+ * by the Riena proxy selector and SSL configuration are always honored. A
+ * provider may delay or wrap these connections. The hessian proxy calls
+ * {@code disconnect()} on the returned connection when the call has been
+ * finished.
+ *
+ * @since 6.2
+ */
+public interface IHessianConnectionProvider {
+
+	/**
+	 * Provide the given connection for a remote service call.
+	 *
+	 * @param connection
+	 *            the prepared but not yet connected connection
+	 * @param connectTimeout
+	 *            the connect timeout in milli seconds; 0 for the default
+	 * @return the connection to use; either the given connection or a wrapper
+	 * @throws IOException
+	 *             if the connection can not be provided, e.g. within the
+	 *             connect timeout
+	 */
+	HttpURLConnection provide(HttpURLConnection connection, int connectTimeout) throws IOException;
+
+}
@@ -28,4 +28,19 @@ public interface IRemoteServiceFactoryHessianExtension {
 	@DefaultValue("0")
 	int getConnectTimeout();
 
+	/**
+	 * @return the maximum number of concurrently used connections per host of
+	 *         the default connection provider; 0 for no limit
+	 * @since 6.2
+	 */
+	@DefaultValue("0")
+	int getMaxConnectionsPerHost();
+
+	/**
+	 * @return a custom connection provider or {@code null} for the default
+	 *         connection provider
+	 * @since 6.2
+	 */
+	IHessianConnectionProvider createConnectionProvider();
+
 }
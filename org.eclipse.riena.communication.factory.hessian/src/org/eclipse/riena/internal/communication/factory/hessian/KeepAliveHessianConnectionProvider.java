@@ -0,0 +1,206 @@
+/*******************************************************************************
+ * Copyright (c) 2007, 2014 compeople AG and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    compeople AG - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.riena.internal.communication.factory.hessian;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.HttpURLConnection;
+import java.net.SocketTimeoutException;
+import java.net.URL;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.eclipse.riena.core.util.Nop;
+
+/**
+ * The default {@code IHessianConnectionProvider} which keeps the connections
+ * to the remote hosts alive.
+ * <p>
+ * The sockets are owned by the keep-alive cache of the JDK's
+ * {@code HttpURLConnection}. A {@code disconnect()} of a provided connection
+ * closes the completely read response stream which gives the socket back to
+ * that cache; only connections that can not be reused get really
+ * disconnected. Additionally the number of concurrently used connections per
+ * host can be limited. A remote service call then waits at most the connect
+ * timeout for a free connection.
+ * <p>
+ * The keep-alive cache itself is configured with the system properties
+ * {@code http.keepAlive} and {@code http.maxConnections} (the maximum number of
+ * idle connections per host, default 5). The idle timeout is the
+ * {@code Keep-Alive} timeout of the server or 5 seconds if the server does not
+ * send one.
+ *
+ * @since 6.2
+ */
+public class KeepAliveHessianConnectionProvider implements IHessianConnectionProvider {
+
+	private final int maxConnectionsPerHost;
+	private final ConcurrentMap<String, Semaphore> hostLimits = new ConcurrentHashMap<String, Semaphore>();
+	private final AtomicInteger leased = new AtomicInteger();
+	private final LongAdder keptAlive = new LongAdder();
+	private final LongAdder disconnected = new LongAdder();
+
+	/**
+	 * Create a provider without a limit of connections per host.
+	 */
+	public KeepAliveHessianConnectionProvider() {
+		this(0);
+	}
+
+	/**
+	 * Create a provider.
+	 *
+	 * @param maxConnectionsPerHost
+	 *            the maximum number of concurrently used connections per host;
+	 *            0 for no limit
+	 */
+	public KeepAliveHessianConnectionProvider(final int maxConnectionsPerHost) {
+		this.maxConnectionsPerHost = Math.max(0, maxConnectionsPerHost);
+	}
+
+	public HttpURLConnection provide(final HttpURLConnection connection, final int connectTimeout)
+			throws IOException {
+		final Semaphore hostLimit = getHostLimit(connection.getURL());
+		if (hostLimit != null) {
+			acquire(hostLimit, connection.getURL(), connectTimeout);
+		}
+		leased.incrementAndGet();
+		return new KeepAliveConnection(connection, hostLimit);
+	}
+
+	/**
+	 * @return the maximum number of concurrently used connections per host; 0
+	 *         means no limit
+	 */
+	public int getMaxConnectionsPerHost() {
+		return maxConnectionsPerHost;
+	}
+
+	/**
+	 * @return the number of currently used connections
+	 */
+	public int getLeased() {
+		return leased.get();
+	}
+
+	/**
+	 * @return the number of connections that have been given back to the
+	 *         keep-alive cache
+	 */
+	public long getKeptAlive() {
+		return keptAlive.sum();
+	}
+
+	/**
+	 * @return the number of connections that have been disconnected because
+	 *         they could not be reused
+	 */
+	public long getDisconnected() {
+		return disconnected.sum();
+	}
+
+	@Override
+	public String toString() {
+		return "KeepAliveHessianConnectionProvider [maxConnectionsPerHost=" + maxConnectionsPerHost + ", leased=" //$NON-NLS-1$ //$NON-NLS-2$
+				+ getLeased() + ", keptAlive=" + getKeptAlive() + ", disconnected=" + getDisconnected() + "]"; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+	}
+
+	private Semaphore getHostLimit(final URL url) {
+		if (maxConnectionsPerHost == 0) {
+			return null;
+		}
+		final String key = url.getProtocol() + "://" + url.getHost() + ":" //$NON-NLS-1$ //$NON-NLS-2$
+				+ (url.getPort() == -1 ? url.getDefaultPort() : url.getPort());
+		Semaphore hostLimit = hostLimits.get(key);
+		if (hostLimit == null) {
+			final Semaphore newHostLimit = new Semaphore(maxConnectionsPerHost, true);
+			hostLimit = hostLimits.putIfAbsent(key, newHostLimit);
+			if (hostLimit == null) {
+				hostLimit = newHostLimit;
+			}
+		}
+		return hostLimit;
+	}
+
+	private static void acquire(final Semaphore hostLimit, final URL url, final int timeout) throws IOException {
+		try {
+			if (timeout <= 0) {
+				hostLimit.acquire();
+			} else if (!hostLimit.tryAcquire(timeout, TimeUnit.MILLISECONDS)) {
+				throw new SocketTimeoutException("No connection to " + url.getHost() + " available within " //$NON-NLS-1$ //$NON-NLS-2$
+						+ timeout + " ms."); //$NON-NLS-1$
+			}
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while waiting for a connection to " + url.getHost()); //$NON-NLS-1$
+		}
+	}
+
+	/**
+	 * Only really disconnects on {@code disconnect()} if the connection can not
+	 * be reused.
+	 */
+	private final class KeepAliveConnection extends HttpURLConnectionWrapper {
+
+		private final Semaphore hostLimit;
+		private InputStream inputStream;
+		private boolean released;
+
+		private KeepAliveConnection(final HttpURLConnection connection, final Semaphore hostLimit) {
+			super(connection);
+			this.hostLimit = hostLimit;
+		}
+
+		@Override
+		public InputStream getInputStream() throws IOException {
+			inputStream = super.getInputStream();
+			return inputStream;
+		}
+
+		@Override
+		public void disconnect() {
+			if (released) {
+				return;
+			}
+			released = true;
+			try {
+				boolean reusable = false;
+				if (inputStream != null) {
+					try {
+						// closing the (completely read) response lets the JDK keep the socket alive
+						inputStream.close();
+						reusable = getResponseCode() == HTTP_OK
+								&& !"close".equalsIgnoreCase(getHeaderField("Connection")); //$NON-NLS-1$ //$NON-NLS-2$
+					} catch (final IOException e) {
+						Nop.reason("the connection will not be reused"); //$NON-NLS-1$
+					}
+				}
+				if (reusable) {
+					keptAlive.increment();
+				} else {
+					disconnected.increment();
+					super.disconnect();
+				}
+			} finally {
+				leased.decrementAndGet();
+				if (hostLimit != null) {
+					hostLimit.release();
+				}
+			}
+		}
+	}
+
+}
@@ -0,0 +1,118 @@
+/*******************************************************************************
+ * Copyright (c) 2007, 2014 compeople AG and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    compeople AG - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.riena.internal.communication.factory.hessian;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.eclipse.riena.communication.core.hooks.ICallMessageContext;
+import org.eclipse.riena.communication.core.hooks.IServiceMessageContext;
+import org.eclipse.riena.communication.core.progressmonitor.IRemoteProgressMonitorList;
+
+/**
+ * The message context of a call with the protocol "local". The same instance
+ * is the {@code ICallMessageContext} of the call hooks and the
+ * {@code IServiceMessageContext} of the service hooks, i.e. the request
+ * headers added by the call hooks are the request headers of the service
+ * hooks and the response headers added by the service hooks are the response
+ * headers of the call hooks.
+ * <p>
+ * Since no bytes are transferred, no progress events are fired and there is
+ * no servlet request.
+ */
+public class LocalMessageContext implements ICallMessageContext, IServiceMessageContext {
+
+	private final String methodName;
+	private final String requestId;
+	private Map<String, List<String>> requestHeaders;
+	private Map<String, List<String>> responseHeaders;
+
+	public LocalMessageContext(final String methodName, final String requestId) {
+		this.methodName = methodName;
+		this.requestId = requestId;
+	}
+
+	public void addRequestHeader(final String name, final String value) {
+		if (requestHeaders == null) {
+			requestHeaders = new HashMap<String, List<String>>();
+		}
+		addHeader(requestHeaders, name, value);
+	}
+
+	public Map<String, List<String>> listRequestHeaders() {
+		return requestHeaders;
+	}
+
+	public List<String> getRequestHeaderValue(final String name) {
+		return requestHeaders == null ? null : requestHeaders.get(name);
+	}
+
+	public void addResponseHeader(final String name, final String value) {
+		if (responseHeaders == null) {
+			responseHeaders = new HashMap<String, List<String>>();
+		}
+		addHeader(responseHeaders, name, value);
+	}
+
+	public Map<String, List<String>> listResponseHeaders() {
+		return responseHeaders;
+	}
+
+	public List<String> getResponseHeaderValues(final String name) {
+		return responseHeaders == null ? null : responseHeaders.get(name);
+	}
+
+	public HttpServletRequest getServletRequest() {
+		return null;
+	}
+
+	public IRemoteProgressMonitorList getProgressMonitorList() {
+		return null;
+	}
+
+	public void fireStartCall() {
+		// no progress for local calls
+	}
+
+	public void fireEndCall() {
+		// no progress for local calls
+	}
+
+	public void fireReadEvent(final int bytesRead) {
+		// no progress for local calls
+	}
+
+	public void fireWriteEvent(final int bytesSent) {
+		// no progress for local calls
+	}
+
+	public String getMethodName() {
+		return methodName;
+	}
+
+	public String getRequestId() {
+		return requestId;
+	}
+
+	private static void addHeader(final Map<String, List<String>> headers, final String name, final String value) {
+		List<String> values = headers.get(name);
+		if (values == null) {
+			values = new ArrayList<String>();
+			headers.put(name, values);
+		}
+		values.add(value);
+	}
+
+}
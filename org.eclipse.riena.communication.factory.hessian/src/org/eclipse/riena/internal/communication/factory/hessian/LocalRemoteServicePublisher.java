@@ -0,0 +1,114 @@
+/*******************************************************************************
+ * Copyright (c) 2007, 2014 compeople AG and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    compeople AG - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.riena.internal.communication.factory.hessian;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.osgi.service.log.LogService;
+
+import org.eclipse.equinox.log.Logger;
+
+import org.eclipse.riena.communication.core.RemoteServiceDescription;
+import org.eclipse.riena.communication.core.hooks.IServiceMessageContext;
+import org.eclipse.riena.communication.core.hooks.IServiceMessageContextAccessor;
+import org.eclipse.riena.communication.core.publisher.IServicePublisher;
+import org.eclipse.riena.core.Log4r;
+
+/**
+ * This is the in-VM implementation of {@link IServicePublisher} for the
+ * protocol "local". It does not open any end point; it only remembers the
+ * published services so that proxies created by the
+ * {@link RemoteServiceFactoryLocal} can call them directly.
+ * <p>
+ * The published service of a {@code RemoteServiceDescription} is the proxy
+ * that calls the service hooks, so these are called for local calls too.
+ * <p>
+ * LocalRemoteServicePublisher becomes registered as OSGi Service with name
+ * {@link IServicePublisher#ID} by the activator. The OSGi Service set the
+ * property "riena.protocol=local".
+ */
+public class LocalRemoteServicePublisher implements IServicePublisher {
+
+	/**
+	 * The protocol of the local publisher and factory.
+	 */
+	public static final String PROTOCOL = "local"; //$NON-NLS-1$
+
+	/**
+	 * The prefix of the URLs of services published by this publisher.
+	 */
+	public static final String URL_PREFIX = PROTOCOL + ":"; //$NON-NLS-1$
+
+	private final ConcurrentMap<String, RemoteServiceDescription> serviceDescriptions = new ConcurrentHashMap<String, RemoteServiceDescription>();
+	private final ThreadLocal<IServiceMessageContext> messageContexts = new ThreadLocal<IServiceMessageContext>();
+	private final IServiceMessageContextAccessor mca = new MsgCxtAcc();
+
+	private static final Logger LOGGER = Log4r.getLogger(Activator.getDefault(), LocalRemoteServicePublisher.class);
+
+	public String publishService(final RemoteServiceDescription rsd) {
+		final String url = URL_PREFIX + rsd.getPath();
+		serviceDescriptions.put(rsd.getPath(), rsd);
+		LOGGER.log(LogService.LOG_DEBUG, "published local service. " + rsd); //$NON-NLS-1$
+		return url;
+	}
+
+	public void unpublishService(final RemoteServiceDescription rsd) {
+		serviceDescriptions.remove(rsd.getPath(), rsd);
+		LOGGER.log(LogService.LOG_DEBUG, "unpublished local service. " + rsd); //$NON-NLS-1$
+	}
+
+	/**
+	 * Find the description of the service published with the given path.
+	 *
+	 * @param path
+	 *            the path of the service
+	 * @return the description or {@code null} if no service is published with
+	 *         this path
+	 */
+	public RemoteServiceDescription findService(final String path) {
+		return serviceDescriptions.get(path);
+	}
+
+	public String getProtocol() {
+		return PROTOCOL;
+	}
+
+	public IServiceMessageContextAccessor getMessageContextAccessor() {
+		return mca;
+	}
+
+	/**
+	 * Set the message context the service hooks get for calls on the current
+	 * thread.
+	 *
+	 * @param messageContext
+	 *            the message context or {@code null}
+	 * @return the previous message context of the current thread
+	 */
+	IServiceMessageContext setMessageContext(final IServiceMessageContext messageContext) {
+		final IServiceMessageContext previous = messageContexts.get();
+		if (messageContext == null) {
+			messageContexts.remove();
+		} else {
+			messageContexts.set(messageContext);
+		}
+		return previous;
+	}
+
+	class MsgCxtAcc implements IServiceMessageContextAccessor {
+
+		public IServiceMessageContext getMessageContext() {
+			return messageContexts.get();
+		}
+	}
+
+}
@@ -0,0 +1,72 @@
+/*******************************************************************************
+ * Copyright (c) 2007, 2014 compeople AG and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    compeople AG - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.riena.internal.communication.factory.hessian;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.eclipse.riena.communication.core.hooks.ICallMessageContext;
+
+/**
+ * An {@code InputStream} that reports the number of bytes read to the
+ * {@code ICallMessageContext}. Bulk reads are passed through to the underlying
+ * stream and reported with a single event; the {@code ICallMessageContext}
+ * coalesces the events for the progress monitors.
+ */
+class ProgressInputStream extends FilterInputStream {
+
+	private final ICallMessageContext messageContext;
+
+	ProgressInputStream(final InputStream in, final ICallMessageContext messageContext) {
+		super(in);
+		this.messageContext = messageContext;
+	}
+
+	@Override
+	public int read() throws IOException {
+		final int b = in.read();
+		if (b != -1) {
+			messageContext.fireReadEvent(1);
+		}
+		return b;
+	}
+
+	@Override
+	public int read(final byte[] b, final int off, final int len) throws IOException {
+		final int count = in.read(b, off, len);
+		if (count > 0) {
+			messageContext.fireReadEvent(count);
+		}
+		return count;
+	}
+
+	@Override
+	public long skip(final long n) throws IOException {
+		final long count = in.skip(n);
+		if (count > 0) {
+			messageContext.fireReadEvent((int) count);
+		}
+		return count;
+	}
+
+	@Override
+	public void close() throws IOException {
+		// the underlying stream is closed by its owner
+	}
+
+	@Override
+	public boolean markSupported() {
+		// re-reading would report the bytes twice
+		return false;
+	}
+
+}
@@ -0,0 +1,54 @@
+/*******************************************************************************
+ * Copyright (c) 2007, 2014 compeople AG and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    compeople AG - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.riena.internal.communication.factory.hessian;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import org.eclipse.riena.communication.core.hooks.ICallMessageContext;
+
+/**
+ * An {@code OutputStream} that reports the number of bytes written to the
+ * {@code ICallMessageContext}. Bulk writes are passed through to the
+ * underlying stream and reported with a single event; the
+ * {@code ICallMessageContext} coalesces the events for the progress monitors.
+ */
+class ProgressOutputStream extends FilterOutputStream {
+
+	private final ICallMessageContext messageContext;
+
+	ProgressOutputStream(final OutputStream out, final ICallMessageContext messageContext) {
+		super(out);
+		this.messageContext = messageContext;
+	}
+
+	@Override
+	public void write(final int b) throws IOException {
+		out.write(b);
+		messageContext.fireWriteEvent(1);
+	}
+
+	@Override
+	public void write(final byte[] b, final int off, final int len) throws IOException {
+		out.write(b, off, len);
+		if (len > 0) {
+			messageContext.fireWriteEvent(len);
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		// the underlying stream is closed by its owner
+		flush();
+	}
+
+}
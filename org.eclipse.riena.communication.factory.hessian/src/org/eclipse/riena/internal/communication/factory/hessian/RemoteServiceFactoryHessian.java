@@ -17,6 +17,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 import org.eclipse.riena.communication.core.IRemoteServiceReference;
 import org.eclipse.riena.communication.core.RemoteServiceDescription;
@@ -24,10 +25,13 @@ import org.eclipse.riena.communication.core.factory.IRemoteServiceFactory;
 import org.eclipse.riena.communication.core.factory.RemoteServiceReference;
 import org.eclipse.riena.communication.core.hooks.ICallMessageContext;
 import org.eclipse.riena.communication.core.hooks.ICallMessageContextAccessor;
+import org.eclipse.riena.communication.core.metrics.IPayloadSizes;
 import org.eclipse.riena.communication.core.progressmonitor.IRemoteProgressMonitorList;
 import org.eclipse.riena.communication.core.progressmonitor.IRemoteProgressMonitorRegistry;
 import org.eclipse.riena.core.wire.InjectExtension;
 import org.eclipse.riena.core.wire.InjectService;
+import org.eclipse.riena.internal.communication.core.zipsupport.CompressionPolicies;
+import org.eclipse.riena.internal.communication.core.zipsupport.ICompressionPolicyExtension;
 
 /**
  * This is a Hessian based implementation of {@link IRemoteServiceFactory}.
@@ -91,6 +95,21 @@ public class RemoteServiceFactoryHessian implements IRemoteServiceFactory {
 		if (extension.getConnectTimeout() > 0) {
 			rienaHessianProxyFactory.setConnectTimeout(extension.getConnectTimeout());
 		}
+		final IHessianConnectionProvider connectionProvider = extension.createConnectionProvider();
+		if (connectionProvider != null) {
+			rienaHessianProxyFactory.setConnectionProvider(connectionProvider);
+		} else {
+			rienaHessianProxyFactory.setConnectionProvider(new KeepAliveHessianConnectionProvider(extension
+					.getMaxConnectionsPerHost()));
+		}
+	}
+
+	/**
+	 * @since 6.2
+	 */
+	@InjectExtension(min = 0, max = 1)
+	public void update(final ICompressionPolicyExtension extension) {
+		rienaHessianProxyFactory.setCompressionPolicy(CompressionPolicies.create(extension));
 	}
 
 	@InjectService(useRanking = true)
@@ -114,6 +133,17 @@ public class RemoteServiceFactoryHessian implements IRemoteServiceFactory {
 
 	class CallMsgCtxAcc implements ICallMessageContextAccessor {
 
+		/**
+		 * Progress events are fired at least every this many bytes.
+		 */
+		private static final int MAX_COALESCED_BYTES = 64 * 1024;
+
+		/**
+		 * Progress events for less than {@code MAX_COALESCED_BYTES} are fired
+		 * at most once within this interval.
+		 */
+		private final long progressEventIntervalNanos = TimeUnit.MILLISECONDS.toNanos(100);
+
 		private final ThreadLocal<ICallMessageContext> contexts = new ThreadLocal<ICallMessageContext>();
 
 		public ICallMessageContext createMessageContext(final Object proxy, final String methodName,
@@ -127,7 +157,7 @@ public class RemoteServiceFactoryHessian implements IRemoteServiceFactory {
 			return contexts.get();
 		}
 
-		class MsgCtx implements ICallMessageContext {
+		class MsgCtx implements ICallMessageContext, IPayloadSizes {
 
 			private HashMap<String, List<String>> customRequestHeader;
 			private IRemoteProgressMonitorList remoteProgressMonitorList;
@@ -136,6 +166,9 @@ public class RemoteServiceFactoryHessian implements IRemoteServiceFactory {
 			private int bytesWritten;
 			private int totalBytesWritten = 0;
 			private boolean firstEvent = true;
+			private long lastEventNanos = System.nanoTime();
+			private long requestSize;
+			private long responseSize;
 			private final String methodName;
 			private String requestId = null;
 
@@ -189,16 +222,25 @@ public class RemoteServiceFactoryHessian implements IRemoteServiceFactory {
 			public void fireStartCall() {
 				//				List<String> list = RienaHessianProxyFactory.getHttpURLConnection().getRequestProperties().get(
 				//						"Content-Length"); //$NON-NLS-1$
+				if (remoteProgressMonitorList == null) {
+					return;
+				}
 				remoteProgressMonitorList.fireStartEvent();
 				firstEvent = false;
 
 			}
 
 			public void fireEndCall() {
+				if (remoteProgressMonitorList == null) {
+					return;
+				}
 				// if no communication happened than this was a local call (like for equals or hashCode)
 				if (totalBytesRead == 0 && totalBytesWritten == 0 && bytesRead == 0 && bytesWritten == 0) {
 					return;
 				}
+				if (bytesWritten != 0) {
+					internalFireWriteEvent();
+				}
 				if (bytesRead != 0) {
 					internalFireReadEvent();
 				}
@@ -206,6 +248,11 @@ public class RemoteServiceFactoryHessian implements IRemoteServiceFactory {
 			}
 
 			public void fireReadEvent(final int parmBytesRead) {
+				responseSize += parmBytesRead;
+				if (remoteProgressMonitorList == null) {
+					// only counting the bytes for the call metrics
+					return;
+				}
 				if (firstEvent) {
 					remoteProgressMonitorList.fireStartEvent();
 					firstEvent = false;
@@ -215,24 +262,43 @@ public class RemoteServiceFactoryHessian implements IRemoteServiceFactory {
 					internalFireWriteEvent();
 				}
 				bytesRead += parmBytesRead;
-				if (bytesRead >= IRemoteProgressMonitorList.BYTE_COUNT_INCR) {
+				if (isProgressEventDue(bytesRead)) {
 					internalFireReadEvent();
 				}
 			}
 
+			/**
+			 * Coalesce the progress events by byte count and time, i.e. fire
+			 * an event if enough bytes are pending or if some bytes are
+			 * pending and the last event is long enough ago.
+			 */
+			private boolean isProgressEventDue(final int pendingBytes) {
+				if (pendingBytes >= MAX_COALESCED_BYTES) {
+					return true;
+				}
+				return pendingBytes >= IRemoteProgressMonitorList.BYTE_COUNT_INCR
+						&& System.nanoTime() - lastEventNanos >= progressEventIntervalNanos;
+			}
+
 			private void internalFireReadEvent() {
 				totalBytesRead += bytesRead;
 				bytesRead = 0;
+				lastEventNanos = System.nanoTime();
 				remoteProgressMonitorList.fireReadEvent(-1, totalBytesRead);
 			}
 
 			public void fireWriteEvent(final int parmBytesWritten) {
+				requestSize += parmBytesWritten;
+				if (remoteProgressMonitorList == null) {
+					// only counting the bytes for the call metrics
+					return;
+				}
 				if (firstEvent) {
 					fireStartCall();
 				}
 
 				bytesWritten += parmBytesWritten;
-				if (bytesWritten >= IRemoteProgressMonitorList.BYTE_COUNT_INCR) {
+				if (isProgressEventDue(bytesWritten)) {
 					internalFireWriteEvent();
 				}
 			}
@@ -240,9 +306,18 @@ public class RemoteServiceFactoryHessian implements IRemoteServiceFactory {
 			private void internalFireWriteEvent() {
 				totalBytesWritten += bytesWritten;
 				bytesWritten = 0;
+				lastEventNanos = System.nanoTime();
 				remoteProgressMonitorList.fireWriteEvent(-1, totalBytesWritten);
 			}
 
+			public long getRequestSize() {
+				return requestSize;
+			}
+
+			public long getResponseSize() {
+				return responseSize;
+			}
+
 			/*
 			 * (non-Javadoc)
 			 * 
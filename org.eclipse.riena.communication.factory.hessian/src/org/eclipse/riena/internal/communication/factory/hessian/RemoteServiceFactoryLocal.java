@@ -0,0 +1,231 @@
+/*******************************************************************************
+ * Copyright (c) 2007, 2014 compeople AG and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    compeople AG - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.riena.internal.communication.factory.hessian;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+import com.caucho.hessian.io.Hessian2Input;
+import com.caucho.hessian.io.Hessian2Output;
+import com.caucho.hessian.io.SerializerFactory;
+
+import org.eclipse.riena.communication.core.IRemoteServiceReference;
+import org.eclipse.riena.communication.core.RemoteFailure;
+import org.eclipse.riena.communication.core.RemoteServiceDescription;
+import org.eclipse.riena.communication.core.factory.IRemoteServiceFactory;
+import org.eclipse.riena.communication.core.factory.RemoteServiceReference;
+import org.eclipse.riena.communication.core.hooks.ICallMessageContext;
+import org.eclipse.riena.communication.core.hooks.ICallMessageContextAccessor;
+import org.eclipse.riena.communication.core.hooks.IServiceMessageContext;
+import org.eclipse.riena.internal.communication.factory.hessian.serializer.RienaSerializerFactory;
+
+/**
+ * This is the in-VM implementation of {@link IRemoteServiceFactory} for the
+ * protocol "local". The proxies it creates call the service that has been
+ * published with the {@link LocalRemoteServicePublisher} directly, i.e.
+ * without serializing the call and without any network round trip. The call
+ * hooks (which the {@code RemoteServiceFactory} wraps around each proxy) and
+ * the service hooks (which wrap the published service) are called as for any
+ * other protocol.
+ * <p>
+ * The URL of a local service is "local:" followed by the path the service has
+ * been published with, e.g. "local:/PingPongWS".
+ * <p>
+ * By default arguments and return values are passed by reference. If the
+ * system property {@code riena.communication.local.byvalue} is {@code true},
+ * they are copied with the Hessian serializers (including the Riena
+ * serializer factories), so that caller and service do not share any mutable
+ * objects - just like with a remote call.
+ */
+public class RemoteServiceFactoryLocal implements IRemoteServiceFactory {
+
+	/**
+	 * System property that enables passing arguments and return values by
+	 * value.
+	 */
+	public static final String RIENA_LOCAL_BY_VALUE_PROPERTY = "riena.communication.local.byvalue"; //$NON-NLS-1$
+
+	private final LocalRemoteServicePublisher publisher;
+	private final boolean byValue;
+	private final CallMsgCtxAcc messageContextAccessor = new CallMsgCtxAcc();
+	private SerializerFactory serializerFactory;
+
+	public RemoteServiceFactoryLocal() {
+		this(null, Boolean.getBoolean(RIENA_LOCAL_BY_VALUE_PROPERTY));
+	}
+
+	/**
+	 * Create a factory for the services of the given publisher.
+	 *
+	 * @param publisher
+	 *            the publisher or {@code null} for the publisher registered by
+	 *            this bundle
+	 * @param byValue
+	 *            {@code true} if arguments and return values shall be copied
+	 */
+	public RemoteServiceFactoryLocal(final LocalRemoteServicePublisher publisher, final boolean byValue) {
+		this.publisher = publisher;
+		this.byValue = byValue;
+	}
+
+	public IRemoteServiceReference createProxy(final RemoteServiceDescription endpoint) {
+		final String path = getPath(endpoint);
+		final Object proxy = Proxy.newProxyInstance(endpoint.getServiceInterfaceClass().getClassLoader(),
+				new Class[] { endpoint.getServiceInterfaceClass() }, new LocalServiceHandler(path));
+		final RemoteServiceReference serviceReference = new RemoteServiceReference(endpoint);
+		serviceReference.setServiceInstance(proxy);
+		return serviceReference;
+	}
+
+	private String getPath(final RemoteServiceDescription endpoint) {
+		final String url = endpoint.getURL();
+		if (url == null) {
+			return endpoint.getPath();
+		}
+		if (url.startsWith(LocalRemoteServicePublisher.URL_PREFIX)) {
+			return url.substring(LocalRemoteServicePublisher.URL_PREFIX.length());
+		}
+		return url;
+	}
+
+	public String getProtocol() {
+		return LocalRemoteServicePublisher.PROTOCOL;
+	}
+
+	public ICallMessageContextAccessor getMessageContextAccessor() {
+		return messageContextAccessor;
+	}
+
+	private LocalRemoteServicePublisher getPublisher() {
+		if (publisher != null) {
+			return publisher;
+		}
+		final Activator activator = Activator.getDefault();
+		return activator == null ? null : activator.getLocalPublisher();
+	}
+
+	private Object[] copyArguments(final Method method, final Object[] args) throws IOException {
+		if (args == null) {
+			return null;
+		}
+		final Class<?>[] types = method.getParameterTypes();
+		final Object[] copies = new Object[args.length];
+		for (int i = 0; i < args.length; i++) {
+			copies[i] = copy(args[i], types[i]);
+		}
+		return copies;
+	}
+
+	private Object copy(final Object value, final Class<?> type) throws IOException {
+		if (value == null || value instanceof String || value instanceof Number || value instanceof Boolean
+				|| value instanceof Character) {
+			return value;
+		}
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		final Hessian2Output out = new Hessian2Output(bytes);
+		out.setSerializerFactory(getSerializerFactory());
+		out.writeObject(value);
+		out.close();
+		final Hessian2Input in = new Hessian2Input(new ByteArrayInputStream(bytes.toByteArray()));
+		in.setSerializerFactory(getSerializerFactory());
+		try {
+			return in.readObject(type);
+		} finally {
+			in.close();
+		}
+	}
+
+	private synchronized SerializerFactory getSerializerFactory() {
+		if (serializerFactory == null) {
+			serializerFactory = new SerializerFactory();
+			serializerFactory.setAllowNonSerializable(true);
+			serializerFactory.addFactory(new RienaSerializerFactory());
+		}
+		return serializerFactory;
+	}
+
+	/**
+	 * Calls the published service.
+	 */
+	private class LocalServiceHandler implements InvocationHandler {
+
+		private final String path;
+
+		public LocalServiceHandler(final String path) {
+			this.path = path;
+		}
+
+		public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+			if (method.getDeclaringClass() == Object.class) {
+				return invokeObjectMethod(proxy, method, args);
+			}
+			final LocalRemoteServicePublisher localPublisher = getPublisher();
+			final RemoteServiceDescription rsd = localPublisher == null ? null : localPublisher.findService(path);
+			if (rsd == null || rsd.getService() == null) {
+				throw new RemoteFailure("No service published with protocol " + getProtocol() + " and path " + path); //$NON-NLS-1$ //$NON-NLS-2$
+			}
+
+			// the call hooks proxy has created the message context for this call
+			LocalMessageContext messageContext = messageContextAccessor.contexts.get();
+			if (messageContext == null) {
+				messageContext = new LocalMessageContext(method.getName(), null);
+			}
+			final IServiceMessageContext previous = localPublisher.setMessageContext(messageContext);
+			try {
+				if (!byValue) {
+					return method.invoke(rsd.getService(), args);
+				}
+				final Object result = method.invoke(rsd.getService(), copyArguments(method, args));
+				return copy(result, method.getReturnType());
+			} catch (final InvocationTargetException e) {
+				throw e.getTargetException();
+			} catch (final IllegalArgumentException e) {
+				throw new RemoteFailure("Could not call local service " + rsd, e); //$NON-NLS-1$
+			} catch (final IOException e) {
+				throw new RemoteFailure("Could not copy arguments or return value of local service " + rsd, e); //$NON-NLS-1$
+			} finally {
+				localPublisher.setMessageContext(previous);
+			}
+		}
+
+		private Object invokeObjectMethod(final Object proxy, final Method method, final Object[] args) {
+			if (method.getName().equals("equals")) { //$NON-NLS-1$
+				return proxy == args[0];
+			}
+			if (method.getName().equals("hashCode")) { //$NON-NLS-1$
+				return System.identityHashCode(proxy);
+			}
+			return "LocalProxy[" + getProtocol() + ":" + path + "]"; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		}
+	}
+
+	class CallMsgCtxAcc implements ICallMessageContextAccessor {
+
+		private final ThreadLocal<LocalMessageContext> contexts = new ThreadLocal<LocalMessageContext>();
+
+		public ICallMessageContext createMessageContext(final Object proxy, final String methodName,
+				final String requestId) {
+			final LocalMessageContext mc = new LocalMessageContext(methodName, requestId);
+			contexts.set(mc);
+			return mc;
+		}
+
+		public ICallMessageContext getMessageContext() {
+			return contexts.get();
+		}
+	}
+
+}
@@ -14,11 +14,12 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.HttpURLConnection;
+import java.net.MalformedURLException;
 import java.net.URL;
 import java.net.URLConnection;
 import java.util.List;
 import java.util.Map;
-import java.util.zip.GZIPOutputStream;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.caucho.hessian.client.HessianProxyFactory;
 import com.caucho.hessian.io.AbstractHessianInput;
@@ -27,6 +28,8 @@ import com.caucho.hessian.io.Hessian2Output;
 
 import org.eclipse.riena.communication.core.hooks.ICallMessageContext;
 import org.eclipse.riena.communication.core.hooks.ICallMessageContextAccessor;
+import org.eclipse.riena.communication.core.metrics.RemoteCallMetrics;
+import org.eclipse.riena.communication.core.zipsupport.CompressionPolicy;
 import org.eclipse.riena.internal.communication.factory.hessian.serializer.RienaSerializerFactory;
 
 public class RienaHessianProxyFactory extends HessianProxyFactory {
@@ -35,6 +38,9 @@ public class RienaHessianProxyFactory extends HessianProxyFactory {
 	private static boolean transferDataChunked = false; // set chunking to FALSE by default overwriting the hessian default
 	private int connectTimeout = -1;
 	private boolean isZipClientRequest = false;
+	private volatile CompressionPolicy compressionPolicy = CompressionPolicy.DEFAULT;
+	private final Map<String, String> serviceInterfaceNames = new ConcurrentHashMap<String, String>();
+	private IHessianConnectionProvider connectionProvider = new KeepAliveHessianConnectionProvider();
 
 	private final static ThreadLocal<HttpURLConnection> CONNECTIONS = new ThreadLocal<HttpURLConnection>();
 
@@ -72,6 +78,23 @@ public class RienaHessianProxyFactory extends HessianProxyFactory {
 		this.connectTimeout = connectTimeout;
 	}
 
+	/**
+	 * @param connectionProvider
+	 *            the provider for the connections of the remote service calls
+	 * @since 6.2
+	 */
+	public void setConnectionProvider(final IHessianConnectionProvider connectionProvider) {
+		this.connectionProvider = connectionProvider;
+	}
+
+	/**
+	 * @return the provider for the connections of the remote service calls
+	 * @since 6.2
+	 */
+	public IHessianConnectionProvider getConnectionProvider() {
+		return connectionProvider;
+	}
+
 	/**
 	 * @param zipClientRequest
 	 *            the zipClientRequest to set
@@ -80,6 +103,26 @@ public class RienaHessianProxyFactory extends HessianProxyFactory {
 		this.isZipClientRequest = isZipClientRequest;
 	}
 
+	/**
+	 * @param compressionPolicy
+	 *            the policy that decides whether and how requests are
+	 *            compressed if compression is enabled with
+	 *            {@link #setZipClientRequest(boolean)}
+	 * @since 6.2
+	 */
+	public void setCompressionPolicy(final CompressionPolicy compressionPolicy) {
+		this.compressionPolicy = compressionPolicy;
+	}
+
+	@Override
+	@SuppressWarnings("rawtypes")
+	public Object create(final Class api, final String urlName, final ClassLoader loader)
+			throws MalformedURLException {
+		// remember the service interface of the url for the compression policy
+		serviceInterfaceNames.put(new URL(urlName).toString(), api.getName());
+		return super.create(api, urlName, loader);
+	}
+
 	@Override
 	protected URLConnection openConnection(final URL url) throws IOException {
 		URLConnection connection;
@@ -90,12 +133,9 @@ public class RienaHessianProxyFactory extends HessianProxyFactory {
 			if (requestId != null) {
 				methodName = methodName + "&" + requestId; //$NON-NLS-1$
 			}
-			connection = super.openConnection(new URL(url.toString() + "?" + methodName)); //$NON-NLS-1$
+			connection = openProvidedConnection(new URL(url.toString() + "?" + methodName)); //$NON-NLS-1$
 		} else {
-			connection = super.openConnection(url);
-		}
-		if (connectTimeout > 0) {
-			connection.setConnectTimeout(connectTimeout);
+			connection = openProvidedConnection(url);
 		}
 		final Map<String, List<String>> headers = mc.listRequestHeaders();
 		if (headers != null) {
@@ -108,32 +148,38 @@ public class RienaHessianProxyFactory extends HessianProxyFactory {
 			}
 		}
 		if (isZipClientRequest) {
-			connection.addRequestProperty("Content-Encoding", "x-hessian-gzip"); //$NON-NLS-1$//$NON-NLS-2$
-			connection = new GZippingHttpURLConnectionWrapper((HttpURLConnection) connection);
+			final CompressionPolicy.Setting setting = compressionPolicy.getSetting(
+					serviceInterfaceNames.get(url.toString()), mc.getMethodName());
+			if (setting.isEnabled()) {
+				connection.addRequestProperty("Content-Encoding", "x-hessian-gzip"); //$NON-NLS-1$//$NON-NLS-2$
+				connection = new GZippingHttpURLConnectionWrapper((HttpURLConnection) connection, setting);
+			}
 		}
 		CONNECTIONS.set((HttpURLConnection) connection);
 		return connection;
 	}
 
+	/**
+	 * Opens and prepares the connection with
+	 * {@code HessianProxyFactory.openConnection()} and hands it over to the
+	 * {@code IHessianConnectionProvider}.
+	 */
+	private HttpURLConnection openProvidedConnection(final URL url) throws IOException {
+		final HttpURLConnection connection = (HttpURLConnection) super.openConnection(url);
+		if (connectTimeout > 0) {
+			connection.setConnectTimeout(connectTimeout);
+		}
+		return connectionProvider.provide(connection, Math.max(0, connectTimeout));
+	}
+
 	@Override
 	public AbstractHessianInput getHessianInput(final InputStream is) {
 		final ICallMessageContext messageContext = mca.getMessageContext();
 
-		if (messageContext.getProgressMonitorList() == null) {
+		if (messageContext.getProgressMonitorList() == null && !RemoteCallMetrics.isEnabled()) {
 			return super.getHessianInput(is);
 		} else {
-			return super.getHessianInput(new InputStream() {
-
-				@Override
-				public int read() throws IOException {
-					final int b = is.read();
-					if (b != -1) {
-						messageContext.fireReadEvent(1);
-					}
-					return b;
-				}
-
-			});
+			return super.getHessianInput(new ProgressInputStream(is, messageContext));
 		}
 	}
 
@@ -141,17 +187,10 @@ public class RienaHessianProxyFactory extends HessianProxyFactory {
 	public AbstractHessianOutput getHessianOutput(final OutputStream os) {
 		final ICallMessageContext messageContext = mca.getMessageContext();
 
-		if (messageContext.getProgressMonitorList() == null) {
+		if (messageContext.getProgressMonitorList() == null && !RemoteCallMetrics.isEnabled()) {
 			return getHessianOutputImpl(os, os);
 		} else {
-			return getHessianOutputImpl(os, new OutputStream() {
-
-				@Override
-				public void write(final int b) throws IOException {
-					os.write(b);
-					messageContext.fireWriteEvent(1);
-				}
-			});
+			return getHessianOutputImpl(os, new ProgressOutputStream(os, messageContext));
 		}
 	}
 
@@ -182,13 +221,12 @@ public class RienaHessianProxyFactory extends HessianProxyFactory {
 				public void completeCall() throws IOException {
 					super.completeCall();
 					this.flush();
+					outputStreamData.flush();
 					final HttpURLConnection urlConnection = CONNECTIONS.get();
 					if (urlConnection instanceof GZippingHttpURLConnectionWrapper) {
-						final GZIPOutputStream gzipOut = ((GZippingHttpURLConnectionWrapper) urlConnection)
-								.getUsedGZIPOutputStream();
-						gzipOut.finish();
+						// hessian never closes the output stream, so the pooled buffer is released here
+						((GZippingHttpURLConnectionWrapper) urlConnection).finishOutputStream();
 					}
-					outputStreamData.flush();
 				}
 			};
 			//		else {
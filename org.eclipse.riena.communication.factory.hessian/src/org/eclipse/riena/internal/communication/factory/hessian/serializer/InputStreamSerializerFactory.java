@@ -11,8 +11,14 @@
 package org.eclipse.riena.internal.communication.factory.hessian.serializer;
 
 import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
 
 import com.caucho.hessian.io.AbstractDeserializer;
 import com.caucho.hessian.io.AbstractHessianInput;
@@ -28,9 +34,38 @@ import org.eclipse.riena.communication.factory.hessian.serializer.AbstractRienaS
 /**
  * SerializerFactory used to serialize and deserialize InputStream, used for the
  * attachment object.
+ * <p>
+ * The content is streamed: Contents up to the spill threshold (system property
+ * {@code riena.communication.attachment.spillthreshold} in bytes, default
+ * 1MB) are deserialized into memory, larger contents are spilled to a
+ * temporary file which lives as long as the deserialized stream, i.e. as long
+ * as the attachment. Like the in memory content, the spilled content can be
+ * read again after the stream has been closed. File contents are read through
+ * their {@code FileChannel}.
  */
 public class InputStreamSerializerFactory extends AbstractRienaSerializerFactory {
 
+	/**
+	 * System property for the size in bytes up to which the deserialized
+	 * content of an attachment is kept in memory. Larger contents are spilled
+	 * to a temporary file.
+	 * 
+	 * @since 6.2
+	 */
+	public static final String RIENA_ATTACHMENT_SPILL_THRESHOLD_PROPERTY = "riena.communication.attachment.spillthreshold"; //$NON-NLS-1$
+
+	/**
+	 * The default spill threshold.
+	 * 
+	 * @since 6.2
+	 */
+	public static final int DEFAULT_SPILL_THRESHOLD = 1024 * 1024;
+
+	private static final int CHUNK_SIZE = 8192;
+	private static final int CHANNEL_CHUNK_SIZE = 32768;
+	private static final String SPILL_FILE_PREFIX = "riena-attachment"; //$NON-NLS-1$
+	private static final String SPILL_FILE_SUFFIX = ".tmp"; //$NON-NLS-1$
+
 	@Override
 	public Deserializer getDeserializer(final Class cl) throws HessianProtocolException {
 		if (isInputStream(cl)) {
@@ -39,8 +74,11 @@ public class InputStreamSerializerFactory extends AbstractRienaSerializerFactory
 				@Override
 				public Object readObject(final AbstractHessianInput in) throws IOException {
 					try {
-						final byte[] bytes = in.readBytes();
-						return new ByteArrayInputStream(bytes);
+						final InputStream content = in.readInputStream();
+						if (content == null) {
+							return null;
+						}
+						return buffer(content);
 					} catch (final HessianProtocolException e) {
 						throw new RemoteFailure(
 								"Error while reading Attachment content. Probably incomplete or interrupted Attachment inputstream. " + e.getMessage()); //$NON-NLS-1$
@@ -64,26 +102,12 @@ public class InputStreamSerializerFactory extends AbstractRienaSerializerFactory
 					}
 					final InputStream is = (InputStream) obj;
 					try {
-						final byte[] buf = new byte[1024];
-						int len = 0;
-
-						while (true) {
-							try {
-								len = is.read(buf, 0, buf.length);
-							} catch (final IOException e) {
-								// catch the exception only for the inputstream and close
-								// write null so that the client gets a "hick-up" and can tell that there is something wrong
-								out.writeNull();
-								break;
-							}
-							if (len > 0) {
-								out.writeByteBufferPart(buf, 0, len);
-							} else {
-								break;
-							}
+						final FileChannel channel = getFileChannel(is);
+						if (channel != null) {
+							writeChannel(channel, is, out);
+						} else {
+							writeStream(is, out);
 						}
-
-						out.writeByteBufferEnd(buf, 0, 0);
 					} finally {
 						is.close();
 					}
@@ -93,6 +117,129 @@ public class InputStreamSerializerFactory extends AbstractRienaSerializerFactory
 		return null;
 	}
 
+	/**
+	 * Read the content either completely into memory or, if it exceeds the
+	 * spill threshold, into a temporary file.
+	 */
+	private static InputStream buffer(final InputStream content) throws IOException {
+		final int threshold = getSpillThreshold();
+		byte[] bytes = new byte[Math.min(CHUNK_SIZE, threshold)];
+		int count = 0;
+		int len;
+		while ((len = content.read(bytes, count, bytes.length - count)) != -1) {
+			count += len;
+			if (count == bytes.length) {
+				if (count >= threshold) {
+					final int next = content.read();
+					if (next == -1) {
+						// exactly the threshold
+						break;
+					}
+					return spill(bytes, count, next, content);
+				}
+				bytes = Arrays.copyOf(bytes, Math.min(threshold, 2 * bytes.length));
+			}
+		}
+		return new ByteArrayInputStream(bytes, 0, count);
+	}
+
+	private static InputStream spill(final byte[] head, final int headLength, final int next,
+			final InputStream content) throws IOException {
+		final File file = File.createTempFile(SPILL_FILE_PREFIX, SPILL_FILE_SUFFIX);
+		boolean spilled = false;
+		final FileOutputStream output = new FileOutputStream(file);
+		try {
+			final FileChannel channel = output.getChannel();
+			write(channel, ByteBuffer.wrap(head, 0, headLength));
+			write(channel, ByteBuffer.wrap(new byte[] { (byte) next }));
+			final byte[] buf = new byte[CHUNK_SIZE];
+			int len;
+			while ((len = content.read(buf)) != -1) {
+				write(channel, ByteBuffer.wrap(buf, 0, len));
+			}
+			spilled = true;
+		} finally {
+			output.close();
+			if (!spilled) {
+				file.delete();
+			}
+		}
+		return new SpilledInputStream(file);
+	}
+
+	private static void write(final FileChannel channel, final ByteBuffer buffer) throws IOException {
+		while (buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+	}
+
+	private static int getSpillThreshold() {
+		final Integer threshold = Integer.getInteger(RIENA_ATTACHMENT_SPILL_THRESHOLD_PROPERTY);
+		return threshold != null && threshold >= 0 ? Math.max(1, threshold) : DEFAULT_SPILL_THRESHOLD;
+	}
+
+	private static FileChannel getFileChannel(final InputStream is) throws IOException {
+		if (is instanceof FileInputStream) {
+			return ((FileInputStream) is).getChannel();
+		}
+		if (is instanceof SpilledInputStream) {
+			return ((SpilledInputStream) is).getChannel();
+		}
+		return null;
+	}
+
+	private static void writeStream(final InputStream is, final AbstractHessianOutput out) throws IOException {
+		final byte[] buf = new byte[CHUNK_SIZE];
+		int len = 0;
+
+		while (true) {
+			try {
+				len = is.read(buf, 0, buf.length);
+			} catch (final IOException e) {
+				// catch the exception only for the inputstream and close
+				// write null so that the client gets a "hick-up" and can tell that there is something wrong
+				out.writeNull();
+				return;
+			}
+			if (len > 0) {
+				out.writeByteBufferPart(buf, 0, len);
+			} else {
+				break;
+			}
+		}
+
+		out.writeByteBufferEnd(buf, 0, 0);
+	}
+
+	/**
+	 * Reads the channel in large chunks directly into the byte array that is
+	 * handed to the hessian output (which only writes byte arrays).
+	 */
+	private static void writeChannel(final FileChannel channel, final InputStream is, final AbstractHessianOutput out)
+			throws IOException {
+		final ByteBuffer buffer = ByteBuffer.allocate(CHANNEL_CHUNK_SIZE);
+		while (true) {
+			buffer.clear();
+			final int len;
+			try {
+				len = channel.read(buffer);
+			} catch (final IOException e) {
+				// see writeStream()
+				out.writeNull();
+				return;
+			}
+			if (len > 0) {
+				out.writeByteBufferPart(buffer.array(), 0, len);
+			} else {
+				break;
+			}
+		}
+		if (is instanceof SpilledInputStream) {
+			((SpilledInputStream) is).syncPosition();
+		}
+		out.writeByteBufferEnd(buffer.array(), 0, 0);
+	}
+
 	private boolean isInputStream(final Class<?> cl) {
 		if (cl == InputStream.class) {
 			return true;
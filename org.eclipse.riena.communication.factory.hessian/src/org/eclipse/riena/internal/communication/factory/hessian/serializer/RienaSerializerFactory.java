@@ -13,6 +13,8 @@ package org.eclipse.riena.internal.communication.factory.hessian.serializer;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import com.caucho.hessian.io.AbstractSerializerFactory;
 import com.caucho.hessian.io.Deserializer;
@@ -33,12 +35,18 @@ import org.eclipse.riena.internal.communication.factory.hessian.Activator;
  * {@code AbstractSerializerFactory} but internally (not visible to hessian) it
  * manages a configurable, ordered list of
  * {@code AbstractRienaSerializerFactory}.
+ * <p>
+ * The resolved {@code Serializer}s and {@code Deserializer}s (including the
+ * information that none of the {@code AbstractRienaSerializerFactory}s is
+ * responsible for a type) are cached per type. The cache is dropped whenever
+ * the configured serializer factories change.
  * 
  * @since 4.0
  */
 public class RienaSerializerFactory extends AbstractSerializerFactory {
 
-	private List<AbstractRienaSerializerFactory> serializerFactories = Collections.emptyList();
+	private volatile SerializerFactories serializerFactories = new SerializerFactories(
+			Collections.<AbstractRienaSerializerFactory> emptyList());
 
 	public RienaSerializerFactory() {
 		Wire.instance(this).andStart(Activator.getDefault().getContext());
@@ -46,28 +54,12 @@ public class RienaSerializerFactory extends AbstractSerializerFactory {
 
 	@Override
 	public Deserializer getDeserializer(final Class cl) throws HessianProtocolException {
-		synchronized (this) {
-			for (final AbstractSerializerFactory serializerFactory : serializerFactories) {
-				final Deserializer deserializer = serializerFactory.getDeserializer(cl);
-				if (deserializer != null) {
-					return deserializer;
-				}
-			}
-		}
-		return null;
+		return serializerFactories.getDeserializer(cl);
 	}
 
 	@Override
 	public Serializer getSerializer(final Class cl) throws HessianProtocolException {
-		synchronized (this) {
-			for (final AbstractSerializerFactory serializerFactory : serializerFactories) {
-				final Serializer serializer = serializerFactory.getSerializer(cl);
-				if (serializer != null) {
-					return serializer;
-				}
-			}
-		}
-		return null;
+		return serializerFactories.getSerializer(cl);
 	}
 
 	@InjectExtension
@@ -96,8 +88,67 @@ public class RienaSerializerFactory extends AbstractSerializerFactory {
 					staticSerializerMap.remove(replaced);
 				}
 			}
-			// .. and make active
-			serializerFactories = tempOrdered;
+			// .. and make active (this also drops the cached lookups)
+			serializerFactories = new SerializerFactories(tempOrdered);
+		}
+	}
+
+	/**
+	 * An immutable, ordered list of {@code AbstractRienaSerializerFactory}s
+	 * together with the cached lookup results.
+	 */
+	private static final class SerializerFactories {
+
+		/**
+		 * Marks a type for which none of the factories has a
+		 * {@code Serializer} or {@code Deserializer}.
+		 */
+		private static final Object NONE = new Object();
+
+		private final List<AbstractRienaSerializerFactory> factories;
+		private final ConcurrentMap<Class<?>, Object> serializers = new ConcurrentHashMap<Class<?>, Object>();
+		private final ConcurrentMap<Class<?>, Object> deserializers = new ConcurrentHashMap<Class<?>, Object>();
+
+		private SerializerFactories(final List<AbstractRienaSerializerFactory> factories) {
+			this.factories = factories;
+		}
+
+		private Serializer getSerializer(final Class<?> cl) throws HessianProtocolException {
+			Object cached = serializers.get(cl);
+			if (cached == null) {
+				cached = NONE;
+				for (final AbstractSerializerFactory serializerFactory : factories) {
+					final Serializer serializer = serializerFactory.getSerializer(cl);
+					if (serializer != null) {
+						cached = serializer;
+						break;
+					}
+				}
+				final Object previous = serializers.putIfAbsent(cl, cached);
+				if (previous != null) {
+					cached = previous;
+				}
+			}
+			return cached == NONE ? null : (Serializer) cached;
+		}
+
+		private Deserializer getDeserializer(final Class<?> cl) throws HessianProtocolException {
+			Object cached = deserializers.get(cl);
+			if (cached == null) {
+				cached = NONE;
+				for (final AbstractSerializerFactory serializerFactory : factories) {
+					final Deserializer deserializer = serializerFactory.getDeserializer(cl);
+					if (deserializer != null) {
+						cached = deserializer;
+						break;
+					}
+				}
+				final Object previous = deserializers.putIfAbsent(cl, cached);
+				if (previous != null) {
+					cached = previous;
+				}
+			}
+			return cached == NONE ? null : (Deserializer) cached;
 		}
 	}
 
@@ -0,0 +1,198 @@
+/*******************************************************************************
+ * Copyright (c) 2007, 2014 compeople AG and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    compeople AG - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.riena.internal.communication.factory.hessian.serializer;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.lang.ref.PhantomReference;
+import java.lang.ref.ReferenceQueue;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.riena.core.util.Nop;
+
+/**
+ * An {@code InputStream} on the temporary file an attachment content has been
+ * spilled to. Like a {@code ByteArrayInputStream} it supports
+ * {@code mark()}/{@code reset()} and can be read again after
+ * {@code close()}, so that the attachment can be re-read or forwarded.
+ * <p>
+ * The stream is held by the data source of the attachment, i.e. the temporary
+ * file lives as long as the attachment: it is deleted after the stream has
+ * been garbage collected, or at the latest when the VM shuts down.
+ * {@code close()} only releases the file handle.
+ */
+final class SpilledInputStream extends InputStream {
+
+	private static final ReferenceQueue<SpilledInputStream> COLLECTED = new ReferenceQueue<SpilledInputStream>();
+	// keeps the references of the not yet deleted files reachable
+	private static final Set<SpillFile> SPILL_FILES = Collections
+			.newSetFromMap(new ConcurrentHashMap<SpillFile, Boolean>());
+
+	static {
+		final Thread cleaner = new Thread("Riena-AttachmentSpillCleaner") { //$NON-NLS-1$
+			@Override
+			public void run() {
+				while (true) {
+					try {
+						((SpillFile) COLLECTED.remove()).delete();
+					} catch (final InterruptedException e) {
+						Nop.reason("keep on cleaning up"); //$NON-NLS-1$
+					}
+				}
+			}
+		};
+		cleaner.setDaemon(true);
+		cleaner.start();
+		Runtime.getRuntime().addShutdownHook(new Thread("Riena-AttachmentSpillDeleter") { //$NON-NLS-1$
+			@Override
+			public void run() {
+				for (final SpillFile spillFile : SPILL_FILES.toArray(new SpillFile[0])) {
+					spillFile.delete();
+				}
+			}
+		});
+	}
+
+	private final SpillFile spillFile;
+	private final long length;
+	private long position;
+	private long mark;
+
+	SpilledInputStream(final File file) {
+		this.length = file.length();
+		this.spillFile = new SpillFile(this, file);
+		SPILL_FILES.add(spillFile);
+	}
+
+	/**
+	 * Get the channel of the temporary file, positioned at the current
+	 * position of this stream. Reading from the channel advances this stream.
+	 *
+	 * @return the channel
+	 * @throws IOException
+	 */
+	synchronized FileChannel getChannel() throws IOException {
+		if (spillFile.channel == null) {
+			spillFile.channel = new RandomAccessFile(spillFile.file, "r").getChannel(); //$NON-NLS-1$
+		}
+		spillFile.channel.position(position);
+		return spillFile.channel;
+	}
+
+	/**
+	 * Update the position of this stream after its channel has been read
+	 * directly.
+	 *
+	 * @throws IOException
+	 */
+	synchronized void syncPosition() throws IOException {
+		if (spillFile.channel != null) {
+			position = spillFile.channel.position();
+		}
+	}
+
+	@Override
+	public synchronized int read() throws IOException {
+		final byte[] single = new byte[1];
+		return read(single, 0, 1) == -1 ? -1 : single[0] & 0xff;
+	}
+
+	@Override
+	public synchronized int read(final byte[] b, final int off, final int len) throws IOException {
+		final FileChannel channel = getChannel();
+		if (len == 0) {
+			return 0;
+		}
+		if (position >= length) {
+			return -1;
+		}
+		final int read = channel.read(ByteBuffer.wrap(b, off, len));
+		if (read > 0) {
+			position += read;
+		}
+		return read;
+	}
+
+	@Override
+	public synchronized long skip(final long n) throws IOException {
+		final long skipped = Math.max(0, Math.min(n, length - position));
+		position += skipped;
+		return skipped;
+	}
+
+	@Override
+	public synchronized int available() throws IOException {
+		return (int) Math.min(Integer.MAX_VALUE, length - position);
+	}
+
+	@Override
+	public boolean markSupported() {
+		return true;
+	}
+
+	@Override
+	public synchronized void mark(final int readlimit) {
+		mark = position;
+	}
+
+	@Override
+	public synchronized void reset() throws IOException {
+		position = mark;
+	}
+
+	/**
+	 * Release the file handle. The content can still be read, the file is
+	 * reopened on demand.
+	 */
+	@Override
+	public synchronized void close() throws IOException {
+		spillFile.closeChannel();
+	}
+
+	/**
+	 * The temporary file (and its channel) of a {@code SpilledInputStream}
+	 * which is enqueued when the stream has been garbage collected.
+	 */
+	private static final class SpillFile extends PhantomReference<SpilledInputStream> {
+
+		private final File file;
+		private FileChannel channel;
+
+		private SpillFile(final SpilledInputStream stream, final File file) {
+			super(stream, COLLECTED);
+			this.file = file;
+		}
+
+		private void closeChannel() {
+			if (channel != null) {
+				try {
+					channel.close();
+				} catch (final IOException e) {
+					Nop.reason("the file will be deleted anyway"); //$NON-NLS-1$
+				}
+				channel = null;
+			}
+		}
+
+		private void delete() {
+			SPILL_FILES.remove(this);
+			closeChannel();
+			file.delete();
+		}
+	}
+
+}
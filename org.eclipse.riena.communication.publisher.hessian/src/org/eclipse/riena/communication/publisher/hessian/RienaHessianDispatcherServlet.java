@@ -11,12 +11,13 @@
 package org.eclipse.riena.communication.publisher.hessian;
 
 import java.io.BufferedInputStream;
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.PrintWriter;
 import java.util.zip.GZIPInputStream;
-import java.util.zip.GZIPOutputStream;
 
 import javax.servlet.GenericServlet;
 import javax.servlet.ServletConfig;
@@ -38,7 +39,11 @@ import org.osgi.service.log.LogService;
 import org.eclipse.equinox.log.Logger;
 
 import org.eclipse.riena.communication.core.RemoteServiceDescription;
+import org.eclipse.riena.communication.core.metrics.MethodMetrics;
+import org.eclipse.riena.communication.core.metrics.RemoteCallMetrics;
+import org.eclipse.riena.communication.core.zipsupport.CompressionPolicy;
 import org.eclipse.riena.communication.core.zipsupport.ReusableBufferedInputStream;
+import org.eclipse.riena.communication.core.zipsupport.ThresholdGZIPOutputStream;
 import org.eclipse.riena.core.Log4r;
 import org.eclipse.riena.core.exception.IExceptionHandlerManager;
 import org.eclipse.riena.core.service.Service;
@@ -139,6 +144,11 @@ public class RienaHessianDispatcherServlet extends GenericServlet {
 			}
 			requestInputStream = inputWasGZIP ? new GZIPInputStream(tempInput) : tempInput;
 		}
+		CountingInputStream requestCounter = null;
+		if (RemoteCallMetrics.isEnabled()) {
+			requestCounter = new CountingInputStream(requestInputStream);
+			requestInputStream = requestCounter;
+		}
 
 		final Hessian2Input inp = new Hessian2Input(requestInputStream);
 		inp.setSerializerFactory(serializerFactory);
@@ -155,16 +165,27 @@ public class RienaHessianDispatcherServlet extends GenericServlet {
 		final int major = inp.read();
 		inp.read(); // read/skip the minor version - not used currently
 
-		//if (inputWasGZIP) {
+		// the client requested compression, the policy decides about it (depending on the size of the response)
+		CompressionPolicy.Setting compression = null;
 		if (gzipFlag) {
-			httpRes.setHeader("Content-Encoding", "x-hessian-gzip"); //$NON-NLS-1$//$NON-NLS-2$
+			compression = publisher.getCompressionPolicy().getSetting(rsd.getServiceInterfaceClassName(),
+					getMethodName(httpReq));
+			if (compression.isEnabled()) {
+				httpRes.setHeader("Content-Encoding", "x-hessian-gzip"); //$NON-NLS-1$//$NON-NLS-2$
+			}
 		}
 
 		OutputStream outputStream = httpRes.getOutputStream();
 
-		//if (inputWasGZIP) {
-		if (gzipFlag) {
-			outputStream = new GZIPOutputStream(outputStream);
+		ThresholdGZIPOutputStream gzipOutputStream = null;
+		if (compression != null && compression.isEnabled()) {
+			gzipOutputStream = new ThresholdGZIPOutputStream(outputStream, compression);
+			outputStream = gzipOutputStream;
+		}
+		CountingOutputStream responseCounter = null;
+		if (requestCounter != null) {
+			responseCounter = new CountingOutputStream(outputStream);
+			outputStream = responseCounter;
 		}
 
 		AbstractHessianOutput out;
@@ -181,7 +202,7 @@ public class RienaHessianDispatcherServlet extends GenericServlet {
 		//		final ClassLoader original = Thread.currentThread().getContextClassLoader();
 		try {
 			//			Thread.currentThread().setContextClassLoader(new ServiceClassLoader(original, rsd.getBundle()));
-			final HessianSkeleton sk = new HessianSkeleton(rsd.getService(), rsd.getServiceInterfaceClass());
+			final HessianSkeleton sk = publisher.getSkeleton(rsd);
 			sk.invoke(inp, out);
 		} catch (final Throwable t) {
 			Throwable t2 = t;
@@ -194,10 +215,43 @@ public class RienaHessianDispatcherServlet extends GenericServlet {
 		} finally {
 			inp.close();
 			out.close(); // Hessian2Output forgets to close if the service throws an exception
+			if (gzipOutputStream != null) {
+				// HessianOutput (v1) only flushes on close, so the response may still be held back
+				gzipOutputStream.close();
+			}
 			//			Thread.currentThread().setContextClassLoader(original);
+			if (requestCounter != null) {
+				recordSizes(httpReq, requestCounter.count, responseCounter.count);
+			}
+		}
+	}
+
+	/**
+	 * The service hook records the latency; the sizes are only known after
+	 * the response has been written. The hook leaves the metrics of the called
+	 * method in the request, so that nothing is recorded for requests that did
+	 * not reach a method of the service.
+	 */
+	private void recordSizes(final HttpServletRequest httpReq, final long requestSize, final long responseSize) {
+		final Object methodMetrics = httpReq.getAttribute(RemoteCallMetrics.METHOD_METRICS_ATTRIBUTE);
+		if (methodMetrics instanceof MethodMetrics) {
+			((MethodMetrics) methodMetrics).recordSizes(requestSize, responseSize);
 		}
 	}
 
+	/**
+	 * The client appends the method name (and optionally the request id) as
+	 * query to the url of the service.
+	 */
+	private String getMethodName(final HttpServletRequest httpReq) {
+		final String query = httpReq.getQueryString();
+		if (query == null) {
+			return null;
+		}
+		final int requestIdIndex = query.indexOf('&');
+		return requestIdIndex == -1 ? query : query.substring(0, requestIdIndex);
+	}
+
 	/**
 	 * 
 	 * @return the publisher
@@ -206,4 +260,70 @@ public class RienaHessianDispatcherServlet extends GenericServlet {
 		return Activator.getDefault().getPublisher();
 	}
 
+	/**
+	 * Counts the bytes read (of the uncompressed request).
+	 */
+	private static final class CountingInputStream extends FilterInputStream {
+
+		private long count;
+
+		private CountingInputStream(final InputStream in) {
+			super(in);
+		}
+
+		@Override
+		public int read() throws IOException {
+			final int b = in.read();
+			if (b != -1) {
+				count++;
+			}
+			return b;
+		}
+
+		@Override
+		public int read(final byte[] b, final int off, final int len) throws IOException {
+			final int n = in.read(b, off, len);
+			if (n > 0) {
+				count += n;
+			}
+			return n;
+		}
+
+		@Override
+		public long skip(final long n) throws IOException {
+			final long skipped = in.skip(n);
+			count += skipped;
+			return skipped;
+		}
+
+		@Override
+		public boolean markSupported() {
+			return false;
+		}
+	}
+
+	/**
+	 * Counts the bytes written (of the uncompressed response).
+	 */
+	private static final class CountingOutputStream extends FilterOutputStream {
+
+		private long count;
+
+		private CountingOutputStream(final OutputStream out) {
+			super(out);
+		}
+
+		@Override
+		public void write(final int b) throws IOException {
+			out.write(b);
+			count++;
+		}
+
+		@Override
+		public void write(final byte[] b, final int off, final int len) throws IOException {
+			out.write(b, off, len);
+			count += len;
+		}
+	}
+
 }
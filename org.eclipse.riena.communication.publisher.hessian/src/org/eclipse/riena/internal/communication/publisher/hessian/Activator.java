@@ -22,6 +22,8 @@ import org.eclipse.riena.communication.core.publisher.IServicePublisher;
 import org.eclipse.riena.core.Log4r;
 import org.eclipse.riena.core.RienaActivator;
 import org.eclipse.riena.core.RienaConstants;
+import org.eclipse.riena.core.wire.Wire;
+import org.eclipse.riena.core.wire.WirePuller;
 
 /**
  * The activator class controls the plug-in life cycle
@@ -29,6 +31,7 @@ import org.eclipse.riena.core.RienaConstants;
 public class Activator extends RienaActivator {
 	private ServiceRegistration publisherReg;
 	private HessianRemoteServicePublisher publisher;
+	private WirePuller publisherPuller;
 
 	private Logger logger;
 
@@ -50,6 +53,7 @@ public class Activator extends RienaActivator {
 		logger.log(LogService.LOG_INFO, "start hessian support on server"); //$NON-NLS-1$
 
 		publisher = new HessianRemoteServicePublisher();
+		publisherPuller = Wire.instance(publisher).andStart(context);
 		final Hashtable<String, Object> properties = RienaConstants.newDefaultServiceProperties();
 		properties.put(IServicePublisher.PROP_PROTOCOL, publisher.getProtocol());
 		publisherReg = context.registerService(IServicePublisher.class.getName(), publisher, properties);
@@ -65,6 +69,8 @@ public class Activator extends RienaActivator {
 	public void stop(final BundleContext context) throws Exception {
 		publisherReg.unregister();
 		publisherReg = null;
+		publisherPuller.stop();
+		publisherPuller = null;
 		publisher = null;
 
 		logger.log(LogService.LOG_INFO, "stop hessian support on server"); //$NON-NLS-1$
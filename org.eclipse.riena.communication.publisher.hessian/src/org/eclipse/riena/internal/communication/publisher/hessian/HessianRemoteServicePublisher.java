@@ -13,9 +13,12 @@ package org.eclipse.riena.internal.communication.publisher.hessian;
 import java.lang.reflect.Method;
 import java.net.Inet4Address;
 import java.net.UnknownHostException;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.caucho.hessian.server.HessianSkeleton;
 
 import org.osgi.service.log.LogService;
 
@@ -25,7 +28,11 @@ import org.eclipse.riena.communication.core.RemoteServiceDescription;
 import org.eclipse.riena.communication.core.hooks.IServiceMessageContext;
 import org.eclipse.riena.communication.core.hooks.IServiceMessageContextAccessor;
 import org.eclipse.riena.communication.core.publisher.IServicePublisher;
+import org.eclipse.riena.communication.core.zipsupport.CompressionPolicy;
 import org.eclipse.riena.core.Log4r;
+import org.eclipse.riena.core.wire.InjectExtension;
+import org.eclipse.riena.internal.communication.core.zipsupport.CompressionPolicies;
+import org.eclipse.riena.internal.communication.core.zipsupport.ICompressionPolicyExtension;
 
 /**
  * This is a Hessian based implementation of {@link IServicePublisher}. it
@@ -35,19 +42,25 @@ import org.eclipse.riena.core.Log4r;
  * HessianRemoteServicePublisher becomes registered as OSGi Service with name
  * {@link IServicePublisher#ID}. The OSGi Service set the property
  * "riena.protocol=hessian".
+ * <p>
+ * Looking up a published service (which is done for every request) does not
+ * block; only publishing and unpublishing are serialized.
  */
 public class HessianRemoteServicePublisher implements IServicePublisher {
 	private final static String PROTOCOL = "hessian"; //$NON-NLS-1$
 	private final static String SERVLET_PATH = "/hessian"; //$NON-NLS-1$
 	private final IServiceMessageContextAccessor mca = new MsgCxtAcc();
 
-	private final HashMap<String, RemoteServiceDescription> webServiceDescriptions;
+	private final ConcurrentMap<String, RemoteServiceDescription> webServiceDescriptions;
+	private final ConcurrentMap<String, ServiceSkeleton> skeletons;
+	private volatile CompressionPolicy compressionPolicy = CompressionPolicy.DEFAULT;
 
 	private final static Logger LOGGER = Log4r.getLogger(Activator.getDefault(), HessianRemoteServicePublisher.class);
 	private final static String PORT = System.getProperty("org.eclipse.equinox.http.jetty.http.port"); // get the jetty PORT //$NON-NLS-1$
 
 	public HessianRemoteServicePublisher() {
-		webServiceDescriptions = new HashMap<String, RemoteServiceDescription>();
+		webServiceDescriptions = new ConcurrentHashMap<String, RemoteServiceDescription>();
+		skeletons = new ConcurrentHashMap<String, ServiceSkeleton>();
 	}
 
 	/*
@@ -75,6 +88,16 @@ public class HessianRemoteServicePublisher implements IServicePublisher {
 		}
 		final String url = "http://" + localhost + SERVLET_PATH + rsd.getPath(); //$NON-NLS-1$
 		rsd.setURL(url);
+		// the skeleton must be in place before the service can be found
+		skeletons.remove(SERVLET_PATH + rsd.getPath());
+		if (rsd.getService() != null) {
+			try {
+				skeletons.put(SERVLET_PATH + rsd.getPath(), new ServiceSkeleton(rsd));
+			} catch (final IllegalArgumentException e) {
+				// calling the service will fail with the same exception
+				LOGGER.log(LogService.LOG_WARNING, "can not create hessian skeleton for " + rsd, e); //$NON-NLS-1$
+			}
+		}
 		webServiceDescriptions.put(SERVLET_PATH + rsd.getPath(), rsd);
 		LOGGER.log(LogService.LOG_DEBUG, "published web service. " + rsd); //$NON-NLS-1$
 		LOGGER.log(LogService.LOG_DEBUG, "web service count: " + webServiceDescriptions.size()); //$NON-NLS-1$
@@ -102,6 +125,7 @@ public class HessianRemoteServicePublisher implements IServicePublisher {
 	 */
 	public synchronized void unpublishService(final RemoteServiceDescription rsd) {
 		webServiceDescriptions.remove(SERVLET_PATH + rsd.getPath());
+		skeletons.remove(SERVLET_PATH + rsd.getPath());
 		LOGGER.log(LogService.LOG_DEBUG, "unpublished web service. " + rsd); //$NON-NLS-1$
 		LOGGER.log(LogService.LOG_DEBUG, "web service count: " + webServiceDescriptions.size()); //$NON-NLS-1$
 	}
@@ -116,15 +140,82 @@ public class HessianRemoteServicePublisher implements IServicePublisher {
 		return PROTOCOL;
 	}
 
-	public synchronized RemoteServiceDescription findService(final String requestURI) {
+	public RemoteServiceDescription findService(final String requestURI) {
 		final RemoteServiceDescription rsd = webServiceDescriptions.get(requestURI);
 		return rsd;
 	}
 
+	/**
+	 * Get the {@code HessianSkeleton} of a published service. The skeleton is
+	 * created when the service gets published and it is reused for all calls
+	 * until the service gets unpublished.
+	 * 
+	 * @param rsd
+	 *            the description of the published service
+	 * @return the skeleton
+	 * @since 6.2
+	 */
+	public HessianSkeleton getSkeleton(final RemoteServiceDescription rsd) {
+		final ServiceSkeleton skeleton = skeletons.get(SERVLET_PATH + rsd.getPath());
+		if (skeleton != null && skeleton.isFor(rsd)) {
+			return skeleton.skeleton;
+		}
+		return createSkeleton(rsd);
+	}
+
+	private synchronized HessianSkeleton createSkeleton(final RemoteServiceDescription rsd) {
+		final String path = SERVLET_PATH + rsd.getPath();
+		final ServiceSkeleton skeleton = new ServiceSkeleton(rsd);
+		if (webServiceDescriptions.get(path) == rsd) {
+			skeletons.put(path, skeleton);
+		}
+		return skeleton.skeleton;
+	}
+
 	public IServiceMessageContextAccessor getMessageContextAccessor() {
 		return mca;
 	}
 
+	/**
+	 * @since 6.2
+	 */
+	@InjectExtension(min = 0, max = 1)
+	public void update(final ICompressionPolicyExtension extension) {
+		compressionPolicy = CompressionPolicies.create(extension);
+	}
+
+	/**
+	 * Get the policy that decides whether and how the responses for clients
+	 * that requested compression are compressed.
+	 * 
+	 * @return the compression policy
+	 * @since 6.2
+	 */
+	public CompressionPolicy getCompressionPolicy() {
+		return compressionPolicy;
+	}
+
+	/**
+	 * The {@code HessianSkeleton} of a published service. It is bound to the
+	 * service instance the description had when the skeleton was created.
+	 */
+	private static final class ServiceSkeleton {
+
+		private final RemoteServiceDescription rsd;
+		private final Object service;
+		private final HessianSkeleton skeleton;
+
+		private ServiceSkeleton(final RemoteServiceDescription rsd) {
+			this.rsd = rsd;
+			this.service = rsd.getService();
+			this.skeleton = new HessianSkeleton(service, rsd.getServiceInterfaceClass());
+		}
+
+		private boolean isFor(final RemoteServiceDescription rsd) {
+			return this.rsd == rsd && service == rsd.getService();
+		}
+	}
+
 	static class MsgCxtAcc implements IServiceMessageContextAccessor {
 		MsgCxtAcc() {
 			super();
@@ -11,10 +11,10 @@
 package org.eclipse.riena.communication.publisher;
 
 import java.lang.reflect.Proxy;
-import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import org.osgi.framework.Constants;
 import org.osgi.framework.ServiceReference;
@@ -41,15 +41,15 @@ public class ServicePublishBinder implements IServicePublishBinder {
 	/**
 	 * contains a map of available publishers per protocol
 	 */
-	private final Map<String, IServicePublisher> servicePublishers = new HashMap<String, IServicePublisher>();
+	private final Map<String, IServicePublisher> servicePublishers = new ConcurrentHashMap<String, IServicePublisher>();
 	/**
 	 * contains services that are not yet published (due to missing publishers)
 	 */
-	private final List<RemoteServiceDescription> unpublishedServices = new ArrayList<RemoteServiceDescription>();
+	private final List<RemoteServiceDescription> unpublishedServices = new CopyOnWriteArrayList<RemoteServiceDescription>();
 	/**
 	 * contains registered published Services
 	 */
-	private final Map<String, RemoteServiceDescription> rsDescs = new HashMap<String, RemoteServiceDescription>();
+	private final Map<String, RemoteServiceDescription> rsDescs = new ConcurrentHashMap<String, RemoteServiceDescription>();
 
 	private final static Logger LOGGER = Log4r.getLogger(Activator.getDefault(), ServicePublishBinder.class);
 
@@ -88,17 +88,12 @@ public class ServicePublishBinder implements IServicePublishBinder {
 	}
 
 	private void checkUnpublishedServices(final String protocol) {
-		final List<RemoteServiceDescription> removedItems = new ArrayList<RemoteServiceDescription>();
 		for (final RemoteServiceDescription rsd : unpublishedServices) {
 			if (rsd.getProtocol().equals(protocol)) {
+				unpublishedServices.remove(rsd);
 				publish(rsd);
-				removedItems.add(rsd);
 			}
 		}
-		for (final RemoteServiceDescription item : removedItems) {
-			unpublishedServices.remove(item);
-		}
-
 	}
 
 	/*
@@ -116,14 +111,16 @@ public class ServicePublishBinder implements IServicePublishBinder {
 	}
 
 	public void unpublish(final ServiceReference serviceRef) {
-		for (final RemoteServiceDescription rsd : rsDescs.values()) {
-			if (serviceRef.equals(rsd.getServiceRef())) {
-				final IServicePublisher servicePublisher = servicePublishers.get(rsd.getProtocol());
-				if (servicePublisher != null) {
-					servicePublisher.unpublishService(rsd);
+		synchronized (rsDescs) {
+			for (final RemoteServiceDescription rsd : rsDescs.values()) {
+				if (serviceRef.equals(rsd.getServiceRef())) {
+					final IServicePublisher servicePublisher = servicePublishers.get(rsd.getProtocol());
+					if (servicePublisher != null) {
+						servicePublisher.unpublishService(rsd);
+					}
+					rsDescs.remove(getRSDKey(rsd));
+					return;
 				}
-				rsDescs.remove(rsd.getProtocol() + "::" + rsd.getPath()); //$NON-NLS-1$
-				return;
 			}
 		}
 	}
@@ -187,11 +184,7 @@ public class ServicePublishBinder implements IServicePublishBinder {
 	}
 
 	public RemoteServiceDescription[] getAllServices() {
-		final RemoteServiceDescription[] result = new RemoteServiceDescription[rsDescs.size()];
-		synchronized (rsDescs) {
-			rsDescs.values().toArray(result);
-		}
-		return result;
+		return rsDescs.values().toArray(new RemoteServiceDescription[0]);
 	}
 
 }
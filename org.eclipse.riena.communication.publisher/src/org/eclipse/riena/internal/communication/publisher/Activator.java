@@ -13,6 +13,7 @@ package org.eclipse.riena.internal.communication.publisher;
 import org.osgi.framework.BundleContext;
 
 import org.eclipse.riena.communication.core.hooks.IServiceHook;
+import org.eclipse.riena.communication.core.metrics.RemoteCallMetrics;
 import org.eclipse.riena.communication.core.publisher.IServicePublishBinder;
 import org.eclipse.riena.communication.publisher.Publish;
 import org.eclipse.riena.communication.publisher.ServicePublishBinder;
@@ -34,6 +35,10 @@ public class Activator extends RienaActivator {
 		Wire.instance(serviceHook).andStart(context);
 		context.registerService(IServiceHook.class.getName(), serviceHook, null);
 
+		if (RemoteCallMetrics.isEnabled()) {
+			context.registerService(IServiceHook.class.getName(), new ServiceMetricsHook(), null);
+		}
+
 		final IServicePublishBinder binder = new ServicePublishBinder();
 		Wire.instance(binder).andStart(context);
 		context.registerService(IServicePublishBinder.class.getName(), binder, null);
@@ -13,8 +13,7 @@ package org.eclipse.riena.internal.communication.publisher;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
-import java.util.HashSet;
-import java.util.Set;
+import java.util.Arrays;
 
 import javax.security.auth.Subject;
 
@@ -27,12 +26,19 @@ import org.eclipse.riena.communication.core.hooks.ServiceContext;
 import org.eclipse.riena.core.wire.InjectService;
 import org.eclipse.riena.core.wire.Wire;
 
+/**
+ * Calls the {@code IServiceHook}s around each call of a published service.
+ * <p>
+ * The hooks are kept in immutable arrays that are replaced on bind/unbind, so
+ * concurrent calls iterate them without locking. The {@code beforeService()}
+ * methods are called in the order the hooks have been bound and the
+ * {@code afterService()} methods in the reverse order.
+ */
 public class ServiceHooksProxy extends AbstractHooksProxy implements InvocationHandler {
 
-	private final Set<IServiceHook> serviceHooks = new HashSet<IServiceHook>();
+	private volatile ServiceHooks serviceHooks = new ServiceHooks(new IServiceHook[0]);
 	private RemoteServiceDescription rsd;
 	private IServiceMessageContextAccessor mca;
-	private Subject subject;
 
 	public ServiceHooksProxy(final Object serviceInstance) {
 		super(serviceInstance);
@@ -54,12 +60,14 @@ public class ServiceHooksProxy extends AbstractHooksProxy implements InvocationH
 		}
 
 		ServiceContext context = null;
+		Subject subject = null;
+		final ServiceHooks hooks = serviceHooks;
 		// only create context (it might be expensive), if you have serviceHooks
-		if (serviceHooks.size() > 0) {
+		if (hooks.before.length > 0) {
 			context = new ServiceContext(rsd, method, getServiceInstance(), mc);
 
 			// call before service hook
-			for (final IServiceHook sHook : serviceHooks) {
+			for (final IServiceHook sHook : hooks.before) {
 				sHook.beforeService(context);
 			}
 
@@ -70,16 +78,15 @@ public class ServiceHooksProxy extends AbstractHooksProxy implements InvocationH
 		}
 
 		try {
-			return super.invoke(proxy, method, args);
+			return invokeAs(subject, method, args);
 		} catch (final InvocationTargetException e) {
 			if (context != null) {
 				context.setTargetException(e.getTargetException());
 			}
 			throw e.getTargetException();
 		} finally {
-			// context might be null, but serviceHooks were injected during invoke
 			if (context != null) {
-				for (final IServiceHook sHook : serviceHooks) {
+				for (final IServiceHook sHook : hooks.after) {
 					sHook.afterService(context);
 				}
 				if (context.getTargetException() != null) {
@@ -90,12 +97,26 @@ public class ServiceHooksProxy extends AbstractHooksProxy implements InvocationH
 	}
 
 	@InjectService
-	public void bind(final IServiceHook serviceHook) {
-		serviceHooks.add(serviceHook);
+	public synchronized void bind(final IServiceHook serviceHook) {
+		final IServiceHook[] before = serviceHooks.before;
+		if (Arrays.asList(before).contains(serviceHook)) {
+			return;
+		}
+		final IServiceHook[] hooks = Arrays.copyOf(before, before.length + 1);
+		hooks[before.length] = serviceHook;
+		serviceHooks = new ServiceHooks(hooks);
 	}
 
-	public void unbind(final IServiceHook serviceHook) {
-		serviceHooks.remove(serviceHook);
+	public synchronized void unbind(final IServiceHook serviceHook) {
+		final IServiceHook[] before = serviceHooks.before;
+		final int index = Arrays.asList(before).indexOf(serviceHook);
+		if (index == -1) {
+			return;
+		}
+		final IServiceHook[] hooks = new IServiceHook[before.length - 1];
+		System.arraycopy(before, 0, hooks, 0, index);
+		System.arraycopy(before, index + 1, hooks, index, hooks.length - index);
+		serviceHooks = new ServiceHooks(hooks);
 	}
 
 	public Object getServiceInstance() {
@@ -110,8 +131,32 @@ public class ServiceHooksProxy extends AbstractHooksProxy implements InvocationH
 		this.mca = mca;
 	}
 
+	/**
+	 * The subject is determined per call by the service hooks (context property
+	 * {@code riena.subject}).
+	 * 
+	 * @return {@code null}
+	 */
 	@Override
 	public Subject getSubject() {
-		return subject;
+		return null;
+	}
+
+	/**
+	 * An immutable snapshot of the bound hooks in the order of the
+	 * {@code beforeService()} and of the {@code afterService()} calls.
+	 */
+	private static final class ServiceHooks {
+
+		private final IServiceHook[] before;
+		private final IServiceHook[] after;
+
+		private ServiceHooks(final IServiceHook[] before) {
+			this.before = before;
+			this.after = new IServiceHook[before.length];
+			for (int i = 0; i < before.length; i++) {
+				after[i] = before[before.length - 1 - i];
+			}
+		}
 	}
 }
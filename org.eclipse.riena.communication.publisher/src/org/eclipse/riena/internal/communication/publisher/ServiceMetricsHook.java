@@ -0,0 +1,52 @@
+/*******************************************************************************
+ * Copyright (c) 2007, 2014 compeople AG and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    compeople AG - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.riena.internal.communication.publisher;
+
+import org.eclipse.riena.communication.core.hooks.IServiceHook;
+import org.eclipse.riena.communication.core.hooks.IServiceMessageContext;
+import org.eclipse.riena.communication.core.hooks.ServiceContext;
+import org.eclipse.riena.communication.core.metrics.MethodMetrics;
+import org.eclipse.riena.communication.core.metrics.RemoteCallMetrics;
+
+/**
+ * Records the latency and the failures (exceptions thrown by the service) of
+ * the published services in the {@link RemoteCallMetrics#getServiceMetrics()}.
+ * The payload sizes are recorded by the publishers since the response has not
+ * been written when {@code afterService()} is called; the hook hands the
+ * metrics of the called method over to them in the servlet request attribute
+ * {@link RemoteCallMetrics#METHOD_METRICS_ATTRIBUTE}. So only methods of the
+ * service interface get metrics, no matter what the clients send.
+ */
+public class ServiceMetricsHook implements IServiceHook {
+
+	private static final String START_NANOS = "riena.metrics.start"; //$NON-NLS-1$
+
+	public void beforeService(final ServiceContext context) {
+		context.setProperty(START_NANOS, System.nanoTime());
+	}
+
+	public void afterService(final ServiceContext context) {
+		final Object start = context.getProperty(START_NANOS);
+		if (!(start instanceof Long)) {
+			// bound during the call
+			return;
+		}
+		final long nanos = System.nanoTime() - (Long) start;
+		final MethodMetrics methodMetrics = RemoteCallMetrics.getServiceMetrics().get(context.getInterfaceName(),
+				context.getMethodName());
+		methodMetrics.recordCall(nanos, context.getTargetException() != null);
+		final IServiceMessageContext messageContext = context.getMessageContext();
+		if (messageContext != null && messageContext.getServletRequest() != null) {
+			messageContext.getServletRequest().setAttribute(RemoteCallMetrics.METHOD_METRICS_ATTRIBUTE, methodMetrics);
+		}
+	}
+
+}
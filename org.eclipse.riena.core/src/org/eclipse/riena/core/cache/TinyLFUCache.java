@@ -0,0 +1,422 @@
+/*******************************************************************************
+ * Copyright (c) 2007, 2014 compeople AG and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    compeople AG - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.riena.core.cache;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.osgi.service.log.LogService;
+
+import org.eclipse.equinox.log.Logger;
+
+import org.eclipse.riena.core.Log4r;
+import org.eclipse.riena.internal.core.Activator;
+import org.eclipse.riena.internal.core.cache.FrequencySketch;
+
+/**
+ * A size-bounded, concurrent implementation of {@code IGenericObjectCache}
+ * (alternative to {@code GenericObjectCache} and {@code LRUCache}).
+ * <p>
+ * Entries are kept in a {@code ConcurrentHashMap}, so {@code get()} never
+ * takes a lock and {@code put()}/{@code remove()} only lock a single bin of
+ * the map. Each entry keeps its own expiry time.
+ * <p>
+ * Once the cache has grown beyond its maximum size a victim is chosen by
+ * looking at a small sample of the oldest entries: the entry with the lowest
+ * estimated access frequency loses, ties are broken by the least recent
+ * access. Sampled entries that survive are given a second chance. A newly put
+ * entry is only admitted if it is accessed at least as often as the victim
+ * (TinyLFU admission), so a burst of one-hit-wonders does not flush the
+ * frequently used entries.
+ * <p>
+ * Beyond the description in the interface, this implementation holds its
+ * entries with hard references. The minimum size is therefore always honored
+ * and the maximum size (see {@link #setMaximumSize(int)}) is never smaller
+ * than the minimum size.
+ *
+ * @since 6.2
+ */
+public class TinyLFUCache<K, V> implements IGenericObjectCache<K, V> {
+
+	/** The default maximum number of entries */
+	public static final int DEFAULT_MAXIMUM_SIZE = 1000;
+
+	private static final int SAMPLE_SIZE = 5;
+	private static final Logger LOGGER = Log4r.getLogger(Activator.getDefault(), TinyLFUCache.class);
+
+	private final ConcurrentHashMap<K, Node<K, V>> cacheEntries;
+	/** insertion ordered nodes, may contain stale (dead) nodes */
+	private final ConcurrentLinkedQueue<Node<K, V>> evictionQueue;
+	private final AtomicBoolean evicting = new AtomicBoolean();
+	private final AtomicInteger deadNodes = new AtomicInteger();
+	private volatile FrequencySketch sketch;
+	private volatile long timeout;
+	private volatile int minimumSize;
+	private volatile int maximumSize;
+	private final LongAdder statHit = new LongAdder();
+	private final LongAdder statNotFound = new LongAdder();
+	private final LongAdder statTimeout = new LongAdder();
+	private final LongAdder statEvicted = new LongAdder();
+	private final LongAdder statRejected = new LongAdder();
+	private String name = "TinyLFUCache : "; //$NON-NLS-1$
+
+	/**
+	 * Creates a cache with the {@link #DEFAULT_MAXIMUM_SIZE}.
+	 */
+	public TinyLFUCache() {
+		this(DEFAULT_MAXIMUM_SIZE);
+	}
+
+	/**
+	 * Creates a cache with the given maximum size.
+	 *
+	 * @param maximumSize
+	 *            the maximum number of entries
+	 */
+	public TinyLFUCache(final int maximumSize) {
+		super();
+		LOGGER.log(LogService.LOG_DEBUG, "creating new TinyLFUCache instance"); //$NON-NLS-1$
+		cacheEntries = new ConcurrentHashMap<K, Node<K, V>>(Math.min(maximumSize, 1 << 16));
+		evictionQueue = new ConcurrentLinkedQueue<Node<K, V>>();
+		setMaximumSize(maximumSize);
+		// default timeout 1 minute
+		setTimeout(60000);
+	}
+
+	/**
+	 * @see org.eclipse.riena.core.cache.IGenericObjectCache#setName(java.lang.String)
+	 */
+	public void setName(final String name) {
+		this.name = name + " : "; //$NON-NLS-1$
+	}
+
+	/**
+	 * @see org.eclipse.riena.core.cache.IGenericObjectCache#get(java.lang.Object)
+	 */
+	public V get(final K key) {
+		final FrequencySketch frequencies = sketch;
+		frequencies.increment(key);
+		final Node<K, V> node = cacheEntries.get(key);
+		if (node == null) {
+			statNotFound.increment();
+			return null;
+		}
+		final long now = System.currentTimeMillis();
+		if (node.isExpired(now, timeout)) {
+			removeNode(node);
+			statTimeout.increment();
+			return null;
+		}
+		node.accessTime = now;
+		statHit.increment();
+		return node.value;
+	}
+
+	/**
+	 * @see org.eclipse.riena.core.cache.IGenericObjectCache#put(Object,
+	 *      java.lang.Object)
+	 */
+	public void put(final K key, final V value) {
+		put(key, value, -1);
+	}
+
+	/**
+	 * Put some object {@code value} with {@code key} into the cache that
+	 * expires after the given time instead of the cache wide timeout.
+	 *
+	 * @param key
+	 *            the key for looking up the object.
+	 * @param value
+	 *            the value that is stored in the cache.
+	 * @param timeToLive
+	 *            the time in milliseconds after which this entry expires; a
+	 *            negative value uses the cache wide timeout
+	 */
+	public void put(final K key, final V value, final long timeToLive) {
+		final Node<K, V> node = new Node<K, V>(key, value, System.currentTimeMillis(), timeToLive);
+		final Node<K, V> previous = cacheEntries.put(key, node);
+		if (previous != null) {
+			markDead(previous);
+		}
+		evictionQueue.offer(node);
+		sketch.increment(key);
+		if (cacheEntries.size() > maximumSize || deadNodes.get() > Math.max(maximumSize, cacheEntries.size())) {
+			evict(node);
+		}
+	}
+
+	/**
+	 * @see org.eclipse.riena.core.cache.IGenericObjectCache#remove(Object)
+	 */
+	public void remove(final K key) {
+		final Node<K, V> node = cacheEntries.remove(key);
+		if (node != null) {
+			markDead(node);
+		}
+	}
+
+	/**
+	 * @see org.eclipse.riena.core.cache.IGenericObjectCache#clear()
+	 */
+	public void clear() {
+		for (final Node<K, V> node : cacheEntries.values()) {
+			remove(node.key);
+		}
+		purgeDeadNodes();
+	}
+
+	/**
+	 * @see org.eclipse.riena.core.cache.IGenericObjectCache#size()
+	 */
+	public int size() {
+		return cacheEntries.size();
+	}
+
+	/**
+	 * @see org.eclipse.riena.core.cache.IGenericObjectCache#getSize()
+	 */
+	public int getSize() {
+		return size();
+	}
+
+	/**
+	 * @see org.eclipse.riena.core.cache.IGenericObjectCache#setTimeout(int)
+	 */
+	public void setTimeout(final int milliseconds) {
+		timeout = milliseconds;
+	}
+
+	/**
+	 * @see org.eclipse.riena.core.cache.IGenericObjectCache#getTimeout()
+	 */
+	public int getTimeout() {
+		return (int) timeout;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * If the minimum size exceeds the current maximum size the maximum size is
+	 * raised accordingly.
+	 */
+	public void setMinimumSize(final int minSize) {
+		minimumSize = minSize;
+		if (minSize > maximumSize) {
+			setMaximumSize(minSize);
+		}
+	}
+
+	/**
+	 * @see org.eclipse.riena.core.cache.IGenericObjectCache#getMinimumSize()
+	 */
+	public int getMinimumSize() {
+		return minimumSize;
+	}
+
+	/**
+	 * Set the maximum number of entries held in this cache. The value is never
+	 * less than the minimum size.
+	 *
+	 * @param maxSize
+	 *            the maximum number of entries
+	 */
+	public void setMaximumSize(final int maxSize) {
+		final int newMaximumSize = Math.max(Math.max(1, maxSize), minimumSize);
+		if (newMaximumSize == maximumSize) {
+			return;
+		}
+		maximumSize = newMaximumSize;
+		sketch = new FrequencySketch(newMaximumSize);
+		if (cacheEntries.size() > newMaximumSize) {
+			evict(null);
+		}
+	}
+
+	/**
+	 * Returns the maximum number of entries held in this cache.
+	 *
+	 * @return the maximum size
+	 */
+	public int getMaximumSize() {
+		return maximumSize;
+	}
+
+	public String getStatistic() {
+		return name + "Hit / NotFound / Timeout / Evicted / Rejected " //$NON-NLS-1$
+				+ statHit.sum() + " / " + statNotFound.sum() + " / " + statTimeout.sum() + " / " + statEvicted.sum() //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+				+ " / " + statRejected.sum(); //$NON-NLS-1$
+	}
+
+	/**
+	 * Evicts entries until the maximum size is satisfied. Only one thread at a
+	 * time evicts, all others just continue because the evicting thread will
+	 * also take care of their entries.
+	 *
+	 * @param candidate
+	 *            the node that has just been put (may be {@code null})
+	 */
+	private void evict(final Node<K, V> candidate) {
+		while (evicting.compareAndSet(false, true)) {
+			try {
+				if (deadNodes.get() > Math.max(maximumSize, cacheEntries.size())) {
+					purgeDeadNodes();
+				}
+				final long now = System.currentTimeMillis();
+				// only the first victim competes with the new entry for admission
+				Node<K, V> admissionCandidate = candidate;
+				while (cacheEntries.size() > maximumSize) {
+					if (!evictOne(admissionCandidate, now)) {
+						break;
+					}
+					admissionCandidate = null;
+				}
+			} finally {
+				evicting.set(false);
+			}
+			// entries may have been put while we were evicting
+			if (cacheEntries.size() <= maximumSize) {
+				return;
+			}
+		}
+	}
+
+	private boolean evictOne(final Node<K, V> candidate, final long now) {
+		final FrequencySketch frequencies = sketch;
+		Node<K, V> victim = null;
+		int victimFrequency = Integer.MAX_VALUE;
+		final Node<K, V>[] survivors = newNodeArray(SAMPLE_SIZE);
+		int sampled = 0;
+		while (sampled < SAMPLE_SIZE) {
+			final Node<K, V> node = evictionQueue.poll();
+			if (node == null) {
+				break;
+			}
+			if (node.dead) {
+				deadNodes.decrementAndGet();
+				continue;
+			}
+			if (node.isExpired(now, timeout)) {
+				// expired entries are the cheapest victims
+				if (removeNode(node)) {
+					statTimeout.increment();
+				}
+				deadNodes.decrementAndGet();
+				restore(survivors, sampled, null);
+				return true;
+			}
+			if (node == candidate) {
+				// the candidate is compared against the sample below
+				survivors[sampled++] = node;
+				continue;
+			}
+			final int frequency = frequencies.frequency(node.key);
+			if (victim == null || frequency < victimFrequency
+					|| (frequency == victimFrequency && node.accessTime < victim.accessTime)) {
+				victim = node;
+				victimFrequency = frequency;
+			}
+			survivors[sampled++] = node;
+		}
+		if (victim == null && candidate == null) {
+			restore(survivors, sampled, null);
+			return false;
+		}
+		if (candidate != null && !candidate.dead
+				&& (victim == null || frequencies.frequency(candidate.key) < victimFrequency)) {
+			// TinyLFU admission: the new entry is less popular than the victim
+			victim = candidate;
+			statRejected.increment();
+		} else {
+			statEvicted.increment();
+		}
+		removeNode(victim);
+		restore(survivors, sampled, victim);
+		return true;
+	}
+
+	/**
+	 * Gives the surviving sampled nodes a second chance at the tail of the
+	 * queue.
+	 */
+	private void restore(final Node<K, V>[] survivors, final int count, final Node<K, V> victim) {
+		for (int i = 0; i < count; i++) {
+			final Node<K, V> node = survivors[i];
+			if (node == victim) {
+				if (node.dead) {
+					deadNodes.decrementAndGet();
+				}
+				continue;
+			}
+			evictionQueue.offer(node);
+		}
+	}
+
+	private boolean removeNode(final Node<K, V> node) {
+		if (cacheEntries.remove(node.key, node)) {
+			markDead(node);
+			return true;
+		}
+		return false;
+	}
+
+	private void markDead(final Node<K, V> node) {
+		if (!node.dead) {
+			node.dead = true;
+			deadNodes.incrementAndGet();
+		}
+	}
+
+	private void purgeDeadNodes() {
+		int purged = 0;
+		for (final Iterator<Node<K, V>> iterator = evictionQueue.iterator(); iterator.hasNext();) {
+			if (iterator.next().dead) {
+				iterator.remove();
+				purged++;
+			}
+		}
+		deadNodes.addAndGet(-purged);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <K, V> Node<K, V>[] newNodeArray(final int size) {
+		return new Node[size];
+	}
+
+	/**
+	 * A cache entry.
+	 */
+	private static final class Node<K, V> {
+
+		private final K key;
+		private final V value;
+		private final long writeTime;
+		private final long timeToLive;
+		private volatile long accessTime;
+		private volatile boolean dead;
+
+		private Node(final K key, final V value, final long writeTime, final long timeToLive) {
+			this.key = key;
+			this.value = value;
+			this.writeTime = writeTime;
+			this.timeToLive = timeToLive;
+			this.accessTime = writeTime;
+		}
+
+		private boolean isExpired(final long now, final long defaultTimeout) {
+			return now - writeTime > (timeToLive < 0 ? defaultTimeout : timeToLive);
+		}
+	}
+
+}
@@ -94,7 +94,7 @@ public class ExtensionInjector implements IStoppable {
 		// However would like to keep the method signature so that it is in sync
 		// with the service injector.
 		// this.context = context;
-		updateMethod = findUpdateMethod();
+		updateMethod = updateMethod != null ? checkUpdateMethod(updateMethod) : findUpdateMethod();
 		final Class<?> parameterType = updateMethod.getParameterTypes()[0];
 		isArray = parameterType.isArray();
 		// if the interface type is given explicitly it will be used; otherwise
@@ -138,6 +138,22 @@ public class ExtensionInjector implements IStoppable {
 		return this;
 	}
 
+	/**
+	 * Define the update method.<br>
+	 * This avoids looking up the method by its name.
+	 * 
+	 * @param updateMethod
+	 * @return itself
+	 * @since 6.2
+	 */
+	public ExtensionInjector update(final Method updateMethod) {
+		Assert.isNotNull(updateMethod, "Update method must not be null"); //$NON-NLS-1$
+		Assert.isTrue(!started, "ExtensionInjector already started."); //$NON-NLS-1$
+		this.updateMethod = updateMethod;
+		this.updateMethodName = updateMethod.getName();
+		return this;
+	}
+
 	/**
 	 * Explicitly force specific injection, i.e. the injected types reflect that
 	 * they are contributed from different extensions. Otherwise (which is the
@@ -204,6 +220,29 @@ public class ExtensionInjector implements IStoppable {
 		update(emptyBeans());
 	}
 
+	/**
+	 * Check the explicitly given update method the same way as the update
+	 * methods found by name.
+	 * 
+	 * @return the update method
+	 */
+	private Method checkUpdateMethod(final Method method) {
+		final Class<?>[] types = method.getParameterTypes();
+		if (types.length != 1 || !Modifier.isPublic(method.getModifiers())
+				|| !method.getDeclaringClass().isAssignableFrom(targetClass)) {
+			throw new InjectionFailure("Specified 'bind' method " + method + " is not a public method of " //$NON-NLS-1$ //$NON-NLS-2$
+					+ targetClass + " with exactly one parameter."); //$NON-NLS-1$
+		}
+		final Class<?> type = types[0].isArray() ? types[0].getComponentType() : types[0];
+		final Class<?> interfaceType = extensionDesc.getInterfaceType();
+		if (!matchesExtensionPointConstraint(types[0])
+				|| (interfaceType != null ? !type.isAssignableFrom(interfaceType) : !isExtensionInterface(type))) {
+			throw new InjectionFailure("Specified 'bind' method " + method //$NON-NLS-1$
+					+ " does not match extension point constraints (e.g. requires an array type)."); //$NON-NLS-1$
+		}
+		return method;
+	}
+
 	private Method findUpdateMethod() {
 		return extensionDesc.getInterfaceType() == null ? findUpdateMethodForUnkownType()
 				: findUpdateMethodForKownType();
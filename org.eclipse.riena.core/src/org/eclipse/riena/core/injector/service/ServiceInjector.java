@@ -160,6 +160,12 @@ public abstract class ServiceInjector implements IStoppable {
 				serviceClass = bindMethod.getParameterTypes()[0];
 			}
 		}
+		if (unbindMethod != null) {
+			if (unbindMethod.getParameterTypes().length != 1) {
+				throw new InjectionFailure("Specified unbind method '" + unbindMethod + "' expects exactly one parameter."); //$NON-NLS-1$ //$NON-NLS-2$
+			}
+			return;
+		}
 		if (unbindMethodName == null) {
 			unbindMethodName = DEFAULT_UNBIND_METHOD_NAME;
 		}
@@ -321,6 +327,22 @@ public abstract class ServiceInjector implements IStoppable {
 		return this;
 	}
 
+	/**
+	 * Specify the un-bind method. If not specified
+	 * {@link #DEFAULT_UNBIND_METHOD_NAME} will be used.
+	 * 
+	 * @throws some_kind_of_unchecked_exception
+	 *             if injector has already been started or stopped.
+	 * @param unbindMethod
+	 * @return this injector
+	 * @since 6.2
+	 */
+	public synchronized ServiceInjector unbind(final Method unbindMethod) {
+		Assert.isTrue(state == State.INITIAL, "ServiceInjector already started or stopped!"); //$NON-NLS-1$
+		this.unbindMethod = unbindMethod;
+		return this;
+	}
+
 	/**
 	 * Registers the listener for service events.
 	 */
@@ -0,0 +1,36 @@
+/*******************************************************************************
+ * Copyright (c) 2007, 2014 compeople AG and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    compeople AG - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.riena.core.logging;
+
+import java.util.List;
+
+import org.osgi.service.log.LogEntry;
+import org.osgi.service.log.LogListener;
+
+/**
+ * A {@code LogListener} that can handle multiple log entries at once. The
+ * {@code RingBufferLogListenerAdapter} delivers its log entries in batches to
+ * such listeners.
+ *
+ * @since 6.2
+ */
+public interface IBatchLogListener extends LogListener {
+
+	/**
+	 * Listener method called for a batch of log entries in the order they have
+	 * been logged.
+	 *
+	 * @param entries
+	 *            the log entries; the list must not be modified or kept
+	 */
+	void logged(List<LogEntry> entries);
+
+}
@@ -0,0 +1,193 @@
+/*******************************************************************************
+ * Copyright (c) 2007, 2014 compeople AG and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    compeople AG - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.riena.core.logging;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+import org.osgi.service.log.LogEntry;
+import org.osgi.service.log.LogListener;
+import org.osgi.service.log.LogService;
+
+import org.eclipse.equinox.log.SynchronousLogListener;
+
+/**
+ * Wraps another {@code LogListener} so that the logging threads only put their
+ * log entries into a preallocated ring buffer and a single consumer thread
+ * delivers them in batches to the wrapped {@code LogListener}.
+ * <p>
+ * The log entries are delivered in the order they have been put into the ring
+ * buffer, i.e. the order of the log entries of each logging thread is
+ * preserved. If the ring buffer is full the logging thread waits until the
+ * consumer has made room. If the wrapped {@code LogListener} is a
+ * {@code IBatchLogListener} it will receive whole batches.
+ *
+ * @since 6.2
+ */
+public class RingBufferLogListenerAdapter implements SynchronousLogListener {
+
+	private static final int MAX_BATCH_SIZE = 256;
+	private static final int MAX_CAPACITY = 1 << 24;
+	private static final long PRODUCER_BACKOFF_NANOS = 10000L;
+	private static final long DISPOSE_TIMEOUT_MILLIS = 5000L;
+
+	private final LogListener logListener;
+	private final LogEntry[] entries;
+	private final AtomicLongArray published;
+	private final int capacity;
+	private final int mask;
+	private final AtomicLong claimed = new AtomicLong();
+	private final Thread consumer;
+	private volatile long consumed;
+	private volatile boolean waiting;
+	private volatile boolean disposed;
+
+	/**
+	 * Create the adapter and start its consumer thread.
+	 *
+	 * @param logListener
+	 *            the wrapped {@code LogListener}
+	 * @param size
+	 *            the minimum size of the ring buffer; it will be rounded up to
+	 *            the next power of two
+	 */
+	public RingBufferLogListenerAdapter(final LogListener logListener, final int size) {
+		this.logListener = logListener;
+		this.capacity = Integer.highestOneBit(Math.max(2, Math.min(size, MAX_CAPACITY)) * 2 - 1);
+		this.mask = capacity - 1;
+		this.entries = new LogEntry[capacity];
+		this.published = new AtomicLongArray(capacity);
+		for (int i = 0; i < capacity; i++) {
+			published.set(i, -1);
+		}
+		consumer = new Thread(new Consumer(), "RingBufferLogListener[" + logListener.getClass().getSimpleName() + "]"); //$NON-NLS-1$ //$NON-NLS-2$
+		consumer.setDaemon(true);
+		consumer.start();
+	}
+
+	/**
+	 * @return the capacity of the ring buffer
+	 */
+	public int getCapacity() {
+		return capacity;
+	}
+
+	public void logged(final LogEntry entry) {
+		// entries logged by the wrapped listener itself must not wait for the consumer
+		if (disposed || Thread.currentThread() == consumer) {
+			logListener.logged(entry);
+			return;
+		}
+		final long sequence = claimed.getAndIncrement();
+		if (sequence < 0) {
+			// claiming has been closed by dispose()
+			logListener.logged(entry);
+			return;
+		}
+		// a claimed sequence must always be published, the consumer will not skip it
+		while (sequence - consumed >= capacity) {
+			if (!consumer.isAlive()) {
+				logListener.logged(entry);
+				return;
+			}
+			LockSupport.unpark(consumer);
+			LockSupport.parkNanos(this, PRODUCER_BACKOFF_NANOS);
+		}
+		final int index = (int) sequence & mask;
+		entries[index] = entry;
+		// a volatile write, it must not be reordered with the following read of 'waiting'
+		published.set(index, sequence);
+		if (waiting) {
+			LockSupport.unpark(consumer);
+		}
+	}
+
+	/**
+	 * Deliver all pending log entries and stop the consumer thread. Log
+	 * entries logged afterwards will be delivered directly. Log entries of
+	 * logging threads that are still waiting for room in the ring buffer will
+	 * be delivered by the consumer thread before it stops.
+	 */
+	public void dispose() {
+		disposed = true;
+		LockSupport.unpark(consumer);
+		if (Thread.currentThread() == consumer) {
+			return;
+		}
+		try {
+			consumer.join(DISPOSE_TIMEOUT_MILLIS);
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private void deliver(final List<LogEntry> batch) {
+		try {
+			if (logListener instanceof IBatchLogListener) {
+				((IBatchLogListener) logListener).logged(batch);
+			} else {
+				for (final LogEntry entry : batch) {
+					logListener.logged(entry);
+				}
+			}
+		} catch (final RuntimeException e) {
+			new ConsoleLogger(RingBufferLogListenerAdapter.class.getName()).log(LogService.LOG_ERROR,
+					"Delivering " + batch.size() + " log entries failed.", e); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+	}
+
+	/**
+	 * The single consumer of the ring buffer.
+	 */
+	private class Consumer implements Runnable {
+
+		public void run() {
+			final List<LogEntry> batch = new ArrayList<LogEntry>(Math.min(MAX_BATCH_SIZE, capacity));
+			long next = 0;
+			long end = Long.MAX_VALUE;
+			while (true) {
+				if (disposed && end == Long.MAX_VALUE) {
+					// close claiming, later log entries will be delivered directly
+					end = claimed.getAndAdd(Long.MIN_VALUE);
+				}
+				while (batch.size() < MAX_BATCH_SIZE && isPublished(next)) {
+					final int index = (int) next & mask;
+					batch.add(entries[index]);
+					entries[index] = null;
+					next++;
+				}
+				if (batch.isEmpty()) {
+					if (next >= end) {
+						return;
+					}
+					waiting = true;
+					if (!isPublished(next) && (end != Long.MAX_VALUE || !disposed)) {
+						LockSupport.park(this);
+					}
+					waiting = false;
+					continue;
+				}
+				// free the slots before delivering so that the logging threads can continue
+				consumed = next;
+				deliver(batch);
+				batch.clear();
+			}
+		}
+
+		private boolean isPublished(final long sequence) {
+			return published.get((int) sequence & mask) == sequence;
+		}
+	}
+
+}
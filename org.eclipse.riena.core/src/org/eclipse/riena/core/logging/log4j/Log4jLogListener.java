@@ -18,6 +18,9 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.URL;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.LogManager;
@@ -28,7 +31,7 @@ import org.apache.logging.log4j.status.StatusLogger;
 
 import org.osgi.framework.Bundle;
 import org.osgi.service.log.LogEntry;
-import org.osgi.service.log.LogListener;
+import org.osgi.service.log.LogLevel;
 
 import org.eclipse.core.runtime.ContributorFactoryOSGi;
 import org.eclipse.core.runtime.CoreException;
@@ -39,6 +42,7 @@ import org.eclipse.core.runtime.Status;
 import org.eclipse.equinox.log.ExtendedLogEntry;
 
 import org.eclipse.riena.core.logging.ConsoleLogger;
+import org.eclipse.riena.core.logging.IBatchLogListener;
 import org.eclipse.riena.core.util.IOUtils;
 import org.eclipse.riena.core.util.VariableManagerUtil;
 import org.eclipse.riena.core.wire.InjectExtension;
@@ -108,8 +112,22 @@ import org.eclipse.riena.internal.core.logging.log4j.ILog4jLogListenerConfigurat
  *         initialValue=&quot;c:/projects/&quot;/&gt;
  * &lt;/extension&gt;
  * </pre>
+ * 
+ * To take the delivery to Log4j off the logging threads the listener can be used with a ring buffer, i.e. the logging threads only put their log
+ * entries into the ring buffer and a single consumer thread delivers them in batches to Log4j, e.g.
+ * 
+ * <pre>
+ * &lt;extension point=&quot;org.eclipse.riena.core.logListeners&quot;&gt;
+ *     &lt;logListener name=&quot;Log4j&quot; 
+ *                     listener-class=&quot;org.eclipse.riena.core.logging.log4j.Log4jLogListener:/log4j.xml&quot;
+ *                     filter-class="org.eclipse.riena.core.logging.log4j.Log4jLogFilter"
+ *                     ring-buffer-size=&quot;8192&quot;/&gt;
+ * &lt;/extension&gt;
+ * </pre>
+ * 
+ * <b>Note:</b> In this mode the diagnostic context is set once per batch on the consumer thread.
  */
-public class Log4jLogListener implements LogListener, IExecutableExtension {
+public class Log4jLogListener implements IBatchLogListener, IExecutableExtension {
 
 	/**
 	 * The default log4j configuration file (xml).
@@ -118,46 +136,44 @@ public class Log4jLogListener implements LogListener, IExecutableExtension {
 
 	private final static org.eclipse.equinox.log.Logger EMERGENCY_LOGGER = new ConsoleLogger(Log4jLogListener.class.getName());
 
+	private static final String UNKNOWN_LOGGER_NAME = "unknown-logger-name"; //$NON-NLS-1$
+
+	private static final Level[] LEVELS = createLevels();
+
 	private ILog4jDiagnosticContext log4jDiagnosticContext;
+	private final ConcurrentMap<String, Logger> loggers = new ConcurrentHashMap<String, Logger>();
 
 	public Log4jLogListener() {
 	}
 
 	public void logged(final LogEntry entry) {
-		final ExtendedLogEntry extendedEntry = (ExtendedLogEntry) entry;
-		final String loggerName = extendedEntry.getLoggerName();
-		final Logger logger = LogManager.getLogger(loggerName != null ? loggerName : "unknown-logger-name"); //$NON-NLS-1$
-
-		final Level level;
-		switch (extendedEntry.getLogLevel()) {
-		case DEBUG:
-			level = Level.DEBUG;
-			break;
-		case WARN:
-			level = Level.WARN;
-			break;
-		case ERROR:
-			level = Level.ERROR;
-			break;
-		case AUDIT:
-			level = Level.ALL;
-			break;
-		case INFO:
-			level = Level.INFO;
-			break;
-		case TRACE:
-			level = Level.TRACE;
-			break;
-		default:
-			level = Level.OFF;
-			break;
+		final ILog4jDiagnosticContext diagnosticContext = log4jDiagnosticContext;
+		try {
+			if (diagnosticContext != null) {
+				diagnosticContext.push();
+			}
+			log((ExtendedLogEntry) entry);
+		} finally {
+			if (diagnosticContext != null) {
+				diagnosticContext.pop();
+			}
 		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 * @since 6.2
+	 */
+	public void logged(final List<LogEntry> entries) {
 		final ILog4jDiagnosticContext diagnosticContext = log4jDiagnosticContext;
 		try {
 			if (diagnosticContext != null) {
 				diagnosticContext.push();
 			}
-			logger.log(level, extendedEntry.getMessage(), extendedEntry.getException());
+			for (final LogEntry entry : entries) {
+				log((ExtendedLogEntry) entry);
+			}
 		} finally {
 			if (diagnosticContext != null) {
 				diagnosticContext.pop();
@@ -165,6 +181,57 @@ public class Log4jLogListener implements LogListener, IExecutableExtension {
 		}
 	}
 
+	private void log(final ExtendedLogEntry extendedEntry) {
+		getLogger(extendedEntry.getLoggerName()).log(LEVELS[extendedEntry.getLogLevel().ordinal()], extendedEntry.getMessage(),
+				extendedEntry.getException());
+	}
+
+	private Logger getLogger(final String loggerName) {
+		final String name = loggerName != null ? loggerName : UNKNOWN_LOGGER_NAME;
+		Logger logger = loggers.get(name);
+		if (logger == null) {
+			logger = LogManager.getLogger(name);
+			final Logger previous = loggers.putIfAbsent(name, logger);
+			if (previous != null) {
+				logger = previous;
+			}
+		}
+		return logger;
+	}
+
+	private static Level[] createLevels() {
+		final LogLevel[] logLevels = LogLevel.values();
+		final Level[] levels = new Level[logLevels.length];
+		for (final LogLevel logLevel : logLevels) {
+			final Level level;
+			switch (logLevel) {
+			case DEBUG:
+				level = Level.DEBUG;
+				break;
+			case WARN:
+				level = Level.WARN;
+				break;
+			case ERROR:
+				level = Level.ERROR;
+				break;
+			case AUDIT:
+				level = Level.ALL;
+				break;
+			case INFO:
+				level = Level.INFO;
+				break;
+			case TRACE:
+				level = Level.TRACE;
+				break;
+			default:
+				level = Level.OFF;
+				break;
+			}
+			levels[logLevel.ordinal()] = level;
+		}
+		return levels;
+	}
+
 	public void setInitializationData(final IConfigurationElement config, final String propertyName, Object data) throws CoreException {
 		if (data == null) {
 			data = DEFAULT_CONFIGURATION;
@@ -200,6 +267,7 @@ public class Log4jLogListener implements LogListener, IExecutableExtension {
 		try {
 			final File temp = resolveVariables(url);
 			LogManager.getContext(null, false, temp.toURI());
+			loggers.clear();
 			if (listener.containsErrors()) {
 				EMERGENCY_LOGGER.error("Initializing logging from '" + url + "' failed because of " + listener.getListedErrors()); //$NON-NLS-1$ //$NON-NLS-2$
 			}
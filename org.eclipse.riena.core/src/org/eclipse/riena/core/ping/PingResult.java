@@ -23,6 +23,7 @@ public class PingResult {
 
 	private final String pingableName;
 	private String failureMessage;
+	private boolean timedOut;
 	private List<PingResult> nestedResults;
 
 	/**
@@ -76,6 +77,28 @@ public class PingResult {
 		this.failureMessage = message;
 	}
 
+	/**
+	 * Marks this ping as timed out, i.e. the pinged service did not answer
+	 * within the given time. A timed out ping is also a failed ping.
+	 * 
+	 * @param timeoutMillis
+	 *            the time waited for the ping in milliseconds
+	 * @since 6.2
+	 */
+	public void setPingTimeout(final long timeoutMillis) {
+		this.timedOut = true;
+		setPingFailure("Ping timed out after " + timeoutMillis + " ms."); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+	/**
+	 * @return <code>true</code>, if the ping did not finish in time; such a
+	 *         ping has also {@link #hasPingFailed() failed}
+	 * @since 6.2
+	 */
+	public boolean hasPingTimedOut() {
+		return timedOut;
+	}
+
 	/**
 	 * @return the message describing the failure that occurred on ping, or
 	 *         <code>null</code> on success.
@@ -102,6 +125,9 @@ public class PingResult {
 		bob.append(getPingableName());
 		bob.append(", failure="); //$NON-NLS-1$
 		bob.append(getPingFailure());
+		if (timedOut) {
+			bob.append(", timedOut=true"); //$NON-NLS-1$
+		}
 		bob.append(", nested="); //$NON-NLS-1$
 		bob.append(getNestedResults());
 		bob.append("]"); //$NON-NLS-1$
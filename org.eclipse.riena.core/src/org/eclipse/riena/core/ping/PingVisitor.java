@@ -28,9 +28,20 @@ import org.eclipse.riena.core.util.Nop;
  * The {@code PingVisitor} is responsible for crawling down the <i>hierarchy</i>
  * of pingable services. The entry point for starting a ping is method
  * {@link #ping(IPingable) ping()}.
+ * <p>
+ * The reflective analysis of a pingable's class (its pingable members, its
+ * {@code ping..()} methods and its {@code getAdditionalPingables()} methods) is
+ * done only once per class and cached.
  */
 public class PingVisitor {
 
+	private static final ClassValue<PingPlan> PLANS = new ClassValue<PingPlan>() {
+		@Override
+		protected PingPlan computeValue(final Class<?> type) {
+			return new PingPlan(type);
+		}
+	};
+
 	protected final List<PingFingerprint> cycleDectector = new ArrayList<PingFingerprint>();
 	protected final List<PingResult> pingResultList = new ArrayList<PingResult>();
 	protected final Stack<PingResult> resultStack = new Stack<PingResult>();
@@ -164,20 +175,8 @@ public class PingVisitor {
 	 * @see #isPingMethod(IPingable, Method)
 	 */
 	public void collectPingMethods(final IPingable pingable, final Set<IPingable> pingableList) {
-		collectPingMethods(pingable.getClass(), pingable, pingableList);
-	}
-
-	private void collectPingMethods(final Class<?> clazz, final IPingable pingable, final Set<IPingable> pingableList) {
-		final Method[] methods = clazz.getDeclaredMethods();
-		for (final Method method : methods) {
-			if (isPingMethod(pingable, method)) {
-				setAccessible(method);
-				pingableList.add(new PingMethodAdapter(pingable, method));
-			}
-		}
-		final Class<?> superClass = clazz.getSuperclass();
-		if (superClass != null) {
-			collectPingMethods(superClass, pingable, pingableList);
+		for (final Method method : PLANS.get(pingable.getClass()).pingMethods) {
+			pingableList.add(new PingMethodAdapter(pingable, method));
 		}
 	}
 
@@ -188,18 +187,14 @@ public class PingVisitor {
 	 * @param pingableList
 	 */
 	public void collectPingableMembers(final IPingable pingable, final Set<IPingable> pingableList) {
-		final Field[] fields = pingable.getClass().getDeclaredFields();
-		for (final Field field : fields) {
-			if (!IPingable.class.isAssignableFrom(field.getType())) {
-				continue;
-			}
+		for (final Field field : PLANS.get(pingable.getClass()).pingableFields) {
 			try {
-				setAccessible(field);
-				if (field.get(pingable) == null) {
+				final Object member = field.get(pingable);
+				if (member == null) {
 					// skip null members
 					continue;
 				}
-				pingableList.add((IPingable) field.get(pingable));
+				pingableList.add((IPingable) member);
 			} catch (final Exception e) {
 				pingableList.add(new UnavailablePingable(field.getName(),
 						"Pingable member " + field.getName() + " not accessible: " + e.getMessage())); //$NON-NLS-1$ //$NON-NLS-2$
@@ -215,34 +210,28 @@ public class PingVisitor {
 	 * @param pingableList
 	 */
 	public void collectAdditionalPingables(final IPingable pingable, final Set<IPingable> pingableList) {
-		collectAdditionalPingables(pingable.getClass(), pingable, pingableList);
-	}
-
-	private void collectAdditionalPingables(final Class<?> clazz, final IPingable pingable,
-			final Set<IPingable> pingableList) {
-		try {
-			final Method method = clazz.getDeclaredMethod("getAdditionalPingables", new Class[0]); //$NON-NLS-1$
-			setAccessible(method);
-			final Type returnType = method.getGenericReturnType();
-			if (isIterableOfPingables(returnType)) {
+		final PingPlan plan = PLANS.get(pingable.getClass());
+		for (final Method method : plan.additionalPingablesMethods) {
+			try {
 				final Iterable<IPingable> pingables = (Iterable<IPingable>) method.invoke(pingable, new Object[0]);
 				for (final IPingable additionalPingable : pingables) {
 					pingableList.add(additionalPingable);
 				}
+			} catch (final Exception e) {
+				addUnavailableAdditionalPingables(pingableList, e);
 			}
-		} catch (final NoSuchMethodException nsme) {
-			Nop.reason("no getAdditionalPingables() method"); //$NON-NLS-1$
-		} catch (final Exception e) {
-			pingableList.add(new UnavailablePingable("getAdditionalPingables", //$NON-NLS-1$
-					"Method getAdditionalPingables() not accessible: " + e.getMessage())); //$NON-NLS-1$
 		}
-		final Class<?> superClass = clazz.getSuperclass();
-		if (superClass != null) {
-			collectAdditionalPingables(superClass, pingable, pingableList);
+		for (final Exception e : plan.additionalPingablesFailures) {
+			addUnavailableAdditionalPingables(pingableList, e);
 		}
 	}
 
-	private void setAccessible(final Method method) {
+	private static void addUnavailableAdditionalPingables(final Set<IPingable> pingableList, final Exception e) {
+		pingableList.add(new UnavailablePingable("getAdditionalPingables", //$NON-NLS-1$
+				"Method getAdditionalPingables() not accessible: " + e.getMessage())); //$NON-NLS-1$
+	}
+
+	private static void setAccessible(final Method method) {
 		try {
 			method.setAccessible(true);
 		} catch (final SecurityException e) {
@@ -250,7 +239,7 @@ public class PingVisitor {
 		}
 	}
 
-	private void setAccessible(final Field field) {
+	private static void setAccessible(final Field field) {
 		try {
 			field.setAccessible(true);
 		} catch (final SecurityException e) {
@@ -258,7 +247,7 @@ public class PingVisitor {
 		}
 	}
 
-	private boolean isIterableOfPingables(final Type returnType) {
+	private static boolean isIterableOfPingables(final Type returnType) {
 		if (!(returnType instanceof ParameterizedType)) {
 			return false;
 		}
@@ -323,4 +312,52 @@ public class PingVisitor {
 		}
 	}
 
+	/**
+	 * The cached result of the reflective analysis of a pingable class.
+	 */
+	private static final class PingPlan {
+
+		private final Field[] pingableFields;
+		private final Method[] pingMethods;
+		private final Method[] additionalPingablesMethods;
+		private final Exception[] additionalPingablesFailures;
+
+		private PingPlan(final Class<?> pingableClass) {
+			final List<Field> fields = new ArrayList<Field>();
+			for (final Field field : pingableClass.getDeclaredFields()) {
+				if (IPingable.class.isAssignableFrom(field.getType())) {
+					setAccessible(field);
+					fields.add(field);
+				}
+			}
+			pingableFields = fields.toArray(new Field[fields.size()]);
+
+			final List<Method> methods = new ArrayList<Method>();
+			final List<Method> additionalMethods = new ArrayList<Method>();
+			final List<Exception> additionalFailures = new ArrayList<Exception>();
+			for (Class<?> clazz = pingableClass; clazz != null; clazz = clazz.getSuperclass()) {
+				for (final Method method : clazz.getDeclaredMethods()) {
+					if (isPingMethod(null, method)) {
+						setAccessible(method);
+						methods.add(method);
+					}
+				}
+				try {
+					final Method method = clazz.getDeclaredMethod("getAdditionalPingables", new Class[0]); //$NON-NLS-1$
+					setAccessible(method);
+					if (isIterableOfPingables(method.getGenericReturnType())) {
+						additionalMethods.add(method);
+					}
+				} catch (final NoSuchMethodException nsme) {
+					Nop.reason("no getAdditionalPingables() method"); //$NON-NLS-1$
+				} catch (final Exception e) {
+					additionalFailures.add(e);
+				}
+			}
+			pingMethods = methods.toArray(new Method[methods.size()]);
+			additionalPingablesMethods = additionalMethods.toArray(new Method[additionalMethods.size()]);
+			additionalPingablesFailures = additionalFailures.toArray(new Exception[additionalFailures.size()]);
+		}
+	}
+
 }
@@ -10,13 +10,31 @@
  *******************************************************************************/
 package org.eclipse.riena.core.ping;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.osgi.framework.BundleContext;
 import org.osgi.framework.FrameworkUtil;
 import org.osgi.framework.InvalidSyntaxException;
 import org.osgi.framework.ServiceReference;
 
+import org.eclipse.core.runtime.Assert;
+
+import org.eclipse.riena.core.util.Nop;
+
 /**
  * The {@code Sonar} catches up all pingable services and visits them.
  */
@@ -35,6 +53,124 @@ public final class Sonar {
 
 		PingVisitor visitor = new PingVisitor();
 
+		final List<IPingable> pingables = getAllPingableServices();
+		if (pingables == null) {
+			return null;
+		}
+
+		// ping'em
+		for (final IPingable pingable : pingables) {
+			visitor = pingable.ping(visitor);
+		}
+
+		return visitor.getPingResults();
+	}
+
+	/**
+	 * Ping all reachable services in parallel.
+	 * <p>
+	 * Each pingable service is pinged with its own {@code PingVisitor} by at
+	 * most {@code parallelism} threads of a shared pool. Pingables that are
+	 * reachable from several services are pinged only once per sweep. The
+	 * results are returned in the same order as with
+	 * {@link #pingAllServices()}. If a pingable service does not answer within
+	 * {@code pingTimeout} after its ping has started or before the overall
+	 * {@code sweepTimeout} elapsed, its result
+	 * {@linkplain PingResult#hasPingTimedOut() is marked as timed out}; if it
+	 * throws an exception, its result is marked as failed.
+	 * 
+	 * @param parallelism
+	 *            the maximum number of services pinged at the same time
+	 * @param pingTimeout
+	 *            the maximum time to wait for a single pingable service
+	 * @param sweepTimeout
+	 *            the maximum time to wait for all pingable services
+	 * @param unit
+	 *            the time unit of the timeouts
+	 * @return the List of all {@code PingResult}s
+	 * @since 6.2
+	 */
+	public static List<PingResult> pingAllServices(final int parallelism, final long pingTimeout,
+			final long sweepTimeout, final TimeUnit unit) {
+		Assert.isLegal(parallelism > 0, "parallelism must be greater than zero"); //$NON-NLS-1$
+		Assert.isNotNull(unit, "unit must not be null"); //$NON-NLS-1$
+
+		final List<IPingable> pingables = getAllPingableServices();
+		if (pingables == null) {
+			return null;
+		}
+
+		final long sweepStart = System.nanoTime();
+		final long sweepDeadline = sweepStart + unit.toNanos(sweepTimeout);
+		final long pingTimeoutNanos = unit.toNanos(pingTimeout);
+		final Set<PingFingerprint> pinged = Collections
+				.newSetFromMap(new ConcurrentHashMap<PingFingerprint, Boolean>());
+		final List<PingTask> tasks = new ArrayList<PingTask>(pingables.size());
+		for (final IPingable pingable : pingables) {
+			tasks.add(new PingTask(pingable, pinged));
+		}
+		// the lanes limit the parallelism of this sweep within the shared pool
+		final AtomicInteger next = new AtomicInteger();
+		for (int i = 0; i < Math.min(parallelism, tasks.size()); i++) {
+			PingExecutor.INSTANCE.execute(new Runnable() {
+				public void run() {
+					int index;
+					while ((index = next.getAndIncrement()) < tasks.size()) {
+						tasks.get(index).run();
+						// clear a cancellation interrupt before the next task
+						Thread.interrupted();
+					}
+				}
+			});
+		}
+		try {
+			final List<PingResult> results = new ArrayList<PingResult>();
+			for (final PingTask task : tasks) {
+				results.addAll(await(task, pingTimeoutNanos, sweepStart, sweepDeadline));
+			}
+			return results;
+		} finally {
+			for (final PingTask task : tasks) {
+				task.cancel(true);
+			}
+		}
+	}
+
+	/**
+	 * Wait for the given task until it is done or until {@code pingTimeout}
+	 * after it has started, at most until the end of the sweep.
+	 */
+	private static List<PingResult> await(final PingTask task, final long pingTimeoutNanos, final long sweepStart,
+			final long sweepDeadline) {
+		while (true) {
+			final long now = System.nanoTime();
+			final boolean started = task.isStarted();
+			final long remaining = (started ? Math.min(task.getStartNanos() + pingTimeoutNanos, sweepDeadline)
+					: sweepDeadline) - now;
+			if (remaining <= 0 && !task.isDone()) {
+				task.cancel(true);
+				final PingResult result = new PingResult(getPingableName(task.pingable));
+				result.setPingTimeout(TimeUnit.NANOSECONDS.toMillis(now - (started ? task.getStartNanos() : sweepStart)));
+				return Collections.singletonList(result);
+			}
+			try {
+				// a queued task is checked again as soon as it may have started
+				return task.get(Math.max(0, started ? remaining : Math.min(remaining, QUEUED_POLL_NANOS)),
+						TimeUnit.NANOSECONDS);
+			} catch (final TimeoutException e) {
+				Nop.reason("check the deadline again"); //$NON-NLS-1$
+			} catch (final ExecutionException e) {
+				final PingResult result = new PingResult(getPingableName(task.pingable));
+				result.setPingFailure(e.getCause() instanceof Exception ? (Exception) e.getCause() : e);
+				return Collections.singletonList(result);
+			} catch (final InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException("Pinging all services has been interrupted.", e); //$NON-NLS-1$
+			}
+		}
+	}
+
+	private static List<IPingable> getAllPingableServices() {
 		// fetch ALL services
 		final BundleContext context = FrameworkUtil.getBundle(Sonar.class).getBundleContext();
 		ServiceReference[] allServiceReferences;
@@ -49,15 +185,123 @@ public final class Sonar {
 			return null;
 		}
 
-		// filter the pingable services and ping'em
+		// filter the pingable services
+		final List<IPingable> pingables = new ArrayList<IPingable>();
 		for (final ServiceReference serviceReference : allServiceReferences) {
 			final Object service = context.getService(serviceReference);
 			if (service instanceof IPingable) {
-				final IPingable pingable = (IPingable) service;
-				visitor = pingable.ping(visitor);
+				pingables.add((IPingable) service);
 			}
 		}
+		return pingables;
+	}
 
-		return visitor.getPingResults();
+	private static String getPingableName(final IPingable pingable) {
+		try {
+			return pingable.getPingFingerprint().getName();
+		} catch (final Exception e) {
+			return pingable.toString();
+		}
+	}
+
+	private static final long QUEUED_POLL_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+	/**
+	 * Pings a single pingable service with its own {@code PingVisitor} and
+	 * records when the ping has started.
+	 */
+	private static final class PingTask extends FutureTask<List<PingResult>> {
+
+		private final IPingable pingable;
+		private volatile long startNanos;
+		private volatile boolean started;
+
+		private PingTask(final IPingable pingable, final Set<PingFingerprint> pinged) {
+			super(new Callable<List<PingResult>>() {
+				public List<PingResult> call() {
+					return pingable.ping(new SweepPingVisitor(pinged)).getPingResults();
+				}
+			});
+			this.pingable = pingable;
+		}
+
+		@Override
+		public void run() {
+			if (!isDone()) {
+				startNanos = System.nanoTime();
+				started = true;
+			}
+			super.run();
+		}
+
+		private boolean isStarted() {
+			return started;
+		}
+
+		private long getStartNanos() {
+			return startNanos;
+		}
+	}
+
+	/**
+	 * A {@code PingVisitor} that skips the pingables that have already been
+	 * pinged within the same sweep by any of the parallel visitors.
+	 */
+	private static final class SweepPingVisitor extends PingVisitor {
+
+		// not transferred with remote pings
+		private transient Set<PingFingerprint> pinged;
+
+		private SweepPingVisitor(final Set<PingFingerprint> pinged) {
+			this.pinged = pinged;
+		}
+
+		@Override
+		public PingVisitor ping(final IPingable pingable) {
+			final Set<PingFingerprint> sweepPinged = pinged;
+			if (sweepPinged != null && !sweepPinged.add(getFingerprint(pingable))) {
+				return this;
+			}
+			final PingVisitor visitor = super.ping(pingable);
+			if (visitor instanceof SweepPingVisitor) {
+				// a remotely pinged service returns a copy
+				((SweepPingVisitor) visitor).pinged = sweepPinged;
+			}
+			return visitor;
+		}
+
+		private static PingFingerprint getFingerprint(final IPingable pingable) {
+			try {
+				return pingable.getPingFingerprint();
+			} catch (final Exception e) {
+				return new PingFingerprint(pingable, false);
+			}
+		}
+	}
+
+	/**
+	 * The pool shared by all sweeps. Its daemon threads do not prevent a
+	 * shutdown and terminate when they have been idle for a while.
+	 */
+	private static final class PingExecutor {
+
+		private static final int MAX_THREADS = 32;
+
+		private static final ExecutorService INSTANCE = create();
+
+		private static ExecutorService create() {
+			final ThreadPoolExecutor executor = new ThreadPoolExecutor(MAX_THREADS, MAX_THREADS, 60, TimeUnit.SECONDS,
+					new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+						private final AtomicInteger threadNumber = new AtomicInteger();
+
+						public Thread newThread(final Runnable runnable) {
+							final Thread thread = new Thread(runnable, "Sonar-" + threadNumber.incrementAndGet()); //$NON-NLS-1$
+							thread.setDaemon(true);
+							return thread;
+						}
+					});
+			executor.allowCoreThreadTimeOut(true);
+			return executor;
+		}
 	}
 }
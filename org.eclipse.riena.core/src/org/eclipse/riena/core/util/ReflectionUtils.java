@@ -10,20 +10,24 @@
  *******************************************************************************/
 package org.eclipse.riena.core.util;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.lang.reflect.Proxy;
 import java.util.Arrays;
-import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.osgi.framework.Bundle;
 
 import org.eclipse.core.runtime.Assert;
 
-import org.eclipse.riena.core.cache.LRUHashMap;
 import org.eclipse.riena.internal.core.Activator;
 import org.eclipse.riena.internal.core.ignore.IgnoreFindBugs;
 
@@ -39,11 +43,18 @@ public final class ReflectionUtils {
 	 * 
 	 */
 	private static final Class<Void> NULL_PARAMETER_TYPE = Void.class;
-	/** A cache of Method (or NO_SUCH_METHOD) values. */
-	private static final Map<Integer, Object> METHOD_CACHE = LRUHashMap.createSynchronizedLRUHashMap(25);
+	/** Per class caches of the resolved methods, constructors and fields. */
+	private static final ClassValue<Members> MEMBERS = new ClassValue<Members>() {
+		@Override
+		protected Members computeValue(final Class<?> type) {
+			return new Members();
+		}
+	};
 	/** Placeholder indicating a 'null' result (vs a cache miss) */
-	private static final Object NO_SUCH_METHOD = new Object() {
+	private static final Object NO_SUCH_MEMBER = new Object() {
 	};
+	private static final Object[] NO_ARGS = new Object[0];
+	private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
 
 	/**
 	 * Private default constructor.
@@ -298,34 +309,21 @@ public final class ReflectionUtils {
 		Assert.isNotNull(instance, "instance must be given!"); //$NON-NLS-1$
 		Assert.isNotNull(methodName, "methodName must be given!"); //$NON-NLS-1$
 
-		Class<?> clazz = getClass(instance);
-		while (clazz != null) {
-			Class<?>[] clazzes = classesPrimitiveFromObjects(args);
-			Method method = findMatchingMethodCached(open, clazz, methodName, clazzes);
-			if (method == null) {
-				clazzes = classesFromObjects(args);
-				method = findMatchingMethodCached(open, clazz, methodName, clazzes);
-			}
-			if (method != null) {
-				if (open) {
-					method.setAccessible(true);
-				}
-				try {
-					return (T) method.invoke(instance, args);
-				} catch (final InvocationTargetException ite) {
-					throw new InvocationTargetFailure("Calling #" + methodName + " on " + instance + " failed.", ite //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
-							.getTargetException());
-				} catch (final IllegalArgumentException e) {
-					throw new ReflectionFailure("Calling #" + methodName + " on " + instance + " failed.", e); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
-				} catch (final IllegalAccessException e) {
-					throw new ReflectionFailure("Calling #" + methodName + " on " + instance + " failed.", e); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
-				}
-			}
-			clazz = clazz.getSuperclass();
+		final MethodInvoker invoker = findMatchingMethodCached(open, getClass(instance), methodName, args);
+		if (invoker == null) {
+			throw new ReflectionFailure("Could not invoke hidden method " + methodName + " on " //$NON-NLS-1$ //$NON-NLS-2$
+					+ instance.getClass().getName() + "!"); //$NON-NLS-1$
+		}
+		try {
+			return (T) invoker.invoke(instance, args);
+		} catch (final InvocationTargetException ite) {
+			throw new InvocationTargetFailure("Calling #" + methodName + " on " + instance + " failed.", ite //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+					.getTargetException());
+		} catch (final IllegalArgumentException e) {
+			throw new ReflectionFailure("Calling #" + methodName + " on " + instance + " failed.", e); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		} catch (final IllegalAccessException e) {
+			throw new ReflectionFailure("Calling #" + methodName + " on " + instance + " failed.", e); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
 		}
-
-		throw new ReflectionFailure("Could not invoke hidden method " + methodName + " on " //$NON-NLS-1$ //$NON-NLS-2$
-				+ instance.getClass().getName() + "!"); //$NON-NLS-1$
 	}
 
 	/**
@@ -351,8 +349,7 @@ public final class ReflectionUtils {
 
 		final Class<?> clazz = getClass(instance);
 		try {
-			final Field field = getDeepField(clazz, fieldName);
-			field.setAccessible(true);
+			final Field field = getDeepFieldCached(clazz, fieldName);
 			field.set(instance, value);
 		} catch (final Exception e) {
 			throw new ReflectionFailure("Could not set hidden field " + fieldName + " on " + clazz.getName() + "!", e); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
@@ -379,8 +376,7 @@ public final class ReflectionUtils {
 
 		final Class<?> clazz = getClass(instance);
 		try {
-			final Field field = getDeepField(clazz, fieldName);
-			field.setAccessible(true);
+			final Field field = getDeepFieldCached(clazz, fieldName);
 			return (T) field.get(instance);
 		} catch (final Exception e) {
 			throw new ReflectionFailure("Could not get hidden field " + fieldName + " on " + clazz.getName() + "!", e); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
@@ -475,25 +471,64 @@ public final class ReflectionUtils {
 					}
 				}
 			}
-			throw new ReflectionFailure("Could not find a matching constructor for " + clazz.getName()); //$NON-NLS-1$
+			return null;
 		} catch (final NoSuchMethodException nsme) {
 			throw new ReflectionFailure("Could not find a matching constructor for " + clazz.getName(), nsme); //$NON-NLS-1$
 		}
 	}
 
-	private static Method findMatchingMethodCached(final boolean open, final Class<?> clazz, final String name,
-			final Class<?>[] clazzes) {
-		// Reflective method lookup is expensive, therefore we cache the 25 most 
-		// frequent look-ups using a hashcode of (clazz x name x clazzes)
-		final Integer key = computeKey(clazz, name, clazzes);
-		final Object cachedMethod = METHOD_CACHE.get(key);
-		if (cachedMethod != null) {
-			// cache hit; return 
-			return cachedMethod == NO_SUCH_METHOD ? null : (Method) cachedMethod;
-		}
-		final Method result = findMatchingMethod(open, clazz, name, clazzes);
-		// for a method miss add NO_SUCH_METHOD
-		METHOD_CACHE.put(key, result == null ? NO_SUCH_METHOD : result);
+	private static MethodInvoker findMatchingMethodCached(final boolean open, final Class<?> clazz, final String name,
+			final Object[] args) {
+		// Reflective method lookup is expensive, therefore we cache the result of 
+		// the lookup (including misses) per class with the exact key (open x name x clazzes).
+		// The argument classes with wrappers mapped to primitives determine the 
+		// argument classes with plain wrappers, so they are sufficient as key.
+		final Class<?>[] clazzes = classesPrimitiveFromObjects(args);
+		final MemberKey key = new MemberKey(open, name, clazzes);
+		final ConcurrentMap<MemberKey, Object> methods = MEMBERS.get(clazz).methods;
+		final Object cached = methods.get(key);
+		if (cached != null) {
+			return cached == NO_SUCH_MEMBER ? null : (MethodInvoker) cached;
+		}
+		MethodInvoker result = null;
+		final Class<?>[] objectClazzes = classesFromObjects(args);
+		Class<?> lookIn = clazz;
+		while (lookIn != null && result == null) {
+			Method method = findMatchingMethod(open, lookIn, name, clazzes);
+			if (method == null) {
+				method = findMatchingMethod(open, lookIn, name, objectClazzes);
+			}
+			if (method != null) {
+				result = new MethodInvoker(method, open);
+			}
+			lookIn = lookIn.getSuperclass();
+		}
+		methods.putIfAbsent(key, result == null ? NO_SUCH_MEMBER : result);
+		return result;
+	}
+
+	private static <T> ConstructorInvoker findMatchingConstructorCached(final boolean open, final Class<T> clazz,
+			final Object[] args) {
+		final Class<?>[] clazzes = classesPrimitiveFromObjects(args);
+		final MemberKey key = new MemberKey(open, null, clazzes);
+		final ConcurrentMap<MemberKey, Object> constructors = MEMBERS.get(clazz).constructors;
+		final Object cached = constructors.get(key);
+		if (cached != null) {
+			if (cached == NO_SUCH_MEMBER) {
+				throw new ReflectionFailure("Could not find a matching constructor for " + clazz.getName()); //$NON-NLS-1$
+			}
+			return (ConstructorInvoker) cached;
+		}
+		Constructor<T> constructor = findMatchingConstructor(open, clazz, clazzes);
+		if (constructor == null) {
+			constructor = findMatchingConstructor(open, clazz, classesFromObjects(args));
+		}
+		if (constructor == null) {
+			constructors.putIfAbsent(key, NO_SUCH_MEMBER);
+			throw new ReflectionFailure("Could not find a matching constructor for " + clazz.getName()); //$NON-NLS-1$
+		}
+		final ConstructorInvoker result = new ConstructorInvoker(constructor, open);
+		constructors.putIfAbsent(key, result);
 		return result;
 	}
 
@@ -576,23 +611,32 @@ public final class ReflectionUtils {
 		return clazzes;
 	}
 
-	private static Integer computeKey(final Class<?> clazz, final String name, final Class<?>[] args) {
-		int result = clazz.hashCode();
-		result = (37 * result) + name.hashCode();
-		if (args != null) {
-			for (final Class<?> arg : args) {
-				result = (37 * result) + arg.hashCode();
-			}
-		}
-		return result;
-	}
-
 	private static Class<?> getClass(final Object instance) {
 		Assert.isNotNull(instance);
 
 		return (instance instanceof Class<?>) ? (Class<?>) instance : instance.getClass();
 	}
 
+	private static Field getDeepFieldCached(final Class<?> clazz, final String fieldName) throws NoSuchFieldException {
+		final ConcurrentMap<String, Object> fields = MEMBERS.get(clazz).fields;
+		final Object cached = fields.get(fieldName);
+		if (cached == NO_SUCH_MEMBER) {
+			throw new NoSuchFieldException("Could not find field " + fieldName + " within class " + clazz + "."); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		}
+		if (cached != null) {
+			return (Field) cached;
+		}
+		try {
+			final Field field = getDeepField(clazz, fieldName);
+			field.setAccessible(true);
+			fields.putIfAbsent(fieldName, field);
+			return field;
+		} catch (final NoSuchFieldException e) {
+			fields.putIfAbsent(fieldName, NO_SUCH_MEMBER);
+			throw e;
+		}
+	}
+
 	private static Field getDeepField(final Class<?> clazz, final String fieldName) throws NoSuchFieldException {
 		Assert.isNotNull(clazz);
 		Assert.isNotNull(fieldName);
@@ -654,19 +698,179 @@ public final class ReflectionUtils {
 		Assert.isNotNull(clazz, "clazz must be given!"); //$NON-NLS-1$
 
 		try {
-			Class<?>[] clazzes = classesPrimitiveFromObjects(args);
-			Constructor<T> constructor = findMatchingConstructor(open, clazz, clazzes);
-			if (constructor == null) {
-				clazzes = classesFromObjects(args);
-				constructor = findMatchingConstructor(open, clazz, clazzes);
+			return (T) findMatchingConstructorCached(open, clazz, args).newInstance(args);
+		} catch (final Throwable t) {
+			throw new ReflectionFailure("Error creating instance for " + clazz.getName() + " with parameters " //$NON-NLS-1$ //$NON-NLS-2$
+					+ Arrays.asList(args) + "!", t); //$NON-NLS-1$
+		}
+	}
+
+	/**
+	 * The cached members of a single class.
+	 */
+	private static final class Members {
+		private final ConcurrentMap<MemberKey, Object> methods = new ConcurrentHashMap<MemberKey, Object>();
+		private final ConcurrentMap<MemberKey, Object> constructors = new ConcurrentHashMap<MemberKey, Object>();
+		private final ConcurrentMap<String, Object> fields = new ConcurrentHashMap<String, Object>();
+	}
+
+	/**
+	 * The exact key of a method or constructor lookup.
+	 */
+	private static final class MemberKey {
+
+		private final boolean open;
+		private final String name;
+		private final Class<?>[] clazzes;
+		private final int hashCode;
+
+		private MemberKey(final boolean open, final String name, final Class<?>[] clazzes) {
+			this.open = open;
+			this.name = name;
+			this.clazzes = clazzes;
+			int result = open ? 1 : 0;
+			result = (37 * result) + (name == null ? 0 : name.hashCode());
+			result = (37 * result) + Arrays.hashCode(clazzes);
+			this.hashCode = result;
+		}
+
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
+
+		@Override
+		public boolean equals(final Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof MemberKey)) {
+				return false;
+			}
+			final MemberKey other = (MemberKey) obj;
+			return open == other.open && StringUtils.equals(name, other.name) && Arrays.equals(clazzes, other.clazzes);
+		}
+	}
+
+	/**
+	 * Invokes a resolved method through a {@code MethodHandle} of type
+	 * {@code (Object, Object[])Object} and falls back to plain reflection if
+	 * such a handle can not be created.
+	 */
+	private static final class MethodInvoker {
+
+		private static final MethodType TYPE = MethodType.methodType(Object.class, Object.class, Object[].class);
+
+		private final Method method;
+		private final Class<?>[] parameterTypes;
+		private final boolean isStatic;
+		private final MethodHandle handle;
+
+		private MethodInvoker(final Method method, final boolean open) {
+			if (open) {
+				method.setAccessible(true);
+			}
+			this.method = method;
+			this.parameterTypes = method.getParameterTypes();
+			this.isStatic = Modifier.isStatic(method.getModifiers());
+			this.handle = createHandle();
+		}
+
+		private MethodHandle createHandle() {
+			try {
+				MethodHandle result = LOOKUP.unreflect(method).asFixedArity();
+				if (isStatic) {
+					result = MethodHandles.dropArguments(result, 0, Object.class);
+				}
+				return result.asSpreader(Object[].class, parameterTypes.length).asType(TYPE);
+			} catch (final IllegalAccessException e) {
+				Nop.reason("fall back to reflection which reports the problem"); //$NON-NLS-1$
+				return null;
+			}
+		}
+
+		private Object invoke(final Object instance, final Object[] args) throws IllegalAccessException,
+				InvocationTargetException {
+			if (handle == null) {
+				return method.invoke(instance, args);
+			}
+			final Object[] actualArgs = args == null ? NO_ARGS : args;
+			if (!isStatic && !method.getDeclaringClass().isInstance(instance)) {
+				throw new IllegalArgumentException("object is not an instance of declaring class"); //$NON-NLS-1$
+			}
+			checkArguments(parameterTypes, actualArgs);
+			try {
+				return (Object) handle.invokeExact(instance, actualArgs);
+			} catch (final Throwable t) {
+				throw new InvocationTargetException(t);
 			}
+		}
+	}
+
+	/**
+	 * Invokes a resolved constructor through a {@code MethodHandle} of type
+	 * {@code (Object[])Object} and falls back to plain reflection if such a
+	 * handle can not be created.
+	 */
+	private static final class ConstructorInvoker {
+
+		private static final MethodType TYPE = MethodType.methodType(Object.class, Object[].class);
+
+		private final Constructor<?> constructor;
+		private final Class<?>[] parameterTypes;
+		private final MethodHandle handle;
+
+		private ConstructorInvoker(final Constructor<?> constructor, final boolean open) {
 			if (open) {
 				constructor.setAccessible(true);
 			}
-			return constructor.newInstance(args);
-		} catch (final Throwable t) {
-			throw new ReflectionFailure("Error creating instance for " + clazz.getName() + " with parameters " //$NON-NLS-1$ //$NON-NLS-2$
-					+ Arrays.asList(args) + "!", t); //$NON-NLS-1$
+			this.constructor = constructor;
+			this.parameterTypes = constructor.getParameterTypes();
+			this.handle = createHandle();
+		}
+
+		private MethodHandle createHandle() {
+			if (Modifier.isAbstract(constructor.getDeclaringClass().getModifiers())) {
+				Nop.reason("fall back to reflection which reports the problem"); //$NON-NLS-1$
+				return null;
+			}
+			try {
+				return LOOKUP.unreflectConstructor(constructor).asFixedArity()
+						.asSpreader(Object[].class, parameterTypes.length).asType(TYPE);
+			} catch (final IllegalAccessException e) {
+				Nop.reason("fall back to reflection which reports the problem"); //$NON-NLS-1$
+				return null;
+			}
+		}
+
+		private Object newInstance(final Object[] args) throws InstantiationException, IllegalAccessException,
+				InvocationTargetException {
+			if (handle == null) {
+				return constructor.newInstance(args);
+			}
+			final Object[] actualArgs = args == null ? NO_ARGS : args;
+			checkArguments(parameterTypes, actualArgs);
+			try {
+				return (Object) handle.invokeExact(actualArgs);
+			} catch (final Throwable t) {
+				throw new InvocationTargetException(t);
+			}
+		}
+	}
+
+	/**
+	 * Performs the argument checks that {@code Method.invoke()} would do, so
+	 * that exceptions thrown by a method handle can be attributed to the
+	 * invoked method itself.
+	 */
+	private static void checkArguments(final Class<?>[] parameterTypes, final Object[] args) {
+		if (parameterTypes.length != args.length) {
+			throw new IllegalArgumentException("wrong number of arguments"); //$NON-NLS-1$
+		}
+		for (int i = 0; i < args.length; i++) {
+			if (args[i] == null && parameterTypes[i].isPrimitive()) {
+				throw new IllegalArgumentException("null can not be passed as primitive " + parameterTypes[i]); //$NON-NLS-1$
+			}
 		}
 	}
 
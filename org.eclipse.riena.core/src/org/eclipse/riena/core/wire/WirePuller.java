@@ -12,8 +12,6 @@ package org.eclipse.riena.core.wire;
 
 import java.lang.reflect.Method;
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 
@@ -38,6 +36,8 @@ import org.eclipse.riena.core.util.WeakRef;
 import org.eclipse.riena.internal.core.ignore.IgnoreFindBugs;
 import org.eclipse.riena.internal.core.wire.ExtensionInjectorBuilder;
 import org.eclipse.riena.internal.core.wire.ServiceInjectorBuilder;
+import org.eclipse.riena.internal.core.wire.WiringPlan;
+import org.eclipse.riena.internal.core.wire.WiringPlan.InjectionPoint;
 
 /**
  * The {@code WirePuller} is responsible for the wiring of a bean.
@@ -51,8 +51,6 @@ public class WirePuller implements IStoppable {
 	private State state = State.PENDING;
 	private BundleListener bundleStoppingListener;
 
-	private static final Comparator<MAOTupel> ORDER_COMPARATOR = new OrderComparator();
-
 	// Only for unit testing of classes using accessors
 	private static Map<Class<?>, Class<? extends IWiring>> wiringMocks;
 
@@ -141,78 +139,62 @@ public class WirePuller implements IStoppable {
 		if (beanClass == null || bean == null || beanClass == Object.class) {
 			return false;
 		}
-		final IWiring wiring = getWiring(getWiringClass(beanClass));
+		// the plan is computed only once per class
+		final WiringPlan plan = WiringPlan.of(beanClass);
+		final IWiring wiring = getWiring(beanClass, plan);
 		add(wiring);
 		boolean hasWirings = wire(bean, beanClass.getSuperclass());
 		if (wiring != null) {
 			wiring.wire(bean, context);
 			hasWirings = true;
 		}
-		return injectIntoAnnotatedMethods(bean, beanClass) | hasWirings;
+		return injectIntoAnnotatedMethods(bean, beanClass, plan) | hasWirings;
 	}
 
-	private boolean injectIntoAnnotatedMethods(final Object bean, final Class<?> beanClass) {
+	private boolean injectIntoAnnotatedMethods(final Object bean, final Class<?> beanClass, final WiringPlan plan) {
 		boolean hasWirings = false;
-		for (final MAOTupel maot : sortMethodsByInjectionOrder(beanClass.getDeclaredMethods())) {
-			if (maot.annotation == InjectService.class) {
-				verifyOrder(beanClass, maot);
-				injectServiceInto(bean, maot.method);
+		for (final InjectionPoint point : plan.getInjectionPoints()) {
+			final Class<?> annotationType = point.getAnnotationType();
+			if (annotationType == InjectService.class) {
+				verifyOrder(beanClass, point);
+				injectServiceInto(bean, point);
 				hasWirings = true;
-			} else if (maot.annotation == InjectExtension.class) {
-				verifyOrder(beanClass, maot);
-				injectExtensionInto(bean, maot.method);
+			} else if (annotationType == InjectExtension.class) {
+				verifyOrder(beanClass, point);
+				injectExtensionInto(bean, point.getMethod(), (InjectExtension) point.getAnnotation());
 				hasWirings = true;
-			} else if (maot.annotation == OnWiringDone.class) {
-				notifyBean(bean, maot.method);
+			} else if (annotationType == OnWiringDone.class) {
+				notifyBean(bean, point);
 			}
 		}
 		return hasWirings;
 	}
 
-	private void verifyOrder(final Class<?> beanClass, final MAOTupel maot) {
-		if (maot.getOrder() == Integer.MAX_VALUE) {
-			throw new InjectionFailure("Annotation '" + maot.annotation + "' on '" + beanClass.getName() + "." //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
-					+ maot.method.getName() + "' has forbidden order Integer.MAX_VALUE"); //$NON-NLS-1$
-		}
-	}
-
-	private List<MAOTupel> sortMethodsByInjectionOrder(final Method[] methods) {
-		final List<MAOTupel> maots = new ArrayList<MAOTupel>();
-		for (final Method method : methods) {
-			final InjectService injectServiceAnnotation = method.getAnnotation(InjectService.class);
-			if (injectServiceAnnotation != null) {
-				maots.add(new MAOTupel(method, InjectService.class, injectServiceAnnotation.order()));
-			}
-			final InjectExtension injectExtensionAnnotation = method.getAnnotation(InjectExtension.class);
-			if (injectExtensionAnnotation != null) {
-				maots.add(new MAOTupel(method, InjectExtension.class, injectExtensionAnnotation.order()));
-			}
-			final OnWiringDone wiringDoneAnnotation = method.getAnnotation(OnWiringDone.class);
-			if (wiringDoneAnnotation != null) {
-				maots.add(new MAOTupel(method, OnWiringDone.class, Integer.MAX_VALUE));
-			}
+	private void verifyOrder(final Class<?> beanClass, final InjectionPoint point) {
+		if (point.getOrder() == Integer.MAX_VALUE) {
+			throw new InjectionFailure("Annotation '" + point.getAnnotationType() + "' on '" + beanClass.getName() + "." //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+					+ point.getMethod().getName() + "' has forbidden order Integer.MAX_VALUE"); //$NON-NLS-1$
 		}
-		Collections.sort(maots, ORDER_COMPARATOR);
-		return maots;
 	}
 
-	private void injectServiceInto(final Object bean, final Method method) {
-		final ServiceInjectorBuilder bob = new ServiceInjectorBuilder(bean, method);
+	private void injectServiceInto(final Object bean, final InjectionPoint point) {
+		final ServiceInjectorBuilder bob = new ServiceInjectorBuilder(bean, point.getMethod(),
+				(InjectService) point.getAnnotation()).unbindMethod(point.getUnbindMethod());
 		final ServiceInjector injector = bob.build();
 		add(injector.andStart(context));
 	}
 
-	private void injectExtensionInto(final Object bean, final Method method) {
-		final ExtensionInjectorBuilder bob = new ExtensionInjectorBuilder(bean, method);
+	private void injectExtensionInto(final Object bean, final Method method, final InjectExtension annotation) {
+		final ExtensionInjectorBuilder bob = new ExtensionInjectorBuilder(bean, method, annotation);
 		final ExtensionInjector injector = bob.build();
 		add(injector.andStart(context));
 	}
 
-	private void notifyBean(final Object bean, final Method method) {
+	private void notifyBean(final Object bean, final InjectionPoint point) {
 		try {
-			method.invoke(bean);
+			point.invoke(bean);
 		} catch (final Exception e) {
-			throw new InjectionFailure("Invoking the @WiringDone method '" + method + "' on bean class '" //$NON-NLS-1$ //$NON-NLS-2$
+			throw new InjectionFailure("Invoking the @WiringDone method '" + point.getMethod() + "' on bean class '" //$NON-NLS-1$ //$NON-NLS-2$
 					+ bean.getClass().getName() + "'.", e); //$NON-NLS-1$
 		}
 	}
@@ -244,30 +226,15 @@ public class WirePuller implements IStoppable {
 		injections.add(stoppable);
 	}
 
-	private IWiring getWiring(final Class<? extends IWiring> wiringClass) {
-		if (wiringClass == null) {
-			return null;
-		}
-		try {
-			return wiringClass.newInstance();
-		} catch (final InstantiationException e) {
-			throw new IllegalStateException("Could not create instance of wiring " + wiringClass, e); //$NON-NLS-1$
-		} catch (final IllegalAccessException e) {
-			throw new IllegalStateException("Could not create instance of wiring " + wiringClass, e); //$NON-NLS-1$
-		}
-	}
-
-	private Class<? extends IWiring> getWiringClass(final Class<?> beanClass) {
+	private IWiring getWiring(final Class<?> beanClass, final WiringPlan plan) {
 		// If mocks are defined, we use them instead of the regular mechanism.
-		if (wiringMocks != null) {
-			return wiringMocks.get(beanClass);
+		final Map<Class<?>, Class<? extends IWiring>> mocks = wiringMocks;
+		if (mocks != null) {
+			final Class<? extends IWiring> wiringClass = mocks.get(beanClass);
+			return wiringClass == null ? null : WiringPlan.newWiring(wiringClass);
 		}
-		final WireWith wiringAnnotation = beanClass.getAnnotation(WireWith.class);
 		// Does the bean have a wiring annotation? Yes, use this class for wiring.
-		if (wiringAnnotation != null) {
-			return wiringAnnotation.value();
-		}
-		return null;
+		return plan.newWiring();
 	}
 
 	/**
@@ -311,30 +278,4 @@ public class WirePuller implements IStoppable {
 	private enum State {
 		STARTED, STOPPED, PENDING
 	}
-
-	private static class MAOTupel {
-
-		private final Method method;
-		private final Class<?> annotation;
-		private final int order;
-
-		public MAOTupel(final Method method, final Class<?> annotation, final int order) {
-			this.method = method;
-			this.annotation = annotation;
-			this.order = order;
-		}
-
-		public int getOrder() {
-			return order;
-		}
-	}
-
-	/**
-	 * Compares MAOTuples by order.
-	 */
-	private static final class OrderComparator implements Comparator<MAOTupel> {
-		public int compare(final MAOTupel tupel1, final MAOTupel tupel2) {
-			return tupel1.getOrder() == tupel2.getOrder() ? 0 : tupel1.getOrder() < tupel2.getOrder() ? -1 : 1;
-		}
-	}
 }
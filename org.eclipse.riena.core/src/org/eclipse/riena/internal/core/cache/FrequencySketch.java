@@ -0,0 +1,135 @@
+/*******************************************************************************
+ * Copyright (c) 2007, 2014 compeople AG and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    compeople AG - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.riena.internal.core.cache;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A lock-free count-min sketch with 4-bit counters that estimates how often a
+ * key has been accessed recently.
+ * <p>
+ * Each key is mapped to four counters (one per row) and the estimate is the
+ * minimum of them. After {@code 10 * capacity} increments all counters are
+ * halved so that the sketch favours recent popularity over historic one
+ * (&quot;aging&quot;). Counters are packed sixteen to a {@code long} and are
+ * updated with CAS, so concurrent updates may occasionally be lost, which is
+ * acceptable for a frequency estimate.
+ */
+public class FrequencySketch {
+
+	private static final long[] SEEDS = { 0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L };
+	private static final long RESET_MASK = 0x7777777777777777L;
+	private static final int MAX_COUNT = 15;
+
+	private final AtomicLongArray table;
+	private final int tableMask;
+	private final int sampleSize;
+	private final AtomicInteger additions = new AtomicInteger();
+
+	/**
+	 * Creates a sketch suitable for estimating the frequencies of about
+	 * {@code capacity} distinct keys.
+	 *
+	 * @param capacity
+	 *            the expected number of distinct keys (the cache maximum size)
+	 */
+	public FrequencySketch(final int capacity) {
+		final int maximum = Math.max(1, Math.min(capacity, 1 << 30));
+		final int length = Integer.highestOneBit(maximum - 1 > 0 ? (maximum - 1) << 1 : 1);
+		table = new AtomicLongArray(Math.max(length, 8));
+		tableMask = table.length() - 1;
+		sampleSize = Math.max(10 * maximum, 10);
+	}
+
+	/**
+	 * Returns the estimated number of recent occurrences of the given key, at
+	 * most 15.
+	 *
+	 * @param key
+	 *            the key
+	 * @return the estimated frequency
+	 */
+	public int frequency(final Object key) {
+		final int hash = spread(key.hashCode());
+		int frequency = MAX_COUNT;
+		for (int row = 0; row < 4; row++) {
+			final int index = indexOf(hash, row);
+			final int shift = offsetOf(hash, row);
+			final int count = (int) ((table.get(index) >>> shift) & 0xfL);
+			frequency = Math.min(frequency, count);
+		}
+		return frequency;
+	}
+
+	/**
+	 * Increments the counters of the given key unless they are already
+	 * saturated. Periodically all counters are halved.
+	 *
+	 * @param key
+	 *            the key
+	 */
+	public void increment(final Object key) {
+		final int hash = spread(key.hashCode());
+		boolean added = false;
+		for (int row = 0; row < 4; row++) {
+			added |= incrementAt(indexOf(hash, row), offsetOf(hash, row));
+		}
+		if (added && additions.incrementAndGet() >= sampleSize) {
+			reset();
+		}
+	}
+
+	private boolean incrementAt(final int index, final int shift) {
+		final long mask = 0xfL << shift;
+		while (true) {
+			final long current = table.get(index);
+			if ((current & mask) == mask) {
+				return false;
+			}
+			if (table.compareAndSet(index, current, current + (1L << shift))) {
+				return true;
+			}
+		}
+	}
+
+	private void reset() {
+		// only the thread that observes the threshold first halves the table
+		final int current = additions.get();
+		if (current < sampleSize || !additions.compareAndSet(current, current >>> 1)) {
+			return;
+		}
+		for (int i = 0; i < table.length(); i++) {
+			long value;
+			do {
+				value = table.get(i);
+			} while (!table.compareAndSet(i, value, (value >>> 1) & RESET_MASK));
+		}
+	}
+
+	private int indexOf(final int hash, final int row) {
+		long h = (hash + SEEDS[row]) * SEEDS[row];
+		h += h >>> 32;
+		return ((int) h) & tableMask;
+	}
+
+	private int offsetOf(final int hash, final int row) {
+		// each row uses its own nibble within a quarter of the long
+		return (((hash >>> (row << 3)) & 3) + (row << 2)) << 2;
+	}
+
+	private static int spread(final int hashCode) {
+		int x = ((hashCode >>> 16) ^ hashCode) * 0x45d9f3b;
+		x = ((x >>> 16) ^ x) * 0x45d9f3b;
+		return (x >>> 16) ^ x;
+	}
+
+}
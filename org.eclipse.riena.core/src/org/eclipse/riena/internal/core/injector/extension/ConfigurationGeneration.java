@@ -0,0 +1,134 @@
+/*******************************************************************************
+ * Copyright (c) 2007, 2014 compeople AG and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    compeople AG - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.riena.internal.core.injector.extension;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.core.runtime.IExtension;
+import org.eclipse.core.runtime.IExtensionPoint;
+import org.eclipse.core.runtime.IExtensionRegistry;
+import org.eclipse.core.runtime.IRegistryEventListener;
+import org.eclipse.core.runtime.RegistryFactory;
+import org.eclipse.core.variables.IStringVariableManager;
+import org.eclipse.core.variables.IValueVariable;
+import org.eclipse.core.variables.IValueVariableListener;
+import org.eclipse.core.variables.VariablesPlugin;
+
+/**
+ * A generation counter that is incremented whenever the extension registry or
+ * the value variables of the {@code IStringVariableManager} change.
+ * <p>
+ * Symbol replaced values of interface beans remember the generation they have
+ * been resolved in and are resolved again once the generation has changed.
+ */
+final class ConfigurationGeneration {
+
+	private static final AtomicInteger GENERATION = new AtomicInteger();
+	private static final int NOT_LISTENING = 0;
+	private static final int INSTALLING = 1;
+	private static final int LISTENING = 2;
+	private static final AtomicInteger STATE = new AtomicInteger(NOT_LISTENING);
+
+	private ConfigurationGeneration() {
+		// utility
+	}
+
+	/**
+	 * Get the current generation.
+	 *
+	 * @return the current generation
+	 */
+	static int current() {
+		return GENERATION.get();
+	}
+
+	/**
+	 * Increment the generation so that all resolved values become stale.
+	 */
+	static void invalidate() {
+		GENERATION.incrementAndGet();
+	}
+
+	/**
+	 * Make sure that the listeners on the extension registry and the string
+	 * variable manager are installed. This is cheap once they are installed;
+	 * until then each call retries the installation.
+	 *
+	 * @return true if the listeners are installed, i.e. the generation is
+	 *         incremented on changes; otherwise values must not be cached
+	 *         by generation
+	 */
+	static boolean listen() {
+		final int state = STATE.get();
+		if (state == LISTENING) {
+			return true;
+		}
+		if (state == INSTALLING || !STATE.compareAndSet(NOT_LISTENING, INSTALLING)) {
+			return false;
+		}
+		final Listener listener = new Listener();
+		IExtensionRegistry registry = null;
+		IStringVariableManager variableManager = null;
+		try {
+			registry = RegistryFactory.getRegistry();
+			final VariablesPlugin variablesPlugin = VariablesPlugin.getDefault();
+			if (variablesPlugin != null) {
+				variableManager = variablesPlugin.getStringVariableManager();
+			}
+			if (registry != null && variableManager != null) {
+				registry.addListener(listener);
+				variableManager.addValueVariableListener(listener);
+				// changes that happened before the listeners were installed
+				invalidate();
+				STATE.set(LISTENING);
+				return true;
+			}
+		} catch (final RuntimeException e) {
+			if (registry != null) {
+				registry.removeListener(listener);
+			}
+		}
+		STATE.set(NOT_LISTENING);
+		return false;
+	}
+
+	private static class Listener implements IRegistryEventListener, IValueVariableListener {
+
+		public void added(final IExtension[] extensions) {
+			invalidate();
+		}
+
+		public void removed(final IExtension[] extensions) {
+			invalidate();
+		}
+
+		public void added(final IExtensionPoint[] extensionPoints) {
+			invalidate();
+		}
+
+		public void removed(final IExtensionPoint[] extensionPoints) {
+			invalidate();
+		}
+
+		public void variablesAdded(final IValueVariable[] variables) {
+			invalidate();
+		}
+
+		public void variablesRemoved(final IValueVariable[] variables) {
+			invalidate();
+		}
+
+		public void variablesChanged(final IValueVariable[] variables) {
+			invalidate();
+		}
+	}
+
+}
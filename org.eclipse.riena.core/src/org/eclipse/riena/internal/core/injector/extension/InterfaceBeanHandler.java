@@ -17,8 +17,8 @@ import java.lang.reflect.Array;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.osgi.framework.Bundle;
 import org.osgi.framework.BundleContext;
@@ -29,6 +29,7 @@ import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IConfigurationElement;
 import org.eclipse.core.runtime.Platform;
 import org.eclipse.core.variables.IStringVariableManager;
+import org.eclipse.core.variables.IValueVariable;
 import org.eclipse.core.variables.VariablesPlugin;
 import org.eclipse.equinox.log.Logger;
 
@@ -54,7 +55,10 @@ final class InterfaceBeanHandler implements InvocationHandler {
 	private final Class<?> interfaceType;
 	private final IConfigurationElement configurationElement;
 	private final boolean symbolReplace;
-	private final Map<Method, Result> resolved;
+	private final ConcurrentMap<Method, Result> resolved;
+
+	private static final String VARIABLE_START = "${"; //$NON-NLS-1$
+	private static final int MAX_VARIABLE_NESTING = 8;
 
 	private final static Logger LOGGER = Log4r.getLogger(Activator.getDefault(), InterfaceBeanHandler.class);
 
@@ -63,7 +67,8 @@ final class InterfaceBeanHandler implements InvocationHandler {
 		this.interfaceType = interfaceType;
 		this.configurationElement = configurationElement;
 		this.symbolReplace = symbolReplace && !interfaceType.isAnnotationPresent(DoNotReplaceSymbols.class);
-		this.resolved = new HashMap<Method, Result>();
+		this.resolved = new ConcurrentHashMap<Method, Result>();
+		ConfigurationGeneration.listen();
 		if (!interfaceType.isAnnotationPresent(ExtensionInterface.class)) {
 			LOGGER.log(LogService.LOG_WARNING, "The interface '" + interfaceType.getName() //$NON-NLS-1$
 					+ "' is NOT annotated with @" + ExtensionInterface.class.getSimpleName() + " but it should!"); //$NON-NLS-1$ //$NON-NLS-2$
@@ -71,17 +76,22 @@ final class InterfaceBeanHandler implements InvocationHandler {
 	}
 
 	public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
-		final MethodKind methodKind = MethodKind.of(method);
-		synchronized (resolved) {
-			Result result = resolved.get(method);
-			if (result == null) {
-				result = invoke(method, args, methodKind);
-				if (result.cacheIt) {
-					resolved.put(method, result);
-				}
-			}
+		final Result cached = resolved.get(method);
+		if (cached != null && cached.isValid()) {
+			return cached.object;
+		}
+		final Result result = invoke(method, args, MethodKind.of(method));
+		if (!result.cacheIt || result.generation != Result.ANY_GENERATION && !ConfigurationGeneration.listen()) {
+			// without the listeners a resolved value could not be invalidated
 			return result.object;
 		}
+		if (result.generation == Result.ANY_GENERATION) {
+			// keep the identity of the first resolved object
+			final Result winner = resolved.putIfAbsent(method, result);
+			return winner == null ? result.object : winner.object;
+		}
+		resolved.put(method, result);
+		return result.object;
 	}
 
 	private Result invoke(final Method method, final Object[] args, final MethodKind methodKind) throws Throwable {
@@ -106,12 +116,17 @@ final class InterfaceBeanHandler implements InvocationHandler {
 		final String attributeName = getAttributeName(method, methodKind);
 		if (returnType == String.class) {
 			final boolean methodSymbolReplace = !method.isAnnotationPresent(DoNotReplaceSymbols.class);
-			return Result.noCache(modify(method.isAnnotationPresent(MapContent.class) ? configurationElement.getValue()
-					: getAttribute(attributeName, method), methodSymbolReplace));
+			final int generation = ConfigurationGeneration.current();
+			final String value = method.isAnnotationPresent(MapContent.class) ? configurationElement.getValue()
+					: getAttribute(attributeName, method);
+			return substituted(modify(value, methodSymbolReplace), value, methodSymbolReplace, generation);
 		}
 		if (returnType.isPrimitive()) {
 			final boolean methodSymbolReplace = !method.isAnnotationPresent(DoNotReplaceSymbols.class);
-			return Result.noCache(coerce(returnType, modify(getAttribute(attributeName, method), methodSymbolReplace)));
+			final int generation = ConfigurationGeneration.current();
+			final String value = getAttribute(attributeName, method);
+			return substituted(coerce(returnType, modify(value, methodSymbolReplace)), value, methodSymbolReplace,
+					generation);
 		}
 		if (returnType == Class.class) {
 			String value = configurationElement.getAttribute(attributeName);
@@ -320,24 +335,91 @@ final class InterfaceBeanHandler implements InvocationHandler {
 		}
 	}
 
+	/**
+	 * Create the result for a (possibly) symbol replaced value. Values that do
+	 * not contain any variables are cached forever, values that depend only on
+	 * value variables are cached until the {@code ConfigurationGeneration}
+	 * changes, and values that depend on dynamic variables (which may e.g.
+	 * depend on the current thread) are not cached at all.
+	 */
+	private Result substituted(final Object resolvedValue, final String rawValue, final boolean methodSymbolReplace,
+			final int generation) {
+		if (!symbolReplace || !methodSymbolReplace || rawValue == null || rawValue.indexOf(VARIABLE_START) == -1) {
+			return Result.cache(resolvedValue);
+		}
+		final IStringVariableManager variableManager = VariablesPlugin.getDefault().getStringVariableManager();
+		if (variableManager == null) {
+			return Result.cache(resolvedValue);
+		}
+		if (dependsOnDynamicVariables(rawValue, variableManager, 0)) {
+			return Result.noCache(resolvedValue);
+		}
+		return Result.cache(resolvedValue, generation);
+	}
+
+	private static boolean dependsOnDynamicVariables(final String value, final IStringVariableManager variableManager,
+			final int depth) {
+		int start = value.indexOf(VARIABLE_START);
+		if (start == -1) {
+			return false;
+		}
+		if (depth > MAX_VARIABLE_NESTING) {
+			return true;
+		}
+		while (start != -1) {
+			int end = start + VARIABLE_START.length();
+			while (end < value.length() && value.charAt(end) != '}' && value.charAt(end) != ':'
+					&& value.charAt(end) != '$') {
+				end++;
+			}
+			if (end == value.length() || value.charAt(end) == '$') {
+				// malformed or nested variable names - do not even try
+				return true;
+			}
+			final String name = value.substring(start + VARIABLE_START.length(), end);
+			if (variableManager.getDynamicVariable(name) != null) {
+				return true;
+			}
+			final IValueVariable valueVariable = variableManager.getValueVariable(name);
+			if (valueVariable != null && valueVariable.getValue() != null
+					&& dependsOnDynamicVariables(valueVariable.getValue(), variableManager, depth + 1)) {
+				return true;
+			}
+			start = value.indexOf(VARIABLE_START, end);
+		}
+		return false;
+	}
+
 	private final static class Result {
 
+		private static final int ANY_GENERATION = -1;
+
 		private final Object object;
 		private final boolean cacheIt;
+		private final int generation;
 
 		private static final Result CACHED_NULL = Result.cache(null);
 
 		private static Result noCache(final Object object) {
-			return new Result(object, false);
+			return new Result(object, false, ANY_GENERATION);
 		}
 
 		private static Result cache(final Object object) {
-			return new Result(object, true);
+			return new Result(object, true, ANY_GENERATION);
 		}
 
-		private Result(final Object object, final boolean cacheIt) {
+		private static Result cache(final Object object, final int generation) {
+			return new Result(object, true, generation);
+		}
+
+		private Result(final Object object, final boolean cacheIt, final int generation) {
 			this.object = object;
 			this.cacheIt = cacheIt;
+			this.generation = generation;
+		}
+
+		private boolean isValid() {
+			return generation == ANY_GENERATION || generation == ConfigurationGeneration.current();
 		}
 	}
 
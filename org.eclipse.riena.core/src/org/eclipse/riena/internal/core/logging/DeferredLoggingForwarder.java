@@ -10,8 +10,12 @@
  *******************************************************************************/
 package org.eclipse.riena.internal.core.logging;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.osgi.service.log.LogService;
 
@@ -26,19 +30,78 @@ import org.eclipse.riena.core.logging.ConsoleLogger;
 import org.eclipse.riena.internal.core.Activator;
 
 /**
- * The worker thread that delivers collected log events.
+ * The worker that delivers collected log events.
+ * <p>
+ * The log events are collected within a bounded queue. When the queue is full
+ * the {@code OverflowPolicy} decides what happens with a new log event. The
+ * job is only scheduled when log events are pending. It waits until the
+ * {@code LoggerMill} is ready, delivers the log events in batches and ends as
+ * soon as the queue is empty.
  */
 public class DeferredLoggingForwarder extends Job {
 
+	/**
+	 * What to do with a log event when the queue is full.
+	 */
+	public enum OverflowPolicy {
+		/**
+		 * Remove the oldest queued log event to make room for the new one.
+		 */
+		DROP_OLDEST,
+		/**
+		 * Discard the new log event.
+		 */
+		DROP_NEWEST,
+		/**
+		 * Block the logging thread until there is room in the queue.
+		 */
+		BLOCK;
+
+		/**
+		 * Get the policy for the given name, e.g. {@code dropOldest},
+		 * {@code drop-oldest} or {@code DROP_OLDEST}.
+		 *
+		 * @param name
+		 *            the name of the policy
+		 * @param defaultPolicy
+		 *            the policy to use if {@code name} is {@code null} or
+		 *            unknown
+		 * @return the policy
+		 */
+		public static OverflowPolicy parse(final String name, final OverflowPolicy defaultPolicy) {
+			if (name == null) {
+				return defaultPolicy;
+			}
+			final String normalized = name.replace("-", "").replace("_", "").trim(); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+			for (final OverflowPolicy policy : values()) {
+				if (policy.name().replace("_", "").equalsIgnoreCase(normalized)) { //$NON-NLS-1$ //$NON-NLS-2$
+					return policy;
+				}
+			}
+			return defaultPolicy;
+		}
+	}
+
+	private static final int BATCH_SIZE = 100;
+	private static final long READY_CHECK_INTERVAL_MILLIS = 1000;
+	private static final String WE_ARE_FAMILY = Activator.PLUGIN_ID;
+
 	private final LoggerProvider loggerProvider;
 	private final BlockingQueue<DeferredLogEvent> queue;
-	private static final String WE_ARE_FAMILY = Activator.PLUGIN_ID;
+	private final int capacity;
+	private final OverflowPolicy overflowPolicy;
+	private final AtomicBoolean pending = new AtomicBoolean();
+	private final AtomicInteger dropped = new AtomicInteger();
+	private volatile boolean canceled;
 
-	public DeferredLoggingForwarder(final LoggerProvider loggerProvider, final BlockingQueue<DeferredLogEvent> queue) {
+	public DeferredLoggingForwarder(final LoggerProvider loggerProvider, final int capacity,
+			final OverflowPolicy overflowPolicy) {
 		super("DeferredLoggingForwarder"); //$NON-NLS-1$
 		setSystem(true);
 		this.loggerProvider = loggerProvider;
-		this.queue = queue;
+		this.capacity = capacity;
+		this.queue = new ArrayBlockingQueue<DeferredLogEvent>(capacity);
+		this.overflowPolicy = overflowPolicy;
 	}
 
 	@Override
@@ -46,38 +109,130 @@ public class DeferredLoggingForwarder extends Job {
 		return WE_ARE_FAMILY.equals(family);
 	}
 
-	@Override
-	protected IStatus run(final IProgressMonitor monitor) {
-		while (!monitor.isCanceled()) {
-			DeferredLogEvent logEvent;
-			try {
-				logEvent = queue.poll(1, TimeUnit.MILLISECONDS);
-			} catch (final InterruptedException e1) {
-				Thread.currentThread().interrupt();
-				break;
-			}
+	/**
+	 * Queue the given log event for delivery and make sure that the forwarder
+	 * is running.
+	 *
+	 * @param logEvent
+	 *            the log event
+	 * @throws InterruptedException
+	 *             if blocking on a full queue has been interrupted
+	 */
+	public void forward(final DeferredLogEvent logEvent) throws InterruptedException {
+		if (enqueue(logEvent) && !canceled && pending.compareAndSet(false, true)) {
+			schedule();
+		}
+	}
 
-			if (logEvent == null) {
-				continue;
+	/**
+	 * Add the log event to the queue according to the overflow policy without
+	 * scheduling the forwarder.
+	 *
+	 * @param logEvent
+	 *            the log event
+	 * @return {@code true} if the log event has been queued
+	 * @throws InterruptedException
+	 *             if blocking on a full queue has been interrupted
+	 */
+	public boolean enqueue(final DeferredLogEvent logEvent) throws InterruptedException {
+		if (queue.offer(logEvent)) {
+			return true;
+		}
+		switch (overflowPolicy) {
+		case BLOCK:
+			if (!canceled) {
+				queue.put(logEvent);
+				return true;
 			}
+			break;
+		case DROP_OLDEST:
+			while (!queue.offer(logEvent)) {
+				if (queue.poll() != null) {
+					dropped.incrementAndGet();
+				}
+			}
+			return true;
+		default:
+			break;
+		}
+		dropped.incrementAndGet();
+		return false;
+	}
+
+	/**
+	 * @return the number of dropped log events that have not yet been reported
+	 */
+	public int getDropped() {
+		return dropped.get();
+	}
+
+	/**
+	 * @return the number of queued log events
+	 */
+	public int getQueued() {
+		return queue.size();
+	}
+
+	@Override
+	protected void canceling() {
+		canceled = true;
+	}
 
-			while (!loggerProvider.hasReadyLoggerMill()) {
-				try {
-					Thread.sleep(10);
-				} catch (final InterruptedException e) {
-					Thread.currentThread().interrupt();
+	@Override
+	protected IStatus run(final IProgressMonitor monitor) {
+		final List<DeferredLogEvent> batch = new ArrayList<DeferredLogEvent>(BATCH_SIZE);
+		try {
+			while (!monitor.isCanceled()) {
+				if (!awaitReadyLoggerMill(monitor)) {
 					break;
 				}
+				reportDropped();
+				if (queue.drainTo(batch, BATCH_SIZE) == 0) {
+					// give up the thread; a new log event schedules this job again
+					pending.set(false);
+					if (queue.isEmpty() || !pending.compareAndSet(false, true)) {
+						return Status.OK_STATUS;
+					}
+					continue;
+				}
+				for (final DeferredLogEvent logEvent : batch) {
+					deliver(logEvent);
+				}
+				batch.clear();
 			}
-			try {
-				final Logger logger = Log4r.getLogger(Activator.getDefault(), logEvent.getLoggerName());
-				logger.log(logEvent.getLevel(), logEvent.toString());
-			} catch (final Exception e) {
-				new ConsoleLogger(DeferredLoggingForwarder.class.getName()).log(LogService.LOG_ERROR,
-						"Could not deliver defered log message.", e); //$NON-NLS-1$
-			}
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
 		}
+		pending.set(false);
 		return Status.CANCEL_STATUS;
 	}
 
+	private boolean awaitReadyLoggerMill(final IProgressMonitor monitor) throws InterruptedException {
+		while (!loggerProvider.awaitReadyLoggerMill(READY_CHECK_INTERVAL_MILLIS)) {
+			if (monitor.isCanceled()) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private void reportDropped() {
+		final int count = dropped.getAndSet(0);
+		if (count > 0) {
+			final Logger logger = Log4r.getLogger(Activator.getDefault(), DeferredLoggingForwarder.class);
+			logger.log(LogService.LOG_WARNING, count + " deferred log events have been dropped (" + overflowPolicy //$NON-NLS-1$
+					+ ") because the queue capacity of " + capacity + " has been exceeded."); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+	}
+
+	private void deliver(final DeferredLogEvent logEvent) {
+		try {
+			final Logger logger = Log4r.getLogger(Activator.getDefault(), logEvent.getLoggerName());
+			logger.log(logEvent.getLevel(), logEvent.toString());
+		} catch (final Exception e) {
+			new ConsoleLogger(DeferredLoggingForwarder.class.getName()).log(LogService.LOG_ERROR,
+					"Could not deliver defered log message.", e); //$NON-NLS-1$
+		}
+	}
+
 }
@@ -11,21 +11,39 @@
 package org.eclipse.riena.internal.core.logging;
 
 import java.lang.reflect.Proxy;
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.LinkedBlockingQueue;
 
-import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.equinox.log.Logger;
 
+import org.eclipse.riena.internal.core.logging.DeferredLoggingForwarder.OverflowPolicy;
+
 /**
  * This logger factory creates a {@code Logger} that collects log events until a
  * <i>real</i> logger is available. The collected log events will than be
  * delivered by the <i>real</i> logger within a worker thread.
+ * <p>
+ * The number of collected log events is bounded. The bound and the behavior
+ * when it is exceeded can be set with the system properties
+ * {@code RIENA_DEFERRED_LOGGING_QUEUE_SIZE_PROPERTY} and
+ * {@code RIENA_DEFERRED_LOGGING_OVERFLOW_PROPERTY}.
  */
 public final class DeferringLoggerFactory {
 
-	private static Job forwarder;
-	private static BlockingQueue<DeferredLogEvent> queue;
+	/**
+	 * System property defining the maximum number of collected log events.
+	 */
+	public static final String RIENA_DEFERRED_LOGGING_QUEUE_SIZE_PROPERTY = "riena.deferredlogging.queuesize"; //$NON-NLS-1$
+
+	/**
+	 * System property defining what happens with a log event when the maximum
+	 * number of collected log events has been reached, i.e. one of
+	 * {@code dropOldest}, {@code dropNewest} or {@code block}.
+	 */
+	public static final String RIENA_DEFERRED_LOGGING_OVERFLOW_PROPERTY = "riena.deferredlogging.overflow"; //$NON-NLS-1$
+
+	private static final int DEFAULT_QUEUE_SIZE = 10000;
+	private static final OverflowPolicy DEFAULT_OVERFLOW_POLICY = OverflowPolicy.DROP_OLDEST;
+
+	private static DeferredLoggingForwarder forwarder;
 
 	private DeferringLoggerFactory() {
 		// utility
@@ -33,14 +51,23 @@ public final class DeferringLoggerFactory {
 
 	public static Logger createLogger(final String name, final LoggerProvider loggerProvider) {
 		synchronized (DeferringLoggerFactory.class) {
-			if (queue == null) {
-				queue = new LinkedBlockingQueue<DeferredLogEvent>();
-				forwarder = new DeferredLoggingForwarder(loggerProvider, queue);
-				forwarder.schedule();
+			if (forwarder == null) {
+				forwarder = new DeferredLoggingForwarder(loggerProvider, getQueueSize(), OverflowPolicy.parse(
+						System.getProperty(RIENA_DEFERRED_LOGGING_OVERFLOW_PROPERTY), DEFAULT_OVERFLOW_POLICY));
 			}
 		}
 		return (Logger) Proxy.newProxyInstance(Logger.class.getClassLoader(), new Class<?>[] { Logger.class },
-				new DeferringLoggerHandler(name, loggerProvider, queue));
+				new DeferringLoggerHandler(name, loggerProvider, forwarder));
+	}
+
+	private static int getQueueSize() {
+		try {
+			final int queueSize = Integer.parseInt(System.getProperty(RIENA_DEFERRED_LOGGING_QUEUE_SIZE_PROPERTY,
+					Integer.toString(DEFAULT_QUEUE_SIZE)));
+			return queueSize > 0 ? queueSize : DEFAULT_QUEUE_SIZE;
+		} catch (final NumberFormatException e) {
+			return DEFAULT_QUEUE_SIZE;
+		}
 	}
 
-}
\ No newline at end of file
+}
@@ -13,7 +13,6 @@ package org.eclipse.riena.internal.core.logging;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
-import java.util.concurrent.BlockingQueue;
 
 import org.osgi.service.log.LogService;
 
@@ -30,14 +29,14 @@ public class DeferringLoggerHandler implements InvocationHandler {
 
 	private final String name;
 	private final LoggerProvider loggerProvider;
-	private final BlockingQueue<DeferredLogEvent> queue;
+	private final DeferredLoggingForwarder forwarder;
 	private Logger logger = null;
 
 	DeferringLoggerHandler(final String name, final LoggerProvider loggerProvider,
-			final BlockingQueue<DeferredLogEvent> queue) {
+			final DeferredLoggingForwarder forwarder) {
 		this.name = name;
 		this.loggerProvider = loggerProvider;
-		this.queue = queue;
+		this.forwarder = forwarder;
 	}
 
 	public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
@@ -70,8 +69,9 @@ public class DeferringLoggerHandler implements InvocationHandler {
 
 	private void queue(final DeferredLogEvent logEvent) {
 		try {
-			queue.put(logEvent);
+			forwarder.forward(logEvent);
 		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
 			new ConsoleLogger(DeferringLoggerHandler.class.getName()).log(LogService.LOG_ERROR,
 					"Queueing log event failed: " + logEvent, e); //$NON-NLS-1$
 		}
@@ -14,6 +14,7 @@ import org.osgi.service.log.LogListener;
 
 import org.eclipse.equinox.log.LogFilter;
 
+import org.eclipse.riena.core.injector.extension.DefaultValue;
 import org.eclipse.riena.core.injector.extension.ExtensionInterface;
 import org.eclipse.riena.core.injector.extension.MapName;
 
@@ -54,4 +55,17 @@ public interface ILogListenerExtension {
 	 */
 	@MapName("sync")
 	boolean isSynchronous();
+
+	/**
+	 * The size of the ring buffer the {@code LogListener} shall be fed from.
+	 * If it is greater than zero the log entries are put into a ring buffer
+	 * and delivered in batches by a single consumer thread; {@code sync} is
+	 * ignored in that case.
+	 * 
+	 * @return the size of the ring buffer or zero for no ring buffer
+	 * @since 6.2
+	 */
+	@MapName("ring-buffer-size")
+	@DefaultValue("0")
+	int getRingBufferSize();
 }
@@ -25,6 +25,7 @@ import org.eclipse.riena.core.logging.CommandProviderLogFilter;
 import org.eclipse.riena.core.logging.ILogCatcher;
 import org.eclipse.riena.core.logging.LogServiceLogCatcher;
 import org.eclipse.riena.core.logging.PlatformLogCatcher;
+import org.eclipse.riena.core.logging.RingBufferLogListenerAdapter;
 import org.eclipse.riena.core.logging.SynchronousLogListenerAdapter;
 import org.eclipse.riena.core.logging.SysoLogListener;
 import org.eclipse.riena.core.wire.InjectExtension;
@@ -70,6 +71,7 @@ public class LoggerMill {
 	public void bind(final ExtendedLogService logService) {
 		synchronized (this) {
 			this.logService = logService;
+			notifyAll();
 		}
 	}
 
@@ -103,7 +105,9 @@ public class LoggerMill {
 				// this can only happen, if the mandatory attribute is not defined, i.e. a schema violation
 				continue;
 			}
-			if (logListenerDef.isSynchronous()) {
+			if (logListenerDef.getRingBufferSize() > 0) {
+				listener = new RingBufferLogListenerAdapter(listener, logListenerDef.getRingBufferSize());
+			} else if (logListenerDef.isSynchronous()) {
 				listener = new SynchronousLogListenerAdapter(listener);
 			}
 			logListeners.add(listener);
@@ -133,6 +137,9 @@ public class LoggerMill {
 	public void unbind(final ExtendedLogReaderService logReaderService) {
 		for (final LogListener logListener : logListeners) {
 			logReaderService.removeLogListener(logListener);
+			if (logListener instanceof RingBufferLogListenerAdapter) {
+				((RingBufferLogListenerAdapter) logListener).dispose();
+			}
 		}
 
 		for (final ILogCatcher logCatcher : logCatchers) {
@@ -158,6 +165,23 @@ public class LoggerMill {
 		}
 	}
 
+	/**
+	 * Wait until the {@code LoggerMill} is ready or the timeout elapsed.
+	 * 
+	 * @param timeoutMillis
+	 *            the maximum time to wait in milliseconds
+	 * @return {@code true} if the {@code LoggerMill} is ready
+	 * @throws InterruptedException
+	 */
+	public boolean awaitReady(final long timeoutMillis) throws InterruptedException {
+		synchronized (this) {
+			if (logService == null) {
+				wait(timeoutMillis);
+			}
+			return logService != null;
+		}
+	}
+
 	/**
 	 * Definition of log listener that defines a {@code SysoLogListener} with a
 	 * {@code CommandProviderLogFilter}.
@@ -175,6 +199,10 @@ public class LoggerMill {
 			return new SysoLogListener();
 		}
 
+		public int getRingBufferSize() {
+			return 0;
+		}
+
 		public String getName() {
 			return "DefaultLogListner"; //$NON-NLS-1$
 		}
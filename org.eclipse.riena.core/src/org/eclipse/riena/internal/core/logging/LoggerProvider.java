@@ -81,6 +81,18 @@ public final class LoggerProvider {
 		return loggerMill.isReady();
 	}
 
+	/**
+	 * Wait until the {@code LoggerMill} is ready or the timeout elapsed.
+	 * 
+	 * @param timeoutMillis
+	 *            the maximum time to wait in milliseconds
+	 * @return {@code true} if the {@code LoggerMill} is ready
+	 * @throws InterruptedException
+	 */
+	boolean awaitReadyLoggerMill(final long timeoutMillis) throws InterruptedException {
+		return loggerMill.awaitReady(timeoutMillis);
+	}
+
 	/**
 	 * This has to be delayed until riena is active!! Otherwise this would cause
 	 * initialization exceptions.
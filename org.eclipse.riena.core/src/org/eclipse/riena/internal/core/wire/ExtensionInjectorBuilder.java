@@ -38,11 +38,22 @@ public class ExtensionInjectorBuilder {
 	 * @param method
 	 */
 	public ExtensionInjectorBuilder(final Object bean, final Method method) {
+		this(bean, method, method == null ? null : method.getAnnotation(InjectExtension.class));
+	}
+
+	/**
+	 * Create extension injector builder with an already retrieved annotation.
+	 * 
+	 * @param bean
+	 * @param method
+	 * @param annotation
+	 */
+	public ExtensionInjectorBuilder(final Object bean, final Method method, final InjectExtension annotation) {
 		Assert.isLegal(bean != null, "bean must not be null"); //$NON-NLS-1$
 		Assert.isLegal(method != null, "method must not be null"); //$NON-NLS-1$
 		this.bean = bean;
 		this.method = method;
-		this.annotation = method.getAnnotation(InjectExtension.class);
+		this.annotation = annotation;
 		Assert.isLegal(annotation != null, "annotation must not be null"); //$NON-NLS-1$
 	}
 
@@ -79,6 +90,6 @@ public class ExtensionInjectorBuilder {
 		if (annotation.onceOnly()) {
 			injector = injector.onceOnly();
 		}
-		return injector.update(method.getName());
+		return injector.update(method);
 	}
 }
@@ -27,6 +27,7 @@ public class ServiceInjectorBuilder {
 	private final Object bean;
 	private final Method method;
 	private final InjectService annotation;
+	private Method unbindMethod;
 
 	/**
 	 * Create service injector builder.
@@ -35,14 +36,37 @@ public class ServiceInjectorBuilder {
 	 * @param method
 	 */
 	public ServiceInjectorBuilder(final Object bean, final Method method) {
+		this(bean, method, method == null ? null : method.getAnnotation(InjectService.class));
+	}
+
+	/**
+	 * Create service injector builder with an already retrieved annotation.
+	 * 
+	 * @param bean
+	 * @param method
+	 * @param annotation
+	 */
+	public ServiceInjectorBuilder(final Object bean, final Method method, final InjectService annotation) {
 		Assert.isLegal(bean != null, "bean must not be null"); //$NON-NLS-1$
 		Assert.isLegal(method != null, "method must not be null"); //$NON-NLS-1$
 		this.bean = bean;
 		this.method = method;
-		this.annotation = method.getAnnotation(InjectService.class);
+		this.annotation = annotation;
 		Assert.isLegal(annotation != null, "annotation must not be null"); //$NON-NLS-1$
 	}
 
+	/**
+	 * Use the already resolved unbind method instead of looking it up by name.
+	 * 
+	 * @param unbindMethod
+	 *            the unbind method or {@code null} to look it up by name
+	 * @return this builder
+	 */
+	public ServiceInjectorBuilder unbindMethod(final Method unbindMethod) {
+		this.unbindMethod = unbindMethod;
+		return this;
+	}
+
 	/**
 	 * Build the {@code ServiceInjector}
 	 * 
@@ -65,8 +89,12 @@ public class ServiceInjectorBuilder {
 			descriptor = descriptor.useFilter(annotation.useFilter());
 		}
 		final ServiceInjector injector = descriptor.into(bean).bind(method);
-		final String unbind = annotation.unbind().length() != 0 ? annotation.unbind() : "un" + method.getName(); //$NON-NLS-1$
-		injector.unbind(unbind);
+		if (unbindMethod != null) {
+			injector.unbind(unbindMethod);
+		} else {
+			final String unbind = annotation.unbind().length() != 0 ? annotation.unbind() : "un" + method.getName(); //$NON-NLS-1$
+			injector.unbind(unbind);
+		}
 		if (annotation.onceOnly()) {
 			injector.onceOnly();
 		}
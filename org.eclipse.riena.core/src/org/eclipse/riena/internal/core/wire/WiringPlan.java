@@ -0,0 +1,314 @@
+/*******************************************************************************
+ * Copyright (c) 2007, 2014 compeople AG and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    compeople AG - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.riena.internal.core.wire;
+
+import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.WrongMethodTypeException;
+import java.lang.reflect.Method;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import org.eclipse.riena.core.util.Nop;
+import org.eclipse.riena.core.wire.IWiring;
+import org.eclipse.riena.core.wire.InjectExtension;
+import org.eclipse.riena.core.wire.InjectService;
+import org.eclipse.riena.core.wire.OnWiringDone;
+import org.eclipse.riena.core.wire.WireWith;
+
+/**
+ * The precomputed wiring plan of a single class (without its super classes).
+ * <p>
+ * A plan is created once per class and contains the {@code WireWith} wiring
+ * class and all injection points, i.e. the methods annotated with
+ * {@code InjectService}, {@code InjectExtension} or {@code OnWiringDone}
+ * sorted by their injection order. For {@code InjectService} methods the
+ * matching unbind method is resolved as well. Wiring a bean of an already
+ * known class does not need any reflection.
+ */
+public final class WiringPlan {
+
+	private static final ClassValue<WiringPlan> PLANS = new ClassValue<WiringPlan>() {
+		@Override
+		protected WiringPlan computeValue(final Class<?> type) {
+			return new WiringPlan(type);
+		}
+	};
+
+	private static final Comparator<InjectionPoint> ORDER_COMPARATOR = new OrderComparator();
+	private static final MethodType WIRING_FACTORY_TYPE = MethodType.methodType(IWiring.class);
+	private static final MethodType WIRING_DONE_TYPE = MethodType.methodType(void.class, Object.class);
+
+	private final Class<? extends IWiring> wiringClass;
+	private final MethodHandle wiringFactory;
+	private final InjectionPoint[] injectionPoints;
+
+	/**
+	 * Get the wiring plan for the given class.
+	 *
+	 * @param beanClass
+	 *            the class
+	 * @return the wiring plan; never {@code null}
+	 */
+	public static WiringPlan of(final Class<?> beanClass) {
+		return PLANS.get(beanClass);
+	}
+
+	private WiringPlan(final Class<?> beanClass) {
+		final WireWith wiringAnnotation = beanClass.getAnnotation(WireWith.class);
+		wiringClass = wiringAnnotation != null ? wiringAnnotation.value() : null;
+		wiringFactory = wiringClass != null ? wiringFactory(wiringClass) : null;
+		injectionPoints = collectInjectionPoints(beanClass);
+	}
+
+	/**
+	 * Get the wiring class defined with the {@code WireWith} annotation.
+	 *
+	 * @return the wiring class or {@code null}
+	 */
+	public Class<? extends IWiring> getWiringClass() {
+		return wiringClass;
+	}
+
+	/**
+	 * Create a new instance of the {@code WireWith} wiring class.
+	 *
+	 * @return the new wiring or {@code null} if there is no {@code WireWith}
+	 *         annotation
+	 */
+	public IWiring newWiring() {
+		if (wiringClass == null) {
+			return null;
+		}
+		if (wiringFactory == null) {
+			return newWiring(wiringClass);
+		}
+		try {
+			return (IWiring) wiringFactory.invokeExact();
+		} catch (final RuntimeException e) {
+			throw e;
+		} catch (final Error e) {
+			throw e;
+		} catch (final Throwable e) {
+			throw new IllegalStateException("Could not create instance of wiring " + wiringClass, e); //$NON-NLS-1$
+		}
+	}
+
+	/**
+	 * Get the injection points sorted by their injection order.
+	 *
+	 * @return the injection points; must not be modified
+	 */
+	public InjectionPoint[] getInjectionPoints() {
+		return injectionPoints;
+	}
+
+	/**
+	 * Create a new instance of the given wiring class with reflection.
+	 *
+	 * @param wiringClass
+	 *            the wiring class
+	 * @return the new wiring
+	 */
+	public static IWiring newWiring(final Class<? extends IWiring> wiringClass) {
+		try {
+			return wiringClass.newInstance();
+		} catch (final InstantiationException e) {
+			throw new IllegalStateException("Could not create instance of wiring " + wiringClass, e); //$NON-NLS-1$
+		} catch (final IllegalAccessException e) {
+			throw new IllegalStateException("Could not create instance of wiring " + wiringClass, e); //$NON-NLS-1$
+		}
+	}
+
+	private static MethodHandle wiringFactory(final Class<? extends IWiring> wiringClass) {
+		try {
+			return MethodHandles.publicLookup().findConstructor(wiringClass, MethodType.methodType(void.class))
+					.asType(WIRING_FACTORY_TYPE);
+		} catch (final NoSuchMethodException e) {
+			Nop.reason("fall back to reflection which reports the problem when wiring"); //$NON-NLS-1$
+		} catch (final IllegalAccessException e) {
+			Nop.reason("fall back to reflection which reports the problem when wiring"); //$NON-NLS-1$
+		}
+		return null;
+	}
+
+	private static InjectionPoint[] collectInjectionPoints(final Class<?> beanClass) {
+		final List<InjectionPoint> points = new ArrayList<InjectionPoint>();
+		for (final Method method : beanClass.getDeclaredMethods()) {
+			final InjectService injectServiceAnnotation = method.getAnnotation(InjectService.class);
+			if (injectServiceAnnotation != null) {
+				points.add(new InjectionPoint(method, injectServiceAnnotation, injectServiceAnnotation.order(), null,
+						unbindMethod(beanClass, method, injectServiceAnnotation)));
+			}
+			final InjectExtension injectExtensionAnnotation = method.getAnnotation(InjectExtension.class);
+			if (injectExtensionAnnotation != null) {
+				points.add(new InjectionPoint(method, injectExtensionAnnotation, injectExtensionAnnotation.order(),
+						null, null));
+			}
+			final OnWiringDone wiringDoneAnnotation = method.getAnnotation(OnWiringDone.class);
+			if (wiringDoneAnnotation != null) {
+				points.add(new InjectionPoint(method, wiringDoneAnnotation, Integer.MAX_VALUE, wiringDoneInvoker(method),
+						null));
+			}
+		}
+		Collections.sort(points, ORDER_COMPARATOR);
+		return points.toArray(new InjectionPoint[points.size()]);
+	}
+
+	/**
+	 * Find the unbind method the same way the {@code ServiceInjector} does,
+	 * i.e. by walking the type hierarchy of the bind method parameter.
+	 *
+	 * @return the unbind method or {@code null} if not found; the
+	 *         {@code ServiceInjector} will then look it up by name and report
+	 *         the problem
+	 */
+	private static Method unbindMethod(final Class<?> beanClass, final Method bindMethod,
+			final InjectService annotation) {
+		final Class<?>[] types = bindMethod.getParameterTypes();
+		if (types.length != 1) {
+			return null;
+		}
+		final String name = annotation.unbind().length() != 0 ? annotation.unbind() : "un" + bindMethod.getName(); //$NON-NLS-1$
+		Class<?> superWalker = types[0];
+		while (superWalker != null) {
+			Method result = publicMethod(beanClass, name, superWalker);
+			if (result != null) {
+				return result;
+			}
+			for (final Class<?> interfaceWalker : superWalker.getInterfaces()) {
+				result = publicMethod(beanClass, name, interfaceWalker);
+				if (result != null) {
+					return result;
+				}
+			}
+			superWalker = superWalker.getSuperclass();
+		}
+		return null;
+	}
+
+	private static Method publicMethod(final Class<?> beanClass, final String name, final Class<?> parameterType) {
+		try {
+			return beanClass.getMethod(name, parameterType);
+		} catch (final NoSuchMethodException e) {
+			return null;
+		} catch (final SecurityException e) {
+			return null;
+		}
+	}
+
+	private static MethodHandle wiringDoneInvoker(final Method method) {
+		try {
+			return MethodHandles.publicLookup().unreflect(method).asType(WIRING_DONE_TYPE);
+		} catch (final IllegalAccessException e) {
+			Nop.reason("fall back to reflection which reports the problem when wiring"); //$NON-NLS-1$
+		} catch (final WrongMethodTypeException e) {
+			Nop.reason("fall back to reflection, e.g. for static methods"); //$NON-NLS-1$
+		}
+		return null;
+	}
+
+	/**
+	 * A method that is annotated with one of the wiring annotations.
+	 */
+	public static final class InjectionPoint {
+
+		private final Method method;
+		private final Annotation annotation;
+		private final int order;
+		private final MethodHandle invoker;
+		private final Method unbindMethod;
+
+		private InjectionPoint(final Method method, final Annotation annotation, final int order,
+				final MethodHandle invoker, final Method unbindMethod) {
+			this.method = method;
+			this.annotation = annotation;
+			this.order = order;
+			this.invoker = invoker;
+			this.unbindMethod = unbindMethod;
+		}
+
+		/**
+		 * @return the annotated method
+		 */
+		public Method getMethod() {
+			return method;
+		}
+
+		/**
+		 * @return the annotation type, i.e. {@code InjectService},
+		 *         {@code InjectExtension} or {@code OnWiringDone}
+		 */
+		public Class<? extends Annotation> getAnnotationType() {
+			return annotation.annotationType();
+		}
+
+		/**
+		 * @return the annotation
+		 */
+		public Annotation getAnnotation() {
+			return annotation;
+		}
+
+		/**
+		 * @return the injection order
+		 */
+		public int getOrder() {
+			return order;
+		}
+
+		/**
+		 * @return the unbind method of an {@code InjectService} method or
+		 *         {@code null} if there is none or it could not be resolved
+		 */
+		public Method getUnbindMethod() {
+			return unbindMethod;
+		}
+
+		/**
+		 * Invoke the (parameterless) method on the given bean.
+		 *
+		 * @param bean
+		 *            the bean
+		 * @throws Exception
+		 *             whatever the method throws
+		 */
+		public void invoke(final Object bean) throws Exception {
+			if (invoker != null) {
+				try {
+					invoker.invokeExact(bean);
+				} catch (final Exception e) {
+					throw e;
+				} catch (final Error e) {
+					throw e;
+				} catch (final Throwable t) {
+					throw new UndeclaredThrowableException(t);
+				}
+			} else {
+				method.invoke(bean);
+			}
+		}
+	}
+
+	/**
+	 * Compares injection points by order.
+	 */
+	private static final class OrderComparator implements Comparator<InjectionPoint> {
+		public int compare(final InjectionPoint point1, final InjectionPoint point2) {
+			return point1.getOrder() == point2.getOrder() ? 0 : point1.getOrder() < point2.getOrder() ? -1 : 1;
+		}
+	}
+}
@@ -11,12 +11,15 @@
 package org.eclipse.riena.internal.monitor.client;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.CountDownLatch;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
 
 import org.osgi.service.log.LogService;
 
@@ -28,6 +31,7 @@ import org.eclipse.riena.core.util.Iter;
 import org.eclipse.riena.core.wire.InjectExtension;
 import org.eclipse.riena.monitor.client.Category;
 import org.eclipse.riena.monitor.client.IAggregator;
+import org.eclipse.riena.monitor.client.IBulkStore;
 import org.eclipse.riena.monitor.client.IClientInfoProvider;
 import org.eclipse.riena.monitor.client.ICollector;
 import org.eclipse.riena.monitor.client.ISender;
@@ -36,31 +40,28 @@ import org.eclipse.riena.monitor.common.Collectible;
 
 /**
  * The {@code Aggregator} aggregates all collectibles from the collectors. Each collectible may trigger the transmission of the collectibles.
+ * <p>
+ * Collecting does not block: the collectibles are queued per category and a worker hands them in batches to the store. The queue of
+ * a category is bounded by its {@code maxItems}. When it is full either the new collectible is dropped ({@code dropNewest}, the
+ * default) or the oldest queued one ({@code dropOldest}), as defined by the {@code shedding} attribute of the collector.
  */
 public class Aggregator implements IAggregator {
 
 	private IClientInfoProvider clientInfoProvider;
-	private IStore store;
-	private ISender sender;
+	private volatile IStore store;
+	private volatile ISender sender;
 	private ICollector[] collectors;
-	private boolean workerStop;
-	private boolean started;
-	private final BlockingQueue<Runnable> workQueue;
+	private volatile boolean started;
+	private volatile Worker worker;
 	private final Map<String, Category> nameCategories = new HashMap<String, Category>();
 	private final Map<ICollector, Category> collectorCategories = new HashMap<ICollector, Category>();
-	private final CountDownLatch workSignal;
+	private volatile Map<String, CategoryQueue> categoryQueues = Collections.emptyMap();
 
-	private static final Logger LOGGER = Log4r.getLogger(Activator.getDefault(), Aggregator.class);
-
-	public Aggregator() {
-		workSignal = new CountDownLatch(1);
-		workQueue = new LinkedBlockingQueue<Runnable>();
-		startWorker();
-	}
+	static final String DROP_NEWEST = "dropNewest"; //$NON-NLS-1$
+	static final String DROP_OLDEST = "dropOldest"; //$NON-NLS-1$
+	private static final long WORKER_STOP_TIMEOUT = 5000;
 
-	private void startWorker() {
-		new Thread(new Worker(), "Client Monitoring Aggregator Worker").start(); //$NON-NLS-1$
-	}
+	private static final Logger LOGGER = Log4r.getLogger(Activator.getDefault(), Aggregator.class);
 
 	/*
 	 * {@inheritDoc}
@@ -83,12 +84,12 @@ public class Aggregator implements IAggregator {
 		}
 		store.open(nameCategories);
 		sender.start(store, nameCategories.values());
+		worker = new Worker();
+		worker.start();
 		for (final ICollector collector : Iter.able(collectors)) {
 			collector.start(this, collectorCategories.get(collector), clientInfoProvider);
 		}
-		workerStop = false;
 		started = true;
-		workSignal.countDown();
 	}
 
 	/*
@@ -98,11 +99,11 @@ public class Aggregator implements IAggregator {
 		if (!started) {
 			return;
 		}
-		stopWorker();
+		started = false;
 		stopCollectors();
+		stopWorker();
 		stopSender();
 		stopStore();
-		started = false;
 	}
 
 	@InjectExtension(order = 0, min = 0, max = 1)
@@ -119,22 +120,31 @@ public class Aggregator implements IAggregator {
 		stopCollectors();
 		nameCategories.clear();
 		collectorCategories.clear();
+		final Map<String, CategoryQueue> queues = new HashMap<String, CategoryQueue>();
 		final List<ICollector> list = new ArrayList<ICollector>(collectorExtensions.length);
 		for (final ICollectorExtension extension : collectorExtensions) {
 			Assert.isLegal(!nameCategories.containsKey(extension.getCategory()), "Category " + extension.getCategory() //$NON-NLS-1$
 					+ " is defined twice. Categories must be unique."); //$NON-NLS-1$
+			final String shedding = extension.getShedding() == null ? DROP_NEWEST : extension.getShedding();
+			Assert.isLegal(DROP_NEWEST.equals(shedding) || DROP_OLDEST.equals(shedding), "Unknown shedding " + shedding //$NON-NLS-1$
+					+ " of category " + extension.getCategory() + "."); //$NON-NLS-1$ //$NON-NLS-2$
 			final Category category = new Category(extension.getCategory(), extension.getMaxItems());
 			nameCategories.put(extension.getCategory(), category);
+			queues.put(extension.getCategory(), new CategoryQueue(category, DROP_OLDEST.equals(shedding)));
 			final ICollector collector = extension.createCollector();
 			collectorCategories.put(collector, category);
 			list.add(collector);
 		}
 		collectors = list.toArray(new ICollector[list.size()]);
+		categoryQueues = queues;
 		// TODO if we were really dynamic aware we should start them here
 	}
 
 	private void stopWorker() {
-		workerStop = true;
+		if (worker != null) {
+			worker.stop();
+			worker = null;
+		}
 	}
 
 	private void stopCollectors() {
@@ -179,79 +189,179 @@ public class Aggregator implements IAggregator {
 	/*
 	 * {@inheritDoc}
 	 */
-	public synchronized void collect(final Collectible<?> collectible) {
-		if (!started) {
+	public void collect(final Collectible<?> collectible) {
+		final Worker currentWorker = worker;
+		if (!started || currentWorker == null) {
+			return;
+		}
+		final CategoryQueue queue = categoryQueues.get(collectible.getCategory());
+		if (queue == null) {
+			LOGGER.log(LogService.LOG_DEBUG, "Ignoring collectible of unknown category " + collectible.getCategory()); //$NON-NLS-1$
 			return;
 		}
-		final boolean elementAdded = workQueue.offer(new CollectTask(store, collectible));
-		Assert.isTrue(elementAdded);
+		if (queue.offer(collectible)) {
+			currentWorker.wakeUp();
+		}
 	}
 
 	/*
 	 * {@inheritDoc}
 	 */
-	public synchronized void triggerTransfer(final String category) {
-		if (store == null || sender == null) {
+	public void triggerTransfer(final String category) {
+		final Worker currentWorker = worker;
+		final CategoryQueue queue = categoryQueues.get(category);
+		if (currentWorker == null || queue == null) {
 			return;
 		}
-		final boolean elementAdded = workQueue.offer(new TriggerTransferTask(store, sender, category));
-		Assert.isTrue(elementAdded);
+		queue.transferTriggered.set(true);
+		currentWorker.wakeUp();
 	}
 
-	private class Worker implements Runnable {
+	/**
+	 * The bounded queue of the collectibles of a category that have not yet been stored.
+	 */
+	private static final class CategoryQueue {
+		private final String category;
+		private final int maxQueued;
+		private final boolean dropOldest;
+		private final Queue<Collectible<?>> queue = new ConcurrentLinkedQueue<Collectible<?>>();
+		private final AtomicInteger size = new AtomicInteger();
+		private final AtomicInteger shed = new AtomicInteger();
+		private final AtomicBoolean transferTriggered = new AtomicBoolean();
 
-		/*
-		 * {@inheritDoc}
+		public CategoryQueue(final Category category, final boolean dropOldest) {
+			this.category = category.getName();
+			this.maxQueued = category.getMaxItems();
+			this.dropOldest = dropOldest;
+		}
+
+		/**
+		 * @return false if the collectible has been dropped
 		 */
-		public void run() {
-			try {
-				workSignal.await();
-			} catch (final InterruptedException e) {
-				Thread.currentThread().interrupt();
-				return;
+		private boolean offer(final Collectible<?> collectible) {
+			if (size.incrementAndGet() > maxQueued) {
+				if (!dropOldest) {
+					size.decrementAndGet();
+					shed.incrementAndGet();
+					return false;
+				}
+				if (queue.poll() != null) {
+					size.decrementAndGet();
+					shed.incrementAndGet();
+				}
 			}
+			queue.offer(collectible);
+			return true;
+		}
 
-			while (!workerStop) {
-				try {
-					final Runnable runnable = workQueue.take();
-					runnable.run();
-				} catch (final InterruptedException e) {
-					Thread.currentThread().interrupt();
-					break;
-				}
+		/**
+		 * Move at most {@code maxQueued} collectibles to the given batch, so that busy producers can not keep the worker
+		 * here forever.
+		 */
+		private void drainTo(final List<Collectible<?>> batch) {
+			Collectible<?> collectible;
+			for (int i = 0; i < maxQueued && (collectible = queue.poll()) != null; i++) {
+				size.decrementAndGet();
+				batch.add(collectible);
 			}
 		}
 	}
 
-	private static final class CollectTask implements Runnable {
-		private final IStore store;
-		private final Collectible<?> collectible;
+	private final class Worker implements Runnable {
 
-		public CollectTask(final IStore store, final Collectible<?> collectible) {
-			Assert.isLegal(store != null, "store must be not null"); //$NON-NLS-1$
-			this.store = store;
-			this.collectible = collectible;
-		}
+		private final Thread thread = new Thread(this, "Client Monitoring Aggregator Worker"); //$NON-NLS-1$
+		private final AtomicBoolean signaled = new AtomicBoolean();
+		private volatile boolean stopped;
 
-		public void run() {
-			store.collect(collectible);
+		private void start() {
+			thread.start();
 		}
-	}
 
-	private static final class TriggerTransferTask implements Runnable {
-		private final IStore store;
-		private final ISender sender;
-		private final String category;
+		private void wakeUp() {
+			if (signaled.compareAndSet(false, true)) {
+				LockSupport.unpark(thread);
+			}
+		}
 
-		public TriggerTransferTask(final IStore store, final ISender sender, final String category) {
-			this.store = store;
-			this.sender = sender;
-			this.category = category;
+		/**
+		 * Stop the worker after it has stored what has been queued so far.
+		 */
+		private void stop() {
+			stopped = true;
+			LockSupport.unpark(thread);
+			try {
+				thread.join(WORKER_STOP_TIMEOUT);
+			} catch (final InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
 		}
 
+		/*
+		 * {@inheritDoc}
+		 */
 		public void run() {
-			store.prepareTransferables(category);
-			sender.triggerTransfer(category);
+			final List<Collectible<?>> batch = new ArrayList<Collectible<?>>();
+			final List<String> transfers = new ArrayList<String>();
+			while (true) {
+				signaled.set(false);
+				final boolean lastRound = stopped;
+				work(batch, transfers);
+				if (lastRound) {
+					return;
+				}
+				if (!signaled.get()) {
+					LockSupport.park(this);
+				}
+			}
+		}
+
+		private void work(final List<Collectible<?>> batch, final List<String> transfers) {
+			final IStore currentStore = store;
+			if (currentStore == null) {
+				return;
+			}
+			for (final CategoryQueue queue : categoryQueues.values()) {
+				// check for a transfer before draining, so that all collectibles queued before the trigger will be stored
+				if (queue.transferTriggered.getAndSet(false)) {
+					transfers.add(queue.category);
+				}
+				queue.drainTo(batch);
+				final int shed = queue.shed.getAndSet(0);
+				if (shed > 0) {
+					LOGGER.log(LogService.LOG_DEBUG, "Dropped " + shed + " collectibles of category " + queue.category //$NON-NLS-1$ //$NON-NLS-2$
+							+ " because its queue is full."); //$NON-NLS-1$
+				}
+			}
+			if (!batch.isEmpty()) {
+				// a failing store must not end the worker
+				try {
+					if (currentStore instanceof IBulkStore) {
+						((IBulkStore) currentStore).collectAll(batch);
+					} else {
+						for (final Collectible<?> collectible : batch) {
+							currentStore.collect(collectible);
+						}
+					}
+				} catch (final RuntimeException e) {
+					LOGGER.log(LogService.LOG_ERROR, "Storing " + batch.size() //$NON-NLS-1$
+							+ " collectibles failed, they may be lost.", e); //$NON-NLS-1$
+				} finally {
+					batch.clear();
+				}
+			}
+			final ISender currentSender = sender;
+			for (final String category : transfers) {
+				try {
+					currentStore.prepareTransferables(category);
+					if (currentSender != null) {
+						currentSender.triggerTransfer(category);
+					}
+				} catch (final RuntimeException e) {
+					LOGGER.log(LogService.LOG_ERROR, "Transferring the collectibles of category " + category //$NON-NLS-1$
+							+ " failed.", e); //$NON-NLS-1$
+				}
+			}
+			transfers.clear();
 		}
 	}
 }
@@ -42,4 +42,13 @@ public interface ICollectorExtension {
 	 * @return maximum number if items to keep.
 	 */
 	int getMaxItems();
+
+	/**
+	 * Return how collectibles of this category are dropped when more than
+	 * {@code maxItems} of them wait for being stored: {@code dropNewest} (the
+	 * default) or {@code dropOldest}.
+	 * 
+	 * @return the shedding policy or {@code null}
+	 */
+	String getShedding();
 }
@@ -0,0 +1,34 @@
+/*******************************************************************************
+ * Copyright (c) 2007, 2014 compeople AG and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    compeople AG - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.riena.monitor.client;
+
+import java.util.List;
+
+import org.eclipse.riena.monitor.common.Collectible;
+
+/**
+ * An {@code IStore} that can make a batch of {@code Collectible}s persistent
+ * at once, e.g. with a single write per category.
+ *
+ * @since 6.2
+ */
+public interface IBulkStore extends IStore {
+
+	/**
+	 * Make the given collectibles persistent.
+	 *
+	 * @param collectibles
+	 *            the collectibles, possibly of different categories
+	 * @return true on success
+	 */
+	boolean collectAll(List<Collectible<?>> collectibles);
+
+}
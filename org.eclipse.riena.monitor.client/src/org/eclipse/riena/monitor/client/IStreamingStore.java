@@ -0,0 +1,39 @@
+/*******************************************************************************
+ * Copyright (c) 2007, 2014 compeople AG and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    compeople AG - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.riena.monitor.client;
+
+import java.util.Iterator;
+
+import org.eclipse.riena.monitor.common.Collectible;
+
+/**
+ * An {@code IStore} that can hand out its ready to transfer
+ * {@code Collectible}s one by one, so that a sender does not have to hold all
+ * of them in memory.
+ *
+ * @since 6.2
+ */
+public interface IStreamingStore extends IStore {
+
+	/**
+	 * Iterate over all ready to transfer {@code Collectible}s for the given
+	 * category. The {@code Collectible}s are read lazily from the store. As
+	 * with {@link #retrieveTransferables(String)} they have to be committed
+	 * with {@link #commitTransferred(java.util.List)} after a successful
+	 * transfer; this may be done in chunks while iterating.
+	 *
+	 * @param category
+	 *            the category
+	 * @return an iterator of the ready to transfer {@code Collectible}s
+	 */
+	Iterator<Collectible<?>> iterateTransferables(String category);
+
+}
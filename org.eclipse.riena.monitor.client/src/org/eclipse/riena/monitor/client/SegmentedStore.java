@@ -0,0 +1,811 @@
+/*******************************************************************************
+ * Copyright (c) 2007, 2014 compeople AG and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    compeople AG - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.riena.monitor.client;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FilenameFilter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.security.GeneralSecurityException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+import javax.crypto.Cipher;
+import javax.crypto.CipherInputStream;
+import javax.crypto.CipherOutputStream;
+
+import org.osgi.service.log.LogService;
+
+import org.eclipse.core.runtime.Assert;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IConfigurationElement;
+import org.eclipse.core.runtime.IExecutableExtension;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.equinox.log.Logger;
+
+import org.eclipse.riena.core.Log4r;
+import org.eclipse.riena.core.RienaLocations;
+import org.eclipse.riena.core.util.CipherUtils;
+import org.eclipse.riena.core.util.IOUtils;
+import org.eclipse.riena.core.util.Literal;
+import org.eclipse.riena.core.util.PropertiesUtils;
+import org.eclipse.riena.core.util.StringUtils;
+import org.eclipse.riena.core.util.VariableManagerUtil;
+import org.eclipse.riena.internal.monitor.client.Activator;
+import org.eclipse.riena.monitor.common.Collectible;
+import org.eclipse.riena.monitor.common.CollectibleCodec;
+
+/**
+ * This segmented store implements a file based {@code IStore} for the client
+ * monitoring that appends the collectibles to a few segment files per category
+ * instead of writing each collectible to a file of its own (as the
+ * {@code SimpleStore} does).
+ * <p>
+ * Each record within a segment is compressed and encrypted on its own. When a
+ * segment reaches its size limit or its share of the category´s
+ * {@code maxItems} it is closed and a new segment is started. A small index
+ * file per category keeps the segments, their number of items and their
+ * transfer state, so preparing collectibles for transfer does not rename any
+ * files. The index also keeps the items of the transfer segments that have
+ * already been committed, so that they are not transferred again after a
+ * restart. The {@code maxItems} of a category are enforced by dropping its
+ * oldest segments. After an unclean shutdown the store recovers from the
+ * segment files, i.e. a torn record at the end of a segment is cut off and
+ * segments that are missing in the index are re-added.
+ * <p>
+ * The segmented store expects the following configuration that can be passed
+ * with its definition in an extension:
+ * <ul>
+ * <li>segmentSize - the size in bytes at which a segment will be closed
+ * (default value is 262144 bytes if not defined)</li>
+ * <li>storePath - an optional file path for the store (default value is within
+ * the riena data area). The {@code VarableManagerUtil} will perform a string
+ * substitution on storePath.</li>
+ * <li>encoding - the encoding of the records, either {@code serialized} (java
+ * serialization) or {@code compact} (the {@code CollectibleCodec}). Records of
+ * both encodings can always be read. (default value is {@code serialized} if
+ * not defined)</li>
+ * </ul>
+ * Example extension:
+ *
+ * <pre>
+ * &lt;extension point=&quot;org.eclipse.riena.monitor.client.store&quot;&gt;
+ *     &lt;store
+ *           name=&quot;SegmentedStore&quot;
+ *           class=&quot;org.eclipse.riena.monitor.client.SegmentedStore:segmentSize=65536&quot;&gt;
+ *     &lt;/store&gt;
+ * &lt;/extension&gt;
+ * </pre>
+ *
+ * @since 6.2
+ */
+public class SegmentedStore implements IStreamingStore, IBulkStore, IExecutableExtension {
+
+	private File storeFolder;
+	private long segmentSize;
+	private String storePathName;
+	private boolean compactEncoding;
+	private Map<String, Category> categories = new HashMap<String, Category>();
+	private final Map<String, Segments> categorySegments = new HashMap<String, Segments>();
+	private Cipher encrypt;
+	private Cipher decrypt;
+
+	private static final String SEGMENT_FILE_EXTENSION = ".seg"; //$NON-NLS-1$
+	private static final String INDEX_FILE_EXTENSION = ".idx"; //$NON-NLS-1$
+	private static final String TEMP_FILE_EXTENSION = ".tmp"; //$NON-NLS-1$
+	private static final String CATEGORY_DELIMITER = "#"; //$NON-NLS-1$
+	private static final int INDEX_MAGIC = 0x52534958;
+	private static final int INDEX_VERSION = 2;
+	/**
+	 * The version of the index without the committed items.
+	 */
+	private static final int INDEX_VERSION_1 = 1;
+	/**
+	 * The number of segments the {@code maxItems} of a category are spread on,
+	 * i.e. dropping the oldest segment drops about an eighth of the items.
+	 */
+	private static final int SEGMENTS_PER_CATEGORY = 8;
+
+	private static final String SEGMENT_SIZE = "segmentSize"; //$NON-NLS-1$
+	private static final String STORE_PATH = "storePath"; //$NON-NLS-1$
+	private static final String SEGMENT_SIZE_DEFAULT = "262144"; //$NON-NLS-1$
+	private static final String ENCODING = "encoding"; //$NON-NLS-1$
+	private static final String ENCODING_SERIALIZED = "serialized"; //$NON-NLS-1$
+	private static final String ENCODING_COMPACT = "compact"; //$NON-NLS-1$
+	private static final byte[] KEY = new byte[8];
+
+	static {
+		final long first = "This is not very clever :-)".hashCode(); //$NON-NLS-1$
+		final long second = "And this neither!".hashCode(); //$NON-NLS-1$
+		new Random(first * second).nextBytes(KEY);
+	}
+
+	private static final Logger LOGGER = Log4r.getLogger(Activator.getDefault(), SegmentedStore.class);
+
+	public void setInitializationData(final IConfigurationElement config, final String propertyName, final Object data)
+			throws CoreException {
+		Map<String, String> properties = null;
+		try {
+			properties = PropertiesUtils.asMap(data,
+					Literal.map(SEGMENT_SIZE, SEGMENT_SIZE_DEFAULT).map(ENCODING, ENCODING_SERIALIZED));
+			segmentSize = Long.parseLong(properties.get(SEGMENT_SIZE).trim());
+			Assert.isLegal(segmentSize > 0, "segmentSize must be greater than 0."); //$NON-NLS-1$
+			final String encoding = properties.get(ENCODING).trim();
+			Assert.isLegal(ENCODING_SERIALIZED.equals(encoding) || ENCODING_COMPACT.equals(encoding),
+					"Unknown encoding: " + encoding); //$NON-NLS-1$
+			compactEncoding = ENCODING_COMPACT.equals(encoding);
+			storePathName = VariableManagerUtil.substitute(properties.get(STORE_PATH));
+		} catch (final IllegalArgumentException e) {
+			throw configurationException("Bad configuration.", e); //$NON-NLS-1$
+		}
+		initStore();
+	}
+
+	private CoreException configurationException(final String message, final Exception e) {
+		return new CoreException(new Status(IStatus.ERROR, Activator.PLUGIN_ID, message, e));
+	}
+
+	private void initStore() {
+		storeFolder = StringUtils.isGiven(storePathName) ? new File(storePathName) : new File(
+				RienaLocations.getDataArea(Activator.getDefault().getBundle()), "segmentedstore"); //$NON-NLS-1$
+		if (!storeFolder.isDirectory()) {
+			final boolean directoryCreated = storeFolder.mkdirs();
+			Assert.isTrue(directoryCreated);
+		}
+		try {
+			encrypt = CipherUtils.getCipher(KEY, Cipher.ENCRYPT_MODE);
+			decrypt = CipherUtils.getCipher(KEY, Cipher.DECRYPT_MODE);
+		} catch (final GeneralSecurityException e) {
+			throw new IllegalArgumentException("Could not generate keys for encryption.", e); //$NON-NLS-1$
+		}
+		LOGGER.log(LogService.LOG_DEBUG, "SegmentedStore at " + storeFolder); //$NON-NLS-1$
+	}
+
+	public synchronized void open(final Map<String, Category> categories) {
+		Assert.isNotNull(categories, "categories must not be null"); //$NON-NLS-1$
+		this.categories = categories;
+		for (final String category : categories.keySet()) {
+			getSegments(category);
+		}
+	}
+
+	public synchronized void close() {
+		for (final Segments segments : categorySegments.values()) {
+			segments.closeActive();
+			segments.writeIndex();
+		}
+		categorySegments.clear();
+	}
+
+	public synchronized void flush() {
+		for (final Segments segments : categorySegments.values()) {
+			segments.flushActive();
+			segments.writeIndex();
+		}
+	}
+
+	public synchronized boolean collect(final Collectible<?> collectible) {
+		final Segments segments = getSegments(collectible.getCategory());
+		return append(segments, collectible) & segments.flushActive();
+	}
+
+	public synchronized boolean collectAll(final List<Collectible<?>> collectibles) {
+		boolean success = true;
+		final Set<Segments> appended = new HashSet<Segments>();
+		for (final Collectible<?> collectible : collectibles) {
+			final Segments segments = getSegments(collectible.getCategory());
+			success &= append(segments, collectible);
+			appended.add(segments);
+		}
+		// one write per category (and per closed segment)
+		for (final Segments segments : appended) {
+			success &= segments.flushActive();
+		}
+		return success;
+	}
+
+	private boolean append(final Segments segments, final Collectible<?> collectible) {
+		final byte[] record;
+		try {
+			record = encode(collectible);
+		} catch (final IOException e) {
+			LOGGER.log(LogService.LOG_DEBUG, "Error storing collectible: " + e.getMessage(), e); //$NON-NLS-1$
+			return false;
+		}
+		return segments.append(record);
+	}
+
+	public synchronized void prepareTransferables(final String category) {
+		getSegments(category).markTransfer();
+	}
+
+	public synchronized List<Collectible<?>> retrieveTransferables(final String category) {
+		return getSegments(category).retrieveTransferables();
+	}
+
+	public synchronized Iterator<Collectible<?>> iterateTransferables(final String category) {
+		return getSegments(category).iterateTransferables();
+	}
+
+	public synchronized void commitTransferred(final List<Collectible<?>> collectibles) {
+		final Set<Segments> changed = new HashSet<Segments>();
+		for (final Collectible<?> collectible : collectibles) {
+			final Segments segments = getSegments(collectible.getCategory());
+			if (segments.commit(collectible.getUUID())) {
+				changed.add(segments);
+			}
+		}
+		for (final Segments segments : changed) {
+			segments.writeIndex();
+		}
+	}
+
+	/**
+	 * Get the decryptor for retrieving the collectibles.
+	 * <p>
+	 * <b>Note: </b>This hook method is intended to be overwritten to provide a
+	 * better encrypted storage on the local file system on the client.
+	 * Otherwise a simple encryption will be used.
+	 *
+	 * @param is
+	 * @return
+	 */
+	protected InputStream getDecryptor(final InputStream is) {
+		return new CipherInputStream(is, decrypt);
+	}
+
+	/**
+	 * Get the encryptor for storing the collectibles.
+	 * <p>
+	 * <b>Note: </b>This hook method is intended to be overwritten to provide a
+	 * better encrypted storage on the local file system on the client.
+	 * Otherwise a simple encryption will be used.
+	 *
+	 * @param os
+	 * @return
+	 */
+	protected OutputStream getEncryptor(final OutputStream os) {
+		return new CipherOutputStream(os, encrypt);
+	}
+
+	/**
+	 * Get the compressor for storing the collectibles.
+	 * <p>
+	 * <b>Note: </b>This hook method may be overwritten to provide another
+	 * compressing technology. This method uses
+	 * DeflaterOutputStream/InputStream.
+	 *
+	 * @param os
+	 * @return
+	 * @throws IOException
+	 */
+	protected OutputStream getCompressor(final OutputStream os) throws IOException {
+		return new DeflaterOutputStream(os);
+	}
+
+	/**
+	 * Get the decompressor for retrieving the collectibles.
+	 *
+	 * @param is
+	 * @return
+	 * @throws IOException
+	 */
+	protected InputStream getDecompressor(final InputStream is) throws IOException {
+		return new InflaterInputStream(is);
+	}
+
+	private byte[] encode(final Collectible<?> collectible) throws IOException {
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		final OutputStream os = getCompressor(getEncryptor(bytes));
+		try {
+			if (compactEncoding) {
+				CollectibleCodec.encode(Collections.singletonList(collectible), os);
+			} else {
+				final ObjectOutputStream objectos = new ObjectOutputStream(os);
+				objectos.writeObject(collectible);
+				objectos.flush();
+			}
+		} finally {
+			// closing finishes the compressor and the encryptor
+			os.close();
+		}
+		return bytes.toByteArray();
+	}
+
+	private Collectible<?> decode(final byte[] record) {
+		InputStream is = null;
+		try {
+			is = new BufferedInputStream(getDecompressor(getDecryptor(new ByteArrayInputStream(record))));
+			// records may have been written with either encoding
+			final byte[] head = new byte[3];
+			is.mark(head.length);
+			int offset = 0;
+			int read;
+			while (offset < head.length && (read = is.read(head, offset, head.length - offset)) != -1) {
+				offset += read;
+			}
+			is.reset();
+			if (CollectibleCodec.isEncoded(head)) {
+				// the records have been written by this store
+				return CollectibleCodec.decode(is, true).get(0);
+			}
+			return (Collectible<?>) new ObjectInputStream(is).readObject();
+		} catch (final Exception e) {
+			LOGGER.log(LogService.LOG_DEBUG, "Error retrieving collectible: " + e.getMessage(), e); //$NON-NLS-1$
+			return null;
+		} finally {
+			IOUtils.close(is);
+		}
+	}
+
+	private Segments getSegments(final String category) {
+		Segments segments = categorySegments.get(category);
+		if (segments == null) {
+			final Category definition = categories.get(category);
+			segments = new Segments(definition != null ? definition : new Category(category, Integer.MAX_VALUE));
+			segments.load();
+			categorySegments.put(category, segments);
+		}
+		return segments;
+	}
+
+	private void delete(final File file) {
+		if (file.exists() && !file.delete()) {
+			file.deleteOnExit();
+		}
+	}
+
+	/**
+	 * The segments of one category.
+	 */
+	private class Segments {
+
+		private final String category;
+		private final int maxItems;
+		private final int itemsPerSegment;
+		private final File indexFile;
+		private final LinkedList<Segment> segments = new LinkedList<Segment>();
+		private final Map<UUID, Segment> retrieved = new HashMap<UUID, Segment>();
+		private long nextSequence;
+		private int totalItems;
+		private Segment active;
+		private DataOutputStream activeOut;
+
+		public Segments(final Category category) {
+			this.category = category.getName();
+			this.maxItems = category.getMaxItems();
+			this.itemsPerSegment = Math.max(1, maxItems / SEGMENTS_PER_CATEGORY);
+			this.indexFile = new File(storeFolder, this.category + INDEX_FILE_EXTENSION);
+		}
+
+		private boolean append(final byte[] record) {
+			try {
+				if (active == null) {
+					active = new Segment(nextSequence++);
+					segments.add(active);
+					activeOut = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(active.file, true)));
+				}
+				activeOut.writeInt(record.length);
+				activeOut.write(record);
+			} catch (final IOException e) {
+				LOGGER.log(LogService.LOG_DEBUG, "Error storing collectible: " + e.getMessage(), e); //$NON-NLS-1$
+				closeActive();
+				return false;
+			}
+			active.items++;
+			active.size += 4 + record.length;
+			totalItems++;
+			final boolean dropped = dropOldest();
+			if (active.items >= itemsPerSegment || active.size >= segmentSize) {
+				closeActive();
+				writeIndex();
+			} else if (dropped) {
+				writeIndex();
+			}
+			return true;
+		}
+
+		/**
+		 * Drop the oldest segments (but not the active one) until there are
+		 * not more than {@code maxItems} items.
+		 */
+		private boolean dropOldest() {
+			boolean dropped = false;
+			while (totalItems > maxItems && segments.getFirst() != active) {
+				final Segment oldest = segments.removeFirst();
+				totalItems -= oldest.items;
+				forgetRetrieved(oldest);
+				delete(oldest.file);
+				dropped = true;
+				LOGGER.log(LogService.LOG_DEBUG, "Dropped " + oldest.items + " items of category " + category //$NON-NLS-1$ //$NON-NLS-2$
+						+ " because it exceeds its maximum of " + maxItems + " items."); //$NON-NLS-1$ //$NON-NLS-2$
+			}
+			return dropped;
+		}
+
+		/**
+		 * Forget the retrieved items of the given segment; they can not be
+		 * committed any longer.
+		 */
+		private void forgetRetrieved(final Segment segment) {
+			final Iterator<Segment> iterator = retrieved.values().iterator();
+			while (iterator.hasNext()) {
+				if (iterator.next() == segment) {
+					iterator.remove();
+				}
+			}
+		}
+
+		private void markTransfer() {
+			closeActive();
+			boolean changed = false;
+			for (final Segment segment : segments) {
+				if (!segment.transfer) {
+					segment.transfer = true;
+					changed = true;
+				}
+			}
+			if (changed) {
+				writeIndex();
+			}
+		}
+
+		private List<Collectible<?>> retrieveTransferables() {
+			final List<Collectible<?>> collectibles = new ArrayList<Collectible<?>>();
+			final Iterator<Collectible<?>> transferables = iterateTransferables();
+			while (transferables.hasNext()) {
+				collectibles.add(transferables.next());
+			}
+			return collectibles;
+		}
+
+		/**
+		 * Iterate over the not yet committed items of the transfer segments.
+		 * Only the records of one segment at a time are held in memory. Items
+		 * that have been retrieved before but not committed (e.g. because
+		 * their transfer failed) are retrieved again.
+		 */
+		private Iterator<Collectible<?>> iterateTransferables() {
+			retrieved.clear();
+			final List<Segment> transferSegments = new ArrayList<Segment>();
+			for (final Segment segment : segments) {
+				if (segment.transfer) {
+					transferSegments.add(segment);
+				}
+			}
+			return new Iterator<Collectible<?>>() {
+
+				private int segmentIndex;
+				private Segment segment;
+				private Iterator<byte[]> records = Collections.<byte[]> emptyList().iterator();
+				private Collectible<?> next;
+
+				public boolean hasNext() {
+					synchronized (SegmentedStore.this) {
+						while (next == null) {
+							if (records.hasNext()) {
+								next = retrieve(segment, records.next());
+							} else if (segmentIndex < transferSegments.size()) {
+								segment = transferSegments.get(segmentIndex++);
+								segment.unreadable = 0;
+								// the segment may have been dropped in the meantime
+								records = segments.contains(segment) ? read(segment.file).iterator() : Collections
+										.<byte[]> emptyList().iterator();
+							} else {
+								return false;
+							}
+						}
+						return true;
+					}
+				}
+
+				public Collectible<?> next() {
+					if (!hasNext()) {
+						throw new NoSuchElementException();
+					}
+					final Collectible<?> result = next;
+					next = null;
+					return result;
+				}
+
+				public void remove() {
+					throw new UnsupportedOperationException();
+				}
+			};
+		}
+
+		private Collectible<?> retrieve(final Segment segment, final byte[] record) {
+			final Collectible<?> collectible = decode(record);
+			if (collectible == null) {
+				segment.unreadable++;
+				return null;
+			}
+			if (segment.committed.contains(collectible.getUUID())) {
+				return null;
+			}
+			retrieved.put(collectible.getUUID(), segment);
+			return collectible;
+		}
+
+		/**
+		 * Commit a transferred collectible. A segment is removed when all its
+		 * items have been committed.
+		 *
+		 * @return true if the index has changed
+		 */
+		private boolean commit(final UUID uuid) {
+			final Segment segment = retrieved.remove(uuid);
+			if (segment == null || !segments.contains(segment)) {
+				return false;
+			}
+			segment.committed.add(uuid);
+			if (segment.committed.size() + segment.unreadable < segment.items) {
+				// the index keeps the partial commit
+				return true;
+			}
+			segments.remove(segment);
+			totalItems -= segment.items;
+			delete(segment.file);
+			return true;
+		}
+
+		private boolean flushActive() {
+			if (activeOut != null) {
+				try {
+					activeOut.flush();
+				} catch (final IOException e) {
+					LOGGER.log(LogService.LOG_DEBUG, "Error flushing segment: " + e.getMessage(), e); //$NON-NLS-1$
+					closeActive();
+					return false;
+				}
+			}
+			return true;
+		}
+
+		private void closeActive() {
+			IOUtils.close(activeOut);
+			activeOut = null;
+			active = null;
+		}
+
+		/**
+		 * Write the index to a temporary file first and replace the index with
+		 * it afterwards, so that there is always a consistent index.
+		 */
+		private void writeIndex() {
+			final File tempFile = new File(storeFolder, category + INDEX_FILE_EXTENSION + TEMP_FILE_EXTENSION);
+			DataOutputStream out = null;
+			try {
+				out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)));
+				out.writeInt(INDEX_MAGIC);
+				out.writeInt(INDEX_VERSION);
+				out.writeLong(nextSequence);
+				out.writeInt(segments.size());
+				for (final Segment segment : segments) {
+					out.writeLong(segment.sequence);
+					out.writeInt(segment.items);
+					out.writeBoolean(segment.transfer);
+					out.writeInt(segment.committed.size());
+					for (final UUID uuid : segment.committed) {
+						out.writeLong(uuid.getMostSignificantBits());
+						out.writeLong(uuid.getLeastSignificantBits());
+					}
+				}
+				out.close();
+				out = null;
+				// the rename replaces the index atomically where the platform supports it
+				if (!tempFile.renameTo(indexFile) && (!indexFile.delete() || !tempFile.renameTo(indexFile))) {
+					LOGGER.log(LogService.LOG_WARNING, "Could not replace index " + indexFile + "."); //$NON-NLS-1$ //$NON-NLS-2$
+				}
+			} catch (final IOException e) {
+				LOGGER.log(LogService.LOG_WARNING, "Error writing index " + indexFile + ": " + e.getMessage(), e); //$NON-NLS-1$ //$NON-NLS-2$
+			} finally {
+				IOUtils.close(out);
+			}
+		}
+
+		/**
+		 * Load the index and reconcile it with the segment files. Segments that
+		 * are not within the index (e.g. because of a crash) are re-added and
+		 * index entries without a segment file are removed.
+		 */
+		private void load() {
+			final Map<Long, Segment> indexed = readIndex();
+			final File[] files = storeFolder.listFiles(new FilenameFilter() {
+				public boolean accept(final File dir, final String name) {
+					return name.endsWith(SEGMENT_FILE_EXTENSION) && name.lastIndexOf(CATEGORY_DELIMITER) != -1
+							&& name.substring(0, name.lastIndexOf(CATEGORY_DELIMITER)).equals(category);
+				}
+			});
+			for (final File file : files == null ? new File[0] : files) {
+				final String name = file.getName();
+				final long sequence;
+				try {
+					sequence = Long.parseLong(
+							name.substring(name.lastIndexOf(CATEGORY_DELIMITER) + 1, name.length()
+									- SEGMENT_FILE_EXTENSION.length()), 16);
+				} catch (final NumberFormatException e) {
+					continue;
+				}
+				Segment segment = indexed.get(sequence);
+				if (segment == null) {
+					segment = new Segment(sequence);
+					segment.items = recover(file);
+				}
+				segment.size = file.length();
+				segments.add(segment);
+				nextSequence = Math.max(nextSequence, sequence + 1);
+			}
+			Collections.sort(segments, new Comparator<Segment>() {
+				public int compare(final Segment segment1, final Segment segment2) {
+					return segment1.sequence < segment2.sequence ? -1 : segment1.sequence == segment2.sequence ? 0 : 1;
+				}
+			});
+			// the last segment may have been appended to after the index has been written
+			if (!segments.isEmpty() && !segments.getLast().transfer) {
+				segments.getLast().items = recover(segments.getLast().file);
+			}
+			for (final Segment segment : segments) {
+				totalItems += segment.items;
+			}
+		}
+
+		private Map<Long, Segment> readIndex() {
+			final Map<Long, Segment> indexed = new HashMap<Long, Segment>();
+			if (!indexFile.exists()) {
+				return indexed;
+			}
+			DataInputStream in = null;
+			try {
+				in = new DataInputStream(new BufferedInputStream(new FileInputStream(indexFile)));
+				if (in.readInt() != INDEX_MAGIC) {
+					throw new IOException("Unknown index format."); //$NON-NLS-1$
+				}
+				final int version = in.readInt();
+				if (version != INDEX_VERSION && version != INDEX_VERSION_1) {
+					throw new IOException("Unknown index version " + version + "."); //$NON-NLS-1$ //$NON-NLS-2$
+				}
+				nextSequence = in.readLong();
+				final int count = in.readInt();
+				for (int i = 0; i < count; i++) {
+					final Segment segment = new Segment(in.readLong());
+					segment.items = in.readInt();
+					segment.transfer = in.readBoolean();
+					if (version != INDEX_VERSION_1) {
+						final int committed = in.readInt();
+						for (int j = 0; j < committed; j++) {
+							segment.committed.add(new UUID(in.readLong(), in.readLong()));
+						}
+					}
+					indexed.put(segment.sequence, segment);
+				}
+			} catch (final IOException e) {
+				LOGGER.log(LogService.LOG_WARNING, "Error reading index " + indexFile + ", recovering from segments: " //$NON-NLS-1$ //$NON-NLS-2$
+						+ e.getMessage());
+				indexed.clear();
+			} finally {
+				IOUtils.close(in);
+			}
+			return indexed;
+		}
+
+		private File getFile(final long sequence) {
+			final String hex = Long.toHexString(sequence);
+			return new File(storeFolder, category + CATEGORY_DELIMITER + "0000000000000000".substring(hex.length()) //$NON-NLS-1$
+					+ hex + SEGMENT_FILE_EXTENSION);
+		}
+
+		/**
+		 * A segment file of this category.
+		 */
+		private class Segment {
+
+			private final long sequence;
+			private final File file;
+			private final Set<UUID> committed = new HashSet<UUID>();
+			private int items;
+			private int unreadable;
+			private long size;
+			private boolean transfer;
+
+			public Segment(final long sequence) {
+				this.sequence = sequence;
+				this.file = getFile(sequence);
+			}
+		}
+	}
+
+	/**
+	 * Read all complete records of the given segment file.
+	 */
+	private List<byte[]> read(final File file) {
+		final List<byte[]> records = new ArrayList<byte[]>();
+		DataInputStream in = null;
+		try {
+			in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+			long remaining = file.length();
+			while (remaining >= 4) {
+				final int length = in.readInt();
+				if (length < 0 || length > remaining - 4) {
+					break;
+				}
+				final byte[] record = new byte[length];
+				in.readFully(record);
+				records.add(record);
+				remaining -= 4 + length;
+			}
+		} catch (final IOException e) {
+			LOGGER.log(LogService.LOG_DEBUG, "Error reading segment " + file + ": " + e.getMessage(), e); //$NON-NLS-1$ //$NON-NLS-2$
+		} finally {
+			IOUtils.close(in);
+		}
+		return records;
+	}
+
+	/**
+	 * Count the complete records of the given segment file and cut off a torn
+	 * record at its end.
+	 */
+	private int recover(final File file) {
+		int items = 0;
+		RandomAccessFile raf = null;
+		try {
+			raf = new RandomAccessFile(file, "rw"); //$NON-NLS-1$
+			final long fileLength = raf.length();
+			long position = 0;
+			while (position + 4 <= fileLength) {
+				raf.seek(position);
+				final int length = raf.readInt();
+				if (length < 0 || position + 4 + length > fileLength) {
+					break;
+				}
+				position += 4 + length;
+				items++;
+			}
+			if (position < fileLength) {
+				LOGGER.log(LogService.LOG_DEBUG, "Cutting off torn record of segment " + file); //$NON-NLS-1$
+				raf.setLength(position);
+			}
+		} catch (final IOException e) {
+			LOGGER.log(LogService.LOG_DEBUG, "Error recovering segment " + file + ": " + e.getMessage(), e); //$NON-NLS-1$ //$NON-NLS-2$
+		} finally {
+			IOUtils.close(raf);
+		}
+		return items;
+	}
+
+}
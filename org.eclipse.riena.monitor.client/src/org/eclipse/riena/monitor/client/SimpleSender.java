@@ -10,10 +10,14 @@
  *******************************************************************************/
 package org.eclipse.riena.monitor.client;
 
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
 
 import org.osgi.service.log.LogService;
 
@@ -34,17 +38,43 @@ import org.eclipse.riena.core.util.PropertiesUtils;
 import org.eclipse.riena.core.wire.InjectService;
 import org.eclipse.riena.internal.monitor.client.Activator;
 import org.eclipse.riena.monitor.common.Collectible;
+import org.eclipse.riena.monitor.common.CollectibleCodec;
+import org.eclipse.riena.monitor.common.ICompactReceiver;
 import org.eclipse.riena.monitor.common.IReceiver;
+import org.eclipse.riena.monitor.common.LogEntryTransferObject;
 
 /**
  * This simple sender implements {@code ISender} that uses riena´s (remote)
  * services to communicate with the ´server´.
  * <p>
+ * The collectibles of a category are sent in chunks that are limited by the
+ * number of items and by their size, which is estimated cheaply from the
+ * lengths of their strings. Each chunk is committed on its
+ * own, so that a failure does not resend the chunks that have already been
+ * taken by the receiver. If the store is an {@code IStreamingStore} the
+ * collectibles are read one by one instead of all at once. After a failure the
+ * transfer is retried with an exponentially growing, randomized delay.
+ * <p>
+ * If an {@code ICompactReceiver} is available it is preferred over the
+ * {@code IReceiver} and the collectibles are sent encoded with the
+ * {@code CollectibleCodec}. If the compact receiver fails or rejects a chunk
+ * (e.g. because the server does not publish it or can not decode the chunk)
+ * but the {@code IReceiver} takes the chunk, the {@code IReceiver} is used for
+ * maxRetryTime before the compact receiver is tried again.
+ * <p>
  * The simple sender expects the following configuration that can be passed with
  * its definition in an extension:
  * <ul>
- * <li>retryTime - defines the time in minutes that will be waited for a retry
- * when a send has failed. (default value is 15 minutes if not defined)</li>
+ * <li>retryTime - defines the time that will be waited for the first retry
+ * when a send has failed. Each further failure doubles this time. (default
+ * value is 1 minute if not defined)</li>
+ * <li>maxRetryTime - defines the maximum time that will be waited for a retry
+ * (default value is 1 hour or retryTime if that is greater)</li>
+ * <li>maxChunkItems - the maximum number of collectibles sent with one call
+ * (default value is 100 if not defined)</li>
+ * <li>maxChunkBytes - the maximum estimated size in bytes of the collectibles
+ * sent with one call; a single larger collectible is sent on its own (default
+ * value is 262144 if not defined)</li>
  * </ul>
  * Periods of time can be specified as a string conforming to
  * {@link Millis#valueOf(String)}.<br>
@@ -54,7 +84,7 @@ import org.eclipse.riena.monitor.common.IReceiver;
  * &lt;extension point=&quot;org.eclipse.riena.monitor.client.sender&quot;&gt;
  *       &lt;sender
  *             name=&quot;SimpleSender&quot;
- *             class=&quot;org.eclipse.riena.monitor.client.SimpleSender:retryTime=20 m&quot;&gt;
+ *             class=&quot;org.eclipse.riena.monitor.client.SimpleSender:retryTime=20 s; maxRetryTime=30 m; maxChunkItems=50&quot;&gt;
  *       &lt;/sender&gt;
  * &lt;/extension&gt;
  * </pre>
@@ -63,11 +93,23 @@ public class SimpleSender implements ISender, IExecutableExtension {
 
 	private IStore store;
 	private IReceiver receiver;
+	private ICompactReceiver compactReceiver;
+	private volatile long compactReceiverRetryAt;
 	private boolean started;
 	private long retryTime;
+	private long maxRetryTime;
+	private int maxChunkItems;
+	private long maxChunkBytes;
 	private final Map<String, Sender> senders = new HashMap<String, Sender>();
+	private final Random random = new Random();
 	private static final String RETRY_TIME = "retryTime"; //$NON-NLS-1$
-	private static final String RETRY_TIME_DEFAULT = "15 m"; //$NON-NLS-1$
+	private static final String RETRY_TIME_DEFAULT = "1 m"; //$NON-NLS-1$
+	private static final String MAX_RETRY_TIME = "maxRetryTime"; //$NON-NLS-1$
+	private static final String MAX_RETRY_TIME_DEFAULT = "1 h"; //$NON-NLS-1$
+	private static final String MAX_CHUNK_ITEMS = "maxChunkItems"; //$NON-NLS-1$
+	private static final String MAX_CHUNK_ITEMS_DEFAULT = "100"; //$NON-NLS-1$
+	private static final String MAX_CHUNK_BYTES = "maxChunkBytes"; //$NON-NLS-1$
+	private static final String MAX_CHUNK_BYTES_DEFAULT = "262144"; //$NON-NLS-1$
 
 	private static final Logger LOGGER = Log4r.getLogger(Activator.getDefault(), SimpleSender.class);
 
@@ -75,9 +117,16 @@ public class SimpleSender implements ISender, IExecutableExtension {
 			throws CoreException {
 		Map<String, String> properties = null;
 		try {
-			properties = PropertiesUtils.asMap(data, Literal.map(RETRY_TIME, RETRY_TIME_DEFAULT));
+			properties = PropertiesUtils.asMap(data,
+					Literal.map(RETRY_TIME, RETRY_TIME_DEFAULT).map(MAX_RETRY_TIME, MAX_RETRY_TIME_DEFAULT)
+							.map(MAX_CHUNK_ITEMS, MAX_CHUNK_ITEMS_DEFAULT).map(MAX_CHUNK_BYTES, MAX_CHUNK_BYTES_DEFAULT));
 			retryTime = Millis.valueOf(properties.get(RETRY_TIME));
 			Assert.isLegal(retryTime > 0, "retryTime must be greater than 0."); //$NON-NLS-1$
+			maxRetryTime = Math.max(retryTime, Millis.valueOf(properties.get(MAX_RETRY_TIME)));
+			maxChunkItems = Integer.parseInt(properties.get(MAX_CHUNK_ITEMS).trim());
+			Assert.isLegal(maxChunkItems > 0, "maxChunkItems must be greater than 0."); //$NON-NLS-1$
+			maxChunkBytes = Long.parseLong(properties.get(MAX_CHUNK_BYTES).trim());
+			Assert.isLegal(maxChunkBytes > 0, "maxChunkBytes must be greater than 0."); //$NON-NLS-1$
 		} catch (final IllegalArgumentException e) {
 			throw configurationException("Bad configuration.", e); //$NON-NLS-1$
 		}
@@ -96,6 +145,22 @@ public class SimpleSender implements ISender, IExecutableExtension {
 		this.receiver = null;
 	}
 
+	/**
+	 * @since 6.2
+	 */
+	@InjectService(useRanking = true)
+	public void bind(final ICompactReceiver compactReceiver) {
+		this.compactReceiver = compactReceiver;
+		this.compactReceiverRetryAt = 0;
+	}
+
+	/**
+	 * @since 6.2
+	 */
+	public void unbind(final ICompactReceiver compactReceiver) {
+		this.compactReceiver = null;
+	}
+
 	public void start(final IStore store, final Collection<Category> categories) {
 		if (started) {
 			return;
@@ -144,6 +209,7 @@ public class SimpleSender implements ISender, IExecutableExtension {
 
 		private final String category;
 		private boolean retrying;
+		private int failures;
 
 		private Sender(final String category) {
 			super("SimpleSender"); //$NON-NLS-1$
@@ -168,43 +234,125 @@ public class SimpleSender implements ISender, IExecutableExtension {
 		protected IStatus run(final IProgressMonitor monitor) {
 			LOGGER.log(LogService.LOG_DEBUG, "Sender(" + category + ") started with" + (retrying ? "" : "out") //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
 					+ " retry"); //$NON-NLS-1$
-			if (receiver == null) {
+			if (receiver == null && compactReceiver == null) {
 				LOGGER.log(LogService.LOG_DEBUG, "Sender(" + category + ") ended (no receiver)"); //$NON-NLS-1$ //$NON-NLS-2$
 				return Status.OK_STATUS;
 			}
-			final List<Collectible<?>> transferables = store.retrieveTransferables(category);
-			if (transferables.size() == 0) {
+			final Iterator<Collectible<?>> transferables = store instanceof IStreamingStore ? ((IStreamingStore) store)
+					.iterateTransferables(category) : store.retrieveTransferables(category).iterator();
+			if (!transferables.hasNext()) {
 				LOGGER.log(LogService.LOG_DEBUG, "Sender(" + category + ") ended (nothing to send)"); //$NON-NLS-1$ //$NON-NLS-2$
+				succeeded();
 				return Status.OK_STATUS;
 			}
-			transfer(transferables);
+			final List<Collectible<?>> chunk = new ArrayList<Collectible<?>>();
+			long chunkBytes = 0;
+			while (transferables.hasNext()) {
+				if (monitor.isCanceled()) {
+					return Status.CANCEL_STATUS;
+				}
+				final Collectible<?> transferable = transferables.next();
+				final long bytes = estimateSize(transferable);
+				if (!chunk.isEmpty() && (chunk.size() >= maxChunkItems || chunkBytes + bytes > maxChunkBytes)) {
+					if (!transfer(chunk)) {
+						return Status.OK_STATUS;
+					}
+					chunk.clear();
+					chunkBytes = 0;
+				}
+				chunk.add(transferable);
+				chunkBytes += bytes;
+			}
+			if (transfer(chunk)) {
+				succeeded();
+			}
 			LOGGER.log(LogService.LOG_DEBUG, "Sender(" + category + ") ended"); //$NON-NLS-1$ //$NON-NLS-2$
 			return Status.OK_STATUS;
 		}
 
 		/**
+		 * Transfer a chunk and commit it if the receiver took it; otherwise
+		 * schedule a retry.
 		 * 
+		 * @return true on success
 		 */
-		private void transfer(final List<Collectible<?>> transferables) {
+		private boolean transfer(final List<Collectible<?>> transferables) {
 			LOGGER.log(LogService.LOG_DEBUG, "sender transfer " + transferables.size() + " transferables:"); //$NON-NLS-1$ //$NON-NLS-2$
 			for (final Collectible<?> transferable : transferables) {
 				LOGGER.log(LogService.LOG_DEBUG, " - " + transferable.toLogString()); //$NON-NLS-1$
 			}
 			try {
-				if (receiver.take(System.currentTimeMillis(), transferables)) {
+				if (take(transferables)) {
 					store.commitTransferred(transferables);
-					retrying = false;
+					return true;
 				} else {
 					throw new RuntimeException("Retry sending later because receiver rejected it."); //$NON-NLS-1$
 				}
 			} catch (final Throwable t) {
+				final long delay = nextRetryDelay();
 				LOGGER.log(LogService.LOG_DEBUG, "sending failed with: " + condense(t)); //$NON-NLS-1$
-				LOGGER.log(LogService.LOG_DEBUG, "retrying in " + retryTime + " milli seconds"); //$NON-NLS-1$ //$NON-NLS-2$
+				LOGGER.log(LogService.LOG_DEBUG, "retrying in " + delay + " milli seconds"); //$NON-NLS-1$ //$NON-NLS-2$
 				retrying = true;
-				schedule(retryTime);
+				schedule(delay);
+				return false;
 			}
 		}
 
+		private boolean take(final List<Collectible<?>> transferables) throws IOException {
+			final ICompactReceiver compact = compactReceiver;
+			final IReceiver fallback = receiver;
+			if (compact == null || fallback != null && System.currentTimeMillis() < compactReceiverRetryAt) {
+				return fallback.take(System.currentTimeMillis(), new ArrayList<Collectible<?>>(transferables));
+			}
+			RuntimeException failure = null;
+			try {
+				if (compact.take(System.currentTimeMillis(), CollectibleCodec.encode(transferables))) {
+					return true;
+				}
+			} catch (final RuntimeException e) {
+				failure = e;
+			}
+			if (fallback == null) {
+				return rejected(failure);
+			}
+			try {
+				if (!fallback.take(System.currentTimeMillis(), new ArrayList<Collectible<?>>(transferables))) {
+					return rejected(failure);
+				}
+			} catch (final RuntimeException e) {
+				// if both fail the compact receiver is not to blame
+				return rejected(failure != null ? failure : e);
+			}
+			compactReceiverRetryAt = System.currentTimeMillis() + maxRetryTime;
+			LOGGER.log(LogService.LOG_INFO, "Compact receiver " //$NON-NLS-1$
+					+ (failure == null ? "rejected the collectibles" : "failed with: " + condense(failure)) //$NON-NLS-1$ //$NON-NLS-2$
+					+ ", using the receiver for the next " + maxRetryTime + " milli seconds."); //$NON-NLS-1$ //$NON-NLS-2$
+			return true;
+		}
+
+		private boolean rejected(final RuntimeException failure) {
+			if (failure != null) {
+				throw failure;
+			}
+			return false;
+		}
+
+		private void succeeded() {
+			retrying = false;
+			failures = 0;
+		}
+
+		/**
+		 * The delay doubles with each failure up to {@code maxRetryTime}. It is
+		 * randomized to between half and the full delay so that clients that
+		 * failed at the same time do not retry at the same time.
+		 */
+		private long nextRetryDelay() {
+			final long doubled = retryTime << Math.min(failures++, 30);
+			final long delay = doubled < retryTime || doubled > maxRetryTime ? maxRetryTime : doubled;
+			return delay - (long) (random.nextDouble() * (delay / 2));
+		}
+
 		private final static String CAUSED_BY = " Caused by: "; //$NON-NLS-1$
 
 		private String condense(Throwable throwable) {
@@ -218,4 +366,32 @@ public class SimpleSender implements ISender, IExecutableExtension {
 		}
 	}
 
+	private static final int COLLECTIBLE_OVERHEAD = 128;
+	private static final int PAYLOAD_OVERHEAD = 256;
+
+	/**
+	 * Estimate the transfer size of the given collectible by the lengths of its
+	 * strings. Serializing it just to measure it would double the cost of a
+	 * transfer.
+	 */
+	private static long estimateSize(final Collectible<?> collectible) {
+		long size = COLLECTIBLE_OVERHEAD + length(collectible.getClientInfo()) + length(collectible.getCategory());
+		final Object payload = collectible.getPayload();
+		if (payload instanceof String) {
+			size += length((String) payload);
+		} else if (payload instanceof LogEntryTransferObject) {
+			final LogEntryTransferObject logEntry = (LogEntryTransferObject) payload;
+			size += length(logEntry.getBundleName()) + length(logEntry.getContext())
+					+ length(logEntry.getException()) + length(logEntry.getLoggerName())
+					+ length(logEntry.getMessage()) + length(logEntry.getThreadName());
+		} else if (payload != null) {
+			size += PAYLOAD_OVERHEAD;
+		}
+		return size;
+	}
+
+	private static int length(final String string) {
+		return string == null ? 0 : string.length();
+	}
+
 }
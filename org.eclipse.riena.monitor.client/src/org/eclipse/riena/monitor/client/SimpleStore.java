@@ -24,8 +24,10 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Random;
 import java.util.zip.DeflaterOutputStream;
 import java.util.zip.InflaterInputStream;
@@ -91,7 +93,7 @@ import org.eclipse.riena.monitor.common.Collectible;
  * &lt;/extension&gt;
  * </pre>
  */
-public class SimpleStore implements IStore, IExecutableExtension {
+public class SimpleStore implements IStreamingStore, IBulkStore, IExecutableExtension {
 
 	private File storeFolder;
 	private long cleanupDelay;
@@ -185,6 +187,13 @@ public class SimpleStore implements IStore, IExecutableExtension {
 		return true;
 	}
 
+	public synchronized boolean collectAll(final List<Collectible<?>> collectibles) {
+		for (final Collectible<?> collectible : collectibles) {
+			collect(collectible);
+		}
+		return true;
+	}
+
 	public synchronized void prepareTransferables(final String category) {
 		final File[] trans = storeFolder.listFiles(new FilenameFilter() {
 
@@ -206,12 +215,7 @@ public class SimpleStore implements IStore, IExecutableExtension {
 	}
 
 	public synchronized List<Collectible<?>> retrieveTransferables(final String category) {
-		final File[] transferables = storeFolder.listFiles(new FilenameFilter() {
-
-			public boolean accept(final File dir, final String name) {
-				return name.startsWith(category) && name.endsWith(TRANSFER_FILE_EXTENSION);
-			}
-		});
+		final File[] transferables = listTransferables(category);
 		final List<Collectible<?>> collectibles = new ArrayList<Collectible<?>>();
 		for (final File transferable : transferables) {
 			final Collectible<?> collectible = getCollectible(transferable);
@@ -222,6 +226,47 @@ public class SimpleStore implements IStore, IExecutableExtension {
 		return collectibles;
 	}
 
+	public synchronized Iterator<Collectible<?>> iterateTransferables(final String category) {
+		final File[] transferables = listTransferables(category);
+		return new Iterator<Collectible<?>>() {
+
+			private int index;
+			private Collectible<?> next;
+
+			public boolean hasNext() {
+				synchronized (SimpleStore.this) {
+					while (next == null && index < transferables.length) {
+						next = getCollectible(transferables[index++]);
+					}
+					return next != null;
+				}
+			}
+
+			public Collectible<?> next() {
+				if (!hasNext()) {
+					throw new NoSuchElementException();
+				}
+				final Collectible<?> result = next;
+				next = null;
+				return result;
+			}
+
+			public void remove() {
+				throw new UnsupportedOperationException();
+			}
+		};
+	}
+
+	private File[] listTransferables(final String category) {
+		final File[] transferables = storeFolder.listFiles(new FilenameFilter() {
+
+			public boolean accept(final File dir, final String name) {
+				return name.startsWith(category) && name.endsWith(TRANSFER_FILE_EXTENSION);
+			}
+		});
+		return transferables != null ? transferables : new File[0];
+	}
+
 	/**
 	 * Get the decryptor for storing the collectibles.
 	 * <p>
@@ -0,0 +1,296 @@
+/*******************************************************************************
+ * Copyright (c) 2007, 2014 compeople AG and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    compeople AG - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.riena.monitor.common;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.osgi.service.log.LogService;
+
+import org.eclipse.core.runtime.Assert;
+import org.eclipse.equinox.log.Logger;
+
+import org.eclipse.riena.core.Log4r;
+import org.eclipse.riena.core.util.Nop;
+
+/**
+ * A reusable {@code IReceiver} for the server side that accepts the received
+ * collectibles quickly and processes them asynchronously.
+ * <p>
+ * Received collectibles are put into a bounded queue and acknowledged at once,
+ * so a large upload does not tie up the request thread. A worker thread passes
+ * the collectibles of each call together with its sender time to the
+ * {@code ICollectibleSink}s. If the queue can not take all collectibles of a
+ * call the call is rejected and the client will retry later, i.e. the capacity
+ * should be well above the number of collectibles a client sends at once.
+ * Collectibles whose UUID has already been accepted recently are dropped, so
+ * retries of a client that did not get the acknowledgment do not result in
+ * duplicates.
+ * <p>
+ * Since the collectibles are acknowledged before they are processed, they are
+ * delivered to the sinks at most once: if a sink fails the collectibles are
+ * lost for this sink (the failure is logged), because the client has already
+ * committed them. The same applies to collectibles that are still queued when
+ * the server terminates. Sinks that must not lose collectibles have to retry
+ * or persist them on their own.
+ * <p>
+ * Example:
+ * 
+ * <pre>
+ * final BufferedReceiver receiver = new BufferedReceiver(new DatabaseSink());
+ * receiver.start();
+ * context.registerService(IReceiver.class.getName(), receiver, null);
+ * </pre>
+ * 
+ * @since 6.2
+ */
+public class BufferedReceiver implements IReceiver {
+
+	/**
+	 * The default number of collectibles that can be queued.
+	 */
+	public static final int CAPACITY_DEFAULT = 10000;
+
+	/**
+	 * The default number of UUIDs that are remembered for detecting
+	 * duplicates.
+	 */
+	public static final int REMEMBERED_UUIDS_DEFAULT = 100000;
+
+	private static final Call STOP = new Call(0, 0, Collections.<Collectible<?>> emptyList());
+
+	private final int capacity;
+	private final BlockingQueue<Call> queue = new LinkedBlockingQueue<Call>();
+	private final AtomicInteger pending = new AtomicInteger();
+	private final Set<UUID> recentUUIDs;
+	private final List<ICollectibleSink> sinks = new CopyOnWriteArrayList<ICollectibleSink>();
+	private volatile boolean started;
+	private Thread worker;
+
+	private static final Logger LOGGER = Log4r.getLogger(BufferedReceiver.class);
+
+	/**
+	 * Create a {@code BufferedReceiver} with the default capacity and the
+	 * default number of remembered UUIDs.
+	 * 
+	 * @param sinks
+	 *            the sinks
+	 */
+	public BufferedReceiver(final ICollectibleSink... sinks) {
+		this(CAPACITY_DEFAULT, REMEMBERED_UUIDS_DEFAULT, sinks);
+	}
+
+	/**
+	 * Create a {@code BufferedReceiver}.
+	 * 
+	 * @param capacity
+	 *            the number of collectibles that can be queued
+	 * @param rememberedUUIDs
+	 *            the number of UUIDs of accepted collectibles that are
+	 *            remembered for detecting duplicates
+	 * @param sinks
+	 *            the sinks
+	 */
+	public BufferedReceiver(final int capacity, final int rememberedUUIDs, final ICollectibleSink... sinks) {
+		Assert.isLegal(capacity > 0, "capacity must be greater than 0."); //$NON-NLS-1$
+		Assert.isLegal(rememberedUUIDs >= 0, "rememberedUUIDs must not be negative."); //$NON-NLS-1$
+		this.capacity = capacity;
+		recentUUIDs = Collections.newSetFromMap(new LinkedHashMap<UUID, Boolean>() {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(final Map.Entry<UUID, Boolean> eldest) {
+				return size() > rememberedUUIDs;
+			}
+		});
+		this.sinks.addAll(Arrays.asList(sinks));
+	}
+
+	/**
+	 * Add a sink.
+	 * 
+	 * @param sink
+	 *            the sink
+	 */
+	public void addSink(final ICollectibleSink sink) {
+		Assert.isNotNull(sink, "sink must not be null"); //$NON-NLS-1$
+		sinks.add(sink);
+	}
+
+	/**
+	 * Remove a sink.
+	 * 
+	 * @param sink
+	 *            the sink
+	 */
+	public void removeSink(final ICollectibleSink sink) {
+		sinks.remove(sink);
+	}
+
+	/**
+	 * Start the processing of received collectibles. Until then all calls to
+	 * {@link #take(long, List)} are rejected.
+	 * <p>
+	 * If the worker of a previous {@link #stop()} is still processing, this
+	 * waits until it has finished, so that the sinks are never called
+	 * concurrently.
+	 */
+	public synchronized void start() {
+		if (started) {
+			return;
+		}
+		if (worker != null) {
+			joinWorker(0);
+		}
+		worker = new Worker();
+		started = true;
+		worker.start();
+	}
+
+	/**
+	 * Stop accepting collectibles and wait (a limited time) until the already
+	 * accepted collectibles have been processed. The worker is not
+	 * interrupted, so a sink is never interrupted in the middle of a batch.
+	 */
+	public synchronized void stop() {
+		if (!started) {
+			return;
+		}
+		synchronized (recentUUIDs) {
+			// a concurrent take() has either queued its collectibles or will be rejected
+			started = false;
+			// the worker processes everything queued before it takes this
+			queue.add(STOP);
+		}
+		joinWorker(5000);
+	}
+
+	private void joinWorker(final long millis) {
+		try {
+			worker.join(millis);
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Get the number of collectibles that have been accepted but not yet
+	 * processed.
+	 * 
+	 * @return the number of pending collectibles
+	 */
+	public int getPending() {
+		return pending.get();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.eclipse.riena.monitor.common.IReceiver#take(long,
+	 * java.util.List)
+	 */
+	public boolean take(final long senderTime, final List<Collectible<?>> collectibles) {
+		synchronized (recentUUIDs) {
+			if (!started) {
+				return false;
+			}
+			final List<Collectible<?>> accepted = new ArrayList<Collectible<?>>(collectibles.size());
+			final Set<UUID> uuids = new HashSet<UUID>();
+			for (final Collectible<?> collectible : collectibles) {
+				final UUID uuid = collectible.getUUID();
+				if (uuid == null || !recentUUIDs.contains(uuid) && uuids.add(uuid)) {
+					accepted.add(collectible);
+				}
+			}
+			if (accepted.isEmpty()) {
+				return true;
+			}
+			// only this block adds to the pending collectibles, so they can only shrink meanwhile
+			final int remainingCapacity = capacity - pending.get();
+			if (remainingCapacity < accepted.size()) {
+				LOGGER.log(LogService.LOG_WARNING, "Rejected " + accepted.size() + " collectibles, only " //$NON-NLS-1$ //$NON-NLS-2$
+						+ remainingCapacity + " can be queued."); //$NON-NLS-1$
+				return false;
+			}
+			pending.addAndGet(accepted.size());
+			queue.add(new Call(senderTime, System.currentTimeMillis(), accepted));
+			recentUUIDs.addAll(uuids);
+		}
+		return true;
+	}
+
+	private void process(final Call call) {
+		final List<Collectible<?>> collectibles = Collections.unmodifiableList(call.collectibles);
+		for (final ICollectibleSink sink : sinks) {
+			try {
+				sink.process(call.senderTime, call.receiveTime, collectibles);
+			} catch (final Throwable t) {
+				// neither an exception nor an error of one sink must end the worker
+				LOGGER.log(LogService.LOG_ERROR, "Sink " + sink + " failed processing " + collectibles.size() //$NON-NLS-1$ //$NON-NLS-2$
+						+ " collectibles, they are lost for this sink.", t); //$NON-NLS-1$
+			}
+		}
+	}
+
+	/**
+	 * The accepted collectibles of one call of {@code take()}.
+	 */
+	private static final class Call {
+
+		private final long senderTime;
+		private final long receiveTime;
+		private final List<Collectible<?>> collectibles;
+
+		private Call(final long senderTime, final long receiveTime, final List<Collectible<?>> collectibles) {
+			this.senderTime = senderTime;
+			this.receiveTime = receiveTime;
+			this.collectibles = collectibles;
+		}
+	}
+
+	private final class Worker extends Thread {
+
+		private Worker() {
+			super("BufferedReceiver"); //$NON-NLS-1$
+			setDaemon(true);
+		}
+
+		@Override
+		public void run() {
+			while (true) {
+				final Call call;
+				try {
+					call = queue.take();
+				} catch (final InterruptedException e) {
+					Nop.reason("only stop() ends the worker, e.g. a sink may have left the interrupt flag set"); //$NON-NLS-1$
+					continue;
+				}
+				if (call == STOP) {
+					return;
+				}
+				pending.addAndGet(-call.collectibles.size());
+				process(call);
+			}
+		}
+	}
+
+}
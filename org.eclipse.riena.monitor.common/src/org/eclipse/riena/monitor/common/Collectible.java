@@ -62,6 +62,18 @@ public class Collectible<T extends Serializable> implements Serializable {
 		this.payload = payload;
 	}
 
+	/**
+	 * Restore a {@code Collectible}, used by the {@code CollectibleCodec}.
+	 */
+	Collectible(final String clientInfo, final String categoryName, final UUID uuid, final long collectionTime,
+			final T payload) {
+		this.clientInfo = clientInfo;
+		this.categoryName = categoryName;
+		this.uuid = uuid;
+		this.collectionTime = collectionTime;
+		this.payload = payload;
+	}
+
 	public String getClientInfo() {
 		return clientInfo;
 	}
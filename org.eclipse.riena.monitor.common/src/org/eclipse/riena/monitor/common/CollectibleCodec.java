@@ -0,0 +1,442 @@
+/*******************************************************************************
+ * Copyright (c) 2007, 2014 compeople AG and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    compeople AG - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.riena.monitor.common;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InvalidClassException;
+import java.io.ObjectInputStream;
+import java.io.ObjectStreamClass;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import org.eclipse.core.runtime.Assert;
+
+/**
+ * A compact and versioned binary encoding for batches of {@code Collectible}s
+ * as an alternative to the java serialization.
+ * <p>
+ * Each distinct string (e.g. logger names, host names or stack traces) is
+ * written only once per batch; repetitions refer to its first occurrence.
+ * Times are written as variable length deltas. Payloads of type
+ * {@code LogEntryTransferObject} and {@code String} are encoded field by field,
+ * all other payloads are java serialized.
+ * <p>
+ * Decoding does not trust the encoded lengths, i.e. it never allocates more
+ * memory than the input actually contains. Unless decoding is explicitly
+ * trusted, java serialized payloads are restricted to boxed primitives, dates
+ * and arrays of primitives, because the encoded collectibles may have been
+ * received from the network.
+ *
+ * @since 6.2
+ */
+public final class CollectibleCodec {
+
+	/**
+	 * The version of the encoding written by this codec.
+	 */
+	public static final int VERSION = 1;
+
+	private static final int MAGIC_1 = 'R';
+	private static final int MAGIC_2 = 'C';
+
+	private static final int PAYLOAD_SERIALIZED = 0;
+	private static final int PAYLOAD_LOG_ENTRY = 1;
+	private static final int PAYLOAD_STRING = 2;
+
+	private static final int NULL_STRING = 0;
+	private static final int NEW_STRING = 1;
+	private static final int STRING_REFERENCE_OFFSET = 2;
+
+	private static final Charset UTF_8 = Charset.forName("UTF-8"); //$NON-NLS-1$
+
+	private static final int READ_CHUNK_SIZE = 8192;
+
+	private static final Set<String> UNTRUSTED_PAYLOAD_CLASSES = new HashSet<String>(Arrays.asList(
+			"java.lang.Boolean", "java.lang.Byte", "java.lang.Character", "java.lang.Short", //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+			"java.lang.Integer", "java.lang.Long", "java.lang.Float", "java.lang.Double", "java.lang.Number", //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$
+			"java.util.Date", "[Z", "[B", "[C", "[S", "[I", "[J", "[F", "[D")); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$ //$NON-NLS-7$ //$NON-NLS-8$ //$NON-NLS-9$
+
+	private CollectibleCodec() {
+		// utility
+	}
+
+	/**
+	 * Encode the given collectibles.
+	 *
+	 * @param collectibles
+	 *            the collectibles
+	 * @return the encoded collectibles
+	 * @throws IOException
+	 *             if a payload can not be serialized
+	 */
+	public static byte[] encode(final List<? extends Collectible<?>> collectibles) throws IOException {
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 * collectibles.size() + 16);
+		encode(collectibles, bytes);
+		return bytes.toByteArray();
+	}
+
+	/**
+	 * Encode the given collectibles to the given stream.
+	 *
+	 * @param collectibles
+	 *            the collectibles
+	 * @param out
+	 *            the stream
+	 * @throws IOException
+	 */
+	public static void encode(final List<? extends Collectible<?>> collectibles, final OutputStream out)
+			throws IOException {
+		Assert.isNotNull(collectibles, "collectibles must not be null"); //$NON-NLS-1$
+		new Encoder(out).encode(collectibles);
+	}
+
+	/**
+	 * Decode collectibles. Java serialized payloads are restricted to boxed
+	 * primitives, dates and arrays of primitives.
+	 *
+	 * @param bytes
+	 *            the encoded collectibles
+	 * @return the collectibles
+	 * @throws IOException
+	 *             if the bytes are not a valid encoding
+	 */
+	public static List<Collectible<?>> decode(final byte[] bytes) throws IOException {
+		return decode(new ByteArrayInputStream(bytes));
+	}
+
+	/**
+	 * Decode collectibles from the given stream. Java serialized payloads are
+	 * restricted to boxed primitives, dates and arrays of primitives.
+	 *
+	 * @param in
+	 *            the stream
+	 * @return the collectibles
+	 * @throws IOException
+	 *             if the stream does not contain a valid encoding
+	 */
+	public static List<Collectible<?>> decode(final InputStream in) throws IOException {
+		return decode(in, false);
+	}
+
+	/**
+	 * Decode collectibles from the given stream.
+	 *
+	 * @param in
+	 *            the stream
+	 * @param trusted
+	 *            if true java serialized payloads of any class are accepted;
+	 *            this must only be used for encodings that have not been
+	 *            received from the network, e.g. from a local store
+	 * @return the collectibles
+	 * @throws IOException
+	 *             if the stream does not contain a valid encoding
+	 */
+	public static List<Collectible<?>> decode(final InputStream in, final boolean trusted) throws IOException {
+		return new Decoder(in, trusted).decode();
+	}
+
+	/**
+	 * Check whether the given bytes start like collectibles encoded by this
+	 * codec.
+	 *
+	 * @param bytes
+	 *            the bytes
+	 * @return true if encoded by this codec
+	 */
+	public static boolean isEncoded(final byte[] bytes) {
+		return bytes != null && bytes.length >= 3 && bytes[0] == MAGIC_1 && bytes[1] == MAGIC_2;
+	}
+
+	private static final class Encoder {
+
+		private final OutputStream out;
+		private final Map<String, Integer> strings = new HashMap<String, Integer>();
+
+		private Encoder(final OutputStream out) {
+			this.out = out;
+		}
+
+		private void encode(final List<? extends Collectible<?>> collectibles) throws IOException {
+			out.write(MAGIC_1);
+			out.write(MAGIC_2);
+			out.write(VERSION);
+			writeVarLong(collectibles.size());
+			long previousTime = 0;
+			for (final Collectible<?> collectible : collectibles) {
+				Assert.isNotNull(collectible.getUUID(), "collectible must have an UUID"); //$NON-NLS-1$
+				writeString(collectible.getClientInfo());
+				writeString(collectible.getCategory());
+				writeLong(collectible.getUUID().getMostSignificantBits());
+				writeLong(collectible.getUUID().getLeastSignificantBits());
+				writeZigZag(collectible.getCollectionTime() - previousTime);
+				previousTime = collectible.getCollectionTime();
+				writePayload(collectible.getPayload(), collectible.getCollectionTime());
+			}
+			out.flush();
+		}
+
+		private void writePayload(final Object payload, final long collectionTime) throws IOException {
+			if (payload != null && payload.getClass() == LogEntryTransferObject.class) {
+				final LogEntryTransferObject logEntry = (LogEntryTransferObject) payload;
+				out.write(PAYLOAD_LOG_ENTRY);
+				writeString(logEntry.getBundleName());
+				writeString(logEntry.getContext());
+				writeString(logEntry.getException());
+				writeString(logEntry.getLoggerName());
+				writeString(logEntry.getMessage());
+				writeString(logEntry.getThreadName());
+				writeZigZag(logEntry.getLevel());
+				writeZigZag(logEntry.getTime() - collectionTime);
+			} else if (payload instanceof String) {
+				out.write(PAYLOAD_STRING);
+				writeString((String) payload);
+			} else {
+				out.write(PAYLOAD_SERIALIZED);
+				final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+				final ObjectOutputStream objectos = new ObjectOutputStream(bytes);
+				objectos.writeObject(payload);
+				objectos.close();
+				writeVarLong(bytes.size());
+				bytes.writeTo(out);
+			}
+		}
+
+		private void writeString(final String string) throws IOException {
+			if (string == null) {
+				writeVarLong(NULL_STRING);
+				return;
+			}
+			final Integer index = strings.get(string);
+			if (index != null) {
+				writeVarLong(index + STRING_REFERENCE_OFFSET);
+				return;
+			}
+			strings.put(string, strings.size());
+			final byte[] utf8 = string.getBytes(UTF_8);
+			writeVarLong(NEW_STRING);
+			writeVarLong(utf8.length);
+			out.write(utf8);
+		}
+
+		private void writeLong(final long value) throws IOException {
+			for (int shift = 56; shift >= 0; shift -= 8) {
+				out.write((int) (value >>> shift));
+			}
+		}
+
+		private void writeZigZag(final long value) throws IOException {
+			writeVarLong((value << 1) ^ (value >> 63));
+		}
+
+		private void writeVarLong(long value) throws IOException {
+			while ((value & ~0x7FL) != 0) {
+				out.write((int) (value & 0x7F) | 0x80);
+				value >>>= 7;
+			}
+			out.write((int) value);
+		}
+	}
+
+	private static final class Decoder {
+
+		private final InputStream in;
+		private final boolean trusted;
+		private final List<String> strings = new ArrayList<String>();
+
+		private Decoder(final InputStream in, final boolean trusted) {
+			this.in = in;
+			this.trusted = trusted;
+		}
+
+		private List<Collectible<?>> decode() throws IOException {
+			if (read() != MAGIC_1 || read() != MAGIC_2) {
+				throw new IOException("Not encoded by the CollectibleCodec."); //$NON-NLS-1$
+			}
+			final int version = read();
+			if (version > VERSION) {
+				throw new IOException("Unsupported version " + version + " of the CollectibleCodec."); //$NON-NLS-1$ //$NON-NLS-2$
+			}
+			final int count = readLength();
+			final List<Collectible<?>> collectibles = new ArrayList<Collectible<?>>(Math.min(count, 1024));
+			long previousTime = 0;
+			for (int i = 0; i < count; i++) {
+				final String clientInfo = readString();
+				final String category = readString();
+				final UUID uuid = new UUID(readLong(), readLong());
+				final long collectionTime = previousTime + readZigZag();
+				previousTime = collectionTime;
+				final Serializable payload = readPayload(collectionTime);
+				collectibles.add(new Collectible<Serializable>(clientInfo, category, uuid, collectionTime, payload));
+			}
+			return collectibles;
+		}
+
+		private Serializable readPayload(final long collectionTime) throws IOException {
+			final int type = read();
+			switch (type) {
+			case PAYLOAD_LOG_ENTRY:
+				final String bundleName = readString();
+				final String context = readString();
+				final String exception = readString();
+				final String loggerName = readString();
+				final String message = readString();
+				final String threadName = readString();
+				final int level = (int) readZigZag();
+				final long time = collectionTime + readZigZag();
+				return new LogEntryTransferObject(bundleName, context, exception, level, loggerName, message,
+						threadName, time);
+			case PAYLOAD_STRING:
+				return readString();
+			case PAYLOAD_SERIALIZED:
+				final byte[] bytes = readBytes(readLength());
+				final ObjectInputStream objectis = trusted ? new ObjectInputStream(new ByteArrayInputStream(bytes))
+						: new RestrictedObjectInputStream(new ByteArrayInputStream(bytes));
+				try {
+					return (Serializable) objectis.readObject();
+				} catch (final ClassNotFoundException e) {
+					throw new IOException("Could not deserialize payload.", e); //$NON-NLS-1$
+				} finally {
+					objectis.close();
+				}
+			default:
+				throw new IOException("Unknown payload type " + type + "."); //$NON-NLS-1$ //$NON-NLS-2$
+			}
+		}
+
+		private String readString() throws IOException {
+			final long reference = readVarLong();
+			if (reference == NULL_STRING) {
+				return null;
+			}
+			if (reference == NEW_STRING) {
+				final String string = new String(readBytes(readLength()), UTF_8);
+				strings.add(string);
+				return string;
+			}
+			if (reference < 0 || reference - STRING_REFERENCE_OFFSET >= strings.size()) {
+				throw new IOException("Bad string reference " + reference + "."); //$NON-NLS-1$ //$NON-NLS-2$
+			}
+			return strings.get((int) (reference - STRING_REFERENCE_OFFSET));
+		}
+
+		/**
+		 * Larger lengths are read in chunks so that a bad length fails with
+		 * the end of the input instead of allocating its size up front.
+		 */
+		private byte[] readBytes(final int length) throws IOException {
+			if (length <= READ_CHUNK_SIZE) {
+				final byte[] bytes = new byte[length];
+				readFully(bytes, length);
+				return bytes;
+			}
+			final ByteArrayOutputStream bytes = new ByteArrayOutputStream(READ_CHUNK_SIZE);
+			final byte[] chunk = new byte[READ_CHUNK_SIZE];
+			int remaining = length;
+			while (remaining > 0) {
+				final int chunkLength = Math.min(remaining, READ_CHUNK_SIZE);
+				readFully(chunk, chunkLength);
+				bytes.write(chunk, 0, chunkLength);
+				remaining -= chunkLength;
+			}
+			return bytes.toByteArray();
+		}
+
+		private void readFully(final byte[] bytes, final int length) throws IOException {
+			int offset = 0;
+			while (offset < length) {
+				final int read = in.read(bytes, offset, length - offset);
+				if (read == -1) {
+					throw new EOFException();
+				}
+				offset += read;
+			}
+		}
+
+		private int readLength() throws IOException {
+			final long length = readVarLong();
+			if (length < 0 || length > Integer.MAX_VALUE) {
+				throw new IOException("Bad length " + length + "."); //$NON-NLS-1$ //$NON-NLS-2$
+			}
+			return (int) length;
+		}
+
+		private long readLong() throws IOException {
+			long value = 0;
+			for (int i = 0; i < 8; i++) {
+				value = value << 8 | read();
+			}
+			return value;
+		}
+
+		private long readZigZag() throws IOException {
+			final long value = readVarLong();
+			return value >>> 1 ^ -(value & 1);
+		}
+
+		private long readVarLong() throws IOException {
+			long value = 0;
+			for (int shift = 0; shift < 64; shift += 7) {
+				final int b = read();
+				value |= (long) (b & 0x7F) << shift;
+				if ((b & 0x80) == 0) {
+					return value;
+				}
+			}
+			throw new IOException("Malformed variable length number."); //$NON-NLS-1$
+		}
+
+		private int read() throws IOException {
+			final int b = in.read();
+			if (b == -1) {
+				throw new EOFException();
+			}
+			return b;
+		}
+	}
+
+	/**
+	 * Deserializes only the classes of {@code UNTRUSTED_PAYLOAD_CLASSES}.
+	 */
+	private static final class RestrictedObjectInputStream extends ObjectInputStream {
+
+		private RestrictedObjectInputStream(final InputStream in) throws IOException {
+			super(in);
+		}
+
+		@Override
+		protected Class<?> resolveClass(final ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+			if (!UNTRUSTED_PAYLOAD_CLASSES.contains(desc.getName())) {
+				throw new InvalidClassException(desc.getName(), "Payload class is not allowed."); //$NON-NLS-1$
+			}
+			return super.resolveClass(desc);
+		}
+
+		@Override
+		protected Class<?> resolveProxyClass(final String[] interfaces) throws IOException {
+			throw new InvalidClassException("Proxy payloads are not allowed."); //$NON-NLS-1$
+		}
+	}
+
+}
@@ -0,0 +1,57 @@
+/*******************************************************************************
+ * Copyright (c) 2007, 2014 compeople AG and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    compeople AG - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.riena.monitor.common;
+
+import java.io.IOException;
+
+import org.eclipse.core.runtime.Assert;
+
+/**
+ * An {@code ICompactReceiver} that decodes the received collectibles and
+ * passes them on to an {@code IReceiver}. This allows to publish an existing
+ * {@code IReceiver} as {@code ICompactReceiver}, e.g.:
+ * 
+ * <pre>
+ * context.registerService(ICompactReceiver.class.getName(), new CompactReceiver(receiver), null);
+ * </pre>
+ * 
+ * @since 6.2
+ */
+public class CompactReceiver implements ICompactReceiver {
+
+	private final IReceiver receiver;
+
+	/**
+	 * Create a {@code CompactReceiver} for the given receiver.
+	 * 
+	 * @param receiver
+	 *            the receiver of the decoded collectibles
+	 */
+	public CompactReceiver(final IReceiver receiver) {
+		Assert.isNotNull(receiver, "receiver must not be null"); //$NON-NLS-1$
+		this.receiver = receiver;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 * @throws IllegalArgumentException
+	 *             if the collectibles can not be decoded
+	 */
+	public boolean take(final long senderTime, final byte[] collectibles) {
+		try {
+			return receiver.take(senderTime, CollectibleCodec.decode(collectibles));
+		} catch (final IOException e) {
+			throw new IllegalArgumentException("Could not decode the received collectibles.", e); //$NON-NLS-1$
+		}
+	}
+
+}
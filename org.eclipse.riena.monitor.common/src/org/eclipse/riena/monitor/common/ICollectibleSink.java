@@ -0,0 +1,41 @@
+/*******************************************************************************
+ * Copyright (c) 2007, 2014 compeople AG and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    compeople AG - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.riena.monitor.common;
+
+import java.util.List;
+
+/**
+ * A sink processes the collectibles that have been accepted by a
+ * {@code BufferedReceiver}, e.g. by writing them to a database.
+ * 
+ * @see BufferedReceiver
+ * @since 6.2
+ */
+public interface ICollectibleSink {
+
+	/**
+	 * Process the collectibles of one call of {@code IReceiver.take()}. This is
+	 * called from the worker thread of the {@code BufferedReceiver} only.
+	 * <p>
+	 * The skew of the client's clock is {@code senderTime - receiveTime}
+	 * (ignoring the transfer time), i.e. the collection times of the
+	 * collectibles can be corrected by subtracting it.
+	 * 
+	 * @param senderTime
+	 *            the client time (ms) these collectibles have been sent
+	 * @param receiveTime
+	 *            the server time (ms) these collectibles have been received
+	 * @param collectibles
+	 *            an unmodifiable list of collectibles
+	 */
+	void process(long senderTime, long receiveTime, List<Collectible<?>> collectibles);
+
+}
@@ -69,6 +69,22 @@ public class LogEntryTransferObject implements Serializable {
 		this.time = logEntry.getTime();
 	}
 
+	/**
+	 * Restore a {@code LogEntryTransferObject}, used by the
+	 * {@code CollectibleCodec}.
+	 */
+	LogEntryTransferObject(final String bundleName, final String context, final String exception, final int level,
+			final String loggerName, final String message, final String threadName, final long time) {
+		this.bundleName = bundleName;
+		this.context = context;
+		this.exception = exception;
+		this.level = level;
+		this.loggerName = loggerName;
+		this.message = message;
+		this.threadName = threadName;
+		this.time = time;
+	}
+
 	/**
 	 * @return the bundleName
 	 */
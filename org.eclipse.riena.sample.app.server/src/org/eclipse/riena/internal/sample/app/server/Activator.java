@@ -18,6 +18,8 @@ import org.osgi.framework.ServiceRegistration;
 import org.eclipse.riena.communication.core.publisher.RSDPublisherProperties;
 import org.eclipse.riena.communication.publisher.Publish;
 import org.eclipse.riena.core.RienaPlugin;
+import org.eclipse.riena.monitor.common.CompactReceiver;
+import org.eclipse.riena.monitor.common.ICompactReceiver;
 import org.eclipse.riena.monitor.common.IReceiver;
 import org.eclipse.riena.sample.app.common.ITestcasesWS;
 import org.eclipse.riena.sample.app.common.attachment.IAttachmentService;
@@ -39,9 +41,10 @@ public class Activator extends RienaPlugin {
 	private ServiceRegistration regCustomerSearch;
 	private ServiceRegistration regCustomers;
 	private final HelloWorldService helloWorldService;
-	private final IReceiver monitoringReceiver;
+	private final SimpleMonitoringReceiver monitoringReceiver;
 	private ServiceRegistration regHelloWorldService;
 	private ServiceRegistration regCollectibleReceiver;
+	private ServiceRegistration regCompactCollectibleReceiver;
 	private ServiceRegistration regAttachmentService;
 
 	// The shared instance
@@ -158,9 +161,15 @@ public class Activator extends RienaPlugin {
 
 	private void startCollectibleReceiver(final BundleContext context) {
 
+		monitoringReceiver.start();
 		regCollectibleReceiver = context.registerService(IReceiver.class.getName(), monitoringReceiver, null);
 		Publish.service(IReceiver.class).usingPath("/CollectibleReceiverWS").withProtocol(REMOTE_PROTOCOL_HESSIAN) //$NON-NLS-1$
 				.andStart(context);
+
+		regCompactCollectibleReceiver = context.registerService(ICompactReceiver.class.getName(),
+				new CompactReceiver(monitoringReceiver), null);
+		Publish.service(ICompactReceiver.class).usingPath("/CompactCollectibleReceiverWS") //$NON-NLS-1$
+				.withProtocol(REMOTE_PROTOCOL_HESSIAN).andStart(context);
 	}
 
 	private void startTestGregorianCalendar(final BundleContext context) {
@@ -178,6 +187,9 @@ public class Activator extends RienaPlugin {
 	public void stopCollectibleReceiver() {
 		regCollectibleReceiver.unregister();
 		regCollectibleReceiver = null;
+		regCompactCollectibleReceiver.unregister();
+		regCompactCollectibleReceiver = null;
+		monitoringReceiver.stop();
 	}
 
 	private void startAttachmentService(final BundleContext context) {
@@ -10,29 +10,26 @@
  *******************************************************************************/
 package org.eclipse.riena.internal.sample.app.server;
 
-import java.util.Date;
 import java.util.List;
 
+import org.eclipse.riena.monitor.common.BufferedReceiver;
 import org.eclipse.riena.monitor.common.Collectible;
-import org.eclipse.riena.monitor.common.IReceiver;
+import org.eclipse.riena.monitor.common.ICollectibleSink;
 
 /**
- *
+ * Accepts the collectibles quickly and prints them in the background.
  */
-public class SimpleMonitoringReceiver implements IReceiver {
+public class SimpleMonitoringReceiver extends BufferedReceiver {
 
-	/*
-	 * (non-Javadoc)
-	 * 
-	 * @see org.eclipse.riena.monitor.common.ICollectibleReceiver#take(long,
-	 * java.util.List)
-	 */
-	public boolean take(final long senderTime, final List<Collectible<?>> collectibles) {
-		System.out.println("Received " + collectibles.size() + " collectibles at " + new Date(senderTime) //$NON-NLS-1$ //$NON-NLS-2$
-				+ " sender time."); //$NON-NLS-1$
-		for (final Collectible<?> received : collectibles) {
-			System.out.println(" - " + received); //$NON-NLS-1$
-		}
-		return true;
+	public SimpleMonitoringReceiver() {
+		super(new ICollectibleSink() {
+			public void process(final long senderTime, final long receiveTime, final List<Collectible<?>> collectibles) {
+				System.out.println("Received " + collectibles.size() + " collectibles, client clock skew is " //$NON-NLS-1$ //$NON-NLS-2$
+						+ (senderTime - receiveTime) + " ms."); //$NON-NLS-1$
+				for (final Collectible<?> received : collectibles) {
+					System.out.println(" - " + received); //$NON-NLS-1$
+				}
+			}
+		});
 	}
 }
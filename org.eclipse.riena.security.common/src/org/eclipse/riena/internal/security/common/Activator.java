@@ -10,11 +10,15 @@
  *******************************************************************************/
 package org.eclipse.riena.internal.security.common;
 
+import javax.security.auth.Subject;
+
 import org.osgi.framework.BundleContext;
 
+import org.eclipse.riena.communication.core.factory.ICurrentSubjectProvider;
 import org.eclipse.riena.communication.core.hooks.ICallHook;
 import org.eclipse.riena.core.RienaConstants;
 import org.eclipse.riena.core.RienaPlugin;
+import org.eclipse.riena.core.service.Service;
 import org.eclipse.riena.core.util.ContainerModel;
 import org.eclipse.riena.core.wire.Wire;
 import org.eclipse.riena.internal.security.common.authorization.PermissionCache;
@@ -62,6 +66,13 @@ public class Activator extends RienaPlugin {
 	private void createSubjectHolder() {
 		getContext().registerService(ISubjectHolder.class.getName(),
 				ContainerModel.isClient() ? new SimpleSubjectHolder() : new SimpleThreadedSubjectHolder(), null);
+		// the results of cacheable remote calls are cached per subject of the subject holder
+		getContext().registerService(ICurrentSubjectProvider.class.getName(), new ICurrentSubjectProvider() {
+			public Subject getCurrentSubject() {
+				final ISubjectHolder subjectHolder = Service.get(ISubjectHolder.class);
+				return subjectHolder != null ? subjectHolder.getSubject() : null;
+			}
+		}, null);
 	}
 
 	private void createSecurityCallHook() {
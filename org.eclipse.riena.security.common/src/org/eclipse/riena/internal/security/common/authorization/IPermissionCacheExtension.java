@@ -10,6 +10,8 @@
  *******************************************************************************/
 package org.eclipse.riena.internal.security.common.authorization;
 
+import org.eclipse.riena.core.cache.IGenericObjectCache;
+import org.eclipse.riena.core.injector.extension.DefaultValue;
 import org.eclipse.riena.core.injector.extension.ExtensionInterface;
 
 /**
@@ -28,4 +30,20 @@ public interface IPermissionCacheExtension {
 	 */
 	int getTimeout();
 
+	/**
+	 * @return the maximum number of entries held in the cache; only supported
+	 *         by the {@code TinyLFUCache}, 0 keeps its default
+	 */
+	@DefaultValue("0")
+	int getMaximumSize();
+
+	/**
+	 * Create the cache implementation that should be used, e.g.
+	 * {@code org.eclipse.riena.core.cache.TinyLFUCache}. If not defined the
+	 * {@code GenericObjectCache} will be used.
+	 * 
+	 * @return the cache or {@code null}
+	 */
+	IGenericObjectCache<String, ?> createCache();
+
 }
@@ -16,13 +16,15 @@ import java.security.Principal;
 import javax.security.auth.Subject;
 
 import org.eclipse.riena.core.cache.GenericObjectCache;
+import org.eclipse.riena.core.cache.IGenericObjectCache;
+import org.eclipse.riena.core.cache.TinyLFUCache;
 import org.eclipse.riena.core.util.ContainerModel;
 import org.eclipse.riena.core.wire.InjectExtension;
 import org.eclipse.riena.security.common.authorization.IPermissionCache;
 
 public class PermissionCache implements IPermissionCache {
 
-	private final GenericObjectCache<String, Permissions> permCache = new GenericObjectCache<String, Permissions>();
+	private volatile IGenericObjectCache<String, Permissions> permCache = new GenericObjectCache<String, Permissions>();
 
 	public PermissionCache() {
 		super();
@@ -52,12 +54,28 @@ public class PermissionCache implements IPermissionCache {
 	public void purgePermissions(final Principal principal) {
 	}
 
+	@SuppressWarnings("unchecked")
 	@InjectExtension(min = 0, max = 1)
 	public void update(final IPermissionCacheExtension permissionCacheExtension) {
 		if (permissionCacheExtension != null) {
-			permCache.setMinimumSize(permissionCacheExtension.getMinimumSize());
+			IGenericObjectCache<String, Permissions> cache = (IGenericObjectCache<String, Permissions>) permissionCacheExtension
+					.createCache();
+			if (cache == null) {
+				cache = permCache;
+			} else {
+				// take over the settings of the replaced cache
+				cache.setName("PermissionCache"); //$NON-NLS-1$
+				cache.setMinimumSize(permCache.getMinimumSize());
+				cache.setTimeout(permCache.getTimeout());
+			}
+			cache.setMinimumSize(permissionCacheExtension.getMinimumSize());
 			final int timeout = permissionCacheExtension.getTimeout();
-			permCache.setTimeout(timeout == -1 ? Integer.MAX_VALUE : timeout);
+			cache.setTimeout(timeout == -1 ? Integer.MAX_VALUE : timeout);
+			final int maximumSize = permissionCacheExtension.getMaximumSize();
+			if (maximumSize > 0 && cache instanceof TinyLFUCache) {
+				((TinyLFUCache<String, Permissions>) cache).setMaximumSize(maximumSize);
+			}
+			permCache = cache;
 		}
 	}
 }
@@ -10,14 +10,15 @@
  *******************************************************************************/
 package org.eclipse.riena.internal.security.server;
 
-import java.security.Principal;
 import java.util.Hashtable;
 
 import org.osgi.framework.BundleContext;
+import org.osgi.framework.ServiceRegistration;
 
 import org.eclipse.riena.core.RienaPlugin;
-import org.eclipse.riena.core.cache.GenericObjectCache;
 import org.eclipse.riena.core.cache.IGenericObjectCache;
+import org.eclipse.riena.core.wire.Wire;
+import org.eclipse.riena.core.wire.WirePuller;
 
 /**
  * The activator class controls the plug-in life cycle
@@ -30,6 +31,9 @@ public class Activator extends RienaPlugin {
 	// The shared instance
 	private static Activator plugin;
 
+	private WirePuller principalCacheWiring;
+	private ServiceRegistration principalCacheRegistration;
+
 	/**
 	 * The constructor
 	 */
@@ -40,15 +44,24 @@ public class Activator extends RienaPlugin {
 	public void start(final BundleContext context) throws Exception {
 		super.start(context);
 		Activator.plugin = this;
-		final GenericObjectCache<String, Principal[]> principalCache = new GenericObjectCache<String, Principal[]>();
-		principalCache.setName("principalCache"); //$NON-NLS-1$
+		final PrincipalCache principalCache = new PrincipalCache();
+		principalCacheWiring = Wire.instance(principalCache).andStart(context);
 		final Hashtable<String, String> props = new Hashtable<String, String>();
 		props.put("cache.type", "PrincipalCache"); //$NON-NLS-1$ //$NON-NLS-2$
-		context.registerService(IGenericObjectCache.class.getName(), principalCache, props);
+		principalCacheRegistration = context.registerService(IGenericObjectCache.class.getName(), principalCache,
+				props);
 	}
 
 	@Override
 	public void stop(final BundleContext context) throws Exception {
+		if (principalCacheRegistration != null) {
+			principalCacheRegistration.unregister();
+			principalCacheRegistration = null;
+		}
+		if (principalCacheWiring != null) {
+			principalCacheWiring.stop();
+			principalCacheWiring = null;
+		}
 		Activator.plugin = null;
 		super.stop(context);
 	}
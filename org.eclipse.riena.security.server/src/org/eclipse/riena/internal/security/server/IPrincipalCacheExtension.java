@@ -0,0 +1,52 @@
+/*******************************************************************************
+ * Copyright (c) 2007, 2014 compeople AG and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    compeople AG - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.riena.internal.security.server;
+
+import org.eclipse.riena.core.cache.IGenericObjectCache;
+import org.eclipse.riena.core.injector.extension.DefaultValue;
+import org.eclipse.riena.core.injector.extension.ExtensionInterface;
+
+/**
+ * {@code ExtensionInterface} for the configuration of the principal cache.
+ */
+@ExtensionInterface(id = "principalCacheConfig")
+public interface IPrincipalCacheExtension {
+
+	/**
+	 * @return the minimum number of entries held in the cache
+	 */
+	@DefaultValue("0")
+	int getMinimumSize();
+
+	/**
+	 * @return the timeout in milliseconds, -1 maps to
+	 *         {@code Integer.MAX_VALUE}
+	 */
+	@DefaultValue("60000")
+	int getTimeout();
+
+	/**
+	 * @return the maximum number of entries held in the cache; only supported
+	 *         by the {@code TinyLFUCache}, 0 keeps its default
+	 */
+	@DefaultValue("0")
+	int getMaximumSize();
+
+	/**
+	 * Create the cache implementation that should be used, e.g.
+	 * {@code org.eclipse.riena.core.cache.TinyLFUCache}. If not defined the
+	 * {@code GenericObjectCache} will be used.
+	 * 
+	 * @return the cache or {@code null}
+	 */
+	IGenericObjectCache<String, ?> createCache();
+
+}
@@ -0,0 +1,124 @@
+/*******************************************************************************
+ * Copyright (c) 2007, 2014 compeople AG and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    compeople AG - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.riena.internal.security.server;
+
+import java.security.Principal;
+
+import org.eclipse.riena.core.cache.GenericObjectCache;
+import org.eclipse.riena.core.cache.IGenericObjectCache;
+import org.eclipse.riena.core.cache.TinyLFUCache;
+import org.eclipse.riena.core.wire.InjectExtension;
+
+/**
+ * The principal cache registered as {@code IGenericObjectCache} service with
+ * {@code cache.type=PrincipalCache}. It delegates to the cache implementation
+ * selected by the {@code principalCacheConfig} extension, by default a
+ * {@code GenericObjectCache}.
+ */
+public class PrincipalCache implements IGenericObjectCache<String, Principal[]> {
+
+	private static final String NAME = "principalCache"; //$NON-NLS-1$
+
+	private volatile IGenericObjectCache<String, Principal[]> delegate;
+
+	public PrincipalCache() {
+		final IGenericObjectCache<String, Principal[]> cache = new GenericObjectCache<String, Principal[]>();
+		cache.setName(NAME);
+		delegate = cache;
+	}
+
+	@SuppressWarnings("unchecked")
+	@InjectExtension(min = 0, max = 1)
+	public void update(final IPrincipalCacheExtension principalCacheExtension) {
+		if (principalCacheExtension == null) {
+			return;
+		}
+		IGenericObjectCache<String, Principal[]> cache = (IGenericObjectCache<String, Principal[]>) principalCacheExtension
+				.createCache();
+		if (cache == null) {
+			cache = delegate;
+		} else {
+			carryOver(delegate, cache);
+		}
+		cache.setMinimumSize(principalCacheExtension.getMinimumSize());
+		final int timeout = principalCacheExtension.getTimeout();
+		cache.setTimeout(timeout == -1 ? Integer.MAX_VALUE : timeout);
+		final int maximumSize = principalCacheExtension.getMaximumSize();
+		if (maximumSize > 0 && cache instanceof TinyLFUCache) {
+			((TinyLFUCache<String, Principal[]>) cache).setMaximumSize(maximumSize);
+		}
+		delegate = cache;
+	}
+
+	/**
+	 * Take over the settings of the replaced cache, e.g. a timeout set on this
+	 * service before the extension has been injected.
+	 */
+	private static void carryOver(final IGenericObjectCache<String, Principal[]> from,
+			final IGenericObjectCache<String, Principal[]> to) {
+		to.setName(NAME);
+		to.setTimeout(from.getTimeout());
+		to.setMinimumSize(from.getMinimumSize());
+		if (from instanceof TinyLFUCache && to instanceof TinyLFUCache) {
+			((TinyLFUCache<String, Principal[]>) to).setMaximumSize(((TinyLFUCache<String, Principal[]>) from)
+					.getMaximumSize());
+		}
+	}
+
+	public Principal[] get(final String key) {
+		return delegate.get(key);
+	}
+
+	public void put(final String key, final Principal[] value) {
+		delegate.put(key, value);
+	}
+
+	public void remove(final String key) {
+		delegate.remove(key);
+	}
+
+	public void clear() {
+		delegate.clear();
+	}
+
+	public void setTimeout(final int milliseconds) {
+		delegate.setTimeout(milliseconds);
+	}
+
+	public int size() {
+		return delegate.size();
+	}
+
+	public void setMinimumSize(final int minSize) {
+		delegate.setMinimumSize(minSize);
+	}
+
+	public int getTimeout() {
+		return delegate.getTimeout();
+	}
+
+	public int getMinimumSize() {
+		return delegate.getMinimumSize();
+	}
+
+	public void setName(final String name) {
+		delegate.setName(name);
+	}
+
+	public int getSize() {
+		return delegate.getSize();
+	}
+
+	public String getStatistic() {
+		return delegate.getStatistic();
+	}
+
+}
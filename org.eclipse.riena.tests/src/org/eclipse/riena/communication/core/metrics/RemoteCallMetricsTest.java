@@ -0,0 +1,97 @@
+/*******************************************************************************
+ * Copyright (c) 2007, 2014 compeople AG and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    compeople AG - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.riena.communication.core.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+
+import javax.management.ObjectName;
+
+import org.eclipse.riena.core.test.RienaTestCase;
+import org.eclipse.riena.core.test.collect.NonUITestCase;
+
+/**
+ * Tests the {@code RemoteCallMetrics} and the {@code MethodMetrics}.
+ */
+@NonUITestCase
+public class RemoteCallMetricsTest extends RienaTestCase {
+
+	private static final String SERVICE = RemoteCallMetricsTest.class.getName();
+
+	public void testGetCreatesMetricsOnce() {
+		final MethodMetrics metrics = RemoteCallMetrics.getCallMetrics().get(SERVICE, "testGetCreatesMetricsOnce");
+		assertSame(metrics, RemoteCallMetrics.getCallMetrics().get(SERVICE, "testGetCreatesMetricsOnce"));
+		assertNotSame(metrics, RemoteCallMetrics.getServiceMetrics().get(SERVICE, "testGetCreatesMetricsOnce"));
+		assertEquals(SERVICE, metrics.getServiceInterfaceName());
+		assertEquals("testGetCreatesMetricsOnce", metrics.getMethodName());
+		assertTrue(RemoteCallMetrics.getCallMetrics().getAll().contains(metrics));
+	}
+
+	public void testRecordCall() {
+		final MethodMetrics metrics = RemoteCallMetrics.getCallMetrics().get(SERVICE, "testRecordCall");
+		metrics.recordCall(TimeUnit.MICROSECONDS.toNanos(100), false);
+		metrics.recordCall(TimeUnit.MICROSECONDS.toNanos(300), true);
+		metrics.recordSizes(10, 1000);
+		metrics.recordSizes(-1, 500);
+
+		assertEquals(2, metrics.getCallCount());
+		assertEquals(1, metrics.getFailureCount());
+		assertEquals(200, metrics.getMeanLatencyMicros());
+		assertEquals(300, metrics.getMaxLatencyMicros());
+		assertEquals(10, metrics.getRequestBytes());
+		assertEquals(1500, metrics.getResponseBytes());
+
+		metrics.reset();
+		assertEquals(0, metrics.getCallCount());
+		assertEquals(0, metrics.getFailureCount());
+		assertEquals(0, metrics.getMaxLatencyMicros());
+		assertEquals(0, metrics.getResponseBytes());
+		assertEquals(0, metrics.getMedianLatencyMicros());
+	}
+
+	public void testLatencyHistogram() {
+		final MethodMetrics metrics = RemoteCallMetrics.getCallMetrics().get(SERVICE, "testLatencyHistogram");
+		for (int i = 0; i < 98; i++) {
+			metrics.recordCall(TimeUnit.MICROSECONDS.toNanos(100), false);
+		}
+		metrics.recordCall(TimeUnit.MILLISECONDS.toNanos(10), false);
+		metrics.recordCall(TimeUnit.MILLISECONDS.toNanos(20), false);
+
+		final long[] histogram = metrics.getLatencyHistogram();
+		assertEquals(MethodMetrics.LATENCY_BUCKETS, histogram.length);
+		// 64 <= 100 < 128
+		assertEquals(98, histogram[7]);
+		// 8192 <= 10000 < 16384
+		assertEquals(1, histogram[14]);
+		assertEquals(128, metrics.getMedianLatencyMicros());
+		assertEquals(128, metrics.getLatencyPercentileMicros(98));
+		assertEquals(16384, metrics.getPercentile99LatencyMicros());
+		assertEquals(32768, metrics.getLatencyPercentileMicros(100));
+	}
+
+	public void testSlowCallsAreInLastBucket() {
+		final MethodMetrics metrics = RemoteCallMetrics.getCallMetrics().get(SERVICE, "testSlowCallsAreInLastBucket");
+		metrics.recordCall(TimeUnit.HOURS.toNanos(1), false);
+		assertEquals(1, metrics.getLatencyHistogram()[MethodMetrics.LATENCY_BUCKETS - 1]);
+		assertEquals(TimeUnit.HOURS.toMicros(1), metrics.getMedianLatencyMicros());
+	}
+
+	public void testRegisteredAsMXBean() throws Exception {
+		final MethodMetrics metrics = RemoteCallMetrics.getServiceMetrics().get(SERVICE, "testRegisteredAsMXBean");
+		metrics.recordCall(1000, false);
+		final ObjectName name = new ObjectName("org.eclipse.riena.communication:type=RemoteCallMetrics,side=service,service="
+				+ SERVICE + ",method=testRegisteredAsMXBean");
+		assertEquals(1L, ManagementFactory.getPlatformMBeanServer().getAttribute(name, "CallCount"));
+		assertEquals(MethodMetrics.LATENCY_BUCKETS,
+				((long[]) ManagementFactory.getPlatformMBeanServer().getAttribute(name, "LatencyHistogram")).length);
+	}
+
+}
@@ -0,0 +1,83 @@
+/*******************************************************************************
+ * Copyright (c) 2007, 2014 compeople AG and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    compeople AG - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.riena.communication.core.progressmonitor;
+
+import org.eclipse.riena.communication.core.progressmonitor.IRemoteProgressMonitorRegistry.RemovalPolicy;
+import org.eclipse.riena.core.test.RienaTestCase;
+import org.eclipse.riena.core.test.collect.NonUITestCase;
+
+/**
+ * Tests the {@code ProgressMonitorRegistryImpl}.
+ */
+@NonUITestCase
+public class ProgressMonitorRegistryImplTest extends RienaTestCase {
+
+	private ProgressMonitorRegistryImpl registry;
+	private Object callProxy;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		registry = new ProgressMonitorRegistryImpl();
+		callProxy = new Object();
+	}
+
+	public void testNoProgressMonitors() {
+		assertNull(registry.getProgressMonitors(callProxy));
+	}
+
+	public void testProgressMonitorListIsShared() {
+		final CountingProgressMonitor monitor = new CountingProgressMonitor();
+		registry.addProgressMonitor(callProxy, monitor, RemovalPolicy.AFTER_ALL_CALLS);
+		final IRemoteProgressMonitorList list = registry.getProgressMonitors(callProxy);
+		assertNotNull(list);
+		assertSame(list, registry.getProgressMonitors(callProxy));
+
+		list.fireReadEvent(-1, 4711);
+		assertEquals(1, monitor.responses);
+	}
+
+	public void testRemoveProgressMonitor() {
+		final CountingProgressMonitor monitor1 = new CountingProgressMonitor();
+		final CountingProgressMonitor monitor2 = new CountingProgressMonitor();
+		registry.addProgressMonitor(callProxy, monitor1, RemovalPolicy.AFTER_ALL_CALLS);
+		registry.addProgressMonitor(callProxy, monitor2, RemovalPolicy.AFTER_ALL_CALLS);
+		registry.removeProgressMonitor(monitor1);
+
+		registry.getProgressMonitors(callProxy).fireWriteEvent(-1, 4711);
+		assertEquals(0, monitor1.requests);
+		assertEquals(1, monitor2.requests);
+
+		registry.removeAllProgressMonitors(callProxy);
+		assertNull(registry.getProgressMonitors(callProxy));
+	}
+
+	private static class CountingProgressMonitor implements IRemoteProgressMonitor {
+
+		private int requests;
+		private int responses;
+
+		public void start() {
+		}
+
+		public void end() {
+		}
+
+		public void request(final RemoteProgressMonitorEvent event) {
+			requests++;
+		}
+
+		public void response(final RemoteProgressMonitorEvent event) {
+			responses++;
+		}
+	}
+
+}
@@ -32,6 +32,12 @@ import org.eclipse.riena.sample.app.common.attachment.IAttachmentService;
 @ManualTestCase
 public final class RemoteProgressMonitorITest extends RienaTestCase {
 
+	/**
+	 * Progress events are coalesced, at least every this many bytes an event
+	 * is fired.
+	 */
+	private static final int MAX_COALESCED_BYTES = 64 * 1024;
+
 	private IAttachmentService attachService;
 	private IRemoteServiceRegistration regAttachmentService;
 	private IRemoteProgressMonitorRegistry registry;
@@ -77,7 +83,7 @@ public final class RemoteProgressMonitorITest extends RienaTestCase {
 		final Attachment attachment = generateLargeAttachment(15000);
 		final int i = attachService.sendAttachmentAndReturnSize(attachment);
 		assertTrue(i == 15000);
-		monitor.validate(15000 / 512 + 1, 1);
+		monitor.validate(1, 1);
 		registry.removeAllProgressMonitors(attachService);
 	}
 
@@ -88,7 +94,7 @@ public final class RemoteProgressMonitorITest extends RienaTestCase {
 		final Attachment attachment = generateLargeAttachment(15000000);
 		final int i = attachService.sendAttachmentAndReturnSize(attachment);
 		assertTrue(i == 15000000);
-		monitor.validate(15000000 / 512 + 1, 1);
+		monitor.validate(15000000 / MAX_COALESCED_BYTES, 1);
 		registry.removeAllProgressMonitors(attachService);
 	}
 
@@ -99,7 +105,7 @@ public final class RemoteProgressMonitorITest extends RienaTestCase {
 		final Attachment attachment = attachService.returnAttachmentForSize(15000);
 		final int i = getSize(attachment);
 		assertTrue(i == 15000);
-		monitor.validate(1, i / 512 + 1);
+		monitor.validate(1, 1);
 		registry.removeAllProgressMonitors(attachService);
 	}
 
@@ -110,7 +116,7 @@ public final class RemoteProgressMonitorITest extends RienaTestCase {
 		final Attachment attachment = attachService.returnAttachmentForSize(15000000);
 		final int i = getSize(attachment);
 		assertTrue(i == 15000000);
-		monitor.validate(1, i / 512 + 1);
+		monitor.validate(1, i / MAX_COALESCED_BYTES);
 		registry.removeAllProgressMonitors(attachService);
 	}
 
@@ -150,9 +156,8 @@ public final class RemoteProgressMonitorITest extends RienaTestCase {
 		private boolean end = false;
 		private int requestCount = 0;
 		private int responseCount = 0;
+		private int lastRequestLength = -1;
 		private int lastResponseLength = -1;
-		private boolean requestDivideable = true;
-		private boolean responseDividable = true;
 
 		public void validate(final int requests, final int responses) {
 			assertTrue("start method not called", start); //$NON-NLS-1$
@@ -170,30 +175,16 @@ public final class RemoteProgressMonitorITest extends RienaTestCase {
 
 		public void request(final RemoteProgressMonitorEvent event) {
 			System.out.println(event.getBytesProcessed());
-			if (event.getBytesProcessed() % 512 != 0) {
-				if (requestDivideable) {
-					requestDivideable = false;
-				} else {
-					assertTrue(
-							"expected bytesProcess in request to be always dividable by 512 (expect in the last call) :" //$NON-NLS-1$
-									+ event.getBytesProcessed(), event.getBytesProcessed() % 512 == 0);
-				}
-			}
-
+			assertTrue("expected bytesProcessed in request to increase: " + event.getBytesProcessed(), //$NON-NLS-1$
+					event.getBytesProcessed() > lastRequestLength);
 			requestCount++;
+			lastRequestLength = event.getBytesProcessed();
 		}
 
 		public void response(final RemoteProgressMonitorEvent event) {
 			System.out.println(event.getBytesProcessed());
-			if (event.getBytesProcessed() % 512 != 0) {
-				if (responseDividable) {
-					responseDividable = false;
-				} else {
-					assertTrue(
-							"expected bytesProcess in response to be always dividable by 512 (expect in the last call) :" //$NON-NLS-1$
-									+ event.getBytesProcessed(), event.getBytesProcessed() % 512 == 0);
-				}
-			}
+			assertTrue("expected bytesProcessed in response to increase: " + event.getBytesProcessed(), //$NON-NLS-1$
+					event.getBytesProcessed() > lastResponseLength);
 			responseCount++;
 			lastResponseLength = event.getBytesProcessed();
 		}
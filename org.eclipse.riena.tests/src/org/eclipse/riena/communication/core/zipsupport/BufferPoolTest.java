@@ -0,0 +1,138 @@
+/*******************************************************************************
+ * Copyright (c) 2007, 2014 compeople AG and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    compeople AG - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.riena.communication.core.zipsupport;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+import org.eclipse.riena.core.test.RienaTestCase;
+import org.eclipse.riena.core.test.collect.NonUITestCase;
+
+/**
+ * Tests the {@code BufferPool} and the streams using it.
+ */
+@NonUITestCase
+public class BufferPoolTest extends RienaTestCase {
+
+	public void testSizeClasses() {
+		final BufferPool pool = new BufferPool(4);
+		assertEquals(8 * 1024, pool.acquire(1).length);
+		assertEquals(8 * 1024, pool.acquire(8 * 1024).length);
+		assertEquals(32 * 1024, pool.acquire(8 * 1024 + 1).length);
+		assertEquals(256 * 1024, pool.acquire(200 * 1024).length);
+		assertEquals(300 * 1024, pool.acquire(300 * 1024).length);
+		assertEquals(0, pool.getHits());
+		assertEquals(5, pool.getMisses());
+	}
+
+	public void testThreadCache() {
+		final BufferPool pool = new BufferPool(0);
+		final byte[] buffer = pool.acquire(1000);
+		pool.release(buffer);
+		assertSame(buffer, pool.acquire(1000));
+		assertEquals(1, pool.getHits());
+		assertEquals(0, pool.getRetained());
+	}
+
+	public void testSharedAcrossThreads() throws InterruptedException {
+		final BufferPool pool = new BufferPool(4);
+		final byte[][] buffers = new byte[3][];
+		final Thread thread = new Thread() {
+			@Override
+			public void run() {
+				// one goes into the thread cache, the others into the shared queue
+				for (int i = 0; i < buffers.length; i++) {
+					buffers[i] = pool.acquire(1000);
+				}
+				for (final byte[] buffer : buffers) {
+					pool.release(buffer);
+				}
+			}
+		};
+		thread.start();
+		thread.join();
+		assertEquals(2, pool.getRetained());
+		final byte[] buffer = pool.acquire(1000);
+		assertTrue(buffer == buffers[1] || buffer == buffers[2]);
+		assertEquals(1, pool.getRetained());
+	}
+
+	public void testBoundedRetention() {
+		final BufferPool pool = new BufferPool(2);
+		final byte[][] buffers = new byte[4][];
+		for (int i = 0; i < buffers.length; i++) {
+			buffers[i] = pool.acquire(100 * 1024);
+		}
+		for (final byte[] buffer : buffers) {
+			pool.release(buffer);
+		}
+		assertEquals(2, pool.getRetained());
+		assertEquals(2, pool.getDiscards());
+		pool.release(new byte[1234]);
+		assertEquals(3, pool.getDiscards());
+		pool.release(null);
+		assertEquals(3, pool.getDiscards());
+	}
+
+	public void testReusableStreams() throws IOException {
+		final byte[] bytes = new byte[100000];
+		for (int i = 0; i < bytes.length; i++) {
+			bytes[i] = (byte) i;
+		}
+		final ByteArrayOutputStream target = new ByteArrayOutputStream();
+		final ReusableBufferedOutputStream output = new ReusableBufferedOutputStream(target);
+		output.write(bytes, 0, 10);
+		output.write(bytes, 10, bytes.length - 10);
+		output.close();
+		output.close();
+		assertTrue(Arrays.equals(bytes, target.toByteArray()));
+
+		final InputStream input = new ReusableBufferedInputStream(new ByteArrayInputStream(target.toByteArray()));
+		final ByteArrayOutputStream result = new ByteArrayOutputStream();
+		int b;
+		while ((b = input.read()) != -1) {
+			result.write(b);
+		}
+		input.close();
+		input.close();
+		assertTrue(Arrays.equals(bytes, result.toByteArray()));
+	}
+
+	public void testReleaseBufferKeepsUnderlyingStreamOpen() throws IOException {
+		final boolean[] closed = new boolean[1];
+		final ByteArrayOutputStream target = new ByteArrayOutputStream() {
+			@Override
+			public void close() throws IOException {
+				closed[0] = true;
+			}
+		};
+		final ReusableBufferedOutputStream output = new ReusableBufferedOutputStream(target);
+		output.write(new byte[] { 1, 2, 3 });
+		final long hits = BufferPool.getDefault().getHits();
+		output.releaseBuffer();
+		assertTrue(Arrays.equals(new byte[] { 1, 2, 3 }, target.toByteArray()));
+		assertFalse(closed[0]);
+		try {
+			output.write(4);
+			fail("IOException expected"); //$NON-NLS-1$
+		} catch (final IOException e) {
+			ok("expected"); //$NON-NLS-1$
+		}
+		BufferPool.getDefault().acquire(ReusableBufferedOutputStream.DEFAULT_BUFFER_SIZE);
+		assertEquals(hits + 1, BufferPool.getDefault().getHits());
+		output.close();
+		assertTrue(closed[0]);
+	}
+
+}
@@ -0,0 +1,70 @@
+/*******************************************************************************
+ * Copyright (c) 2007, 2014 compeople AG and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    compeople AG - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.riena.communication.core.zipsupport;
+
+import java.util.zip.Deflater;
+
+import org.eclipse.riena.core.test.RienaTestCase;
+import org.eclipse.riena.core.test.collect.NonUITestCase;
+
+/**
+ * Tests the {@code CompressionPolicy}.
+ */
+@NonUITestCase
+public class CompressionPolicyTest extends RienaTestCase {
+
+	private static final String SERVICE = "org.example.ICustomerService";
+
+	public void testDefault() {
+		final CompressionPolicy.Setting setting = CompressionPolicy.DEFAULT.getSetting(SERVICE, "find");
+		assertTrue(setting.isEnabled());
+		assertEquals(0, setting.getMinSize());
+		assertEquals(Deflater.DEFAULT_COMPRESSION, setting.getLevel());
+		assertTrue(setting.isCompressing(0));
+	}
+
+	public void testOverrides() {
+		final CompressionPolicy.Setting defaultSetting = new CompressionPolicy.Setting(true, 4096, 6);
+		final CompressionPolicy.Setting serviceSetting = new CompressionPolicy.Setting(false, 0, 1);
+		final CompressionPolicy.Setting methodSetting = new CompressionPolicy.Setting(true, 1024, 9);
+		final CompressionPolicy policy = new CompressionPolicy(defaultSetting).withOverride(SERVICE, null,
+				serviceSetting).withOverride(SERVICE, "findAll", methodSetting);
+
+		assertSame(methodSetting, policy.getSetting(SERVICE, "findAll"));
+		assertSame(serviceSetting, policy.getSetting(SERVICE, "find"));
+		assertSame(serviceSetting, policy.getSetting(SERVICE, null));
+		assertSame(defaultSetting, policy.getSetting("org.example.IOtherService", "findAll"));
+		assertSame(defaultSetting, policy.getSetting(null, "findAll"));
+	}
+
+	public void testWithOverrideKeepsPolicy() {
+		final CompressionPolicy policy = new CompressionPolicy(new CompressionPolicy.Setting(true, 0, 1));
+		final CompressionPolicy overridden = policy.withOverride(SERVICE, null, new CompressionPolicy.Setting(false,
+				0, 1));
+
+		assertTrue(policy.getSetting(SERVICE, "find").isEnabled());
+		assertFalse(overridden.getSetting(SERVICE, "find").isEnabled());
+	}
+
+	public void testSetting() {
+		final CompressionPolicy.Setting setting = new CompressionPolicy.Setting(true, 100, 9);
+		assertFalse(setting.isCompressing(99));
+		assertTrue(setting.isCompressing(100));
+		assertFalse(new CompressionPolicy.Setting(false, 0, 9).isCompressing(100));
+		try {
+			new CompressionPolicy.Setting(true, 0, 10);
+			fail();
+		} catch (final IllegalArgumentException e) {
+			ok();
+		}
+	}
+
+}
@@ -0,0 +1,136 @@
+/*******************************************************************************
+ * Copyright (c) 2007, 2014 compeople AG and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    compeople AG - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.riena.communication.core.zipsupport;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+
+import org.eclipse.riena.core.test.RienaTestCase;
+import org.eclipse.riena.core.test.collect.NonUITestCase;
+
+/**
+ * Tests the {@code ThresholdGZIPOutputStream}.
+ */
+@NonUITestCase
+public class ThresholdGZIPOutputStreamTest extends RienaTestCase {
+
+	public void testSmallDataIsNotCompressed() throws IOException {
+		final byte[] data = createData(999);
+		final ByteArrayOutputStream target = new ByteArrayOutputStream();
+		final ThresholdGZIPOutputStream out = new ThresholdGZIPOutputStream(target, new CompressionPolicy.Setting(
+				true, 1000, Deflater.DEFAULT_COMPRESSION));
+		out.write(data, 0, 500);
+		out.write(data, 500, 499);
+		out.flush();
+		assertEquals(0, target.size());
+		out.close();
+
+		assertFalse(out.isCompressed());
+		assertTrue(Arrays.equals(data, target.toByteArray()));
+	}
+
+	public void testLargeDataIsCompressed() throws IOException {
+		final byte[] data = createData(1000);
+		final ByteArrayOutputStream target = new ByteArrayOutputStream();
+		final ThresholdGZIPOutputStream out = new ThresholdGZIPOutputStream(target, new CompressionPolicy.Setting(
+				true, 1000, Deflater.DEFAULT_COMPRESSION));
+		out.write(data, 0, 500);
+		assertFalse(out.isCompressed());
+		out.write(data[500]);
+		out.write(data, 501, 499);
+		assertTrue(out.isCompressed());
+		out.close();
+
+		assertTrue(target.size() < data.length);
+		assertTrue(Arrays.equals(data, gunzip(target.toByteArray())));
+	}
+
+	public void testDisabled() throws IOException {
+		final byte[] data = createData(10000);
+		final ByteArrayOutputStream target = new ByteArrayOutputStream();
+		final ThresholdGZIPOutputStream out = new ThresholdGZIPOutputStream(target, new CompressionPolicy.Setting(
+				false, 0, Deflater.DEFAULT_COMPRESSION));
+		out.write(data);
+		assertEquals(data.length, target.size());
+		out.close();
+
+		assertFalse(out.isCompressed());
+		assertTrue(Arrays.equals(data, target.toByteArray()));
+	}
+
+	public void testLevel() throws IOException {
+		final byte[] data = createData(100000);
+		final byte[] stored = gzip(data, Deflater.NO_COMPRESSION);
+		final byte[] best = gzip(data, Deflater.BEST_COMPRESSION);
+
+		assertTrue(stored.length > data.length);
+		assertTrue(best.length < data.length);
+		assertTrue(Arrays.equals(data, gunzip(stored)));
+		assertTrue(Arrays.equals(data, gunzip(best)));
+	}
+
+	public void testFinishDoesNotClose() throws IOException {
+		final ByteArrayOutputStream target = new ByteArrayOutputStream() {
+			@Override
+			public void close() throws IOException {
+				fail();
+			}
+		};
+		final ThresholdGZIPOutputStream out = new ThresholdGZIPOutputStream(target, new CompressionPolicy.Setting(
+				true, 100, Deflater.DEFAULT_COMPRESSION));
+		out.write(createData(10));
+		out.finish();
+		out.finish();
+
+		assertEquals(10, target.size());
+		try {
+			out.write(1);
+			fail();
+		} catch (final IOException e) {
+			ok();
+		}
+	}
+
+	private byte[] gzip(final byte[] data, final int level) throws IOException {
+		final ByteArrayOutputStream target = new ByteArrayOutputStream();
+		final ThresholdGZIPOutputStream out = new ThresholdGZIPOutputStream(target, new CompressionPolicy.Setting(
+				true, 0, level));
+		assertTrue(out.isCompressed());
+		out.write(data);
+		out.close();
+		return target.toByteArray();
+	}
+
+	private byte[] gunzip(final byte[] data) throws IOException {
+		final GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(data));
+		final ByteArrayOutputStream result = new ByteArrayOutputStream();
+		final byte[] buffer = new byte[1024];
+		int read;
+		while ((read = in.read(buffer)) != -1) {
+			result.write(buffer, 0, read);
+		}
+		in.close();
+		return result.toByteArray();
+	}
+
+	private byte[] createData(final int length) {
+		final byte[] data = new byte[length];
+		for (int i = 0; i < length; i++) {
+			data[i] = (byte) (i % 10 + 'a');
+		}
+		return data;
+	}
+
+}
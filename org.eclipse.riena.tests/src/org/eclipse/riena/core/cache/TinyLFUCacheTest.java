@@ -0,0 +1,151 @@
+/*******************************************************************************
+ * Copyright (c) 2007, 2014 compeople AG and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    compeople AG - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.riena.core.cache;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.eclipse.riena.core.test.RienaTestCase;
+import org.eclipse.riena.core.test.collect.NonUITestCase;
+
+/**
+ * Tests the {@code TinyLFUCache} class.
+ */
+@NonUITestCase
+public class TinyLFUCacheTest extends RienaTestCase {
+
+	private TinyLFUCache<Integer, String> cache;
+
+	@Override
+	public void setUp() throws Exception {
+		super.setUp();
+		cache = new TinyLFUCache<Integer, String>(100);
+	}
+
+	@Override
+	public void tearDown() throws Exception {
+		cache = null;
+		super.tearDown();
+	}
+
+	public void testPutGetRemove() {
+		cache.put(1, "one");
+		cache.put(2, "two");
+		assertEquals("one", cache.get(1));
+		assertEquals("two", cache.get(2));
+		assertNull(cache.get(3));
+		assertEquals(2, cache.size());
+
+		cache.put(1, "uno");
+		assertEquals("uno", cache.get(1));
+		assertEquals(2, cache.size());
+
+		cache.remove(1);
+		assertNull(cache.get(1));
+		assertEquals(1, cache.size());
+
+		cache.clear();
+		assertEquals(0, cache.size());
+	}
+
+	public void testTimeout() throws Exception {
+		cache.setTimeout(200);
+		cache.put(1, "one");
+		assertEquals("one", cache.get(1));
+		Thread.sleep(300);
+		assertNull(cache.get(1));
+		assertEquals(0, cache.size());
+	}
+
+	public void testPerEntryTimeToLive() throws Exception {
+		cache.setTimeout(60000);
+		cache.put(1, "one", 100);
+		cache.put(2, "two");
+		Thread.sleep(200);
+		assertNull(cache.get(1));
+		assertEquals("two", cache.get(2));
+	}
+
+	public void testMaximumSize() {
+		for (int i = 0; i < 1000; i++) {
+			cache.put(i, "value" + i);
+		}
+		assertEquals(100, cache.size());
+	}
+
+	public void testMinimumSizeRaisesMaximumSize() {
+		cache.setMinimumSize(200);
+		assertEquals(200, cache.getMaximumSize());
+		cache.setMaximumSize(50);
+		assertEquals(200, cache.getMaximumSize());
+	}
+
+	public void testFrequentlyUsedEntriesSurviveScan() {
+		for (int i = 0; i < 50; i++) {
+			cache.put(i, "hot" + i);
+		}
+		for (int i = 1000; i < 20000; i++) {
+			cache.put(i, "cold" + i);
+			if (i % 20 == 0) {
+				for (int k = 0; k < 50; k++) {
+					if (cache.get(k) == null) {
+						cache.put(k, "hot" + k);
+					}
+				}
+			}
+		}
+		int hot = 0;
+		for (int i = 0; i < 50; i++) {
+			if (cache.get(i) != null) {
+				hot++;
+			}
+		}
+		assertTrue("only " + hot + " of 50 hot entries survived", hot >= 45);
+		assertEquals(100, cache.size());
+	}
+
+	public void testMultiThread() throws Exception {
+		final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+		final Thread[] threads = new Thread[8];
+		for (int t = 0; t < threads.length; t++) {
+			final int offset = t * 1000;
+			threads[t] = new Thread() {
+				@Override
+				public void run() {
+					try {
+						for (int run = 0; run < 20; run++) {
+							for (int k = offset; k < offset + 200; k++) {
+								cache.put(k, "value" + k);
+								final String value = cache.get(k);
+								if (value != null && !value.equals("value" + k)) {
+									throw new IllegalStateException("wrong value " + value + " for key " + k);
+								}
+								if (k % 7 == 0) {
+									cache.remove(k);
+								}
+							}
+						}
+					} catch (final Throwable e) {
+						failure.set(e);
+					}
+				}
+			};
+		}
+		for (final Thread thread : threads) {
+			thread.start();
+		}
+		for (final Thread thread : threads) {
+			thread.join();
+		}
+		assertNull(failure.get());
+		assertTrue(cache.size() <= 100);
+	}
+
+}
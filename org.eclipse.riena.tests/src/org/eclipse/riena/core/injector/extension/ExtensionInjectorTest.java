@@ -701,6 +701,35 @@ public class ExtensionInjectorTest extends RienaTestCase {
 		}
 	}
 
+	public void testModifyIsResolvedAgainAfterVariableChange() throws CoreException {
+		printTestName();
+		VariableManagerUtil.addVariable("value", "true");
+		VariableManagerUtil.addVariable("text", "Hallo!");
+
+		addPluginXml(ExtensionInjectorTest.class, "plugin.xml");
+		addPluginXml(ExtensionInjectorTest.class, "plugin_ext-modify.xml");
+		try {
+			final ConfigurableThingModify target = new ConfigurableThingModify();
+			final ExtensionInjector injector = Inject.extension("core.test.extpoint").expectingExactly(1).into(target)
+					.andStart(getContext());
+			try {
+				assertEquals("Hallo!", target.getData().getText());
+				assertEquals("Hallo!", target.getData().getText());
+				VariableManagerUtil.removeVariable("text");
+				VariableManagerUtil.addVariable("text", "Servus!");
+				assertEquals("Servus!", target.getData().getText());
+				assertTrue(target.getData().isRequired());
+			} finally {
+				injector.stop();
+			}
+		} finally {
+			removeExtension("core.test.extpoint.id.modify");
+			removeExtensionPoint("core.test.extpoint");
+			VariableManagerUtil.removeVariable("value");
+			VariableManagerUtil.removeVariable("text");
+		}
+	}
+
 	public void testModifyGlobalOff() throws CoreException {
 		printTestName();
 		VariableManagerUtil.addVariable("value", "true");
@@ -0,0 +1,145 @@
+/*******************************************************************************
+ * Copyright (c) 2007, 2014 compeople AG and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    compeople AG - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.riena.core.logging;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.osgi.service.log.LogEntry;
+
+import org.eclipse.riena.core.test.RienaTestCase;
+import org.eclipse.riena.core.test.collect.NonUITestCase;
+
+/**
+ * Tests the {@code RingBufferLogListenerAdapter}.
+ */
+@NonUITestCase
+public class RingBufferLogListenerAdapterTest extends RienaTestCase {
+
+	private static final int THREADS = 4;
+	private static final int ENTRIES_PER_THREAD = 5000;
+
+	public void testCapacityIsPowerOfTwo() {
+		final RingBufferLogListenerAdapter adapter = new RingBufferLogListenerAdapter(new BatchCollector(), 100);
+		assertEquals(128, adapter.getCapacity());
+		adapter.dispose();
+	}
+
+	public void testOrderPerThreadIsPreserved() throws Exception {
+		final BatchCollector collector = new BatchCollector();
+		final RingBufferLogListenerAdapter adapter = new RingBufferLogListenerAdapter(collector, 16);
+		final Thread[] threads = new Thread[THREADS];
+		for (int t = 0; t < THREADS; t++) {
+			final String thread = "T" + t;
+			threads[t] = new Thread() {
+				@Override
+				public void run() {
+					for (int i = 0; i < ENTRIES_PER_THREAD; i++) {
+						adapter.logged(newLogEntry(thread + ":" + i));
+					}
+				}
+			};
+		}
+		for (final Thread thread : threads) {
+			thread.start();
+		}
+		for (final Thread thread : threads) {
+			thread.join();
+		}
+		adapter.dispose();
+
+		final List<String> messages = collector.getMessages();
+		assertEquals(THREADS * ENTRIES_PER_THREAD, messages.size());
+		final Map<String, Integer> lastIndex = new HashMap<String, Integer>();
+		for (final String message : messages) {
+			final String[] parts = message.split(":");
+			final int index = Integer.parseInt(parts[1]);
+			final Integer last = lastIndex.put(parts[0], index);
+			assertEquals(last == null ? 0 : last + 1, index);
+		}
+		assertTrue(collector.getBatches() <= messages.size());
+	}
+
+	public void testLoggedDirectlyAfterDispose() {
+		final BatchCollector collector = new BatchCollector();
+		final RingBufferLogListenerAdapter adapter = new RingBufferLogListenerAdapter(collector, 16);
+		adapter.dispose();
+		adapter.logged(newLogEntry("late"));
+		assertEquals(Collections.singletonList("late"), collector.getMessages());
+	}
+
+	public void testNoEntryIsLostOnDisposeWhileLogging() throws Exception {
+		final BatchCollector collector = new BatchCollector();
+		final RingBufferLogListenerAdapter adapter = new RingBufferLogListenerAdapter(collector, 4);
+		final Thread[] threads = new Thread[THREADS];
+		for (int t = 0; t < THREADS; t++) {
+			threads[t] = new Thread() {
+				@Override
+				public void run() {
+					for (int i = 0; i < ENTRIES_PER_THREAD; i++) {
+						adapter.logged(newLogEntry("entry"));
+					}
+				}
+			};
+		}
+		for (final Thread thread : threads) {
+			thread.start();
+		}
+		Thread.sleep(5);
+		adapter.dispose();
+		for (final Thread thread : threads) {
+			thread.join();
+		}
+
+		assertEquals(THREADS * ENTRIES_PER_THREAD, collector.getMessages().size());
+	}
+
+	private static LogEntry newLogEntry(final String message) {
+		return (LogEntry) Proxy.newProxyInstance(LogEntry.class.getClassLoader(), new Class<?>[] { LogEntry.class },
+				new InvocationHandler() {
+					public Object invoke(final Object proxy, final Method method, final Object[] args) {
+						return "getMessage".equals(method.getName()) ? message : null;
+					}
+				});
+	}
+
+	private static class BatchCollector implements IBatchLogListener {
+
+		private final List<String> messages = Collections.synchronizedList(new ArrayList<String>());
+		private volatile int batches;
+
+		public void logged(final LogEntry entry) {
+			messages.add(entry.getMessage());
+		}
+
+		public void logged(final List<LogEntry> entries) {
+			batches++;
+			for (final LogEntry entry : entries) {
+				logged(entry);
+			}
+		}
+
+		public List<String> getMessages() {
+			return messages;
+		}
+
+		public int getBatches() {
+			return batches;
+		}
+	}
+
+}
@@ -0,0 +1,133 @@
+/*******************************************************************************
+ * Copyright (c) 2007, 2014 compeople AG and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    compeople AG - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.riena.core.ping;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.osgi.framework.ServiceRegistration;
+
+import org.eclipse.riena.core.test.RienaTestCase;
+import org.eclipse.riena.core.test.collect.NonUITestCase;
+
+/**
+ * Tests the parallel ping of the {@code Sonar}.
+ */
+@NonUITestCase
+public class SonarTest extends RienaTestCase {
+
+	public void testParallelPingSeparatesTimeoutsFromFailures() {
+		final ServiceRegistration slow = getContext().registerService(IPingable.class.getName(), new SlowPingable(),
+				null);
+		final ServiceRegistration failing = getContext().registerService(IPingable.class.getName(),
+				new FailingPingable(), null);
+		try {
+			final long start = System.currentTimeMillis();
+			final List<PingResult> results = Sonar.pingAllServices(4, 200, 2000, TimeUnit.MILLISECONDS);
+			assertTrue(System.currentTimeMillis() - start < 5000);
+
+			final PingResult slowResult = find(results, SlowPingable.class);
+			assertNotNull(slowResult);
+			assertTrue(slowResult.hasPingTimedOut());
+			assertTrue(slowResult.hasPingFailed());
+
+			final PingResult failingResult = find(results, FailingPingable.class);
+			assertNotNull(failingResult);
+			assertFalse(failingResult.hasPingTimedOut());
+			assertTrue(failingResult.hasPingFailed());
+		} finally {
+			slow.unregister();
+			failing.unregister();
+		}
+	}
+
+	public void testSharedPingableIsPingedOncePerSweep() {
+		final SharedPingable shared = new SharedPingable();
+		final ServiceRegistration first = getContext().registerService(IPingable.class.getName(),
+				new DependentPingable(shared), null);
+		final ServiceRegistration second = getContext().registerService(IPingable.class.getName(),
+				new OtherDependentPingable(shared), null);
+		try {
+			for (int sweep = 1; sweep <= 2; sweep++) {
+				final List<PingResult> results = Sonar.pingAllServices(2, 1000, 5000, TimeUnit.MILLISECONDS);
+				int found = 0;
+				for (final PingResult result : results) {
+					if (result.getPingableName().startsWith(SharedPingable.class.getName())) {
+						found++;
+					}
+				}
+				assertEquals(1, found);
+				assertEquals(sweep, shared.pings.get());
+			}
+		} finally {
+			first.unregister();
+			second.unregister();
+		}
+	}
+
+	private PingResult find(final List<PingResult> results, final Class<?> pingableClass) {
+		for (final PingResult result : results) {
+			if (result.getPingableName().startsWith(pingableClass.getName())) {
+				return result;
+			}
+		}
+		return null;
+	}
+
+	private static class SharedPingable extends DefaultPingable {
+		private final AtomicInteger pings = new AtomicInteger();
+
+		@Override
+		public PingVisitor ping(final PingVisitor visitor) {
+			pings.incrementAndGet();
+			return super.ping(visitor);
+		}
+	}
+
+	private static class DependentPingable extends DefaultPingable {
+		@SuppressWarnings("unused")
+		private final IPingable shared;
+
+		public DependentPingable(final IPingable shared) {
+			this.shared = shared;
+		}
+	}
+
+	private static class OtherDependentPingable extends DefaultPingable {
+		@SuppressWarnings("unused")
+		private final IPingable shared;
+
+		public OtherDependentPingable(final IPingable shared) {
+			this.shared = shared;
+		}
+	}
+
+	private static class SlowPingable extends DefaultPingable {
+		@Override
+		public PingVisitor ping(final PingVisitor visitor) {
+			try {
+				Thread.sleep(10000);
+			} catch (final InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return super.ping(visitor);
+		}
+	}
+
+	private static class FailingPingable extends DefaultPingable {
+		@Override
+		public PingVisitor ping(final PingVisitor visitor) {
+			throw new IllegalStateException("backend down");
+		}
+	}
+
+}
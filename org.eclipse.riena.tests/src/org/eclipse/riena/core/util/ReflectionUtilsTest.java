@@ -148,6 +148,65 @@ public class ReflectionUtilsTest extends RienaTestCase {
 
 	}
 
+	/**
+	 * Tests that a failed lookup of {@code invoke} does not affect a later
+	 * {@code invokeHidden} of the same method and vice versa.
+	 */
+	public void testInvokeAndInvokeHiddenAreCachedSeparately() {
+		try {
+			ReflectionUtils.invoke(TestClass.class, "getString"); //$NON-NLS-1$
+			fail("ReflectionFailure expected"); //$NON-NLS-1$
+		} catch (final ReflectionFailure expected) {
+			ok("ReflectionFailure expected"); //$NON-NLS-1$
+		}
+		ReflectionUtils.invokeHidden(TestClass.class, "setString", "haha"); //$NON-NLS-1$ //$NON-NLS-2$
+		assertEquals("haha", ReflectionUtils.invokeHidden(TestClass.class, "getString")); //$NON-NLS-1$ //$NON-NLS-2$
+		try {
+			ReflectionUtils.invoke(TestClass.class, "getString"); //$NON-NLS-1$
+			fail("ReflectionFailure expected"); //$NON-NLS-1$
+		} catch (final ReflectionFailure expected) {
+			ok("ReflectionFailure expected"); //$NON-NLS-1$
+		}
+	}
+
+	/**
+	 * Tests that {@code null} can not be passed to a primitive parameter.
+	 */
+	public void testInvokeHiddenWithNullForPrimitive() {
+		try {
+			ReflectionUtils.invokeHidden(TestClass.class, "setIntPrimitive", (Object) null); //$NON-NLS-1$
+			fail("ReflectionFailure expected"); //$NON-NLS-1$
+		} catch (final ReflectionFailure expected) {
+			assertTrue(expected.getCause() instanceof IllegalArgumentException);
+		}
+	}
+
+	/**
+	 * Tests that repeated invocations of a method found in a super class yield
+	 * the same results.
+	 */
+	public void testInvokeHiddenRepeatedlyOnSubclass() {
+		final TestTestClass instance = ReflectionUtils.newInstanceHidden(TestTestClass.class, "a"); //$NON-NLS-1$
+		for (int i = 0; i < 3; i++) {
+			ReflectionUtils.invokeHidden(instance, "setIntPrimitive", i); //$NON-NLS-1$
+			assertEquals(i, ReflectionUtils.<Integer> invokeHidden(instance, "getIntPrimitive").intValue()); //$NON-NLS-1$
+		}
+	}
+
+	/**
+	 * Tests that a constructor that can not be found is reported every time.
+	 */
+	public void testNewInstanceWithoutMatchingConstructor() {
+		for (int i = 0; i < 2; i++) {
+			try {
+				ReflectionUtils.newInstance(MockClass.class, 1);
+				fail("ReflectionFailure expected"); //$NON-NLS-1$
+			} catch (final ReflectionFailure expected) {
+				ok("ReflectionFailure expected"); //$NON-NLS-1$
+			}
+		}
+	}
+
 	/**
 	 * Nomen est omen!
 	 * 
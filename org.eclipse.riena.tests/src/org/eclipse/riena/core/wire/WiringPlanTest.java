@@ -0,0 +1,62 @@
+/*******************************************************************************
+ * Copyright (c) 2007, 2014 compeople AG and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    compeople AG - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.riena.core.wire;
+
+import org.eclipse.riena.core.test.RienaTestCase;
+import org.eclipse.riena.core.test.collect.NonUITestCase;
+import org.eclipse.riena.internal.core.wire.WiringPlan;
+import org.eclipse.riena.internal.core.wire.WiringPlan.InjectionPoint;
+
+/**
+ * Test the {@code WiringPlan}.
+ */
+@NonUITestCase
+public class WiringPlanTest extends RienaTestCase {
+
+	public void testPlanIsCreatedOncePerClass() {
+		assertSame(WiringPlan.of(BeanWithOrder.class), WiringPlan.of(BeanWithOrder.class));
+		assertNotSame(WiringPlan.of(BeanWithOrder.class), WiringPlan.of(Bean.class));
+	}
+
+	public void testWiringClass() {
+		final WiringPlan plan = WiringPlan.of(Bean.class);
+		assertEquals(BeanWiring.class, plan.getWiringClass());
+		final IWiring wiring1 = plan.newWiring();
+		final IWiring wiring2 = plan.newWiring();
+		assertTrue(wiring1 instanceof BeanWiring);
+		assertNotSame(wiring1, wiring2);
+	}
+
+	public void testNoWiringClass() {
+		final WiringPlan plan = WiringPlan.of(BeanWithOrder.class);
+		assertNull(plan.getWiringClass());
+		assertNull(plan.newWiring());
+	}
+
+	public void testInjectionPointsAreSortedByOrder() {
+		final InjectionPoint[] points = WiringPlan.of(BeanWithOrder.class).getInjectionPoints();
+		assertEquals(3, points.length);
+		assertEquals(InjectService.class, points[0].getAnnotationType());
+		assertEquals(0, points[0].getOrder());
+		assertEquals(InjectService.class, points[1].getAnnotationType());
+		assertEquals(1, points[1].getOrder());
+		assertEquals(OnWiringDone.class, points[2].getAnnotationType());
+		assertEquals(Integer.MAX_VALUE, points[2].getOrder());
+	}
+
+	public void testInvokeWiringDone() throws Throwable {
+		SequenceUtil.init();
+		final InjectionPoint[] points = WiringPlan.of(BeanWithOrder.class).getInjectionPoints();
+		points[2].invoke(new BeanWithOrder());
+		SequenceUtil.assertExpected("BeanWithOrder+done");
+	}
+
+}
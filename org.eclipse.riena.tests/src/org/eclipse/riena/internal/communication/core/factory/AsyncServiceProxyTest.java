@@ -0,0 +1,186 @@
+/*******************************************************************************
+ * Copyright (c) 2007, 2014 compeople AG and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    compeople AG - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.riena.internal.communication.core.factory;
+
+import java.lang.reflect.Proxy;
+import java.security.AccessController;
+import java.security.PrivilegedAction;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import javax.security.auth.Subject;
+
+import org.eclipse.riena.communication.core.RemoteFailure;
+import org.eclipse.riena.communication.core.factory.AsyncRemoteService;
+import org.eclipse.riena.core.test.RienaTestCase;
+import org.eclipse.riena.core.test.collect.NonUITestCase;
+import org.eclipse.riena.core.util.ReflectionUtils;
+
+/**
+ * Tests the {@code AsyncServiceProxy}.
+ */
+@NonUITestCase
+public class AsyncServiceProxyTest extends RienaTestCase {
+
+	private ExecutorService executor;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		executor = Executors.newFixedThreadPool(2);
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		executor.shutdownNow();
+		super.tearDown();
+	}
+
+	public void testAsyncCallRunsOnExecutor() throws Exception {
+		final IGreeterAsync greeter = createProxy(executor);
+		final CompletableFuture<String> future = greeter.greet("Riena");
+		assertEquals("Hello Riena", future.get(5, TimeUnit.SECONDS));
+		assertFalse(Thread.currentThread().getName().equals(
+				greeter.greetAsync("thread").get(5, TimeUnit.SECONDS).substring(6)));
+	}
+
+	public void testSyncMethodIsDelegated() {
+		final IGreeterAsync greeter = createProxy(executor);
+		assertEquals(Thread.currentThread().getName(), greeter.threadName());
+	}
+
+	public void testExceptionCompletesFuture() throws Exception {
+		final CompletableFuture<String> future = createProxy(executor).greet(null);
+		try {
+			future.get(5, TimeUnit.SECONDS);
+			fail("expected ExecutionException");
+		} catch (final ExecutionException e) {
+			assertTrue(e.getCause() instanceof IllegalArgumentException);
+		}
+	}
+
+	public void testSubjectIsPassed() throws Exception {
+		final IGreeterAsync greeter = createProxy(executor);
+		final Subject subject = new Subject();
+		final CompletableFuture<Boolean> future = Subject.doAs(subject,
+				new PrivilegedAction<CompletableFuture<Boolean>>() {
+					public CompletableFuture<Boolean> run() {
+						return greeter.hasSubject();
+					}
+				});
+		assertTrue(future.get(5, TimeUnit.SECONDS));
+		assertFalse(greeter.hasSubject().get(5, TimeUnit.SECONDS));
+	}
+
+	public void testRejectedCall() {
+		final CompletableFuture<String> future = createProxy(new Executor() {
+			public void execute(final Runnable command) {
+				throw new RejectedExecutionException();
+			}
+		}).greet("Riena");
+		assertTrue(future.isCompletedExceptionally());
+		try {
+			future.join();
+			fail("expected RemoteFailure");
+		} catch (final RuntimeException e) {
+			assertTrue(e.getCause() instanceof RemoteFailure);
+		}
+	}
+
+	public void testCallsAreRejectedAfterShutdown() throws Exception {
+		final IGreeterAsync greeter = createProxy(AsyncRemoteCallExecutor.get());
+		AsyncRemoteCallExecutor.shutdown();
+		try {
+			assertTrue(greeter.greet("Riena").isCompletedExceptionally());
+		} finally {
+			AsyncRemoteCallExecutor.start();
+		}
+		// the proxy created before the shutdown uses the new executor
+		assertEquals("Hello Riena", greeter.greet("Riena").get(5, TimeUnit.SECONDS));
+	}
+
+	public void testShutdownDoesNotCreateAnExecutor() {
+		AsyncRemoteCallExecutor.shutdown();
+		AsyncRemoteCallExecutor.start();
+		AsyncRemoteCallExecutor.shutdown();
+		try {
+			assertNull(ReflectionUtils.getHidden(AsyncRemoteCallExecutor.class, "executor"));
+		} finally {
+			AsyncRemoteCallExecutor.start();
+		}
+	}
+
+	public void testMissingCounterpart() {
+		try {
+			new AsyncServiceProxy(IBrokenGreeterAsync.class, new Greeter(), executor);
+			fail("expected RemoteFailure");
+		} catch (final RemoteFailure e) {
+			ok("expected");
+		}
+	}
+
+	private IGreeterAsync createProxy(final Executor executor) {
+		return (IGreeterAsync) Proxy.newProxyInstance(IGreeterAsync.class.getClassLoader(),
+				new Class<?>[] { IGreeterAsync.class }, new AsyncServiceProxy(IGreeterAsync.class, new Greeter(),
+						executor));
+	}
+
+	public interface IGreeter {
+
+		String greet(String name);
+
+		String threadName();
+
+		boolean hasSubject();
+	}
+
+	@AsyncRemoteService(IGreeter.class)
+	public interface IGreeterAsync {
+
+		CompletableFuture<String> greet(String name);
+
+		CompletableFuture<String> greetAsync(String name);
+
+		String threadName();
+
+		CompletableFuture<Boolean> hasSubject();
+	}
+
+	@AsyncRemoteService(IGreeter.class)
+	public interface IBrokenGreeterAsync {
+
+		CompletableFuture<String> greet(Integer name);
+	}
+
+	private static class Greeter implements IGreeter {
+
+		public String greet(final String name) {
+			if (name == null) {
+				throw new IllegalArgumentException("name");
+			}
+			return "Hello " + ("thread".equals(name) ? Thread.currentThread().getName() : name);
+		}
+
+		public String threadName() {
+			return Thread.currentThread().getName();
+		}
+
+		public boolean hasSubject() {
+			return Subject.getSubject(AccessController.getContext()) != null;
+		}
+	}
+
+}
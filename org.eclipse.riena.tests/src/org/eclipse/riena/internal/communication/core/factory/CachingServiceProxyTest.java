@@ -0,0 +1,303 @@
+/*******************************************************************************
+ * Copyright (c) 2007, 2014 compeople AG and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    compeople AG - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.riena.internal.communication.core.factory;
+
+import java.lang.reflect.Proxy;
+import java.security.PrivilegedAction;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Dictionary;
+import java.util.Hashtable;
+import java.util.List;
+import java.util.UUID;
+
+import javax.security.auth.Subject;
+import javax.security.auth.x500.X500Principal;
+
+import com.caucho.hessian.io.SerializerFactory;
+
+import org.osgi.framework.Constants;
+import org.osgi.framework.ServiceRegistration;
+
+import org.eclipse.riena.communication.core.RemoteFailure;
+import org.eclipse.riena.communication.core.factory.CacheableResult;
+import org.eclipse.riena.communication.core.factory.HessianRemoteCallSerializer;
+import org.eclipse.riena.communication.core.factory.IRemoteCallSerializer;
+import org.eclipse.riena.communication.core.factory.RemoteCallCache;
+import org.eclipse.riena.core.test.RienaTestCase;
+import org.eclipse.riena.core.service.Service;
+import org.eclipse.riena.core.test.collect.NonUITestCase;
+import org.eclipse.riena.internal.communication.factory.hessian.serializer.RienaSerializerFactory;
+import org.eclipse.riena.security.common.ISubjectHolder;
+
+/**
+ * Tests the {@code CachingServiceProxy}.
+ */
+@NonUITestCase
+public class CachingServiceProxyTest extends RienaTestCase {
+
+	private CountingLookupService service;
+	private ILookupService lookup;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		RemoteCallCache.invalidateAll();
+		service = new CountingLookupService();
+		lookup = createProxy("http://localhost/hessian/LookupService", service);
+	}
+
+	public void testResultIsCached() {
+		assertEquals("code-1", lookup.lookup("code", 1));
+		assertEquals("code-1", lookup.lookup("code", 1));
+		assertEquals(1, service.calls);
+		assertEquals("code-2", lookup.lookup("code", 2));
+		assertEquals(2, service.calls);
+	}
+
+	public void testNotAnnotatedMethodIsNotCached() {
+		lookup.uncached("code");
+		lookup.uncached("code");
+		assertEquals(2, service.calls);
+	}
+
+	public void testArgumentsAreComparedByValue() {
+		assertEquals("de", lookup.lookupKey(new Key("de")));
+		assertEquals("de", lookup.lookupKey(new Key("de")));
+		assertEquals(1, service.calls);
+	}
+
+	public void testNullResultIsCached() {
+		assertNull(lookup.lookup(null, 0));
+		assertNull(lookup.lookup(null, 0));
+		assertEquals(1, service.calls);
+	}
+
+	public void testExceptionIsNotCached() {
+		for (int i = 0; i < 2; i++) {
+			try {
+				lookup.lookup("fail", 0);
+				fail();
+			} catch (final IllegalArgumentException e) {
+				ok();
+			}
+		}
+		assertEquals(2, service.calls);
+	}
+
+	public void testCachedPerPrincipal() {
+		lookupAs("alice");
+		lookupAs("alice");
+		assertEquals(1, service.calls);
+		lookupAs("bob");
+		assertEquals(2, service.calls);
+		lookup.lookup("code", 1);
+		assertEquals(3, service.calls);
+	}
+
+	public void testCachedPerSubjectOfTheSubjectHolder() {
+		final ISubjectHolder subjectHolder = Service.get(ISubjectHolder.class);
+		assertNotNull(subjectHolder);
+		try {
+			subjectHolder.setSubject(createSubject("alice"));
+			lookup.lookup("code", 1);
+			lookup.lookup("code", 1);
+			assertEquals(1, service.calls);
+			subjectHolder.setSubject(createSubject("bob"));
+			lookup.lookup("code", 1);
+			assertEquals(2, service.calls);
+			subjectHolder.setSubject(createSubject("alice"));
+			lookup.lookup("code", 1);
+			assertEquals(2, service.calls);
+		} finally {
+			subjectHolder.setSubject(null);
+		}
+	}
+
+	public void testCachedResultIsACopy() {
+		final List<String> first = lookup.lookupAll("b", "a");
+		first.clear();
+		final List<String> second = lookup.lookupAll("b", "a");
+		assertEquals(Arrays.asList("b", "a"), second);
+		second.add("c");
+		assertEquals(Arrays.asList("b", "a"), lookup.lookupAll("b", "a"));
+		assertNotSame(second, lookup.lookupAll("b", "a"));
+		assertEquals(1, service.calls);
+	}
+
+	public void testCachedPerUrl() {
+		final ILookupService other = createProxy("http://otherhost/hessian/LookupService", service);
+		lookup.lookup("code", 1);
+		other.lookup("code", 1);
+		assertEquals(2, service.calls);
+		createProxy("http://localhost/hessian/LookupService", service).lookup("code", 1);
+		assertEquals(2, service.calls);
+	}
+
+	public void testTimeToLive() throws Exception {
+		lookup.lookupShortLived("code");
+		lookup.lookupShortLived("code");
+		assertEquals(1, service.calls);
+		Thread.sleep(100);
+		lookup.lookupShortLived("code");
+		assertEquals(2, service.calls);
+	}
+
+	public void testInvalidate() {
+		lookup.lookup("code", 1);
+		lookup.lookupShortLived("code");
+		RemoteCallCache.invalidate(ILookupService.class, "lookup");
+		lookup.lookup("code", 1);
+		lookup.lookupShortLived("code");
+		assertEquals(3, service.calls);
+
+		RemoteCallCache.invalidate(ILookupService.class);
+		lookup.lookup("code", 1);
+		lookup.lookupShortLived("code");
+		assertEquals(5, service.calls);
+
+		RemoteCallCache.invalidateAll();
+		lookup.lookup("code", 1);
+		assertEquals(6, service.calls);
+	}
+
+	public void testResultIsCopiedWithTheRemoteCallSerializer() {
+		final SerializerFactory serializerFactory = new SerializerFactory();
+		serializerFactory.setAllowNonSerializable(true);
+		serializerFactory.addFactory(new RienaSerializerFactory());
+		final Dictionary<String, Object> properties = new Hashtable<String, Object>();
+		properties.put(Constants.SERVICE_RANKING, Integer.valueOf(1000));
+		final ServiceRegistration reg = getContext().registerService(IRemoteCallSerializer.class.getName(),
+				new HessianRemoteCallSerializer(serializerFactory), properties);
+		try {
+			// a plain hessian serializer factory can not deserialize an UUID
+			final ILookupService idLookup = createProxy("http://localhost/hessian/LookupService", service);
+			final UUID first = idLookup.lookupId("code");
+			final UUID second = idLookup.lookupId("code");
+			assertEquals(first, second);
+			assertNotSame(first, second);
+			assertEquals(1, service.calls);
+		} finally {
+			reg.unregister();
+		}
+	}
+
+	public void testInvalidAnnotation() {
+		try {
+			new CachingServiceProxy(IInvalidService.class, null, null);
+			fail();
+		} catch (final RemoteFailure e) {
+			ok();
+		}
+		assertTrue(CachingServiceProxy.hasCacheableResults(ILookupService.class));
+		assertFalse(CachingServiceProxy.hasCacheableResults(Runnable.class));
+	}
+
+	private void lookupAs(final String name) {
+		Subject.doAs(createSubject(name), new PrivilegedAction<String>() {
+			public String run() {
+				return lookup.lookup("code", 1);
+			}
+		});
+	}
+
+	private Subject createSubject(final String name) {
+		return new Subject(false, Collections.singleton(new X500Principal("CN=" + name)), Collections.emptySet(),
+				Collections.emptySet());
+	}
+
+	private ILookupService createProxy(final String url, final ILookupService delegate) {
+		return (ILookupService) Proxy.newProxyInstance(ILookupService.class.getClassLoader(),
+				new Class[] { ILookupService.class }, new CachingServiceProxy(ILookupService.class, url, delegate));
+	}
+
+	public interface ILookupService {
+
+		@CacheableResult(timeToLive = 60000, maximumSize = 10)
+		String lookup(String type, int code);
+
+		@CacheableResult(timeToLive = 60000)
+		String lookupKey(Key key);
+
+		@CacheableResult(timeToLive = 50)
+		String lookupShortLived(String type);
+
+		@CacheableResult(timeToLive = 60000)
+		List<String> lookupAll(String... types);
+
+		@CacheableResult(timeToLive = 60000)
+		UUID lookupId(String name);
+
+		String uncached(String type);
+	}
+
+	public interface IInvalidService {
+
+		@CacheableResult(timeToLive = 0)
+		String lookup(String type);
+	}
+
+	/**
+	 * An argument without {@code equals()}.
+	 */
+	public static class Key {
+
+		private String value;
+
+		public Key() {
+			// for deserialization
+		}
+
+		public Key(final String value) {
+			this.value = value;
+		}
+	}
+
+	private static class CountingLookupService implements ILookupService {
+
+		private int calls;
+
+		public String lookup(final String type, final int code) {
+			calls++;
+			if ("fail".equals(type)) {
+				throw new IllegalArgumentException(type);
+			}
+			return type == null ? null : type + "-" + code;
+		}
+
+		public String lookupKey(final Key key) {
+			calls++;
+			return key.value;
+		}
+
+		public String lookupShortLived(final String type) {
+			calls++;
+			return type;
+		}
+
+		public List<String> lookupAll(final String... types) {
+			calls++;
+			return new ArrayList<String>(Arrays.asList(types));
+		}
+
+		public UUID lookupId(final String name) {
+			calls++;
+			return UUID.nameUUIDFromBytes(name.getBytes());
+		}
+
+		public String uncached(final String type) {
+			calls++;
+			return type;
+		}
+	}
+
+}
@@ -0,0 +1,131 @@
+/*******************************************************************************
+ * Copyright (c) 2007, 2014 compeople AG and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    compeople AG - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.riena.internal.communication.core.factory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.easymock.EasyMock;
+
+import org.eclipse.riena.communication.core.RemoteServiceDescription;
+import org.eclipse.riena.communication.core.hooks.CallContext;
+import org.eclipse.riena.communication.core.hooks.ICallHook;
+import org.eclipse.riena.communication.core.hooks.ICallMessageContext;
+import org.eclipse.riena.communication.core.hooks.ICallMessageContextAccessor;
+import org.eclipse.riena.core.test.RienaTestCase;
+import org.eclipse.riena.core.test.collect.NonUITestCase;
+import org.eclipse.riena.internal.tests.Activator;
+
+/**
+ * Tests the {@code CallHooksProxy}.
+ */
+@NonUITestCase
+public class CallHooksProxyTest extends RienaTestCase {
+
+	private final List<String> events = new ArrayList<String>();
+	private CallHooksProxy proxy;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		proxy = new CallHooksProxy(new Greeter());
+		proxy.setRemoteServiceDescription(new RemoteServiceDescription(IGreeter.class, null, null, Activator
+				.getDefault().getBundle()));
+		final ICallMessageContext messageContext = (ICallMessageContext) EasyMock
+				.createNiceMock(ICallMessageContext.class);
+		final ICallMessageContextAccessor messageContextAccessor = (ICallMessageContextAccessor) EasyMock
+				.createNiceMock(ICallMessageContextAccessor.class);
+		EasyMock.expect(
+				messageContextAccessor.createMessageContext(EasyMock.anyObject(), (String) EasyMock.anyObject(),
+						(String) EasyMock.anyObject())).andStubReturn(messageContext);
+		EasyMock.replay(messageContext, messageContextAccessor);
+		proxy.setMessageContextAccessor(messageContextAccessor);
+	}
+
+	public void testHooksAreCalledInOrder() throws Throwable {
+		final ICallHook first = new RecordingHook("first");
+		final ICallHook second = new RecordingHook("second");
+		proxy.bind(first);
+		proxy.bind(second);
+		proxy.bind(first);
+
+		assertEquals("Hello Riena", greet("Riena"));
+		assertEquals(Arrays.asList("before first", "before second", "call", "after second", "after first"), events);
+	}
+
+	public void testUnbind() throws Throwable {
+		final ICallHook first = new RecordingHook("first");
+		final ICallHook second = new RecordingHook("second");
+		final ICallHook third = new RecordingHook("third");
+		proxy.bind(first);
+		proxy.bind(second);
+		proxy.bind(third);
+		proxy.unbind(second);
+		proxy.unbind(new RecordingHook("unknown"));
+
+		greet("Riena");
+		assertEquals(Arrays.asList("before first", "before third", "call", "after third", "after first"), events);
+	}
+
+	public void testUnbindDuringCall() throws Throwable {
+		final ICallHook first = new RecordingHook("first");
+		final ICallHook second = new RecordingHook("second") {
+			@Override
+			public void beforeCall(final CallContext context) {
+				super.beforeCall(context);
+				proxy.unbind(this);
+			}
+		};
+		proxy.bind(first);
+		proxy.bind(second);
+
+		greet("Riena");
+		greet("again");
+		assertEquals(Arrays.asList("before first", "before second", "call", "after second", "after first",
+				"before first", "call", "after first"), events);
+	}
+
+	private Object greet(final String name) throws Throwable {
+		return proxy.invoke(null, IGreeter.class.getMethod("greet", String.class), new Object[] { name });
+	}
+
+	public interface IGreeter {
+
+		String greet(String name);
+	}
+
+	private class Greeter implements IGreeter {
+
+		public String greet(final String name) {
+			events.add("call");
+			return "Hello " + name;
+		}
+	}
+
+	private class RecordingHook implements ICallHook {
+
+		private final String name;
+
+		public RecordingHook(final String name) {
+			this.name = name;
+		}
+
+		public void beforeCall(final CallContext context) {
+			events.add("before " + name);
+		}
+
+		public void afterCall(final CallContext context) {
+			events.add("after " + name);
+		}
+	}
+
+}
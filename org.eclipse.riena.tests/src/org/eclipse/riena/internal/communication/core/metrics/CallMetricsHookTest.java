@@ -0,0 +1,101 @@
+/*******************************************************************************
+ * Copyright (c) 2007, 2014 compeople AG and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    compeople AG - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.riena.internal.communication.core.metrics;
+
+import org.easymock.EasyMock;
+
+import org.eclipse.riena.communication.core.RemoteServiceDescription;
+import org.eclipse.riena.communication.core.hooks.CallContext;
+import org.eclipse.riena.communication.core.hooks.ICallMessageContext;
+import org.eclipse.riena.communication.core.metrics.IPayloadSizes;
+import org.eclipse.riena.communication.core.metrics.MethodMetrics;
+import org.eclipse.riena.communication.core.metrics.RemoteCallMetrics;
+import org.eclipse.riena.core.test.RienaTestCase;
+import org.eclipse.riena.core.test.collect.NonUITestCase;
+import org.eclipse.riena.internal.tests.Activator;
+
+/**
+ * Tests the {@code CallMetricsHook}.
+ */
+@NonUITestCase
+public class CallMetricsHookTest extends RienaTestCase {
+
+	private CallMetricsHook hook;
+	private RemoteServiceDescription rsd;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		hook = new CallMetricsHook();
+		rsd = new RemoteServiceDescription(IMeasuredService.class, "http://localhost/hessian/MeasuredService",
+				"hessian", Activator.getDefault().getBundle());
+		RemoteCallMetrics.getCallMetrics().reset();
+	}
+
+	public void testRecordsCall() throws Exception {
+		final CallContext context = new CallContext(rsd, "measure", null);
+		hook.beforeCall(context);
+		Thread.sleep(2);
+		hook.afterCall(context);
+
+		final MethodMetrics metrics = getMetrics("measure");
+		assertEquals(1, metrics.getCallCount());
+		assertEquals(0, metrics.getFailureCount());
+		assertTrue(metrics.getMaxLatencyMicros() >= 2000);
+		assertEquals(0, metrics.getRequestBytes());
+	}
+
+	public void testRecordsRemoteFailure() {
+		final CallContext context = new CallContext(rsd, "fail", null);
+		hook.beforeCall(context);
+		context.setRemoteFailure(true);
+		hook.afterCall(context);
+
+		assertEquals(1, getMetrics("fail").getFailureCount());
+	}
+
+	public void testRecordsPayloadSizes() {
+		final ISizedMessageContext messageContext = EasyMock.createNiceMock(ISizedMessageContext.class);
+		EasyMock.expect(messageContext.getRequestSize()).andReturn(42L);
+		EasyMock.expect(messageContext.getResponseSize()).andReturn(4711L);
+		EasyMock.replay(messageContext);
+
+		final CallContext context = new CallContext(rsd, "measure", messageContext);
+		hook.beforeCall(context);
+		hook.afterCall(context);
+
+		final MethodMetrics metrics = getMetrics("measure");
+		assertEquals(42, metrics.getRequestBytes());
+		assertEquals(4711, metrics.getResponseBytes());
+	}
+
+	public void testIgnoresCallWithoutStart() {
+		hook.afterCall(new CallContext(rsd, "unstarted", null));
+		assertEquals(0, getMetrics("unstarted").getCallCount());
+	}
+
+	private MethodMetrics getMetrics(final String methodName) {
+		return RemoteCallMetrics.getCallMetrics().get(IMeasuredService.class.getName(), methodName);
+	}
+
+	public interface IMeasuredService {
+
+		void measure();
+
+		void fail();
+
+		void unstarted();
+	}
+
+	public interface ISizedMessageContext extends ICallMessageContext, IPayloadSizes {
+	}
+
+}
@@ -0,0 +1,200 @@
+/*******************************************************************************
+ * Copyright (c) 2007, 2014 compeople AG and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    compeople AG - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.riena.internal.communication.factory.hessian;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.net.URL;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.riena.core.test.RienaTestCase;
+import org.eclipse.riena.core.test.collect.NonUITestCase;
+import org.eclipse.riena.core.util.Nop;
+
+/**
+ * Tests the {@code KeepAliveHessianConnectionProvider}.
+ */
+@NonUITestCase
+public class KeepAliveHessianConnectionProviderTest extends RienaTestCase {
+
+	private KeepAliveServer server;
+	private URL url;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		server = new KeepAliveServer();
+		url = new URL("http://127.0.0.1:" + server.getPort() + "/hessian/Service");
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		server.close();
+		super.tearDown();
+	}
+
+	public void testConnectionsAreKeptAlive() throws IOException {
+		final KeepAliveHessianConnectionProvider provider = new KeepAliveHessianConnectionProvider(2);
+		for (int i = 0; i < 3; i++) {
+			assertEquals("ok", call(provider));
+		}
+		assertEquals(1, server.getAccepted());
+		assertEquals(3, provider.getKeptAlive());
+		assertEquals(0, provider.getDisconnected());
+		assertEquals(0, provider.getLeased());
+	}
+
+	public void testUnreadConnectionsAreDisconnected() throws IOException {
+		final KeepAliveHessianConnectionProvider provider = new KeepAliveHessianConnectionProvider();
+		provider.provide(open(), 0).disconnect();
+		assertEquals(0, provider.getKeptAlive());
+		assertEquals(1, provider.getDisconnected());
+		assertEquals(0, provider.getLeased());
+	}
+
+	public void testConnectionsPerHostAreLimited() throws IOException {
+		final KeepAliveHessianConnectionProvider provider = new KeepAliveHessianConnectionProvider(1);
+		final HttpURLConnection first = provider.provide(open(), 0);
+		try {
+			provider.provide(open(), 100);
+			fail("expected SocketTimeoutException");
+		} catch (final SocketTimeoutException e) {
+			ok("expected");
+		}
+		assertEquals(1, provider.getLeased());
+		first.disconnect();
+		assertEquals(0, provider.getLeased());
+		provider.provide(open(), 100).disconnect();
+		assertEquals(0, provider.getLeased());
+	}
+
+	private HttpURLConnection open() throws IOException {
+		return (HttpURLConnection) url.openConnection();
+	}
+
+	private String call(final KeepAliveHessianConnectionProvider provider) throws IOException {
+		final HttpURLConnection connection = provider.provide(open(), 5000);
+		try {
+			connection.setDoOutput(true);
+			connection.setRequestMethod("POST");
+			final OutputStream out = connection.getOutputStream();
+			out.write("ping".getBytes("ISO-8859-1"));
+			out.close();
+			final InputStream in = connection.getInputStream();
+			final ByteArrayOutputStream response = new ByteArrayOutputStream();
+			int b;
+			while ((b = in.read()) != -1) {
+				response.write(b);
+			}
+			return response.toString("ISO-8859-1");
+		} finally {
+			connection.disconnect();
+		}
+	}
+
+	/**
+	 * A minimal HTTP/1.1 server answering each request with "ok" and keeping
+	 * the connections alive.
+	 */
+	private static class KeepAliveServer extends Thread {
+
+		private final ServerSocket serverSocket;
+		private final AtomicInteger accepted = new AtomicInteger();
+
+		public KeepAliveServer() throws IOException {
+			super("KeepAliveServer");
+			serverSocket = new ServerSocket(0, 50, InetAddress.getByName("127.0.0.1"));
+			setDaemon(true);
+			start();
+		}
+
+		public int getPort() {
+			return serverSocket.getLocalPort();
+		}
+
+		public int getAccepted() {
+			return accepted.get();
+		}
+
+		public void close() throws IOException {
+			serverSocket.close();
+		}
+
+		@Override
+		public void run() {
+			while (!serverSocket.isClosed()) {
+				try {
+					final Socket socket = serverSocket.accept();
+					accepted.incrementAndGet();
+					final Thread handler = new Thread("KeepAliveServer.handler") {
+						@Override
+						public void run() {
+							handle(socket);
+						}
+					};
+					handler.setDaemon(true);
+					handler.start();
+				} catch (final IOException e) {
+					return;
+				}
+			}
+		}
+
+		private void handle(final Socket socket) {
+			try {
+				final InputStream in = socket.getInputStream();
+				final OutputStream out = socket.getOutputStream();
+				String header;
+				while ((header = readHeader(in)) != null) {
+					final int contentLength = getContentLength(header);
+					for (int i = 0; i < contentLength; i++) {
+						in.read();
+					}
+					out.write("HTTP/1.1 200 OK\r\nContent-Length: 2\r\nKeep-Alive: timeout=10\r\n\r\nok"
+							.getBytes("ISO-8859-1"));
+					out.flush();
+				}
+				socket.close();
+			} catch (final IOException e) {
+				Nop.reason("connection closed by the client");
+			}
+		}
+
+		private String readHeader(final InputStream in) throws IOException {
+			final StringBuilder header = new StringBuilder();
+			int b;
+			while ((b = in.read()) != -1) {
+				header.append((char) b);
+				if (header.length() >= 4 && header.lastIndexOf("\r\n\r\n") == header.length() - 4) {
+					return header.toString();
+				}
+			}
+			return null;
+		}
+
+		private int getContentLength(final String header) {
+			for (final String line : header.split("\r\n")) {
+				if (line.toLowerCase().startsWith("content-length:")) {
+					return Integer.parseInt(line.substring("content-length:".length()).trim());
+				}
+			}
+			return 0;
+		}
+	}
+
+}
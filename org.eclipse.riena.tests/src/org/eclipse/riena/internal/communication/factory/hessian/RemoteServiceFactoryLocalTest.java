@@ -0,0 +1,160 @@
+/*******************************************************************************
+ * Copyright (c) 2007, 2014 compeople AG and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    compeople AG - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.riena.internal.communication.factory.hessian;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.osgi.framework.ServiceRegistration;
+
+import org.eclipse.riena.communication.core.RemoteFailure;
+import org.eclipse.riena.communication.core.RemoteServiceDescription;
+import org.eclipse.riena.communication.core.hooks.ICallMessageContext;
+import org.eclipse.riena.communication.core.hooks.IServiceMessageContext;
+import org.eclipse.riena.core.test.RienaTestCase;
+import org.eclipse.riena.core.test.collect.NonUITestCase;
+import org.eclipse.riena.internal.tests.Activator;
+
+/**
+ * Tests the {@code RemoteServiceFactoryLocal} together with the
+ * {@code LocalRemoteServicePublisher}.
+ */
+@NonUITestCase
+public class RemoteServiceFactoryLocalTest extends RienaTestCase {
+
+	private LocalRemoteServicePublisher publisher;
+	private ServiceRegistration registration;
+	private RemoteServiceDescription rsd;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		publisher = new LocalRemoteServicePublisher();
+		registration = getContext().registerService(ILocalGreeter.class.getName(), new LocalGreeter(), null);
+		rsd = new RemoteServiceDescription(ILocalGreeter.class.getName(), registration.getReference(),
+				"/LocalGreeter", LocalRemoteServicePublisher.PROTOCOL);
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		registration.unregister();
+		super.tearDown();
+	}
+
+	public void testCallPublishedService() throws Exception {
+		assertEquals("local:/LocalGreeter", publisher.publishService(rsd));
+		final ILocalGreeter greeter = createProxy(new RemoteServiceFactoryLocal(publisher, false));
+
+		assertEquals("Hello Riena", greeter.greet("Riena"));
+		assertNull(publisher.getMessageContextAccessor().getMessageContext());
+	}
+
+	public void testCallUnpublishedService() throws Exception {
+		final ILocalGreeter greeter = createProxy(new RemoteServiceFactoryLocal(publisher, false));
+		try {
+			greeter.greet("Riena");
+			fail();
+		} catch (final RemoteFailure e) {
+			ok();
+		}
+
+		publisher.publishService(rsd);
+		assertEquals("Hello Riena", greeter.greet("Riena"));
+		publisher.unpublishService(rsd);
+		try {
+			greeter.greet("Riena");
+			fail();
+		} catch (final RemoteFailure e) {
+			ok();
+		}
+	}
+
+	public void testServiceException() throws Exception {
+		publisher.publishService(rsd);
+		final ILocalGreeter greeter = createProxy(new RemoteServiceFactoryLocal(publisher, false));
+		try {
+			greeter.greet(null);
+			fail();
+		} catch (final IllegalArgumentException e) {
+			assertEquals("no name", e.getMessage());
+		}
+	}
+
+	public void testMessageContextIsShared() throws Exception {
+		publisher.publishService(rsd);
+		final RemoteServiceFactoryLocal factory = new RemoteServiceFactoryLocal(publisher, false);
+		final ILocalGreeter greeter = createProxy(factory);
+
+		final ICallMessageContext messageContext = factory.getMessageContextAccessor().createMessageContext(greeter,
+				"greet", null);
+		messageContext.addRequestHeader("salutation", "Hi");
+		assertEquals("Hi Riena", greeter.greet("Riena"));
+		assertEquals(Arrays.asList("Riena"), messageContext.getResponseHeaderValues("greeted"));
+	}
+
+	public void testPassByReference() throws Exception {
+		publisher.publishService(rsd);
+		final ILocalGreeter greeter = createProxy(new RemoteServiceFactoryLocal(publisher, false));
+
+		final List<String> names = new ArrayList<String>(Arrays.asList("Riena"));
+		final List<String> result = greeter.append(names, "Eclipse");
+		assertSame(names, result);
+		assertEquals(Arrays.asList("Riena", "Eclipse"), names);
+	}
+
+	public void testPassByValue() throws Exception {
+		publisher.publishService(rsd);
+		final ILocalGreeter greeter = createProxy(new RemoteServiceFactoryLocal(publisher, true));
+
+		final List<String> names = new ArrayList<String>(Arrays.asList("Riena"));
+		final List<String> result = greeter.append(names, "Eclipse");
+		assertNotSame(names, result);
+		assertEquals(Arrays.asList("Riena"), names);
+		assertEquals(Arrays.asList("Riena", "Eclipse"), result);
+		assertEquals("Hello Riena", greeter.greet("Riena"));
+	}
+
+	private ILocalGreeter createProxy(final RemoteServiceFactoryLocal factory) {
+		final RemoteServiceDescription endpoint = new RemoteServiceDescription(ILocalGreeter.class,
+				"local:/LocalGreeter", LocalRemoteServicePublisher.PROTOCOL, Activator.getDefault().getBundle());
+		return (ILocalGreeter) factory.createProxy(endpoint).getServiceInstance();
+	}
+
+	public interface ILocalGreeter {
+
+		String greet(String name);
+
+		List<String> append(List<String> names, String name);
+	}
+
+	private class LocalGreeter implements ILocalGreeter {
+
+		public String greet(final String name) {
+			if (name == null) {
+				throw new IllegalArgumentException("no name");
+			}
+			String salutation = "Hello";
+			final IServiceMessageContext messageContext = publisher.getMessageContextAccessor().getMessageContext();
+			if (messageContext.getRequestHeaderValue("salutation") != null) {
+				salutation = messageContext.getRequestHeaderValue("salutation").get(0);
+				messageContext.addResponseHeader("greeted", name);
+			}
+			return salutation + " " + name;
+		}
+
+		public List<String> append(final List<String> names, final String name) {
+			names.add(name);
+			return names;
+		}
+	}
+
+}
@@ -10,6 +10,15 @@
  *******************************************************************************/
 package org.eclipse.riena.internal.communication.factory.hessian.serializer;
 
+import java.io.IOException;
+
+import com.caucho.hessian.io.AbstractHessianOutput;
+import com.caucho.hessian.io.AbstractSerializer;
+import com.caucho.hessian.io.Deserializer;
+import com.caucho.hessian.io.HessianProtocolException;
+import com.caucho.hessian.io.Serializer;
+
+import org.eclipse.riena.communication.factory.hessian.serializer.AbstractRienaSerializerFactory;
 import org.eclipse.riena.core.test.RienaTestCase;
 import org.eclipse.riena.core.test.collect.NonUITestCase;
 
@@ -23,4 +32,91 @@ public class RienaSerializerFactoryTest extends RienaTestCase {
 		assertNotNull(new RienaSerializerFactory());
 	}
 
+	public void testLookupsAreCached() throws HessianProtocolException {
+		final RienaSerializerFactory factory = new RienaSerializerFactory();
+		final CountingSerializerFactory counting = new CountingSerializerFactory();
+		factory.update(new ISerializerFactoryExtension[] { new SerializerFactoryExtension("counting", counting) });
+
+		final Serializer serializer = factory.getSerializer(StringBuilder.class);
+		assertNotNull(serializer);
+		assertSame(serializer, factory.getSerializer(StringBuilder.class));
+		assertEquals(1, counting.serializerLookups);
+
+		assertNull(factory.getSerializer(String.class));
+		assertNull(factory.getSerializer(String.class));
+		assertEquals(2, counting.serializerLookups);
+
+		assertNull(factory.getDeserializer(StringBuilder.class));
+		assertNull(factory.getDeserializer(StringBuilder.class));
+		assertEquals(1, counting.deserializerLookups);
+	}
+
+	public void testUpdateDropsCachedLookups() throws HessianProtocolException {
+		final RienaSerializerFactory factory = new RienaSerializerFactory();
+		factory.update(new ISerializerFactoryExtension[0]);
+		assertNull(factory.getSerializer(StringBuilder.class));
+
+		final CountingSerializerFactory counting = new CountingSerializerFactory();
+		factory.update(new ISerializerFactoryExtension[] { new SerializerFactoryExtension("counting", counting) });
+		assertNotNull(factory.getSerializer(StringBuilder.class));
+		assertEquals(1, counting.serializerLookups);
+
+		factory.update(new ISerializerFactoryExtension[0]);
+		assertNull(factory.getSerializer(StringBuilder.class));
+		assertEquals(1, counting.serializerLookups);
+	}
+
+	private static class CountingSerializerFactory extends AbstractRienaSerializerFactory {
+
+		private int serializerLookups;
+		private int deserializerLookups;
+
+		@Override
+		public Serializer getSerializer(final Class cl) throws HessianProtocolException {
+			serializerLookups++;
+			if (cl != StringBuilder.class) {
+				return null;
+			}
+			return new AbstractSerializer() {
+				@Override
+				public void writeObject(final Object obj, final AbstractHessianOutput out) throws IOException {
+					out.writeString(obj.toString());
+				}
+			};
+		}
+
+		@Override
+		public Deserializer getDeserializer(final Class cl) throws HessianProtocolException {
+			deserializerLookups++;
+			return null;
+		}
+	}
+
+	private static class SerializerFactoryExtension implements ISerializerFactoryExtension {
+
+		private final String name;
+		private final AbstractRienaSerializerFactory serializerFactory;
+
+		public SerializerFactoryExtension(final String name, final AbstractRienaSerializerFactory serializerFactory) {
+			this.name = name;
+			this.serializerFactory = serializerFactory;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public String getPreSerializerFactories() {
+			return null;
+		}
+
+		public String getPostSerializerFactories() {
+			return null;
+		}
+
+		public AbstractRienaSerializerFactory newSerializerFactory() {
+			return serializerFactory;
+		}
+	}
+
 }
@@ -11,9 +11,16 @@
 package org.eclipse.riena.internal.communication.hessian;
 
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.Arrays;
+import java.util.Random;
 
+import org.eclipse.riena.communication.core.RemoteFailure;
 import org.eclipse.riena.communication.core.attachment.Attachment;
 import org.eclipse.riena.core.util.Nop;
 import org.eclipse.riena.internal.communication.factory.hessian.serializer.InputStreamSerializerFactory;
@@ -44,4 +51,140 @@ public class InputStreamSerializerFactoryTest extends AbstractSerializerFactoryT
 		attechmentOut.readAsStream().read(outBytes);
 		assertTrue(Arrays.equals(BYTES, outBytes));
 	}
+
+	public void testLargeInputStreamIsSpilled() throws IOException {
+		final byte[] bytes = createBytes(100000);
+		System.setProperty(InputStreamSerializerFactory.RIENA_ATTACHMENT_SPILL_THRESHOLD_PROPERTY, "10000");
+		try {
+			for (final HessianSerializerVersion version : HessianSerializerVersion.values()) {
+				final Attachment attachmentOut = (Attachment) inAndOut(
+						new Attachment(new ByteArrayInputStream(bytes)), version, null,
+						new InputStreamSerializerFactory());
+				final InputStream inputStream = attachmentOut.readAsStream();
+				assertFalse(inputStream instanceof ByteArrayInputStream);
+				assertTrue(Arrays.equals(bytes, readFully(inputStream)));
+				inputStream.close();
+				// a closed spilled attachment can be read again ..
+				assertTrue(Arrays.equals(bytes, readFully(attachmentOut.readAsStream())));
+				// .. and sent again (which closes it) ..
+				final Attachment attachmentOutOut = (Attachment) inAndOut(attachmentOut, version, null,
+						new InputStreamSerializerFactory());
+				assertTrue(Arrays.equals(bytes, readFully(attachmentOutOut.readAsStream())));
+				// .. and still be read
+				assertTrue(Arrays.equals(bytes, readFully(attachmentOut.readAsStream())));
+				final File spilled = File.createTempFile("InputStreamSerializerFactoryTest", ".bin");
+				try {
+					final InputStream fileInput = new FileInputStream(attachmentOut.readAsFile(spilled.getPath()));
+					try {
+						assertTrue(Arrays.equals(bytes, readFully(fileInput)));
+					} finally {
+						fileInput.close();
+					}
+				} finally {
+					assertTrue(spilled.delete());
+				}
+			}
+		} finally {
+			System.clearProperty(InputStreamSerializerFactory.RIENA_ATTACHMENT_SPILL_THRESHOLD_PROPERTY);
+		}
+	}
+
+	public void testSmallInputStreamStaysInMemory() throws IOException {
+		final byte[] bytes = createBytes(10000);
+		final Attachment attachmentOut = (Attachment) inAndOut(new Attachment(new ByteArrayInputStream(bytes)),
+				HessianSerializerVersion.Two, null, new InputStreamSerializerFactory());
+		final InputStream inputStream = attachmentOut.readAsStream();
+		assertTrue(inputStream instanceof ByteArrayInputStream);
+		assertTrue(Arrays.equals(bytes, readFully(inputStream)));
+	}
+
+	public void testInputStreamOfThresholdSizeStaysInMemory() throws IOException {
+		final byte[] bytes = createBytes(10000);
+		System.setProperty(InputStreamSerializerFactory.RIENA_ATTACHMENT_SPILL_THRESHOLD_PROPERTY, "10000");
+		try {
+			final Attachment attachmentOut = (Attachment) inAndOut(new Attachment(new ByteArrayInputStream(bytes)),
+					HessianSerializerVersion.Two, null, new InputStreamSerializerFactory());
+			final InputStream inputStream = attachmentOut.readAsStream();
+			assertTrue(inputStream instanceof ByteArrayInputStream);
+			assertTrue(Arrays.equals(bytes, readFully(inputStream)));
+		} finally {
+			System.clearProperty(InputStreamSerializerFactory.RIENA_ATTACHMENT_SPILL_THRESHOLD_PROPERTY);
+		}
+	}
+
+	public void testFileAttachment() throws IOException {
+		final byte[] bytes = createBytes(50000);
+		final File file = File.createTempFile("InputStreamSerializerFactoryTest", ".bin");
+		try {
+			final FileOutputStream output = new FileOutputStream(file);
+			try {
+				output.write(bytes);
+			} finally {
+				output.close();
+			}
+			System.setProperty(InputStreamSerializerFactory.RIENA_ATTACHMENT_SPILL_THRESHOLD_PROPERTY, "1000");
+			for (final HessianSerializerVersion version : HessianSerializerVersion.values()) {
+				final Attachment attachmentOut = (Attachment) inAndOut(new Attachment(file), version, null,
+						new InputStreamSerializerFactory());
+				assertTrue(Arrays.equals(bytes, readFully(attachmentOut.readAsStream())));
+				// .. and send the spilled content again
+				final Attachment attachmentOutOut = (Attachment) inAndOut(attachmentOut, version, null,
+						new InputStreamSerializerFactory());
+				assertTrue(Arrays.equals(bytes, readFully(attachmentOutOut.readAsStream())));
+			}
+		} finally {
+			System.clearProperty(InputStreamSerializerFactory.RIENA_ATTACHMENT_SPILL_THRESHOLD_PROPERTY);
+			assertTrue(file.delete());
+		}
+	}
+
+	public void testInterruptedInputStream() throws IOException {
+		final InputStream failing = new ByteArrayInputStream(createBytes(20000)) {
+			@Override
+			public synchronized int read(final byte[] b, final int off, final int len) {
+				if (pos > 10000) {
+					throw new IllegalStateException("not an IOException");
+				}
+				return super.read(b, off, len);
+			}
+		};
+		final InputStream interrupted = new InputStream() {
+			@Override
+			public int read() throws IOException {
+				return read(new byte[1], 0, 1);
+			}
+
+			@Override
+			public int read(final byte[] b, final int off, final int len) throws IOException {
+				try {
+					return failing.read(b, off, len);
+				} catch (final IllegalStateException e) {
+					throw new IOException("interrupted");
+				}
+			}
+		};
+		try {
+			inAndOut(new Attachment(interrupted), HessianSerializerVersion.Two, null,
+					new InputStreamSerializerFactory());
+			fail("Must fail!");
+		} catch (final IOException e) {
+			assertTrue(e.getCause() instanceof RemoteFailure);
+		}
+	}
+
+	private static byte[] createBytes(final int length) {
+		final byte[] bytes = new byte[length];
+		new Random(length).nextBytes(bytes);
+		return bytes;
+	}
+
+	private static byte[] readFully(final InputStream inputStream) throws IOException {
+		final ByteArrayOutputStream output = new ByteArrayOutputStream();
+		final byte[] buf = new byte[4096];
+		int len;
+		while ((len = inputStream.read(buf)) != -1) {
+			output.write(buf, 0, len);
+		}
+		return output.toByteArray();
+	}
 }
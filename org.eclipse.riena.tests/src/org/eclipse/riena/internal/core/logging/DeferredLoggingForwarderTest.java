@@ -0,0 +1,61 @@
+/*******************************************************************************
+ * Copyright (c) 2007, 2014 compeople AG and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    compeople AG - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.riena.internal.core.logging;
+
+import org.osgi.service.log.LogService;
+
+import org.eclipse.equinox.log.Logger;
+
+import org.eclipse.riena.core.test.RienaTestCase;
+import org.eclipse.riena.core.test.collect.NonUITestCase;
+import org.eclipse.riena.internal.core.logging.DeferredLoggingForwarder.OverflowPolicy;
+
+/**
+ * Tests the {@code DeferredLoggingForwarder}.
+ */
+@NonUITestCase
+public class DeferredLoggingForwarderTest extends RienaTestCase {
+
+	public void testParseOverflowPolicy() {
+		assertEquals(OverflowPolicy.DROP_OLDEST, OverflowPolicy.parse("dropOldest", OverflowPolicy.BLOCK));
+		assertEquals(OverflowPolicy.DROP_NEWEST, OverflowPolicy.parse("drop-newest", OverflowPolicy.BLOCK));
+		assertEquals(OverflowPolicy.BLOCK, OverflowPolicy.parse("BLOCK", OverflowPolicy.DROP_OLDEST));
+		assertEquals(OverflowPolicy.DROP_OLDEST, OverflowPolicy.parse("whatever", OverflowPolicy.DROP_OLDEST));
+		assertEquals(OverflowPolicy.DROP_NEWEST, OverflowPolicy.parse(null, OverflowPolicy.DROP_NEWEST));
+	}
+
+	public void testDropOldest() throws Exception {
+		final DeferredLoggingForwarder forwarder = new DeferredLoggingForwarder(LoggerProvider.instance(), 2,
+				OverflowPolicy.DROP_OLDEST);
+		assertTrue(forwarder.enqueue(newLogEvent("1")));
+		assertTrue(forwarder.enqueue(newLogEvent("2")));
+		assertTrue(forwarder.enqueue(newLogEvent("3")));
+		assertEquals(2, forwarder.getQueued());
+		assertEquals(1, forwarder.getDropped());
+	}
+
+	public void testDropNewest() throws Exception {
+		final DeferredLoggingForwarder forwarder = new DeferredLoggingForwarder(LoggerProvider.instance(), 2,
+				OverflowPolicy.DROP_NEWEST);
+		assertTrue(forwarder.enqueue(newLogEvent("1")));
+		assertTrue(forwarder.enqueue(newLogEvent("2")));
+		assertFalse(forwarder.enqueue(newLogEvent("3")));
+		assertEquals(2, forwarder.getQueued());
+		assertEquals(1, forwarder.getDropped());
+	}
+
+	private DeferredLogEvent newLogEvent(final String message) throws NoSuchMethodException {
+		return new DeferredLogEvent(DeferredLoggingForwarderTest.class.getName(), System.currentTimeMillis(), Thread
+				.currentThread().getName(), Logger.class.getMethod("log", int.class, String.class), new Object[] {
+				LogService.LOG_INFO, message });
+	}
+
+}
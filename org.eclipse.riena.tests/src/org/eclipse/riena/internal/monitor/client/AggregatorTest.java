@@ -0,0 +1,281 @@
+/*******************************************************************************
+ * Copyright (c) 2007, 2014 compeople AG and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    compeople AG - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.riena.internal.monitor.client;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.eclipse.riena.core.test.RienaTestCase;
+import org.eclipse.riena.core.test.collect.NonUITestCase;
+import org.eclipse.riena.monitor.client.Category;
+import org.eclipse.riena.monitor.client.IAggregator;
+import org.eclipse.riena.monitor.client.IBulkStore;
+import org.eclipse.riena.monitor.client.IClientInfoProvider;
+import org.eclipse.riena.monitor.client.ICollector;
+import org.eclipse.riena.monitor.client.ISender;
+import org.eclipse.riena.monitor.client.IStore;
+import org.eclipse.riena.monitor.common.Collectible;
+
+/**
+ * Tests the {@code Aggregator}.
+ */
+@NonUITestCase
+public class AggregatorTest extends RienaTestCase {
+
+	private static final String CATEGORY = "test";
+
+	private Aggregator aggregator;
+	private BlockingStore store;
+	private RecordingSender sender;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		store = new BlockingStore();
+		sender = new RecordingSender();
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		store.release.countDown();
+		aggregator.stop();
+		super.tearDown();
+	}
+
+	public void testCollectiblesAreStoredInBatches() throws Exception {
+		startAggregator(100, null);
+		aggregator.collect(collectible(0));
+		assertTrue(store.blocked.await(5, TimeUnit.SECONDS));
+		for (int i = 1; i <= 10; i++) {
+			aggregator.collect(collectible(i));
+		}
+		store.release.countDown();
+		aggregator.stop();
+
+		assertEquals(2, store.batches.size());
+		assertEquals(1, store.batches.get(0).size());
+		assertEquals(10, store.batches.get(1).size());
+	}
+
+	public void testDropNewestWhenQueueIsFull() throws Exception {
+		startAggregator(5, Aggregator.DROP_NEWEST);
+		aggregator.collect(collectible(0));
+		assertTrue(store.blocked.await(5, TimeUnit.SECONDS));
+		for (int i = 1; i <= 10; i++) {
+			aggregator.collect(collectible(i));
+		}
+		store.release.countDown();
+		aggregator.stop();
+
+		assertEquals("[0, 1, 2, 3, 4, 5]", store.getPayloads().toString());
+	}
+
+	public void testDropOldestWhenQueueIsFull() throws Exception {
+		startAggregator(5, Aggregator.DROP_OLDEST);
+		aggregator.collect(collectible(0));
+		assertTrue(store.blocked.await(5, TimeUnit.SECONDS));
+		for (int i = 1; i <= 10; i++) {
+			aggregator.collect(collectible(i));
+		}
+		store.release.countDown();
+		aggregator.stop();
+
+		assertEquals("[0, 6, 7, 8, 9, 10]", store.getPayloads().toString());
+	}
+
+	public void testTriggerTransferAfterStoringQueuedCollectibles() throws Exception {
+		store.release.countDown();
+		startAggregator(100, null);
+		aggregator.collect(collectible(0));
+		aggregator.collect(collectible(1));
+		aggregator.triggerTransfer(CATEGORY);
+		assertTrue(sender.triggered.await(5, TimeUnit.SECONDS));
+
+		assertEquals("[0, 1]", store.getPayloads().toString());
+		assertEquals(2, store.storedWhenPrepared);
+	}
+
+	public void testWorkerSurvivesFailingStore() throws Exception {
+		store.release.countDown();
+		store.failOnce.set(true);
+		startAggregator(100, null);
+		aggregator.collect(collectible(0));
+		assertTrue(store.blocked.await(5, TimeUnit.SECONDS));
+		aggregator.collect(collectible(1));
+		aggregator.triggerTransfer(CATEGORY);
+		assertTrue(sender.triggered.await(5, TimeUnit.SECONDS));
+
+		assertEquals("[0, 1]", store.getPayloads().toString());
+		assertEquals(2, store.batches.size());
+	}
+
+	public void testUnknownShedding() {
+		aggregator = new Aggregator();
+		try {
+			aggregator.update(new ICollectorExtension[] { new CollectorExtension(5, "dropAll") });
+			fail();
+		} catch (final IllegalArgumentException e) {
+			ok();
+		}
+	}
+
+	private void startAggregator(final int maxItems, final String shedding) {
+		aggregator = new Aggregator();
+		aggregator.update(new ICollectorExtension[] { new CollectorExtension(maxItems, shedding) });
+		aggregator.update(new ISenderExtension() {
+			public String getName() {
+				return "RecordingSender";
+			}
+
+			public ISender createSender() {
+				return sender;
+			}
+		});
+		aggregator.update(new IStoreExtension() {
+			public String getName() {
+				return "BlockingStore";
+			}
+
+			public IStore createStore() {
+				return store;
+			}
+		});
+		aggregator.start();
+	}
+
+	private static Collectible<Integer> collectible(final int payload) {
+		return new Collectible<Integer>("unit-test", CATEGORY, payload);
+	}
+
+	private static class CollectorExtension implements ICollectorExtension {
+
+		private final int maxItems;
+		private final String shedding;
+
+		public CollectorExtension(final int maxItems, final String shedding) {
+			this.maxItems = maxItems;
+			this.shedding = shedding;
+		}
+
+		public String getCategory() {
+			return CATEGORY;
+		}
+
+		public ICollector createCollector() {
+			return new ICollector() {
+				public void start(final IAggregator aggregator, final Category category,
+						final IClientInfoProvider clientInfoProvider) {
+				}
+
+				public void stop() {
+				}
+
+				public Category getCategory() {
+					return null;
+				}
+			};
+		}
+
+		public int getMaxItems() {
+			return maxItems;
+		}
+
+		public String getShedding() {
+			return shedding;
+		}
+	}
+
+	/**
+	 * Blocks within the first {@code collectAll()} until released and
+	 * optionally fails it afterwards.
+	 */
+	private static class BlockingStore implements IBulkStore {
+
+		private final List<List<Collectible<?>>> batches = Collections
+				.synchronizedList(new ArrayList<List<Collectible<?>>>());
+		private final CountDownLatch blocked = new CountDownLatch(1);
+		private final CountDownLatch release = new CountDownLatch(1);
+		private final AtomicBoolean failOnce = new AtomicBoolean();
+		private volatile int storedWhenPrepared = -1;
+
+		public boolean collectAll(final List<Collectible<?>> collectibles) {
+			batches.add(new ArrayList<Collectible<?>>(collectibles));
+			blocked.countDown();
+			try {
+				release.await(5, TimeUnit.SECONDS);
+			} catch (final InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			if (failOnce.getAndSet(false)) {
+				throw new IllegalStateException("store failed");
+			}
+			return true;
+		}
+
+		public boolean collect(final Collectible<?> collectible) {
+			fail("the aggregator should use collectAll()");
+			return false;
+		}
+
+		private List<Object> getPayloads() {
+			final List<Object> payloads = new ArrayList<Object>();
+			synchronized (batches) {
+				for (final List<Collectible<?>> batch : batches) {
+					for (final Collectible<?> collectible : batch) {
+						payloads.add(collectible.getPayload());
+					}
+				}
+			}
+			return payloads;
+		}
+
+		public void open(final Map<String, Category> categories) {
+		}
+
+		public void close() {
+		}
+
+		public void flush() {
+		}
+
+		public void prepareTransferables(final String category) {
+			storedWhenPrepared = getPayloads().size();
+		}
+
+		public List<Collectible<?>> retrieveTransferables(final String category) {
+			return Collections.emptyList();
+		}
+
+		public void commitTransferred(final List<Collectible<?>> collectibles) {
+		}
+	}
+
+	private static class RecordingSender implements ISender {
+
+		private final CountDownLatch triggered = new CountDownLatch(1);
+
+		public void start(final IStore store, final Collection<Category> categories) {
+		}
+
+		public void stop() {
+		}
+
+		public void triggerTransfer(final String category) {
+			triggered.countDown();
+		}
+	}
+}
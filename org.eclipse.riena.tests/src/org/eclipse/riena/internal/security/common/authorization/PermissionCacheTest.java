@@ -10,7 +10,11 @@
  *******************************************************************************/
 package org.eclipse.riena.internal.security.common.authorization;
 
+import java.security.Permissions;
+
 import org.eclipse.riena.core.cache.GenericObjectCache;
+import org.eclipse.riena.core.cache.IGenericObjectCache;
+import org.eclipse.riena.core.cache.TinyLFUCache;
 import org.eclipse.riena.core.test.RienaTestCase;
 import org.eclipse.riena.core.test.collect.NonUITestCase;
 import org.eclipse.riena.core.util.ContainerModel;
@@ -84,6 +88,17 @@ public class PermissionCacheTest extends RienaTestCase {
 		assertEquals(360, getCache(cache).getTimeout());
 	}
 
+	public void testConfigurationServerOneExtensionWithCache() {
+		setContainerType(ContainerType.SERVER);
+		final PermissionCache cache = new PermissionCache();
+		assertTrue(getCache(cache) instanceof GenericObjectCache);
+		cache.update(new PermissionCacheExtension(5, 360, 2000, new TinyLFUCache<String, Permissions>()));
+		assertTrue(getCache(cache) instanceof TinyLFUCache);
+		assertEquals(5, getCache(cache).getMinimumSize());
+		assertEquals(360, getCache(cache).getTimeout());
+		assertEquals(2000, ((TinyLFUCache<String, Permissions>) getCache(cache)).getMaximumSize());
+	}
+
 	private enum ContainerType {
 		SERVER, CLIENT
 	};
@@ -94,7 +109,7 @@ public class PermissionCacheTest extends RienaTestCase {
 		ReflectionUtils.invokeHidden(ContainerModel.class, "initialize");
 	}
 
-	private GenericObjectCache getCache(final PermissionCache permissionCache) {
+	private IGenericObjectCache<String, Permissions> getCache(final PermissionCache permissionCache) {
 		return ReflectionUtils.getHidden(permissionCache, "permCache");
 	}
 
@@ -102,10 +117,19 @@ public class PermissionCacheTest extends RienaTestCase {
 
 		private final int minimumSize;
 		private final int timeout;
+		private final int maximumSize;
+		private final IGenericObjectCache<String, ?> cache;
 
 		public PermissionCacheExtension(final int minimumSize, final int timeout) {
+			this(minimumSize, timeout, 0, null);
+		}
+
+		public PermissionCacheExtension(final int minimumSize, final int timeout, final int maximumSize,
+				final IGenericObjectCache<String, ?> cache) {
 			this.minimumSize = minimumSize;
 			this.timeout = timeout;
+			this.maximumSize = maximumSize;
+			this.cache = cache;
 		}
 
 		public int getMinimumSize() {
@@ -116,5 +140,13 @@ public class PermissionCacheTest extends RienaTestCase {
 			return timeout;
 		}
 
+		public int getMaximumSize() {
+			return maximumSize;
+		}
+
+		public IGenericObjectCache<String, ?> createCache() {
+			return cache;
+		}
+
 	}
 }
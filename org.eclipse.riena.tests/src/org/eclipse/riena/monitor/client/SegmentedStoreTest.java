@@ -0,0 +1,203 @@
+/*******************************************************************************
+ * Copyright (c) 2007, 2014 compeople AG and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    compeople AG - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.riena.monitor.client;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FilenameFilter;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.core.runtime.CoreException;
+
+import org.eclipse.riena.core.test.RienaTestCase;
+import org.eclipse.riena.core.test.collect.NonUITestCase;
+import org.eclipse.riena.core.util.Literal;
+import org.eclipse.riena.monitor.common.Collectible;
+
+/**
+ * Test the {@code SegmentedStore}.
+ */
+@NonUITestCase
+public class SegmentedStoreTest extends RienaTestCase {
+
+	private static final String CATEGORY = "test";
+	private static final String CLIENT_INFO = "unit-test";
+
+	private File storeFolder;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		storeFolder = File.createTempFile("SegmentedStore", ".test");
+		storeFolder.delete();
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		final File[] files = storeFolder.listFiles();
+		if (files != null) {
+			for (final File file : files) {
+				file.delete();
+			}
+		}
+		storeFolder.delete();
+		super.tearDown();
+	}
+
+	public void testCollectPrepareRetrieveAndCommit() throws CoreException {
+		final SegmentedStore store = createStore(100);
+		for (int i = 0; i < 30; i++) {
+			assertTrue(store.collect(new Collectible<String>(CLIENT_INFO, CATEGORY, "payload " + i)));
+		}
+		assertTrue(store.retrieveTransferables(CATEGORY).isEmpty());
+
+		store.prepareTransferables(CATEGORY);
+		store.collect(new Collectible<String>(CLIENT_INFO, CATEGORY, "not yet"));
+		final List<Collectible<?>> transferables = store.retrieveTransferables(CATEGORY);
+		assertEquals(30, transferables.size());
+		assertEquals("payload 0", transferables.get(0).getPayload());
+		assertEquals("payload 29", transferables.get(29).getPayload());
+		assertEquals(CLIENT_INFO, transferables.get(0).getClientInfo());
+
+		store.commitTransferred(transferables);
+		assertTrue(store.retrieveTransferables(CATEGORY).isEmpty());
+		// 100 / 8 items per segment, only the uncommitted segment remains
+		assertEquals(1, getSegmentFiles().length);
+		store.close();
+	}
+
+	public void testPartialCommitKeepsSegment() throws CoreException {
+		final SegmentedStore store = createStore(100);
+		for (int i = 0; i < 3; i++) {
+			store.collect(new Collectible<String>(CLIENT_INFO, CATEGORY, "payload " + i));
+		}
+		store.prepareTransferables(CATEGORY);
+		final List<Collectible<?>> transferables = store.retrieveTransferables(CATEGORY);
+		store.commitTransferred(transferables.subList(0, 2));
+
+		final List<Collectible<?>> remaining = store.retrieveTransferables(CATEGORY);
+		assertEquals(1, remaining.size());
+		assertEquals("payload 2", remaining.get(0).getPayload());
+		store.commitTransferred(remaining);
+		assertEquals(0, getSegmentFiles().length);
+		store.close();
+	}
+
+	public void testPartialCommitSurvivesRestart() throws CoreException {
+		SegmentedStore store = createStore(100);
+		for (int i = 0; i < 3; i++) {
+			store.collect(new Collectible<String>(CLIENT_INFO, CATEGORY, "payload " + i));
+		}
+		store.prepareTransferables(CATEGORY);
+		final List<Collectible<?>> transferables = store.retrieveTransferables(CATEGORY);
+		store.commitTransferred(transferables.subList(0, 2));
+
+		// simulate a crash, i.e. no close()
+		store = createStore(100);
+		final List<Collectible<?>> remaining = store.retrieveTransferables(CATEGORY);
+		assertEquals(1, remaining.size());
+		assertEquals("payload 2", remaining.get(0).getPayload());
+		store.commitTransferred(remaining);
+		assertEquals(0, getSegmentFiles().length);
+		store.close();
+	}
+
+	public void testMaxItemsDropsOldestSegments() throws CoreException {
+		final SegmentedStore store = createStore(16);
+		for (int i = 0; i < 100; i++) {
+			store.collect(new Collectible<String>(CLIENT_INFO, CATEGORY, "payload " + i));
+		}
+		store.prepareTransferables(CATEGORY);
+		final List<Collectible<?>> transferables = store.retrieveTransferables(CATEGORY);
+		assertTrue(transferables.size() <= 16);
+		assertTrue(transferables.size() >= 14);
+		assertEquals("payload 99", transferables.get(transferables.size() - 1).getPayload());
+		store.close();
+	}
+
+	public void testReopenRecoversIndexAndTornRecord() throws CoreException, IOException {
+		SegmentedStore store = createStore(100);
+		for (int i = 0; i < 5; i++) {
+			store.collect(new Collectible<String>(CLIENT_INFO, CATEGORY, "payload " + i));
+		}
+		store.flush();
+		// simulate a crash while appending
+		final File[] segmentFiles = getSegmentFiles();
+		assertEquals(1, segmentFiles.length);
+		final FileOutputStream out = new FileOutputStream(segmentFiles[0], true);
+		out.write(new byte[] { 0, 0, 1, 0, 42 });
+		out.close();
+
+		store = createStore(100);
+		store.prepareTransferables(CATEGORY);
+		final List<Collectible<?>> transferables = store.retrieveTransferables(CATEGORY);
+		assertEquals(5, transferables.size());
+		store.commitTransferred(transferables);
+		assertEquals(0, getSegmentFiles().length);
+		store.close();
+	}
+
+	public void testCompactEncodingReadsBothEncodings() throws CoreException {
+		SegmentedStore store = createStore(100);
+		store.collect(new Collectible<String>(CLIENT_INFO, CATEGORY, "serialized"));
+		store.close();
+
+		store = createStore(100, "encoding=compact");
+		store.collect(new Collectible<String>(CLIENT_INFO, CATEGORY, "compact"));
+		store.prepareTransferables(CATEGORY);
+		final List<Collectible<?>> transferables = store.retrieveTransferables(CATEGORY);
+		assertEquals(2, transferables.size());
+		assertEquals("serialized", transferables.get(0).getPayload());
+		assertEquals("compact", transferables.get(1).getPayload());
+		assertEquals(CLIENT_INFO, transferables.get(1).getClientInfo());
+		store.close();
+	}
+
+	public void testSetInitializationData() throws CoreException {
+		final SegmentedStore store = new SegmentedStore();
+		store.setInitializationData(null, null, "segmentSize=1024; storePath=" + storeFolder.getAbsolutePath());
+		assertTrue(storeFolder.isDirectory());
+		try {
+			store.setInitializationData(null, null, "segmentSize=0");
+			fail();
+		} catch (final CoreException e) {
+			ok();
+		}
+		try {
+			store.setInitializationData(null, null, "encoding=xml");
+			fail();
+		} catch (final CoreException e) {
+			ok();
+		}
+	}
+
+	private SegmentedStore createStore(final int maxItems) throws CoreException {
+		return createStore(maxItems, "");
+	}
+
+	private SegmentedStore createStore(final int maxItems, final String configuration) throws CoreException {
+		final SegmentedStore store = new SegmentedStore();
+		store.setInitializationData(null, null, configuration + "; storePath=" + storeFolder.getAbsolutePath());
+		final Map<String, Category> categories = Literal.map(CATEGORY, new Category(CATEGORY, maxItems));
+		store.open(categories);
+		return store;
+	}
+
+	private File[] getSegmentFiles() {
+		return storeFolder.listFiles(new FilenameFilter() {
+			public boolean accept(final File dir, final String name) {
+				return name.endsWith(".seg");
+			}
+		});
+	}
+}
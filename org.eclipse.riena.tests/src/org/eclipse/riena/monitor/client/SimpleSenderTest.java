@@ -0,0 +1,258 @@
+/*******************************************************************************
+ * Copyright (c) 2007, 2014 compeople AG and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    compeople AG - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.riena.monitor.client;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.core.runtime.CoreException;
+
+import org.eclipse.riena.core.test.RienaTestCase;
+import org.eclipse.riena.core.test.collect.NonUITestCase;
+import org.eclipse.riena.core.util.ReflectionUtils;
+import org.eclipse.riena.monitor.common.Collectible;
+import org.eclipse.riena.monitor.common.ICompactReceiver;
+import org.eclipse.riena.monitor.common.IReceiver;
+
+/**
+ * Test the {@code SimpleSender}.
+ */
+@NonUITestCase
+public class SimpleSenderTest extends RienaTestCase {
+
+	private static final String CATEGORY = "test";
+
+	private SimpleSender sender;
+	private MemoryStore store;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		store = new MemoryStore();
+		for (int i = 0; i < 5; i++) {
+			store.collect(new Collectible<String>("unit-test", CATEGORY, "payload " + i));
+		}
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		if (sender != null) {
+			sender.stop();
+		}
+		super.tearDown();
+	}
+
+	public void testSendsAndCommitsChunks() throws Exception {
+		final Receiver receiver = new Receiver(3, 0);
+		startSender("maxChunkItems=2", receiver);
+
+		assertTrue(receiver.done.await(10, TimeUnit.SECONDS));
+		Thread.sleep(100);
+		assertEquals(Arrays.asList(2, 2, 1), receiver.chunkSizes);
+		assertEquals(Arrays.asList(2, 2, 1), store.commitSizes);
+		assertTrue(store.collectibles.isEmpty());
+	}
+
+	public void testChunksAreLimitedByBytes() throws Exception {
+		final Receiver receiver = new Receiver(5, 0);
+		// every collectible is larger than 1 byte, so each one is sent on its own
+		startSender("maxChunkBytes=1", receiver);
+
+		assertTrue(receiver.done.await(10, TimeUnit.SECONDS));
+		assertEquals(Arrays.asList(1, 1, 1, 1, 1), receiver.chunkSizes);
+	}
+
+	public void testFailedChunkIsNotCommitted() throws Exception {
+		final Receiver receiver = new Receiver(2, 2);
+		startSender("maxChunkItems=2; retryTime=1 h", receiver);
+
+		assertTrue(receiver.done.await(10, TimeUnit.SECONDS));
+		Thread.sleep(100);
+		assertEquals(Arrays.asList(2, 2), receiver.chunkSizes);
+		assertEquals(Arrays.asList(2), store.commitSizes);
+		assertEquals(3, store.collectibles.size());
+	}
+
+	public void testFallsBackToReceiverIfCompactReceiverFails() throws Exception {
+		final Receiver receiver = new Receiver(3, 0);
+		final CompactReceiver compactReceiver = new CompactReceiver(Integer.MAX_VALUE, true);
+		startSender("maxChunkItems=2", receiver, compactReceiver);
+
+		assertTrue(receiver.done.await(10, TimeUnit.SECONDS));
+		Thread.sleep(100);
+		assertEquals(Arrays.asList(2, 2, 1), receiver.chunkSizes);
+		assertEquals(Arrays.asList(2, 2, 1), store.commitSizes);
+		// the compact receiver is not tried again before maxRetryTime has passed
+		assertEquals(1, compactReceiver.calls.get());
+	}
+
+	public void testFallsBackToReceiverIfCompactReceiverRejects() throws Exception {
+		final Receiver receiver = new Receiver(3, 0);
+		final CompactReceiver compactReceiver = new CompactReceiver(Integer.MAX_VALUE, false);
+		startSender("maxChunkItems=2", receiver, compactReceiver);
+
+		assertTrue(receiver.done.await(10, TimeUnit.SECONDS));
+		Thread.sleep(100);
+		assertEquals(Arrays.asList(2, 2, 1), receiver.chunkSizes);
+		assertEquals(Arrays.asList(2, 2, 1), store.commitSizes);
+		assertEquals(1, compactReceiver.calls.get());
+	}
+
+	public void testCompactReceiverIsRetriedAfterMaxRetryTime() throws Exception {
+		final Receiver receiver = new Receiver(1, 0);
+		final CompactReceiver compactReceiver = new CompactReceiver(1, true);
+		startSender("retryTime=100 ms; maxRetryTime=300 ms", receiver, compactReceiver);
+
+		assertTrue(receiver.done.await(10, TimeUnit.SECONDS));
+		Thread.sleep(400);
+		store.collect(new Collectible<String>("unit-test", CATEGORY, "payload 5"));
+		sender.triggerTransfer(CATEGORY);
+
+		assertTrue(compactReceiver.accepted.await(10, TimeUnit.SECONDS));
+		Thread.sleep(100);
+		assertEquals(Arrays.asList(5), receiver.chunkSizes);
+		assertEquals(Arrays.asList(5, 1), store.commitSizes);
+		assertEquals(2, compactReceiver.calls.get());
+	}
+
+	public void testRetryDelayGrowsUpToMaxRetryTime() throws Exception {
+		// without a receiver the sender does not send (and does not reset the retries)
+		startSender("retryTime=1 s; maxRetryTime=10 s", null);
+		final Map<String, Object> senders = ReflectionUtils.getHidden(sender, "senders");
+		final Object categorySender = senders.get(CATEGORY);
+		final long[] expected = { 1000, 2000, 4000, 8000, 10000, 10000 };
+		for (final long delay : expected) {
+			final long retryDelay = ReflectionUtils.<Long> invokeHidden(categorySender, "nextRetryDelay");
+			assertTrue("retry delay " + retryDelay + " should be about " + delay, retryDelay >= delay / 2
+					&& retryDelay <= delay);
+		}
+	}
+
+	public void testSetInitializationData() throws CoreException {
+		sender = new SimpleSender();
+		sender.setInitializationData(null, null, "retryTime=2 h; maxChunkItems=10; maxChunkBytes=1024");
+		assertEquals(2 * 60 * 60 * 1000, (long) (Long) ReflectionUtils.getHidden(sender, "retryTime"));
+		assertEquals(2 * 60 * 60 * 1000, (long) (Long) ReflectionUtils.getHidden(sender, "maxRetryTime"));
+		assertEquals(10, (int) (Integer) ReflectionUtils.getHidden(sender, "maxChunkItems"));
+		assertEquals(1024, (long) (Long) ReflectionUtils.getHidden(sender, "maxChunkBytes"));
+		try {
+			sender.setInitializationData(null, null, "maxChunkItems=0");
+			fail();
+		} catch (final CoreException e) {
+			ok();
+		}
+	}
+
+	private void startSender(final String configuration, final IReceiver receiver) throws CoreException {
+		startSender(configuration, receiver, null);
+	}
+
+	private void startSender(final String configuration, final IReceiver receiver,
+			final ICompactReceiver compactReceiver) throws CoreException {
+		sender = new SimpleSender();
+		sender.setInitializationData(null, null, configuration);
+		sender.bind(receiver);
+		if (compactReceiver != null) {
+			sender.bind(compactReceiver);
+		}
+		sender.start(store, Collections.singletonList(new Category(CATEGORY, 100)));
+		sender.triggerTransfer(CATEGORY);
+	}
+
+	/**
+	 * Records the sizes of the chunks it takes and rejects the n-th chunk.
+	 */
+	private static class Receiver implements IReceiver {
+
+		private final List<Integer> chunkSizes = Collections.synchronizedList(new ArrayList<Integer>());
+		private final CountDownLatch done;
+		private final int reject;
+
+		public Receiver(final int expectedChunks, final int reject) {
+			this.done = new CountDownLatch(expectedChunks);
+			this.reject = reject;
+		}
+
+		public boolean take(final long senderTime, final List<Collectible<?>> collectibles) {
+			chunkSizes.add(collectibles.size());
+			done.countDown();
+			return chunkSizes.size() != reject;
+		}
+	}
+
+	/**
+	 * Fails the first n chunks, either by throwing or by rejecting them, and
+	 * accepts all further chunks.
+	 */
+	private static class CompactReceiver implements ICompactReceiver {
+
+		private final AtomicInteger calls = new AtomicInteger();
+		private final CountDownLatch accepted = new CountDownLatch(1);
+		private final int failures;
+		private final boolean throwing;
+
+		public CompactReceiver(final int failures, final boolean throwing) {
+			this.failures = failures;
+			this.throwing = throwing;
+		}
+
+		public boolean take(final long senderTime, final byte[] collectibles) {
+			if (calls.incrementAndGet() > failures) {
+				accepted.countDown();
+				return true;
+			}
+			if (throwing) {
+				throw new IllegalStateException("not published");
+			}
+			return false;
+		}
+	}
+
+	/**
+	 * A simple in memory store.
+	 */
+	private static class MemoryStore implements IStore {
+
+		private final List<Collectible<?>> collectibles = Collections.synchronizedList(new ArrayList<Collectible<?>>());
+		private final List<Integer> commitSizes = Collections.synchronizedList(new ArrayList<Integer>());
+
+		public void open(final Map<String, Category> categories) {
+		}
+
+		public void close() {
+		}
+
+		public void flush() {
+		}
+
+		public boolean collect(final Collectible<?> collectible) {
+			return collectibles.add(collectible);
+		}
+
+		public void prepareTransferables(final String category) {
+		}
+
+		public List<Collectible<?>> retrieveTransferables(final String category) {
+			return new ArrayList<Collectible<?>>(collectibles);
+		}
+
+		public void commitTransferred(final List<Collectible<?>> transferred) {
+			commitSizes.add(transferred.size());
+			collectibles.removeAll(transferred);
+		}
+	}
+}
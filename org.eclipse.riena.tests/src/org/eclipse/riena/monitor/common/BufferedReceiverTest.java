@@ -0,0 +1,226 @@
+/*******************************************************************************
+ * Copyright (c) 2007, 2014 compeople AG and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    compeople AG - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.riena.monitor.common;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.riena.core.test.RienaTestCase;
+import org.eclipse.riena.core.test.collect.NonUITestCase;
+
+/**
+ * Tests the {@code BufferedReceiver}.
+ */
+@NonUITestCase
+public class BufferedReceiverTest extends RienaTestCase {
+
+	private BufferedReceiver receiver;
+	private RecordingSink sink;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		sink = new RecordingSink();
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		sink.release.countDown();
+		if (receiver != null) {
+			receiver.stop();
+		}
+		super.tearDown();
+	}
+
+	public void testAcceptsAndProcessesAsynchronously() throws Exception {
+		receiver = new BufferedReceiver(100, 100, sink);
+		receiver.start();
+		assertTrue(receiver.take(System.currentTimeMillis(), collectibles(0, 3)));
+		assertTrue(sink.blocked.await(5, TimeUnit.SECONDS));
+		// the sink is still busy, but the receiver accepts more
+		assertTrue(receiver.take(System.currentTimeMillis(), collectibles(3, 5)));
+		sink.release.countDown();
+		receiver.stop();
+
+		assertEquals("[0, 1, 2, 3, 4]", sink.getPayloads().toString());
+	}
+
+	public void testDuplicatesAreDropped() throws Exception {
+		receiver = new BufferedReceiver(100, 100, sink);
+		sink.release.countDown();
+		receiver.start();
+		final List<Collectible<?>> collectibles = collectibles(0, 3);
+		assertTrue(receiver.take(System.currentTimeMillis(), collectibles));
+		// a retry of the client
+		assertTrue(receiver.take(System.currentTimeMillis(), collectibles));
+		final List<Collectible<?>> mixed = new ArrayList<Collectible<?>>(collectibles(3, 4));
+		mixed.add(collectibles.get(0));
+		mixed.add(mixed.get(0));
+		assertTrue(receiver.take(System.currentTimeMillis(), mixed));
+		receiver.stop();
+
+		assertEquals("[0, 1, 2, 3]", sink.getPayloads().toString());
+	}
+
+	public void testRejectsWhenQueueIsFull() throws Exception {
+		receiver = new BufferedReceiver(4, 100, sink);
+		receiver.start();
+		assertTrue(receiver.take(System.currentTimeMillis(), collectibles(0, 1)));
+		assertTrue(sink.blocked.await(5, TimeUnit.SECONDS));
+		assertTrue(receiver.take(System.currentTimeMillis(), collectibles(5, 8)));
+		assertEquals(3, receiver.getPending());
+		final List<Collectible<?>> rejected = collectibles(1, 3);
+		assertFalse(receiver.take(System.currentTimeMillis(), rejected));
+		sink.release.countDown();
+		// rejected collectibles are not remembered, so the retry is accepted later
+		for (int i = 0; i < 50 && !receiver.take(System.currentTimeMillis(), rejected); i++) {
+			Thread.sleep(100);
+		}
+		receiver.stop();
+
+		assertEquals("[0, 5, 6, 7, 1, 2]", sink.getPayloads().toString());
+	}
+
+	public void testFailingSinkDoesNotStopProcessing() throws Exception {
+		final ICollectibleSink failing = new ICollectibleSink() {
+			public void process(final long senderTime, final long receiveTime, final List<Collectible<?>> collectibles) {
+				throw new IllegalStateException("failing sink");
+			}
+		};
+		receiver = new BufferedReceiver(100, 100, failing, sink);
+		sink.release.countDown();
+		receiver.start();
+		assertTrue(receiver.take(System.currentTimeMillis(), collectibles(0, 2)));
+		receiver.stop();
+
+		assertEquals("[0, 1]", sink.getPayloads().toString());
+	}
+
+	public void testSinkThrowingAnErrorDoesNotStopProcessing() throws Exception {
+		final ICollectibleSink failing = new ICollectibleSink() {
+			public void process(final long senderTime, final long receiveTime, final List<Collectible<?>> collectibles) {
+				throw new NoClassDefFoundError("failing sink");
+			}
+		};
+		receiver = new BufferedReceiver(100, 100, failing, sink);
+		sink.release.countDown();
+		receiver.start();
+		assertTrue(receiver.take(System.currentTimeMillis(), collectibles(0, 2)));
+		assertTrue(receiver.take(System.currentTimeMillis(), collectibles(2, 4)));
+		receiver.stop();
+
+		assertEquals("[0, 1, 2, 3]", sink.getPayloads().toString());
+	}
+
+	public void testSinksGetTheSenderTime() throws Exception {
+		receiver = new BufferedReceiver(100, 100, sink);
+		sink.release.countDown();
+		receiver.start();
+		final long before = System.currentTimeMillis();
+		assertTrue(receiver.take(42, collectibles(0, 2)));
+		assertTrue(receiver.take(43, collectibles(2, 3)));
+		receiver.stop();
+
+		assertEquals(Arrays.asList(42L, 43L), sink.senderTimes);
+		assertTrue(sink.receiveTimes.get(0) >= before);
+	}
+
+	public void testStopDoesNotInterruptTheSink() throws Exception {
+		receiver = new BufferedReceiver(100, 100, sink);
+		receiver.start();
+		assertTrue(receiver.take(System.currentTimeMillis(), collectibles(0, 1)));
+		assertTrue(sink.blocked.await(5, TimeUnit.SECONDS));
+		new Thread() {
+			@Override
+			public void run() {
+				try {
+					Thread.sleep(200);
+				} catch (final InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				sink.release.countDown();
+			}
+		}.start();
+		receiver.stop();
+
+		assertFalse(sink.interrupted);
+		assertEquals("[0]", sink.getPayloads().toString());
+	}
+
+	public void testRestart() throws Exception {
+		receiver = new BufferedReceiver(100, 100, sink);
+		sink.release.countDown();
+		receiver.start();
+		assertTrue(receiver.take(System.currentTimeMillis(), collectibles(0, 2)));
+		receiver.stop();
+		receiver.start();
+		assertTrue(receiver.take(System.currentTimeMillis(), collectibles(2, 3)));
+		receiver.stop();
+
+		assertEquals("[0, 1, 2]", sink.getPayloads().toString());
+		assertEquals(0, receiver.getPending());
+	}
+
+	public void testRejectsWhenNotStarted() {
+		receiver = new BufferedReceiver(sink);
+		assertFalse(receiver.take(System.currentTimeMillis(), collectibles(0, 1)));
+		receiver.start();
+		receiver.stop();
+		assertFalse(receiver.take(System.currentTimeMillis(), collectibles(0, 1)));
+	}
+
+	private static List<Collectible<?>> collectibles(final int from, final int to) {
+		final List<Collectible<?>> collectibles = new ArrayList<Collectible<?>>();
+		for (int i = from; i < to; i++) {
+			collectibles.add(new Collectible<Integer>("unit-test", "test", i));
+		}
+		return collectibles;
+	}
+
+	/**
+	 * Records the payloads and times and blocks within the first {@code process()} until
+	 * released.
+	 */
+	private static class RecordingSink implements ICollectibleSink {
+
+		private final List<Object> payloads = Collections.synchronizedList(new ArrayList<Object>());
+		private final List<Long> senderTimes = Collections.synchronizedList(new ArrayList<Long>());
+		private final List<Long> receiveTimes = Collections.synchronizedList(new ArrayList<Long>());
+		private volatile boolean interrupted;
+		private final CountDownLatch blocked = new CountDownLatch(1);
+		private final CountDownLatch release = new CountDownLatch(1);
+
+		public void process(final long senderTime, final long receiveTime, final List<Collectible<?>> collectibles) {
+			senderTimes.add(senderTime);
+			receiveTimes.add(receiveTime);
+			for (final Collectible<?> collectible : collectibles) {
+				payloads.add(collectible.getPayload());
+			}
+			blocked.countDown();
+			try {
+				release.await(5, TimeUnit.SECONDS);
+			} catch (final InterruptedException e) {
+				interrupted = true;
+				Thread.currentThread().interrupt();
+			}
+		}
+
+		private List<Object> getPayloads() {
+			synchronized (payloads) {
+				return new ArrayList<Object>(payloads);
+			}
+		}
+	}
+}
@@ -0,0 +1,153 @@
+/*******************************************************************************
+ * Copyright (c) 2007, 2014 compeople AG and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    compeople AG - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.riena.monitor.common;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.easymock.EasyMock;
+
+import org.eclipse.equinox.log.ExtendedLogEntry;
+
+import org.eclipse.riena.core.test.RienaTestCase;
+import org.eclipse.riena.core.test.collect.NonUITestCase;
+
+/**
+ * Tests the {@code CollectibleCodec}.
+ */
+@NonUITestCase
+public class CollectibleCodecTest extends RienaTestCase {
+
+	public void testRoundTrip() throws IOException {
+		final List<Collectible<?>> collectibles = new ArrayList<Collectible<?>>();
+		collectibles.add(new Collectible<LogEntryTransferObject>("host-1", "LogCollector", logEntry("a.b.Logger",
+				"message with umlauts äöü", new IllegalStateException("failed"))));
+		collectibles.add(new Collectible<String>("host-1", "CustomCollector", "custom"));
+		collectibles.add(new Collectible<Integer>("host-1", "CustomCollector", 42));
+
+		final List<Collectible<?>> decoded = CollectibleCodec.decode(CollectibleCodec.encode(collectibles));
+
+		assertEquals(collectibles.size(), decoded.size());
+		for (int i = 0; i < collectibles.size(); i++) {
+			final Collectible<?> expected = collectibles.get(i);
+			final Collectible<?> actual = decoded.get(i);
+			assertEquals(expected.getUUID(), actual.getUUID());
+			assertEquals(expected.getClientInfo(), actual.getClientInfo());
+			assertEquals(expected.getCategory(), actual.getCategory());
+			assertEquals(expected.getCollectionTime(), actual.getCollectionTime());
+		}
+		final LogEntryTransferObject expectedEntry = (LogEntryTransferObject) collectibles.get(0).getPayload();
+		final LogEntryTransferObject actualEntry = (LogEntryTransferObject) decoded.get(0).getPayload();
+		assertEquals(expectedEntry.getLoggerName(), actualEntry.getLoggerName());
+		assertEquals(expectedEntry.getMessage(), actualEntry.getMessage());
+		assertEquals(expectedEntry.getException(), actualEntry.getException());
+		assertEquals(expectedEntry.getThreadName(), actualEntry.getThreadName());
+		assertEquals(expectedEntry.getLevel(), actualEntry.getLevel());
+		assertEquals(expectedEntry.getTime(), actualEntry.getTime());
+		assertNull(actualEntry.getBundleName());
+		assertEquals("custom", decoded.get(1).getPayload());
+		assertEquals(42, decoded.get(2).getPayload());
+	}
+
+	public void testRepeatedStringsAreWrittenOnce() throws IOException {
+		final List<Collectible<?>> collectibles = new ArrayList<Collectible<?>>();
+		for (int i = 0; i < 100; i++) {
+			collectibles.add(new Collectible<LogEntryTransferObject>("host-with-a-rather-long-name", "LogCollector",
+					logEntry("org.eclipse.riena.monitor.SomeLogger", "one of three messages #" + i % 3, null)));
+		}
+		final byte[] encoded = CollectibleCodec.encode(collectibles);
+		final byte[] encodedOnce = CollectibleCodec.encode(collectibles.subList(0, 1));
+
+		assertTrue(CollectibleCodec.isEncoded(encoded));
+		// after the first item each item is little more than its UUID
+		assertTrue(encoded.length < encodedOnce.length + 99 * 40);
+		assertTrue(encoded.length * 3 < serialize(collectibles).length);
+	}
+
+	public void testEmpty() throws IOException {
+		assertTrue(CollectibleCodec.decode(CollectibleCodec.encode(new ArrayList<Collectible<?>>())).isEmpty());
+	}
+
+	public void testUnsupportedVersion() throws IOException {
+		final byte[] encoded = CollectibleCodec.encode(new ArrayList<Collectible<?>>());
+		encoded[2] = (byte) (CollectibleCodec.VERSION + 1);
+		try {
+			CollectibleCodec.decode(encoded);
+			fail();
+		} catch (final IOException e) {
+			ok();
+		}
+	}
+
+	public void testNotEncoded() throws IOException {
+		final byte[] serialized = serialize(new ArrayList<Collectible<?>>());
+		assertFalse(CollectibleCodec.isEncoded(serialized));
+		try {
+			CollectibleCodec.decode(serialized);
+			fail();
+		} catch (final IOException e) {
+			ok();
+		}
+	}
+
+	public void testBadLengthIsNotAllocated() throws IOException {
+		// one collectible whose client info claims to be Integer.MAX_VALUE bytes long
+		final byte[] encoded = { 'R', 'C', CollectibleCodec.VERSION, 1, 1, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF,
+				(byte) 0xFF, 0x07, 'a' };
+		try {
+			CollectibleCodec.decode(encoded);
+			fail();
+		} catch (final IOException e) {
+			ok();
+		}
+	}
+
+	public void testUntrustedSerializedPayloadIsRestricted() throws IOException {
+		final List<Collectible<?>> collectibles = new ArrayList<Collectible<?>>();
+		collectibles.add(new Collectible<ArrayList<String>>("host-1", "CustomCollector", new ArrayList<String>(
+				Arrays.asList("a", "b"))));
+		final byte[] encoded = CollectibleCodec.encode(collectibles);
+		try {
+			CollectibleCodec.decode(encoded);
+			fail();
+		} catch (final IOException e) {
+			ok();
+		}
+		final List<Collectible<?>> decoded = CollectibleCodec.decode(new ByteArrayInputStream(encoded), true);
+		assertEquals(Arrays.asList("a", "b"), decoded.get(0).getPayload());
+	}
+
+	private static LogEntryTransferObject logEntry(final String loggerName, final String message,
+			final Throwable exception) {
+		final ExtendedLogEntry logEntry = EasyMock.createNiceMock(ExtendedLogEntry.class);
+		EasyMock.expect(logEntry.getLoggerName()).andReturn(loggerName).anyTimes();
+		EasyMock.expect(logEntry.getMessage()).andReturn(message).anyTimes();
+		EasyMock.expect(logEntry.getException()).andReturn(exception).anyTimes();
+		EasyMock.expect(logEntry.getThreadName()).andReturn("main").anyTimes();
+		EasyMock.expect(logEntry.getLevel()).andReturn(2).anyTimes();
+		EasyMock.expect(logEntry.getTime()).andReturn(System.currentTimeMillis() - 1000).anyTimes();
+		EasyMock.replay(logEntry);
+		return new LogEntryTransferObject(logEntry);
+	}
+
+	private static byte[] serialize(final Object object) throws IOException {
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		final ObjectOutputStream objectos = new ObjectOutputStream(bytes);
+		objectos.writeObject(object);
+		objectos.close();
+		return bytes.toByteArray();
+	}
+}